@@ -0,0 +1,356 @@
+package io.github.shsmysore.fcmjava.client.http.apache.async;
+
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.RetryHeaderUtils;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.serializer.IJsonSerializer;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.templates.PreSerializedMulticastMessage;
+import io.github.shsmysore.fcmjava.client.utils.OutParameter;
+import io.github.shsmysore.fcmjava.exceptions.FcmAuthenticationException;
+import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
+import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This ApacheAsyncHttpClient sends the requests to FCM with the Apache HttpAsyncClient.
+ *
+ * All connections are multiplexed over a small number of I/O dispatch threads by a non-blocking reactor, so a large
+ * number of concurrent requests does not need a thread per request. Connections are kept in a pool, which is sized
+ * for the single FCM host. Connections without a Keep-Alive Header are reused for a configured time, and idle or
+ * expired connections are evicted in the background, before the server or a proxy closes them.
+ *
+ * Server errors and IOExceptions are retried with the backoff policy of the {@link ApacheAsyncHttpClientOptions}, and
+ * a Retry-After Header sent by FCM extends the delay. The rate limiters, circuit breaker and hedging are part of the
+ * DefaultHttpClient and are not applied by this client.
+ *
+ * The I/O dispatch threads only receive the responses. Evaluating and deserializing a response is handed off to the
+ * response Executor of the options, so a slow deserialization does not stall the other connections of a dispatch
+ * thread. The returned futures are completed on that Executor.
+ */
+public class ApacheAsyncHttpClient implements IHttpClient, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApacheAsyncHttpClient.class);
+
+    private final IFcmClientSettings settings;
+    private final IJsonSerializer serializer;
+    private final IBackoffPolicy backoffPolicy;
+    private final int maxRetry;
+    private final Executor responseExecutor;
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final CloseableHttpAsyncClient client;
+    private final ScheduledExecutorService evictor;
+
+    public ApacheAsyncHttpClient(IFcmClientSettings settings) {
+        this(settings, new JsonSerializer(), 3, ApacheAsyncHttpClientOptions.builder().build());
+    }
+
+    /**
+     * Creates an ApacheAsyncHttpClient.
+     *
+     * @param settings Client Settings
+     * @param serializer Serializer for the request and response messages
+     * @param maxRetry Maximum number of attempts for a request, like in the DefaultHttpClient
+     * @param options Options
+     */
+    public ApacheAsyncHttpClient(IFcmClientSettings settings, IJsonSerializer serializer, int maxRetry, ApacheAsyncHttpClientOptions options) {
+
+        if (settings == null) {
+            throw new IllegalArgumentException("settings");
+        }
+
+        if (serializer == null) {
+            throw new IllegalArgumentException("serializer");
+        }
+
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+
+        if (options.getMaxConnectionsTotal() < 1) {
+            throw new IllegalArgumentException("maxConnectionsTotal");
+        }
+
+        if (options.getMaxConnectionsPerRoute() < 1) {
+            throw new IllegalArgumentException("maxConnectionsPerRoute");
+        }
+
+        if (options.getIoThreadCount() < 1) {
+            throw new IllegalArgumentException("ioThreadCount");
+        }
+
+        if (options.getKeepAlive() == null || options.getKeepAlive().isNegative()) {
+            throw new IllegalArgumentException("keepAlive");
+        }
+
+        if (options.getIdleConnectionTimeout() == null || options.getIdleConnectionTimeout().isNegative() || options.getIdleConnectionTimeout().isZero()) {
+            throw new IllegalArgumentException("idleConnectionTimeout");
+        }
+
+        if (options.getBackoffPolicy() == null) {
+            throw new IllegalArgumentException("backoffPolicy");
+        }
+
+        if (options.getResponseExecutor() == null) {
+            throw new IllegalArgumentException("responseExecutor");
+        }
+
+        this.settings = settings;
+        this.serializer = serializer;
+        this.backoffPolicy = options.getBackoffPolicy();
+        this.maxRetry = maxRetry;
+        this.responseExecutor = options.getResponseExecutor();
+        this.connectionManager = createConnectionManager(options);
+        this.client = HttpAsyncClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(createKeepAliveStrategy(options.getKeepAlive()))
+                .setDefaultRequestConfig(createRequestConfig(options))
+                .build();
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "fcmjava-apache-async-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long idleMillis = options.getIdleConnectionTimeout().toMillis();
+        long evictionInterval = Math.max(1, idleMillis / 2);
+        this.evictor.scheduleWithFixedDelay(() -> {
+            connectionManager.closeExpiredConnections();
+            connectionManager.closeIdleConnections(idleMillis, TimeUnit.MILLISECONDS);
+        }, evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+
+        this.client.start();
+    }
+
+    private static PoolingNHttpClientConnectionManager createConnectionManager(ApacheAsyncHttpClientOptions options) {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(options.getIoThreadCount())
+                .setConnectTimeout(toMillis(options.getConnectTimeout()))
+                .setSoTimeout(toMillis(options.getSocketTimeout()))
+                .setTcpNoDelay(true)
+                .setSoKeepAlive(true)
+                .build();
+
+        PoolingNHttpClientConnectionManager connectionManager;
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOReactorException e) {
+            throw new RuntimeException("Could not create the I/O reactor.", e);
+        }
+        connectionManager.setMaxTotal(options.getMaxConnectionsTotal());
+        connectionManager.setDefaultMaxPerRoute(options.getMaxConnectionsPerRoute());
+        return connectionManager;
+    }
+
+    private static ConnectionKeepAliveStrategy createKeepAliveStrategy(Duration keepAlive) {
+        long keepAliveMillis = keepAlive.toMillis();
+        return (response, context) -> {
+            // Honor the Keep-Alive Header of the server, otherwise do not keep connections alive forever:
+            long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return duration > 0 ? duration : keepAliveMillis;
+        };
+    }
+
+    private static RequestConfig createRequestConfig(ApacheAsyncHttpClientOptions options) {
+        return RequestConfig.custom()
+                .setConnectTimeout(toMillis(options.getConnectTimeout()))
+                .setSocketTimeout(toMillis(options.getSocketTimeout()))
+                .setConnectionRequestTimeout(toMillis(options.getConnectionRequestTimeout()))
+                .build();
+    }
+
+    private static int toMillis(Duration duration) {
+        // Apache uses 0 for an infinite timeout:
+        return duration == null ? 0 : (int) Math.min(Integer.MAX_VALUE, duration.toMillis());
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        try {
+            return postAsync(requestMessage, responseType).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Something went wrong.", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Something went wrong.", e.getCause());
+        }
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        byte[] content;
+        try {
+            content = writeBody(requestMessage);
+        } catch (Exception e) {
+            throw new RuntimeException("Something went wrong.", e);
+        }
+
+        Exchange<TResponseMessage> exchange = new Exchange<>(content, responseType);
+        exchange.attempt();
+        return exchange.result;
+    }
+
+    private byte[] writeBody(Object requestMessage) {
+        if (requestMessage instanceof PreSerializedMulticastMessage) {
+            return ((PreSerializedMulticastMessage) requestMessage).toByteArray();
+        }
+        ByteArrayOutputStream content = new ByteArrayOutputStream(512);
+        serializer.serialize(requestMessage, content);
+        return content.toByteArray();
+    }
+
+    private HttpPost createRequest(byte[] content) {
+        HttpPost httpPost = new HttpPost(settings.getFcmUrl());
+        httpPost.addHeader("Authorization", String.format("key=%s", settings.getApiKey()));
+        httpPost.setEntity(new ByteArrayEntity(content, ContentType.APPLICATION_JSON));
+        return httpPost;
+    }
+
+    /**
+     * Sends the attempts of a single request, until it has a response or all retries failed.
+     */
+    private class Exchange<T> implements FutureCallback<HttpResponse> {
+
+        private final byte[] content;
+        private final Class<T> responseType;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        // Number of the current attempt:
+        private int count = 1;
+
+        private Exchange(byte[] content, Class<T> responseType) {
+            this.content = content;
+            this.responseType = responseType;
+        }
+
+        private void attempt() {
+            try {
+                client.execute(createRequest(content), this);
+            } catch (RuntimeException e) {
+                // The client has been closed or the URL is invalid:
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void completed(HttpResponse response) {
+            // The entity has been buffered by the response consumer, so it can be read on another thread:
+            try {
+                responseExecutor.execute(() -> onResponse(response));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void onResponse(HttpResponse response) {
+            try {
+                int statusCode = response.getStatusLine().getStatusCode();
+                if (statusCode >= 500 && count < maxRetry) {
+                    OutParameter<Duration> retryDelay = new OutParameter<>();
+                    Duration delay = backoffPolicy.getDelay(count++);
+                    if (RetryHeaderUtils.tryDetermineRetryDelay(response, retryDelay) && retryDelay.get().compareTo(delay) > 0) {
+                        delay = retryDelay.get();
+                    }
+                    EntityUtils.consumeQuietly(response.getEntity());
+                    retry(delay);
+                    return;
+                }
+                evaluateResponse(response);
+                String body = response.getEntity() != null ? EntityUtils.toString(response.getEntity(), StandardCharsets.UTF_8) : null;
+                result.complete(serializer.deserialize(body, responseType));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public void failed(Exception e) {
+            // It is useful to retry on IOExceptions we well, along with server errors.
+            if (!(e instanceof IOException)) {
+                result.completeExceptionally(new RuntimeException("FCM call failed", e));
+                return;
+            }
+            if (count >= maxRetry) {
+                result.completeExceptionally(e);
+                return;
+            }
+            LOGGER.info("IOException - {}. Calling the retrySend again...", e.getMessage());
+            retry(backoffPolicy.getDelay(count++));
+        }
+
+        @Override
+        public void cancelled() {
+            result.cancel(false);
+        }
+
+        private void retry(Duration delay) {
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(this::attempt);
+        }
+    }
+
+    private static void evaluateResponse(HttpResponse resp) {
+
+        int statusCode = resp.getStatusLine().getStatusCode();
+
+        if (statusCode == 401 || statusCode == 403) {
+            throw new FcmAuthenticationException("Unauthorized");
+        }
+
+        if (statusCode == 400) {
+            throw new FcmBadRequestException("Bad request");
+        }
+
+        if (statusCode >= 500) {
+            OutParameter<Duration> retryDelay = new OutParameter<>();
+            if (RetryHeaderUtils.tryDetermineRetryDelay(resp, retryDelay)) {
+                throw new FcmRetryAfterException(statusCode, "Retry later.", retryDelay.get());
+            }
+            throw new FcmGeneralException(statusCode, "Something went wrong.");
+        }
+    }
+
+    /**
+     * Gets the statistics of the connection pool, which has a single route to FCM.
+     *
+     * @return Leased, pending, available and maximum connections of the pool
+     */
+    public PoolStats getPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    @Override
+    public void close() throws IOException {
+        evictor.shutdownNow();
+        client.close();
+    }
+}
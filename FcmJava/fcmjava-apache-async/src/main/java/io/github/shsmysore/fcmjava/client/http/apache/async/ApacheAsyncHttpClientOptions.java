@@ -0,0 +1,98 @@
+package io.github.shsmysore.fcmjava.client.http.apache.async;
+
+import io.github.shsmysore.fcmjava.client.http.apache.async.builders.ApacheAsyncHttpClientOptionsBuilder;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Options for the ApacheAsyncHttpClient.
+ */
+public class ApacheAsyncHttpClientOptions {
+
+    private final int maxConnectionsTotal;
+    private final int maxConnectionsPerRoute;
+    private final int ioThreadCount;
+    private final Duration connectTimeout;
+    private final Duration socketTimeout;
+    private final Duration connectionRequestTimeout;
+    private final Duration keepAlive;
+    private final Duration idleConnectionTimeout;
+    private final IBackoffPolicy backoffPolicy;
+    private final Executor responseExecutor;
+
+    /**
+     * Creates the options of an ApacheAsyncHttpClient.
+     *
+     * @param maxConnectionsTotal Maximum number of pooled connections.
+     * @param maxConnectionsPerRoute Maximum number of pooled connections to a host. All requests go to the FCM host.
+     * @param ioThreadCount Number of I/O dispatch threads of the reactor, which handle all connections.
+     * @param connectTimeout Timeout for establishing a connection.
+     * @param socketTimeout Maximum time of inactivity while waiting for the response.
+     * @param connectionRequestTimeout Maximum time to wait for a connection from the pool.
+     * @param keepAlive Time to keep a connection alive, if the server does not send a Keep-Alive Header.
+     * @param idleConnectionTimeout Time after which idle connections are evicted from the pool.
+     * @param backoffPolicy Policy for the delays between the retries of a failed request.
+     * @param responseExecutor Executor, which evaluates and deserializes the responses off the I/O dispatch threads.
+     */
+    public ApacheAsyncHttpClientOptions(int maxConnectionsTotal, int maxConnectionsPerRoute, int ioThreadCount,
+                                        Duration connectTimeout, Duration socketTimeout, Duration connectionRequestTimeout,
+                                        Duration keepAlive, Duration idleConnectionTimeout, IBackoffPolicy backoffPolicy,
+                                        Executor responseExecutor) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+        this.ioThreadCount = ioThreadCount;
+        this.connectTimeout = connectTimeout;
+        this.socketTimeout = socketTimeout;
+        this.connectionRequestTimeout = connectionRequestTimeout;
+        this.keepAlive = keepAlive;
+        this.idleConnectionTimeout = idleConnectionTimeout;
+        this.backoffPolicy = backoffPolicy;
+        this.responseExecutor = responseExecutor;
+    }
+
+    public int getMaxConnectionsTotal() {
+        return maxConnectionsTotal;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return maxConnectionsPerRoute;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public Duration getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public Duration getKeepAlive() {
+        return keepAlive;
+    }
+
+    public Duration getIdleConnectionTimeout() {
+        return idleConnectionTimeout;
+    }
+
+    public IBackoffPolicy getBackoffPolicy() {
+        return backoffPolicy;
+    }
+
+    public Executor getResponseExecutor() {
+        return responseExecutor;
+    }
+
+    public static ApacheAsyncHttpClientOptionsBuilder builder() {
+        return new ApacheAsyncHttpClientOptionsBuilder();
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.shsmysore.fcmjava.client.http.apache.async.builders;
+
+import io.github.shsmysore.fcmjava.client.http.apache.async.ApacheAsyncHttpClientOptions;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.RandomBackoffPolicy;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+public class ApacheAsyncHttpClientOptionsBuilder {
+
+    private int maxConnectionsTotal = 64;
+    private int maxConnectionsPerRoute = 64;
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+    private Duration connectTimeout = Duration.ofSeconds(5);
+    private Duration socketTimeout = Duration.ofSeconds(30);
+    private Duration connectionRequestTimeout = Duration.ofSeconds(30);
+    private Duration keepAlive = Duration.ofSeconds(60);
+    private Duration idleConnectionTimeout = Duration.ofSeconds(30);
+    private IBackoffPolicy backoffPolicy = new RandomBackoffPolicy(Duration.ofSeconds(1), Duration.ofSeconds(30));
+    private Executor responseExecutor = ForkJoinPool.commonPool();
+
+    public ApacheAsyncHttpClientOptionsBuilder setMaxConnectionsTotal(int maxConnectionsTotal) {
+        this.maxConnectionsTotal = maxConnectionsTotal;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setConnectTimeout(Duration connectTimeout) {
+        this.connectTimeout = connectTimeout;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setSocketTimeout(Duration socketTimeout) {
+        this.socketTimeout = socketTimeout;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setConnectionRequestTimeout(Duration connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setKeepAlive(Duration keepAlive) {
+        this.keepAlive = keepAlive;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setIdleConnectionTimeout(Duration idleConnectionTimeout) {
+        this.idleConnectionTimeout = idleConnectionTimeout;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setBackoffPolicy(IBackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptionsBuilder setResponseExecutor(Executor responseExecutor) {
+        this.responseExecutor = responseExecutor;
+
+        return this;
+    }
+
+    public ApacheAsyncHttpClientOptions build() {
+        return new ApacheAsyncHttpClientOptions(maxConnectionsTotal, maxConnectionsPerRoute, ioThreadCount,
+                connectTimeout, socketTimeout, connectionRequestTimeout, keepAlive, idleConnectionTimeout, backoffPolicy, responseExecutor);
+    }
+}
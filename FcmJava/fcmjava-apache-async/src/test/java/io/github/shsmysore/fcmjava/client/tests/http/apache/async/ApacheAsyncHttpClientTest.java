@@ -0,0 +1,153 @@
+package io.github.shsmysore.fcmjava.client.tests.http.apache.async;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.shsmysore.fcmjava.client.http.apache.async.ApacheAsyncHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.async.ApacheAsyncHttpClientOptions;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
+import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ApacheAsyncHttpClientTest {
+
+    private static final String RESPONSE = "{\"multicast_id\":1,\"success\":1,\"failure\":0,\"canonical_ids\":0,\"results\":[{\"message_id\":\"0:1\"}]}";
+
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger handedOffResponses = new AtomicInteger();
+
+    private volatile int failedRequests;
+    private volatile int failureStatusCode;
+    private volatile String authorization;
+
+    private ExecutorService serverExecutor;
+    private ExecutorService responseExecutor;
+    private HttpServer server;
+    private ApacheAsyncHttpClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        responseExecutor = Executors.newSingleThreadExecutor();
+        server.setExecutor(serverExecutor);
+        server.createContext("/send", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            authorization = exchange.getRequestHeaders().getFirst("Authorization");
+
+            boolean failed = requestCount.incrementAndGet() <= failedRequests;
+            byte[] body = (failed ? "{}" : RESPONSE).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(failed ? failureStatusCode : 200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+
+        IFcmClientSettings settings = new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return "http://localhost:" + server.getAddress().getPort() + "/send";
+            }
+
+            @Override
+            public String getApiKey() {
+                return "api-key";
+            }
+        };
+
+        client = new ApacheAsyncHttpClient(settings, new JsonSerializer(), 3, ApacheAsyncHttpClientOptions.builder()
+                .setIoThreadCount(1)
+                .setBackoffPolicy(retryAttempt -> Duration.ofMillis(10))
+                .setResponseExecutor(task -> {
+                    handedOffResponses.incrementAndGet();
+                    responseExecutor.execute(task);
+                })
+                .build());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        responseExecutor.shutdownNow();
+    }
+
+    @Test
+    public void postAsyncReturnsResponseTest() {
+        FcmMessageResponse response = client.postAsync(createMessage(), FcmMessageResponse.class).join();
+
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+        Assert.assertEquals("key=api-key", authorization);
+
+        // The response is deserialized on the response executor and not on the I/O dispatch thread:
+        Assert.assertEquals(1, handedOffResponses.get());
+
+        // The connection is returned to the pool and kept alive:
+        Assert.assertEquals(0, client.getPoolStats().getLeased());
+    }
+
+    @Test
+    public void serverErrorIsRetriedTest() {
+        failedRequests = 2;
+        failureStatusCode = 503;
+
+        FcmMessageResponse response = client.postSync(createMessage(), FcmMessageResponse.class);
+
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+        Assert.assertEquals(3, requestCount.get());
+        Assert.assertEquals(3, handedOffResponses.get());
+    }
+
+    @Test
+    public void maxRetryLimitsAttemptsTest() throws Exception {
+        failedRequests = 5;
+        failureStatusCode = 503;
+
+        try {
+            client.postAsync(createMessage(), FcmMessageResponse.class).get();
+            Assert.fail("Expected a FcmGeneralException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof FcmGeneralException);
+        }
+
+        // Like in the DefaultHttpClient, maxRetry is the number of attempts:
+        Assert.assertEquals(3, requestCount.get());
+    }
+
+    @Test
+    public void badRequestIsNotRetriedTest() throws Exception {
+        failedRequests = 1;
+        failureStatusCode = 400;
+
+        try {
+            client.postAsync(createMessage(), FcmMessageResponse.class).get();
+            Assert.fail("Expected a FcmBadRequestException");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof FcmBadRequestException);
+        }
+
+        Assert.assertEquals(1, requestCount.get());
+    }
+
+    private static DataUnicastMessage createMessage() {
+        return new DataUnicastMessage(FcmMessageOptions.builder().build(), "registration-id", Collections.singletonMap("text", "Hello"));
+    }
+}
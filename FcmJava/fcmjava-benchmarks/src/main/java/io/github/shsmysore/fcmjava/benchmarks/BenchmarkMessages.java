@@ -0,0 +1,79 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Messages shared by the benchmarks, which look like a typical notification to a list of devices.
+ */
+public class BenchmarkMessages {
+
+    private BenchmarkMessages() {}
+
+    public static DataMulticastMessage createMulticastMessage(int registrationIdCount) {
+
+        FcmMessageOptions options = FcmMessageOptions.builder()
+                .setPriorityEnum(PriorityEnum.High)
+                .setTimeToLive(Duration.ofHours(1))
+                .build();
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("title", "Weather Warning");
+        data.put("text", "Heavy rain is expected in your area during the next hours.");
+        data.put("severity", 3);
+
+        NotificationPayload notification = NotificationPayload.builder()
+                .setTitle("Weather Warning")
+                .setBody("Heavy rain is expected in your area.")
+                .build();
+
+        return new DataMulticastMessage(options, createRegistrationIds(registrationIdCount), data, notification);
+    }
+
+    /**
+     * Creates the JSON of a response to a multicast message, where every 100th result failed.
+     *
+     * @param resultCount Number of results
+     * @return JSON of the response
+     */
+    public static String createMulticastResponse(int resultCount) {
+        StringBuilder json = new StringBuilder();
+        int failures = 0;
+        json.append("\"results\":[");
+        for (int i = 0; i < resultCount; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            if (i % 100 == 99) {
+                json.append("{\"error\":\"NotRegistered\"}");
+                failures++;
+            } else {
+                json.append("{\"message_id\":\"0:1488").append(1000000 + i).append("%31bd0a5ff9fd7ecd\"}");
+            }
+        }
+        json.append("]}");
+        return "{\"multicast_id\":5837203961234567890,\"success\":" + (resultCount - failures) + ",\"failure\":" + failures
+                + ",\"canonical_ids\":0," + json;
+    }
+
+    public static List<String> createRegistrationIds(int count) {
+        List<String> registrationIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Registration tokens are about 160 characters long:
+            StringBuilder token = new StringBuilder("dGVzdC10b2tlbi0").append(i).append(':');
+            while (token.length() < 163) {
+                token.append((char) ('a' + (token.length() * 7 + i) % 26));
+            }
+            registrationIds.add(token.toString());
+        }
+        return registrationIds;
+    }
+}
@@ -0,0 +1,137 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.async.ApacheAsyncHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.async.ApacheAsyncHttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the DefaultHttpClient with the ApacheAsyncHttpClient against a local stub server. Every invocation sends
+ * a batch of concurrent unicast messages and waits for all responses, so the Throughput mode gives the batches per
+ * second and the SampleTime mode the latency distribution of a batch.
+ *
+ * The DefaultHttpClient opens a HTTP/1.1 connection per request in flight, while the ApacheAsyncHttpClient leases at
+ * most maxConnections connections from its pool and queues the other requests. The stub server answers immediately,
+ * so the results show the overhead of the clients and not the latency of FCM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HttpClientComparisonBenchmark {
+
+    static {
+        // Without TCP_NODELAY small responses wait for the delayed ACK of the client:
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private static final byte[] RESPONSE = "{\"multicast_id\":1,\"success\":1,\"failure\":0,\"canonical_ids\":0,\"results\":[{\"message_id\":\"0:1\"}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Param({"Default", "ApacheAsync"})
+    public String client;
+
+    @Param({"64"})
+    public int concurrentRequests;
+
+    @Param({"16"})
+    public int maxConnections;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private IHttpClient httpClient;
+    private DataUnicastMessage message;
+    private CompletableFuture<?>[] responses;
+
+    @Setup
+    public void setup() throws Exception {
+        serverExecutor = Executors.newFixedThreadPool(maxConnections);
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        server.setExecutor(serverExecutor);
+        server.createContext("/fcm/send", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(RESPONSE);
+            }
+        });
+        server.start();
+
+        String url = "http://localhost:" + server.getAddress().getPort() + "/fcm/send";
+        IFcmClientSettings settings = new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return url;
+            }
+
+            @Override
+            public String getApiKey() {
+                return "benchmark";
+            }
+        };
+
+        if ("ApacheAsync".equals(client)) {
+            httpClient = new ApacheAsyncHttpClient(settings, new JsonSerializer(), 3, ApacheAsyncHttpClientOptions.builder()
+                    .setMaxConnectionsTotal(maxConnections)
+                    .setMaxConnectionsPerRoute(maxConnections)
+                    .setIoThreadCount(Math.min(4, Runtime.getRuntime().availableProcessors()))
+                    .build());
+        } else {
+            httpClient = new DefaultHttpClient(settings, new JsonSerializer(), HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1), 3,
+                    HttpClientOptions.builder().build());
+        }
+
+        message = new DataUnicastMessage(FcmMessageOptions.builder().build(), BenchmarkMessages.createRegistrationIds(1).get(0),
+                Collections.singletonMap("text", "Heavy rain is expected in your area during the next hours."));
+        responses = new CompletableFuture<?>[concurrentRequests];
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        if (httpClient instanceof AutoCloseable) {
+            ((AutoCloseable) httpClient).close();
+        }
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public Object postAsyncBatch() {
+        for (int i = 0; i < responses.length; i++) {
+            responses[i] = httpClient.postAsync(message, FcmMessageResponse.class);
+        }
+        return CompletableFuture.allOf(responses).join();
+    }
+}
@@ -0,0 +1,282 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+
+/**
+ * An HttpClient, which answers every request in memory with the same response. It drains the request body and
+ * completes the response on the calling thread, so a benchmark only measures the work done by the FcmJava client.
+ */
+class LoopbackHttpClient extends HttpClient {
+
+    private static final HttpHeaders NO_HEADERS = HttpHeaders.of(Collections.emptyMap(), (name, value) -> true);
+
+    private final int statusCode;
+    private final byte[] responseBody;
+
+    LoopbackHttpClient(int statusCode, byte[] responseBody) {
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    /**
+     * Creates a Builder, which builds a LoopbackHttpClient and ignores all settings.
+     *
+     * @param statusCode Status Code of every response
+     * @param responseBody Body of every response
+     * @return Builder for a LoopbackHttpClient
+     */
+    static HttpClient.Builder builder(int statusCode, byte[] responseBody) {
+        return new Builder(new LoopbackHttpClient(statusCode, responseBody));
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        return sendAsync(request, handler).join();
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        request.bodyPublisher().ifPresent(publisher -> publisher.subscribe(new Drain()));
+
+        Response<T> response = new Response<>(request);
+
+        HttpResponse.BodySubscriber<T> subscriber = handler.apply(response);
+        subscriber.onSubscribe(new SingleItemSubscription(subscriber, responseBody));
+
+        return subscriber.getBody().<HttpResponse<T>>thenApply(body -> {
+            response.body = body;
+            return response;
+        }).toCompletableFuture();
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler,
+                                                            HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        return sendAsync(request, handler);
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return Redirect.NEVER;
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return Optional.empty();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return null;
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return null;
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Version version() {
+        return Version.HTTP_1_1;
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return Optional.empty();
+    }
+
+    private class Response<T> implements HttpResponse<T>, HttpResponse.ResponseInfo {
+
+        private final HttpRequest request;
+        private T body;
+
+        private Response(HttpRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        public int statusCode() {
+            return statusCode;
+        }
+
+        @Override
+        public HttpRequest request() {
+            return request;
+        }
+
+        @Override
+        public Optional<HttpResponse<T>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return NO_HEADERS;
+        }
+
+        @Override
+        public T body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return Optional.empty();
+        }
+
+        @Override
+        public URI uri() {
+            return request.uri();
+        }
+
+        @Override
+        public Version version() {
+            return Version.HTTP_1_1;
+        }
+    }
+
+    private static class SingleItemSubscription implements Flow.Subscription {
+
+        private final Flow.Subscriber<? super List<ByteBuffer>> subscriber;
+        private final byte[] item;
+        private boolean done;
+
+        private SingleItemSubscription(Flow.Subscriber<? super List<ByteBuffer>> subscriber, byte[] item) {
+            this.subscriber = subscriber;
+            this.item = item;
+        }
+
+        @Override
+        public void request(long n) {
+            if (done || n <= 0) {
+                return;
+            }
+            done = true;
+            subscriber.onNext(List.of(ByteBuffer.wrap(item)));
+            subscriber.onComplete();
+        }
+
+        @Override
+        public void cancel() {
+            done = true;
+        }
+    }
+
+    private static class Drain implements Flow.Subscriber<ByteBuffer> {
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+
+    private static class Builder implements HttpClient.Builder {
+
+        private final LoopbackHttpClient client;
+
+        private Builder(LoopbackHttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public HttpClient.Builder cookieHandler(CookieHandler cookieHandler) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder connectTimeout(Duration duration) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslContext(SSLContext sslContext) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder sslParameters(SSLParameters sslParameters) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder executor(Executor executor) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder followRedirects(Redirect policy) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder version(Version version) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder priority(int priority) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder proxy(ProxySelector proxySelector) {
+            return this;
+        }
+
+        @Override
+        public HttpClient.Builder authenticator(Authenticator authenticator) {
+            return this;
+        }
+
+        @Override
+        public HttpClient build() {
+            return client;
+        }
+    }
+}
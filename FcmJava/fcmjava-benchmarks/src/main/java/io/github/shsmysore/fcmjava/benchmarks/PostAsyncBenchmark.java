@@ -0,0 +1,69 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends a unicast message with postAsync to an in-memory HttpClient, so no socket and no server is involved.
+ * Run with the GC profiler (-prof gc) to get the garbage the client pipeline allocates per request
+ * (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostAsyncBenchmark {
+
+    private static final byte[] RESPONSE = "{\"multicast_id\":1,\"success\":1,\"failure\":0,\"canonical_ids\":0,\"results\":[{\"message_id\":\"0:1\"}]}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private DefaultHttpClient client;
+    private DataUnicastMessage message;
+
+    @Setup
+    public void setup() {
+        IFcmClientSettings settings = new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return "http://localhost/fcm/send";
+            }
+
+            @Override
+            public String getApiKey() {
+                return "benchmark";
+            }
+        };
+
+        client = new DefaultHttpClient(settings, new JsonSerializer(), LoopbackHttpClient.builder(200, RESPONSE), 3,
+                HttpClientOptions.builder().build());
+
+        message = new DataUnicastMessage(FcmMessageOptions.builder().build(), BenchmarkMessages.createRegistrationIds(1).get(0),
+                Collections.singletonMap("text", "Heavy rain is expected in your area during the next hours."));
+    }
+
+    @Benchmark
+    public FcmMessageResponse postAsync() {
+        return client.postAsync(message, FcmMessageResponse.class).join();
+    }
+}
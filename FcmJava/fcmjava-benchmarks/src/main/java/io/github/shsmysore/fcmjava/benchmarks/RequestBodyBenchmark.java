@@ -0,0 +1,79 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ChunkedByteArrayOutputStream;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.templates.MulticastMessageTemplate;
+import io.github.shsmysore.fcmjava.client.templates.PreSerializedMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways to build the body of a multicast request. Run with the GC profiler (-prof gc) to get the
+ * bytes allocated per send (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBodyBenchmark {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    @Param({ "1", "1000" })
+    public int registrationIdCount;
+
+    private JsonSerializer serializer;
+    private DataMulticastMessage message;
+    private MulticastMessageTemplate template;
+
+    @Setup
+    public void setup() {
+        serializer = new JsonSerializer();
+        message = BenchmarkMessages.createMulticastMessage(registrationIdCount);
+        template = MulticastMessageTemplate.compile(message, serializer);
+    }
+
+    /**
+     * The body as it was built before: a String, which is encoded to UTF-8 again.
+     */
+    @Benchmark
+    public HttpRequest.BodyPublisher stringBody() {
+        return HttpRequest.BodyPublishers.ofString(serializer.serialize(message));
+    }
+
+    /**
+     * Jackson writes the UTF-8 bytes directly into the chunks of the body.
+     */
+    @Benchmark
+    public HttpRequest.BodyPublisher streamedBody() {
+        ChunkedByteArrayOutputStream content = new ChunkedByteArrayOutputStream(CHUNK_SIZE);
+        serializer.serialize(message, content);
+        return content.toBodyPublisher();
+    }
+
+    /**
+     * Only the Registration IDs are written, the rest of the message has been serialized before.
+     */
+    @Benchmark
+    public HttpRequest.BodyPublisher templateBody() {
+        PreSerializedMulticastMessage preSerializedMessage = template.toMessage(message.getRegistrationIds());
+        ChunkedByteArrayOutputStream content = new ChunkedByteArrayOutputStream(Math.min(preSerializedMessage.getEstimatedSize(), CHUNK_SIZE), CHUNK_SIZE);
+        preSerializedMessage.writeTo(content);
+        return content.toBodyPublisher();
+    }
+}
@@ -0,0 +1,86 @@
+package io.github.shsmysore.fcmjava.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmJacksonModule;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective ObjectMapper with the hand-written serializers of the FcmJacksonModule.
+ *
+ * The cold benchmarks measure the first message of a new ObjectMapper, which includes the introspection of the
+ * classes. Run them with a single shot per fork, e.g. -bm ss -f 20 -i 1 -wi 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({ "1", "1000" })
+    public int registrationIdCount;
+
+    private ObjectMapper reflectiveMapper;
+    private ObjectMapper moduleMapper;
+    private DataMulticastMessage message;
+    private byte[] response;
+
+    @Setup
+    public void setup() {
+        reflectiveMapper = new ObjectMapper();
+        moduleMapper = new ObjectMapper().registerModule(new FcmJacksonModule());
+        message = BenchmarkMessages.createMulticastMessage(registrationIdCount);
+        response = BenchmarkMessages.createMulticastResponse(registrationIdCount).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public byte[] serializeReflective() throws IOException {
+        return reflectiveMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public byte[] serializeModule() throws IOException {
+        return moduleMapper.writeValueAsBytes(message);
+    }
+
+    @Benchmark
+    public FcmMessageResponse deserializeReflective() throws IOException {
+        return reflectiveMapper.readValue(response, FcmMessageResponse.class);
+    }
+
+    @Benchmark
+    public FcmMessageResponse deserializeModule() throws IOException {
+        return moduleMapper.readValue(response, FcmMessageResponse.class);
+    }
+
+    @Benchmark
+    public FcmMessageResponse coldReflective() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.writeValueAsBytes(message);
+        return mapper.readValue(response, FcmMessageResponse.class);
+    }
+
+    @Benchmark
+    public FcmMessageResponse coldModule() throws IOException {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new FcmJacksonModule());
+        mapper.writeValueAsBytes(message);
+        return mapper.readValue(response, FcmMessageResponse.class);
+    }
+}
@@ -0,0 +1,334 @@
+package io.github.shsmysore.fcmjava.client;
+
+import io.github.shsmysore.fcmjava.constants.Constants;
+import io.github.shsmysore.fcmjava.http.client.IFcmClient;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.CreateDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.RemoveDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The CoalescingFcmClient groups asynchronous unicast messages with equal options and payload, which are sent within
+ * a short time window, and sends them as a single multicast message.
+ *
+ * A batch is sent when the time window of its first message has passed or when it reaches the maximum batch size.
+ * Every caller gets a response of its own, built from the result for its registration token. Messages to topics or
+ * with a condition are never coalesced, because FCM only accepts registration tokens in a multicast message. Only use
+ * this client, if the unicast messages are sent to registration tokens and not to device group notification keys.
+ *
+ * All other messages and the synchronous sends are passed to the underlying client as they are.
+ */
+public class CoalescingFcmClient implements IFcmClient {
+
+    private static final String TOPIC_PREFIX = "/topics/";
+
+    private final IFcmClient client;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler;
+
+    private final ConcurrentMap<BatchKey, Batch> batches = new ConcurrentHashMap<>();
+
+    public CoalescingFcmClient(IFcmClient client, Duration window, int maxBatchSize) {
+        this(client, window, maxBatchSize, null);
+    }
+
+    /**
+     * Creates a CoalescingFcmClient.
+     *
+     * @param client Client used to send the messages
+     * @param window Time a batch waits for further messages
+     * @param maxBatchSize Maximum number of messages in a batch
+     * @param scheduler Scheduler to send the batches, or null to use the default delayed executor
+     */
+    public CoalescingFcmClient(IFcmClient client, Duration window, int maxBatchSize, ScheduledExecutorService scheduler) {
+
+        if (client == null) {
+            throw new IllegalArgumentException("client");
+        }
+
+        if (window == null || window.isNegative()) {
+            throw new IllegalArgumentException("window");
+        }
+
+        if (maxBatchSize < 1 || maxBatchSize > Constants.MAX_REGISTRATION_IDS) {
+            throw new IllegalArgumentException("maxBatchSize");
+        }
+
+        this.client = client;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public FcmMessageResponse send(DataMulticastMessage message) {
+        return client.send(message);
+    }
+
+    @Override
+    public FcmMessageResponse send(NotificationMulticastMessage notification) {
+        return client.send(notification);
+    }
+
+    @Override
+    public FcmMessageResponse send(DataUnicastMessage message) {
+        return client.send(message);
+    }
+
+    @Override
+    public FcmMessageResponse send(NotificationUnicastMessage notification) {
+        return client.send(notification);
+    }
+
+    @Override
+    public CreateDeviceGroupMessageResponse send(CreateDeviceGroupMessage message) {
+        return client.send(message);
+    }
+
+    @Override
+    public TopicMessageResponse send(TopicUnicastMessage message) {
+        return client.send(message);
+    }
+
+    @Override
+    public TopicMessageResponse send(TopicMulticastMessage message) {
+        return client.send(message);
+    }
+
+    @Override
+    public void send(RemoveDeviceGroupMessage message) {
+        client.send(message);
+    }
+
+    @Override
+    public void send(AddDeviceGroupMessage message) {
+        client.send(message);
+    }
+
+    // Async
+    @Override
+    public CompletableFuture<FcmMessageResponse> sendAsync(DataMulticastMessage message) {
+        return client.sendAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<FcmMessageResponse> sendAsync(NotificationMulticastMessage notification) {
+        return client.sendAsync(notification);
+    }
+
+    @Override
+    public CompletableFuture<FcmMessageResponse> sendAsync(DataUnicastMessage message) {
+        if (!canCoalesce(message.getTo(), message.getOptions())) {
+            return client.sendAsync(message);
+        }
+
+        BatchKey key = new BatchKey(DataUnicastMessage.class, message.getOptions(), message.getPayload(), message.getNotificationPayload());
+
+        return enqueue(key, message.getTo(), () -> client.sendAsync(message),
+                registrationIds -> client.sendAsync(new DataMulticastMessage(message.getOptions(), registrationIds, message.getPayload(), message.getNotificationPayload())));
+    }
+
+    @Override
+    public CompletableFuture<FcmMessageResponse> sendAsync(NotificationUnicastMessage notification) {
+        if (!canCoalesce(notification.getTo(), notification.getOptions())) {
+            return client.sendAsync(notification);
+        }
+
+        BatchKey key = new BatchKey(NotificationUnicastMessage.class, notification.getOptions(), notification.getPayload(), null);
+
+        return enqueue(key, notification.getTo(), () -> client.sendAsync(notification),
+                registrationIds -> client.sendAsync(new NotificationMulticastMessage(notification.getOptions(), registrationIds, notification.getPayload())));
+    }
+
+    @Override
+    public CompletableFuture<CreateDeviceGroupMessageResponse> sendAsync(CreateDeviceGroupMessage message) {
+        return client.sendAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<TopicMessageResponse> sendAsync(TopicUnicastMessage message) {
+        return client.sendAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<TopicMessageResponse> sendAsync(TopicMulticastMessage message) {
+        return client.sendAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(RemoveDeviceGroupMessage message) {
+        return client.sendAsync(message);
+    }
+
+    @Override
+    public CompletableFuture<Void> sendAsync(AddDeviceGroupMessage message) {
+        return client.sendAsync(message);
+    }
+
+    /**
+     * Sends all pending batches immediately.
+     */
+    public void flush() {
+        for (BatchKey key : batches.keySet()) {
+            Batch batch = batches.get(key);
+            if (batch != null && batches.remove(key, batch)) {
+                batch.send();
+            }
+        }
+    }
+
+    private static boolean canCoalesce(String to, FcmMessageOptions options) {
+        return !to.startsWith(TOPIC_PREFIX) && options.getCondition() == null;
+    }
+
+    private CompletableFuture<FcmMessageResponse> enqueue(BatchKey key,
+                                                          String to,
+                                                          Supplier<CompletableFuture<FcmMessageResponse>> unicastSender,
+                                                          Function<List<String>, CompletableFuture<FcmMessageResponse>> multicastSender) {
+        CompletableFuture<FcmMessageResponse> future = new CompletableFuture<>();
+        Batch[] newBatch = new Batch[1];
+        Batch[] fullBatch = new Batch[1];
+
+        // Messages are only added while the batch is in the map, so a batch does not change after it was removed:
+        batches.compute(key, (k, batch) -> {
+            if (batch == null) {
+                batch = new Batch(unicastSender, multicastSender);
+                newBatch[0] = batch;
+            }
+            batch.registrationIds.add(to);
+            batch.futures.add(future);
+            if (batch.registrationIds.size() >= maxBatchSize) {
+                fullBatch[0] = batch;
+                return null;
+            }
+            return batch;
+        });
+
+        // The timer is scheduled outside of the remapping function, which blocks the bin of the key while it runs:
+        if (fullBatch[0] != null) {
+            fullBatch[0].send();
+        } else if (newBatch[0] != null) {
+            Batch batch = newBatch[0];
+            schedule(() -> {
+                if (batches.remove(key, batch)) {
+                    batch.send();
+                }
+            });
+        }
+
+        return future;
+    }
+
+    private void schedule(Runnable runnable) {
+        if (scheduler == null) {
+            CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS).execute(runnable);
+        } else {
+            scheduler.schedule(runnable, window.toNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static class Batch {
+
+        private final Supplier<CompletableFuture<FcmMessageResponse>> unicastSender;
+        private final Function<List<String>, CompletableFuture<FcmMessageResponse>> multicastSender;
+        private final List<String> registrationIds = new ArrayList<>();
+        private final List<CompletableFuture<FcmMessageResponse>> futures = new ArrayList<>();
+
+        private Batch(Supplier<CompletableFuture<FcmMessageResponse>> unicastSender, Function<List<String>, CompletableFuture<FcmMessageResponse>> multicastSender) {
+            this.unicastSender = unicastSender;
+            this.multicastSender = multicastSender;
+        }
+
+        private void send() {
+            CompletableFuture<FcmMessageResponse> responseFuture;
+            try {
+                // A single message is sent as it is, there is nothing to save:
+                responseFuture = futures.size() == 1 ? unicastSender.get() : multicastSender.apply(registrationIds);
+            } catch (Throwable t) {
+                responseFuture = CompletableFuture.failedFuture(t);
+            }
+
+            responseFuture.whenComplete((response, error) -> {
+                if (error != null) {
+                    futures.forEach(f -> f.completeExceptionally(error));
+                } else if (futures.size() == 1) {
+                    futures.get(0).complete(response);
+                } else if (response == null || response.getResults() == null || response.getResults().size() != futures.size()) {
+                    IllegalStateException exception = new IllegalStateException("Results of the multicast message do not match its registration IDs.");
+                    futures.forEach(f -> f.completeExceptionally(exception));
+                } else {
+                    for (int i = 0; i < futures.size(); i++) {
+                        futures.get(i).complete(split(response.getMulticastId(), response.getResults().get(i)));
+                    }
+                }
+            });
+        }
+
+        private static FcmMessageResponse split(long multicastId, FcmMessageResultItem result) {
+            boolean failed = result.getErrorCode() != null;
+            boolean canonical = result.getCanonicalRegistrationId() != null;
+
+            return new FcmMessageResponse(multicastId, failed ? 0 : 1, failed ? 1 : 0, canonical ? 1 : 0, Collections.singletonList(result));
+        }
+    }
+
+    private static class BatchKey {
+
+        private final Class<?> messageType;
+        private final FcmMessageOptions options;
+        private final Object payload;
+        private final NotificationPayload notification;
+
+        private BatchKey(Class<?> messageType, FcmMessageOptions options, Object payload, NotificationPayload notification) {
+            this.messageType = messageType;
+            this.options = options;
+            this.payload = payload;
+            this.notification = notification;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey that = (BatchKey) o;
+            return messageType == that.messageType &&
+                    Objects.equals(options, that.options) &&
+                    Objects.equals(payload, that.payload) &&
+                    Objects.equals(notification, that.notification);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(messageType, options, payload, notification);
+        }
+    }
+}
@@ -3,11 +3,20 @@
 
 package io.github.shsmysore.fcmjava.client;
 
+import io.github.shsmysore.fcmjava.client.exceptions.PartialMulticastException;
 import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
 import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.multicast.ChunkedMulticastDispatcher;
+import io.github.shsmysore.fcmjava.client.options.FcmClientOptions;
+import io.github.shsmysore.fcmjava.client.retry.strategy.IAsyncRetryStrategy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
 import io.github.shsmysore.fcmjava.client.settings.PropertiesBasedSettings;
+import io.github.shsmysore.fcmjava.client.templates.MulticastMessageTemplate;
 import io.github.shsmysore.fcmjava.http.client.IFcmClient;
+import io.github.shsmysore.fcmjava.http.constants.HttpStatus;
 import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
 import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
 import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
 import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
@@ -19,14 +28,24 @@ import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
 import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
 import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
 import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
 import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
 
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
 
 public class FcmClient implements IFcmClient {
 
     private final IFcmClientSettings settings;
     private final IHttpClient httpClient;
+    private final IAsyncRetryStrategy retryStrategy;
+    private final MulticastRetryStrategy multicastRetryStrategy;
+    private final ChunkedMulticastDispatcher multicastDispatcher;
 
     public FcmClient() {
         this(PropertiesBasedSettings.createFromDefault());
@@ -37,6 +56,30 @@ public class FcmClient implements IFcmClient {
     }
 
     public FcmClient(IFcmClientSettings settings, IHttpClient httpClient) {
+        this(settings, httpClient, FcmClientOptions.builder().build());
+    }
+
+    /**
+     * Creates a FcmClient, which retries failed asynchronous sends with the given Retry Strategy.
+     *
+     * @param settings Client Settings
+     * @param httpClient Http Client used to send the messages
+     * @param retryStrategy Retry Strategy for sendAsync, or null to not retry
+     */
+    public FcmClient(IFcmClientSettings settings, IHttpClient httpClient, IAsyncRetryStrategy retryStrategy) {
+        this(settings, httpClient, FcmClientOptions.builder()
+                .setRetryStrategy(retryStrategy)
+                .build());
+    }
+
+    /**
+     * Creates a FcmClient with the given Client Options.
+     *
+     * @param settings Client Settings
+     * @param httpClient Http Client used to send the messages
+     * @param options Client Options
+     */
+    public FcmClient(IFcmClientSettings settings, IHttpClient httpClient, FcmClientOptions options) {
 
         if (settings == null) {
             throw new IllegalArgumentException("settings");
@@ -46,18 +89,25 @@ public class FcmClient implements IFcmClient {
             throw new IllegalArgumentException("httpClient");
         }
 
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+
         this.settings = settings;
         this.httpClient = httpClient;
+        this.retryStrategy = options.getRetryStrategy();
+        this.multicastRetryStrategy = options.getMulticastRetryStrategy();
+        this.multicastDispatcher = new ChunkedMulticastDispatcher(options.getMaxRegistrationIdsPerRequest(), options.getMaxMulticastParallelism());
     }
 
     @Override
     public FcmMessageResponse send(DataMulticastMessage message) {
-        return postSync(message, FcmMessageResponse.class);
+        return postMulticastSync(message, registrationIds -> copy(message, registrationIds));
     }
 
     @Override
     public FcmMessageResponse send(NotificationMulticastMessage notification) {
-        return postSync(notification, FcmMessageResponse.class);
+        return postMulticastSync(notification, registrationIds -> copy(notification, registrationIds));
     }
 
     @Override
@@ -98,12 +148,12 @@ public class FcmClient implements IFcmClient {
     // Async
     @Override
     public CompletableFuture<FcmMessageResponse> sendAsync(DataMulticastMessage message) {
-        return postAsync(message, FcmMessageResponse.class);
+        return postMulticast(message, registrationIds -> copy(message, registrationIds), m -> postAsync(m, FcmMessageResponse.class));
     }
 
     @Override
     public CompletableFuture<FcmMessageResponse> sendAsync(NotificationMulticastMessage notification) {
-        return postAsync(notification, FcmMessageResponse.class);
+        return postMulticast(notification, registrationIds -> copy(notification, registrationIds), m -> postAsync(m, FcmMessageResponse.class));
     }
 
     @Override
@@ -141,11 +191,242 @@ public class FcmClient implements IFcmClient {
         return postAsync(message, Void.class);
     }
 
+    // Results
+    @Override
+    public CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(DataMulticastMessage message) {
+        return postMulticastForResult(message, registrationIds -> copy(message, registrationIds));
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(NotificationMulticastMessage notification) {
+        return postMulticastForResult(notification, registrationIds -> copy(notification, registrationIds));
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(DataUnicastMessage message) {
+        return postForResultAsync(message, FcmMessageResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(NotificationUnicastMessage notification) {
+        return postForResultAsync(notification, FcmMessageResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<CreateDeviceGroupMessageResponse>> trySendAsync(CreateDeviceGroupMessage message) {
+        return postForResultAsync(message, CreateDeviceGroupMessageResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<TopicMessageResponse>> trySendAsync(TopicUnicastMessage message) {
+        return postForResultAsync(message, TopicMessageResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<TopicMessageResponse>> trySendAsync(TopicMulticastMessage message) {
+        return postForResultAsync(message, TopicMessageResponse.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<Void>> trySendAsync(RemoveDeviceGroupMessage message) {
+        return postForResultAsync(message, Void.class);
+    }
+
+    @Override
+    public CompletableFuture<FcmResult<Void>> trySendAsync(AddDeviceGroupMessage message) {
+        return postForResultAsync(message, Void.class);
+    }
+
+    /**
+     * Sends a multicast message and passes every result with its Registration ID to the callback, while the
+     * response is parsed. The Multicast Retry Strategy is not applied.
+     *
+     * @param message Multicast Message to send
+     * @param callback Callback for the results
+     * @return Merged response of all requests, without results
+     */
+    public CompletableFuture<FcmMessageResponse> sendAsync(DataMulticastMessage message, IResultItemCallback callback) {
+        return multicastDispatcher.sendAsync(message, registrationIds -> copy(message, registrationIds), m -> postMulticastAsync(m, callback));
+    }
+
+    /**
+     * Sends a multicast message and passes every result with its Registration ID to the callback, while the
+     * response is parsed. The Multicast Retry Strategy is not applied.
+     *
+     * @param notification Multicast Message to send
+     * @param callback Callback for the results
+     * @return Merged response of all requests, without results
+     */
+    public CompletableFuture<FcmMessageResponse> sendAsync(NotificationMulticastMessage notification, IResultItemCallback callback) {
+        return multicastDispatcher.sendAsync(notification, registrationIds -> copy(notification, registrationIds), m -> postMulticastAsync(m, callback));
+    }
+
+    /**
+     * Sends a compiled message template to the given Registration IDs. Oversized lists are split into multiple
+     * requests, and every request only serializes its Registration IDs.
+     *
+     * @param template Compiled Message Template
+     * @param registrationIds Registration IDs to send the message to
+     * @return Merged response of all requests
+     */
+    public FcmMessageResponse send(MulticastMessageTemplate template, List<String> registrationIds) {
+        return postMulticastSync(template.toMessage(registrationIds), template::toMessage);
+    }
+
+    /**
+     * Sends a compiled message template to the given Registration IDs. Oversized lists are split into multiple
+     * requests, and every request only serializes its Registration IDs.
+     *
+     * @param template Compiled Message Template
+     * @param registrationIds Registration IDs to send the message to
+     * @return Merged response of all requests
+     */
+    public CompletableFuture<FcmMessageResponse> sendAsync(MulticastMessageTemplate template, List<String> registrationIds) {
+        return postMulticast(template.toMessage(registrationIds), template::toMessage, m -> postAsync(m, FcmMessageResponse.class));
+    }
+
     protected <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
         return httpClient.postSync(requestMessage, responseType);
     }
 
     public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
-        return httpClient.postAsync(requestMessage, responseType);
+        if (retryStrategy == null) {
+            return httpClient.postAsync(requestMessage, responseType);
+        }
+        return retryStrategy.getWithRetryAsync(() -> httpClient.postAsync(requestMessage, responseType));
+    }
+
+    /**
+     * Sends a message and completes with a result, if FCM rejects the request. The Retry Strategy is not applied,
+     * because a failure is not an exception. Use the Retry-After of a RetryableFailure to send the message again.
+     *
+     * @param requestMessage Message to send
+     * @param responseType Type of the response message
+     * @return Result of the request
+     */
+    public <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return httpClient.postForResultAsync(requestMessage, responseType);
+    }
+
+    private CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> message, IResultItemCallback callback) {
+        if (retryStrategy == null) {
+            return httpClient.postMulticastAsync(message, callback);
+        }
+        return retryStrategy.getWithRetryAsync(() -> httpClient.postMulticastAsync(message, callback));
+    }
+
+    private <TMessage extends FcmMulticastMessage<?>> CompletableFuture<FcmMessageResponse> postMulticast(TMessage message,
+                                                                                                          Function<List<String>, TMessage> messageFactory,
+                                                                                                          Function<TMessage, CompletableFuture<FcmMessageResponse>> sender) {
+        // Split oversized messages first, so the failed Registration IDs of every chunk are retried separately:
+        Function<TMessage, CompletableFuture<FcmMessageResponse>> chunkSender = multicastRetryStrategy == null
+                ? sender
+                : chunk -> multicastRetryStrategy.sendAsync(chunk, messageFactory, sender);
+
+        return multicastDispatcher.sendAsync(message, messageFactory, chunkSender);
+    }
+
+    /**
+     * Sends a multicast message with blocking requests. The chunks and retries are scheduled by the same dispatcher and
+     * Multicast Retry Strategy as for an asynchronous message, but every request is sent on the calling thread, so no
+     * thread of a timer or a pool blocks on a synchronous request.
+     */
+    private <TMessage extends FcmMulticastMessage<?>> FcmMessageResponse postMulticastSync(TMessage message,
+                                                                                        Function<List<String>, TMessage> messageFactory) {
+        CallerThreadExecutor executor = new CallerThreadExecutor();
+
+        CompletableFuture<FcmMessageResponse> response = postMulticast(message, messageFactory,
+                m -> CompletableFuture.supplyAsync(() -> postSync(m, FcmMessageResponse.class), executor));
+
+        executor.runUntilDone(response);
+
+        return join(response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <TMessage extends FcmMulticastMessage<?>> CompletableFuture<FcmResult<FcmMessageResponse>> postMulticastForResult(TMessage message,
+                                                                                                                           Function<List<String>, TMessage> messageFactory) {
+        // The dispatcher and the Multicast Retry Strategy stop at a failed chunk, so a failure is passed through
+        // them as an exception without a stack trace. If other chunks have been delivered, the future fails with a
+        // PartialMulticastException, so their responses are not lost:
+        Function<TMessage, CompletableFuture<FcmMessageResponse>> sender = m -> httpClient.postForResultAsync(m, FcmMessageResponse.class)
+                .thenApply(result -> {
+                    if (!result.isSuccess()) {
+                        throw new FailedResultException(result);
+                    }
+                    return ((FcmResult.Success<FcmMessageResponse>) result).getResponse();
+                });
+
+        return postMulticast(message, messageFactory, sender).handle((response, error) -> {
+            if (error == null) {
+                return FcmResult.success(HttpStatus.OK, response);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof PartialMulticastException && ((PartialMulticastException) cause).getDeliveredRegistrationIds().isEmpty()) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof FailedResultException) {
+                return (FcmResult<FcmMessageResponse>) ((FailedResultException) cause).result;
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    private static <TResult> TResult join(CompletableFuture<TResult> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Synchronous sends throw the exceptions of the Http Client as they are:
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static DataMulticastMessage copy(DataMulticastMessage message, List<String> registrationIds) {
+        return new DataMulticastMessage(message.getOptions(), registrationIds, message.getPayload(), message.getNotificationPayload());
+    }
+
+    private static NotificationMulticastMessage copy(NotificationMulticastMessage message, List<String> registrationIds) {
+        return new NotificationMulticastMessage(message.getOptions(), registrationIds, message.getPayload());
+    }
+
+    /**
+     * Queues the tasks of a synchronous send, until the calling thread runs them.
+     */
+    private static class CallerThreadExecutor implements Executor {
+
+        private static final Runnable WAKE_UP = () -> { };
+
+        private final BlockingQueue<Runnable> tasks = new LinkedBlockingQueue<>();
+
+        @Override
+        public void execute(Runnable task) {
+            tasks.add(task);
+        }
+
+        private void runUntilDone(CompletableFuture<?> future) {
+            future.whenComplete((result, error) -> tasks.add(WAKE_UP));
+            while (!future.isDone()) {
+                try {
+                    tasks.take().run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while sending the message.", e);
+                }
+            }
+        }
+    }
+
+    private static class FailedResultException extends RuntimeException {
+
+        private final FcmResult<?> result;
+
+        private FailedResultException(FcmResult<?> result) {
+            super(null, null, false, false);
+
+            this.result = result;
+        }
     }
 }
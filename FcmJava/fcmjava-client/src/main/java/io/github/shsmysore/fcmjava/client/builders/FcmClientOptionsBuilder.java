@@ -0,0 +1,42 @@
+package io.github.shsmysore.fcmjava.client.builders;
+
+import io.github.shsmysore.fcmjava.client.options.FcmClientOptions;
+import io.github.shsmysore.fcmjava.client.retry.strategy.IAsyncRetryStrategy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
+import io.github.shsmysore.fcmjava.constants.Constants;
+
+public class FcmClientOptionsBuilder {
+
+    private IAsyncRetryStrategy retryStrategy = null;
+    private MulticastRetryStrategy multicastRetryStrategy = null;
+    private int maxRegistrationIdsPerRequest = Constants.MAX_REGISTRATION_IDS;
+    private int maxMulticastParallelism = 4;
+
+    public FcmClientOptionsBuilder setRetryStrategy(IAsyncRetryStrategy retryStrategy) {
+        this.retryStrategy = retryStrategy;
+
+        return this;
+    }
+
+    public FcmClientOptionsBuilder setMulticastRetryStrategy(MulticastRetryStrategy multicastRetryStrategy) {
+        this.multicastRetryStrategy = multicastRetryStrategy;
+
+        return this;
+    }
+
+    public FcmClientOptionsBuilder setMaxRegistrationIdsPerRequest(int maxRegistrationIdsPerRequest) {
+        this.maxRegistrationIdsPerRequest = maxRegistrationIdsPerRequest;
+
+        return this;
+    }
+
+    public FcmClientOptionsBuilder setMaxMulticastParallelism(int maxMulticastParallelism) {
+        this.maxMulticastParallelism = maxMulticastParallelism;
+
+        return this;
+    }
+
+    public FcmClientOptions build() {
+        return new FcmClientOptions(retryStrategy, multicastRetryStrategy, maxRegistrationIdsPerRequest, maxMulticastParallelism);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.shsmysore.fcmjava.client.exceptions;
+
+/**
+ * This Exception is thrown, if a request is rejected without being sent, because the CircuitBreaker of the client
+ * is open.
+ */
+public class CircuitBreakerOpenException extends RuntimeException {
+
+    public CircuitBreakerOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.shsmysore.fcmjava.client.exceptions;
+
+/**
+ * This Exception is thrown, if a request exceeds the concurrency limit of the client and the queue of waiting
+ * requests is full.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    public ConcurrencyLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package io.github.shsmysore.fcmjava.client.exceptions;
+
+/**
+ * This Exception is thrown, if a request could not be completed within its deadline.
+ */
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
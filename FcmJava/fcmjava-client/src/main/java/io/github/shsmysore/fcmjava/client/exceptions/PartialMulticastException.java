@@ -0,0 +1,65 @@
+package io.github.shsmysore.fcmjava.client.exceptions;
+
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+
+import java.util.List;
+
+/**
+ * This Exception is thrown, if some chunks of a multicast message have been sent and others failed or have not been
+ * sent at all. It carries the merged response of the delivered chunks, so only the failed Registration IDs have to be
+ * sent again.
+ */
+public class PartialMulticastException extends RuntimeException {
+
+    private final FcmMessageResponse response;
+    private final List<String> deliveredRegistrationIds;
+    private final List<String> failedRegistrationIds;
+    private final List<Throwable> chunkFailures;
+
+    public PartialMulticastException(String message, FcmMessageResponse response, List<String> deliveredRegistrationIds,
+                                     List<String> failedRegistrationIds, List<Throwable> chunkFailures) {
+        super(message, chunkFailures.isEmpty() ? null : chunkFailures.get(0));
+
+        this.response = response;
+        this.deliveredRegistrationIds = deliveredRegistrationIds;
+        this.failedRegistrationIds = failedRegistrationIds;
+        this.chunkFailures = chunkFailures;
+    }
+
+    /**
+     * Gets the merged response of the delivered chunks. Its results are index-aligned with the delivered Registration IDs.
+     *
+     * @return Merged response of the delivered chunks
+     */
+    public FcmMessageResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * Gets the Registration IDs of the delivered chunks.
+     *
+     * @return Delivered Registration IDs
+     */
+    public List<String> getDeliveredRegistrationIds() {
+        return deliveredRegistrationIds;
+    }
+
+    /**
+     * Gets the Registration IDs of the chunks, which failed or have not been sent. A chunk failing with an IOException
+     * may have reached FCM anyway.
+     *
+     * @return Failed Registration IDs
+     */
+    public List<String> getFailedRegistrationIds() {
+        return failedRegistrationIds;
+    }
+
+    /**
+     * Gets the exceptions of the failed chunks.
+     *
+     * @return Exceptions of the failed chunks
+     */
+    public List<Throwable> getChunkFailures() {
+        return chunkFailures;
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.shsmysore.fcmjava.client.exceptions;
+
+/**
+ * This Exception is thrown, if a request failed and the Retry Budget of the client does not allow another retry.
+ */
+public class RetryBudgetExhaustedException extends RuntimeException {
+
+    public RetryBudgetExhaustedException(String message) {
+        super(message);
+    }
+
+    public RetryBudgetExhaustedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
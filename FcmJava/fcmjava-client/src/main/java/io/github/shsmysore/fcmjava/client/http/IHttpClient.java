@@ -3,6 +3,11 @@
 
 package io.github.shsmysore.fcmjava.client.http;
 
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+
+import java.util.Collections;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -14,4 +19,43 @@ public interface IHttpClient {
 
     <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType);
 
+    /**
+     * Sends a multicast message and passes every result with its Registration ID to the callback. The returned
+     * response has the counts of the FCM response, but no results.
+     *
+     * This default implementation waits for the whole response. Implementations should override it to pass the
+     * results to the callback while the response is parsed.
+     *
+     * @param requestMessage Multicast Message to send
+     * @param callback Callback for the results
+     * @return Response without results
+     */
+    default CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> requestMessage, IResultItemCallback callback) {
+        return postAsync(requestMessage, FcmMessageResponse.class).thenApply(response -> {
+            if (response.getResults() != null) {
+                for (int i = 0; i < response.getResults().size(); i++) {
+                    String registrationId = i < requestMessage.getRegistrationIds().size() ? requestMessage.getRegistrationIds().get(i) : null;
+                    callback.onResultItem(registrationId, response.getResults().get(i));
+                }
+            }
+            return new FcmMessageResponse(response.getMulticastId(), response.getNumberOfSuccess(), response.getNumberOfFailure(),
+                    response.getNumberOfCanonicalIds(), Collections.emptyList());
+        });
+    }
+
+    /**
+     * Sends a message and completes with a result, if FCM rejects the request. Only unexpected errors, like failing
+     * to reach FCM on all retries, fail the returned future.
+     *
+     * This default implementation turns the exceptions of postAsync into results. Implementations should override
+     * it to not create the exceptions at all.
+     *
+     * @param requestMessage Message to send
+     * @param responseType Type of the response message
+     * @return Result of the request
+     */
+    default <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return FcmResult.of(postAsync(requestMessage, responseType));
+    }
+
 }
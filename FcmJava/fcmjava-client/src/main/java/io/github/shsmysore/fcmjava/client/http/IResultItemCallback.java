@@ -0,0 +1,19 @@
+package io.github.shsmysore.fcmjava.client.http;
+
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+
+/**
+ * Receives the results of a multicast message one by one, while the response is parsed.
+ */
+@FunctionalInterface
+public interface IResultItemCallback {
+
+    /**
+     * Called for every result of a multicast message, in the order of the Registration IDs.
+     *
+     * @param registrationId Registration ID the result belongs to
+     * @param resultItem Result for the Registration ID
+     */
+    void onResultItem(String registrationId, FcmMessageResultItem resultItem);
+
+}
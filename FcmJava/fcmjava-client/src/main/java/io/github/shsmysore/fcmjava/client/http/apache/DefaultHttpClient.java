@@ -4,46 +4,128 @@
 package io.github.shsmysore.fcmjava.client.http.apache;
 
 import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ByteArrayPool;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ChunkedByteArrayOutputStream;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.PostRequestFactory;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.RetryHeaderUtils;
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreaker;
+import io.github.shsmysore.fcmjava.client.http.hedging.HedgingPolicy;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.MessageRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.http.timeout.AdaptiveTimeoutPolicy;
+import io.github.shsmysore.fcmjava.client.http.transport.IHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.MultiplexedHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.SimpleHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.StripedHttpTransport;
+import io.github.shsmysore.fcmjava.client.exceptions.CircuitBreakerOpenException;
+import io.github.shsmysore.fcmjava.client.exceptions.ConcurrencyLimitExceededException;
+import io.github.shsmysore.fcmjava.client.exceptions.DeadlineExceededException;
+import io.github.shsmysore.fcmjava.client.exceptions.RetryBudgetExhaustedException;
+import io.github.shsmysore.fcmjava.client.retry.RetryAfterGate;
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
 import io.github.shsmysore.fcmjava.client.serializer.IJsonSerializer;
 import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.utils.OutParameter;
+import io.github.shsmysore.fcmjava.client.utils.VirtualThreadUtils;
 import io.github.shsmysore.fcmjava.exceptions.FcmAuthenticationException;
 import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
 import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
 import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.requests.FcmMessage;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.Optional;
-import java.util.Random;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 
 /**
  * This DefaultHttpClient is based on the Apache DefaultHttpClient.
  *
  * If you need to configure the Apache DefaultHttpClient (proxy settings, timeouts, ...) you can call the configure(...)
  * method to modify the HttpClientBuilder used for creating Apache DefaultHttpClient instances.
+ *
+ * The {@link HttpClientOptions} switch the transport to HTTP/2, which multiplexes concurrent requests over a
+ * small number of connections instead of opening a connection per in-flight request. With HTTP/1.1 they stripe the
+ * requests over several HttpClient instances, so a single selector thread does not limit the throughput. They also
+ * take dedicated Executors for serialization, response handling and retry timers, or run each request on Virtual Threads.
+ *
+ * When FCM answers with a Retry-After Header, the {@link RetryAfterGate} of the client is paused and all queued and
+ * new requests wait for it to open again, instead of hitting the recovering server at once. Retries are limited by a
+ * client-wide {@link RetryBudget}, so a failing request fails fast once the budget is used up.
+ *
+ * With a compact {@link ResponseModeEnum} a FcmMessageResponse is parsed into a {@link CompactFcmMessageResponse},
+ * which holds its results in primitive arrays instead of an object per token.
+ *
+ * Request bodies are written into buffers of a {@link ByteArrayPool}, which are reused once all attempts of a
+ * request are done, and the URI and headers of the requests are only prepared once per settings.
+ *
+ * An {@link AdaptiveConcurrencyLimiter} limits the requests in flight. It adapts the limit to the latency and the
+ * failures of FCM and queues the requests above the limit, until they time out. Synchronous requests block while
+ * they wait in the queue. A {@link MessageRateLimiter} paces the requests per
+ * API Key, topic and device token, so FCM does not reject them for exceeding its message rates.
+ *
+ * A {@link CircuitBreaker} records the outcome of every attempt. While it is open, requests and their pending retries
+ * fail at once with a {@link CircuitBreakerOpenException} instead of waiting for a server, which is down.
+ *
+ * With a {@link HedgingPolicy} a duplicate of a slow idempotent unicast request is sent, once it takes longer than a
+ * percentile of the recent latencies, and the first response wins.
+ *
+ * A request fails with a {@link DeadlineExceededException}, once its deadline from the FcmMessageOptions or the
+ * HttpClientOptions has passed, and no retry is scheduled beyond it. Every attempt times out with the request timeout,
+ * or with a timeout derived from the observed latencies by an {@link AdaptiveTimeoutPolicy}, but never after the
+ * deadline.
  */
 public class DefaultHttpClient implements IHttpClient {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultHttpClient.class);
+    private static final int BODY_BUFFER_SIZE = 4 * 1024;
     private final int MAX_RETRY;
-    private static final Random random = new Random();
     private final IFcmClientSettings settings;
     private final IJsonSerializer serializer;
+    private final PostRequestFactory requestFactory;
 
-    private static final HttpClient.Builder defaultHttpBuilder = HttpClient
-            .newBuilder()
-            .version(HttpClient.Version.HTTP_1_1);
-
-    private final HttpClient client;
+    private final IHttpTransport transport;
+    private final IBackoffPolicy backoffPolicy;
+    private final Executor serializationExecutor;
+    private final Executor responseExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final RetryAfterGate retryAfterGate;
+    private final RetryBudget retryBudget;
+    private final ResponseModeEnum responseMode;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MessageRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final Duration requestTimeout;
+    private final Duration deadline;
+    private final AdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
 
     public DefaultHttpClient(IFcmClientSettings settings) {
-        this(settings, defaultHttpBuilder);
+        this(settings, defaultHttpBuilder());
     }
 
     public DefaultHttpClient(IFcmClientSettings settings, HttpClient.Builder httpClientBuilder) {
@@ -51,105 +133,938 @@ public class DefaultHttpClient implements IHttpClient {
     }
 
     public DefaultHttpClient(IFcmClientSettings settings, IJsonSerializer serializer) {
-        this(settings, serializer, defaultHttpBuilder, 3);
+        this(settings, serializer, defaultHttpBuilder(), 3);
+    }
+
+    public DefaultHttpClient(IFcmClientSettings settings, HttpClientOptions options) {
+        this(settings, new JsonSerializer(), defaultHttpBuilder(), 3, options);
     }
 
     public DefaultHttpClient(IFcmClientSettings settings,
                              IJsonSerializer serializer,
                              HttpClient.Builder httpClientBuilder,
                              int maxRetry) {
+        this(settings, serializer, httpClientBuilder, maxRetry, HttpClientOptions.builder().build());
+    }
+
+    /**
+     * Creates a DefaultHttpClient. If the options select HTTP/2, the version of the given HttpClient.Builder is
+     * set to HTTP/2 and the builder is used to open every connection of the multiplexed transport. Otherwise the
+     * builder is used as is. If the options enable Virtual Threads, the executor of the builder is replaced by a
+     * Virtual Thread per Task Executor.
+     *
+     * @param settings Client Settings
+     * @param serializer Serializer for the request and response messages
+     * @param httpClientBuilder Builder for the underlying HttpClient instances
+     * @param maxRetry Maximum number of attempts for a request
+     * @param options Transport Options
+     */
+    public DefaultHttpClient(IFcmClientSettings settings,
+                             IJsonSerializer serializer,
+                             HttpClient.Builder httpClientBuilder,
+                             int maxRetry,
+                             HttpClientOptions options) {
+        this(settings, serializer, requireNonNull(httpClientBuilder, "httpClientBuilder"), null, maxRetry, options);
+    }
+
+    /**
+     * Creates a DefaultHttpClient, which sends its requests on the given transport. Clients sharing a transport share
+     * its HttpClient and connections, but each of them has its own limiters, queues and retry state. The transport
+     * options of the HttpClientOptions are ignored.
+     *
+     * @param settings Client Settings
+     * @param serializer Serializer for the request and response messages
+     * @param transport Transport to send the requests on
+     * @param maxRetry Maximum number of attempts for a request
+     * @param options Options
+     */
+    public DefaultHttpClient(IFcmClientSettings settings,
+                             IJsonSerializer serializer,
+                             IHttpTransport transport,
+                             int maxRetry,
+                             HttpClientOptions options) {
+        this(settings, serializer, null, requireNonNull(transport, "transport"), maxRetry, options);
+    }
+
+    private DefaultHttpClient(IFcmClientSettings settings,
+                              IJsonSerializer serializer,
+                              HttpClient.Builder httpClientBuilder,
+                              IHttpTransport transport,
+                              int maxRetry,
+                              HttpClientOptions options) {
 
         if (settings == null) {
             throw new IllegalArgumentException("settings");
         }
 
-        if (httpClientBuilder == null) {
-            throw new IllegalArgumentException("httpClientBuilder");
-        }
-
         if(serializer == null) {
             throw new IllegalArgumentException("serializer");
         }
 
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+
+        if (options.getBodyBufferPoolCapacity() < 0) {
+            throw new IllegalArgumentException("bodyBufferPoolCapacity");
+        }
+
+        if (options.getBackoffPolicy() == null) {
+            throw new IllegalArgumentException("backoffPolicy");
+        }
+
+        if (options.getStripes() < 1) {
+            throw new IllegalArgumentException("stripes");
+        }
+
+        // Run the HttpClient and all stages without a dedicated Executor on Virtual Threads:
+        Executor virtualThreadExecutor = null;
+        if (options.isVirtualThreads()) {
+            virtualThreadExecutor = VirtualThreadUtils.newVirtualThreadPerTaskExecutor();
+            if (httpClientBuilder != null) {
+                httpClientBuilder.executor(virtualThreadExecutor);
+            }
+        }
+
         this.settings = settings;
         this.serializer = serializer;
-        this.client = httpClientBuilder.build();
+        this.requestFactory = new PostRequestFactory(settings, serializer, options.getBodyBufferPoolCapacity() > 0
+                ? new ByteArrayPool(BODY_BUFFER_SIZE, options.getBodyBufferPoolCapacity())
+                : null);
+        this.transport = transport != null ? transport : createTransport(httpClientBuilder, options);
+        this.backoffPolicy = options.getBackoffPolicy();
+        this.serializationExecutor = options.getSerializationExecutor() != null ? options.getSerializationExecutor() : virtualThreadExecutor;
+        this.responseExecutor = options.getResponseExecutor() != null ? options.getResponseExecutor() : virtualThreadExecutor;
+        this.retryScheduler = options.getRetryScheduler();
+        this.retryAfterGate = options.getRetryAfterGate() != null ? options.getRetryAfterGate() : new RetryAfterGate();
+        this.retryBudget = options.getRetryBudget() != null ? options.getRetryBudget() : new RetryBudget();
+        this.concurrencyLimiter = options.getConcurrencyLimiter();
+        this.rateLimiter = options.getRateLimiter();
+        this.circuitBreaker = options.getCircuitBreaker();
+        this.hedgingPolicy = options.getHedgingPolicy();
+        this.requestTimeout = options.getRequestTimeout();
+        this.deadline = options.getDeadline();
+        this.adaptiveTimeoutPolicy = options.getAdaptiveTimeoutPolicy();
+        this.responseMode = options.getResponseMode() != null ? options.getResponseMode() : ResponseModeEnum.Full;
         this.MAX_RETRY = maxRetry;
     }
 
-    private <TRequestMessage> HttpRequest buildPostRequest(TRequestMessage requestMessage) {
+    private static <T> T requireNonNull(T value, String name) {
+        if (value == null) {
+            throw new IllegalArgumentException(name);
+        }
+        return value;
+    }
+
+    private static HttpClient.Builder defaultHttpBuilder() {
+        return HttpClient
+                .newBuilder()
+                .version(HttpClient.Version.HTTP_1_1);
+    }
+
+    private static IHttpTransport createTransport(HttpClient.Builder httpClientBuilder, HttpClientOptions options) {
+        if (options.getHttpVersion() == HttpClient.Version.HTTP_2) {
+            httpClientBuilder.version(HttpClient.Version.HTTP_2);
 
-        // Get the JSON representation of the given request message:
-        String content = serializer.serialize(requestMessage);
+            return new MultiplexedHttpTransport(httpClientBuilder::build, options.getMaxConnections(), options.getMaxConcurrentStreamsPerConnection());
+        }
+        if (options.getStripes() > 1) {
+            return new StripedHttpTransport(httpClientBuilder::build, options.getStripes());
+        }
+        return new SimpleHttpTransport(httpClientBuilder.build());
+    }
+
+    /**
+     * Gets the transport requests are sent on.
+     *
+     * @return Transport of this client
+     */
+    public IHttpTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Gets the gate, which holds back requests while FCM asks us to pause.
+     *
+     * @return Retry-After gate of this client
+     */
+    public RetryAfterGate getRetryAfterGate() {
+        return retryAfterGate;
+    }
+
+    /**
+     * Gets the budget, which limits the retries of this client.
+     *
+     * @return Retry Budget of this client
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Gets the limiter of the requests in flight, which also provides the current limit and the queue metrics.
+     *
+     * @return Concurrency Limiter of this client or null, if the requests are not limited
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Gets the breaker, which rejects requests while FCM keeps failing. Listeners for its state transitions can be
+     * added to it.
+     *
+     * @return Circuit Breaker of this client or null, if every request is sent
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
 
-        return HttpRequest.newBuilder()
-                .uri(URI.create("https://fcm.googleapis.com/fcm/send"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", String.format("key=%s", settings.getApiKey()))
-                .POST(HttpRequest.BodyPublishers.ofString(content))
-                .build();
+    /**
+     * Gets the policy, which decides when a slow request is hedged, and provides the number of sent duplicates.
+     *
+     * @return Hedging Policy of this client or null, if requests are not hedged
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
-        try {
-            HttpRequest request = buildPostRequest(requestMessage);
+        if (isCompact(responseType)) {
+            boolean retainMessageIds = responseMode == ResponseModeEnum.Compact;
+            return post(new ResponseExchange<>(requestMessage, () -> (HttpResponse.BodySubscriber<TResponseMessage>) (HttpResponse.BodySubscriber<?>) serializer.createCompactBodySubscriber(retainMessageIds)));
+        }
+        return post(new ResponseExchange<>(requestMessage, () -> serializer.createBodySubscriber(responseType)));
+    }
+
+    /**
+     * Sends a message like postAsync, but completes with a result instead of throwing an FcmException, when FCM
+     * rejects the request. Only unexpected errors fail the returned future.
+     *
+     * @param requestMessage Message to send
+     * @param responseType Type of the response message
+     * @return Result of the request
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        if (isCompact(responseType)) {
+            boolean retainMessageIds = responseMode == ResponseModeEnum.Compact;
+            return post(new ResultExchange<>(requestMessage, () -> (HttpResponse.BodySubscriber<TResponseMessage>) (HttpResponse.BodySubscriber<?>) serializer.createCompactBodySubscriber(retainMessageIds)));
+        }
+        return post(new ResultExchange<>(requestMessage, () -> serializer.createBodySubscriber(responseType)));
+    }
+
+    private boolean isCompact(Class<?> responseType) {
+        return responseMode != ResponseModeEnum.Full && responseType == FcmMessageResponse.class;
+    }
+
+    /**
+     * Sends a multicast message and passes every result to the callback, as soon as it has been parsed from the
+     * response. If reading a response fails and the request is retried, the results parsed so far may be passed
+     * to the callback again.
+     *
+     * @param requestMessage Multicast Message to send
+     * @param callback Callback for the results
+     * @return Response without results
+     */
+    @Override
+    public CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> requestMessage, IResultItemCallback callback) {
+        List<String> registrationIds = requestMessage.getRegistrationIds();
+
+        return post(new ResponseExchange<>(requestMessage, () -> serializer.createMulticastBodySubscriber(registrationIds, callback)));
+    }
 
-            HttpResponse.BodyHandler<String> handler = java.net.http.HttpResponse.BodyHandlers.ofString();
-            return retrySend(client, request, handler, 1, null)
-                    .thenApply(this::evaluateResponse)
-                    .thenApply(java.net.http.HttpResponse::body)
-                    .thenApply(responseBody -> serializer.deserialize(responseBody, responseType));
+    private <TResult> CompletableFuture<TResult> post(PostExchange<?, TResult> exchange) {
+        // Fail the future, when the deadline passes. The exchange stops at its next step:
+        if (exchange.deadline != null) {
+            exchange.deadlineTimer = delayCancellable(exchange.deadline, exchange::expire);
+        }
+        try {
+            if (serializationExecutor == null) {
+                exchange.writeBody();
+            } else {
+                serializationExecutor.execute(exchange);
+                return exchange.result;
+            }
         } catch (Exception e) {
             throw new RuntimeException("Something went wrong.", e);
         }
+        exchange.run();
+        return exchange.result;
     }
 
-    private <T> CompletableFuture<HttpResponse<T>> retrySend(HttpClient client,
-                                                             HttpRequest request,
-                                                             HttpResponse.BodyHandler<T> handler,
-                                                             int count,
-                                                              HttpResponse<T> resp) {
-        if ((resp != null && resp.statusCode() < 500) || count > MAX_RETRY) {
-            return toResponse(resp);
-        } else {
-            return client.sendAsync(request, handler)
-                    .thenApply(Optional::of)
-                    .exceptionally(ex -> {
-                        // It is useful to retry on IOExceptions we well, along with server errors.
-                        Throwable cause = ex.getCause();
-                        if (cause instanceof IOException) {
-                            LOGGER.info("IOException - {}. Calling the retrySend again...", cause.getMessage());
-                            return Optional.empty();
-                        }
-                        throw new RuntimeException("FCM call failed", cause);
-                    })
-                    .thenComposeAsync(res -> {
-                        if (res.isEmpty()) {
-                            fixedDelay();
-                        }
-                        HttpResponse<T> currentResponse = res.orElse(null);
-                        return retrySend(client, request, handler, count + 1, currentResponse);
-                    });
-        }
-    }
-
-    private <T> CompletableFuture<HttpResponse<T>> toResponse(HttpResponse<T> resp) {
-        if (resp != null) {
-            return CompletableFuture.completedFuture(resp);
+    private static boolean isErrorStatus(int statusCode) {
+        return statusCode == 400 || statusCode == 401 || statusCode == 403 || statusCode >= 500;
+    }
+
+    private Duration getDeadline(Object requestMessage) {
+        if (requestMessage instanceof FcmMessage) {
+            Duration messageDeadline = ((FcmMessage<?>) requestMessage).getOptions().getDeadline();
+            if (messageDeadline != null) {
+                return messageDeadline;
+            }
+        }
+        return deadline;
+    }
+
+    /**
+     * Gets the timeout of an attempt, which never ends after the remaining time of the request.
+     *
+     * @param remaining Remaining time until the deadline or null, if the request has no deadline
+     * @return Timeout or null, if the attempt should not time out
+     */
+    private Duration getTimeout(Duration remaining) {
+        Duration timeout = adaptiveTimeoutPolicy != null ? adaptiveTimeoutPolicy.getTimeout() : requestTimeout;
+        if (remaining == null) {
+            return timeout;
+        }
+        // The HttpClient rejects a timeout of zero:
+        Duration remainingTimeout = remaining.compareTo(Duration.ofMillis(1)) < 0 ? Duration.ofMillis(1) : remaining;
+        return timeout == null || remainingTimeout.compareTo(timeout) < 0 ? remainingTimeout : timeout;
+    }
+
+    private boolean pauseOnRetryAfter(HttpResponse<?> resp) {
+        if (resp.statusCode() < 500 && resp.statusCode() != 429) {
+            return false;
+        }
+        OutParameter<Duration> retryDelay = new OutParameter<>();
+        if (!RetryHeaderUtils.tryDetermineRetryDelay(resp, retryDelay)) {
+            return false;
+        }
+        LOGGER.info("FCM responded with status {} and asked to retry after {}.", resp.statusCode(), retryDelay.get());
+        retryAfterGate.pauseFor(retryDelay.get());
+        return true;
+    }
+
+    /**
+     * The state of a single postAsync call, which runs all attempts of the request.
+     *
+     * It is the BodyHandler of the request, the callback of every attempt and the task for the executors and timers,
+     * so a request only allocates this object and the futures of the transport. Attempts are made one after another,
+     * but their steps run on different threads. Each step is handed to the next one through an executor, a timer or a
+     * future of the transport, which publishes the fields written before. A few fields are shared with other threads
+     * while an attempt is in flight: the deadline timer completes the result, which is safe as it is a
+     * CompletableFuture. bodyInUse and deadlineTimer are volatile. A hedged duplicate reads request and sets hedged,
+     * which is ordered by the atomic state of its HedgedAttempt. Subclasses turn the final response into the result.
+     */
+    private abstract class PostExchange<T, R> implements HttpResponse.BodyHandler<T>, BiConsumer<HttpResponse<T>, Throwable>, Runnable {
+
+        private static final int SERIALIZE = 0;
+        private static final int ATTEMPT = 1;
+        private static final int SEND = 2;
+        private static final int TRANSMIT = 3;
+        private static final int COMPLETE = 4;
+
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private final Object requestMessage;
+        private final Supplier<HttpResponse.BodySubscriber<T>> bodySubscriber;
+
+        private ChunkedByteArrayOutputStream content;
+        private HttpRequest request;
+        private int count = 1;
+        private HttpResponse<T> response;
+        private int next = SERIALIZE;
+        private long sentAt;
+        private long breakerPermit;
+        private final boolean hedgeable;
+        private boolean hedged;
+        private volatile boolean bodyInUse;
+        private HttpRequest.BodyPublisher body;
+        private final Duration deadline;
+        private final long startedAt = System.nanoTime();
+        private volatile Future<?> deadlineTimer;
+
+        PostExchange(Object requestMessage, Supplier<HttpResponse.BodySubscriber<T>> bodySubscriber) {
+            this.requestMessage = requestMessage;
+            this.bodySubscriber = bodySubscriber;
+            this.deadline = getDeadline(requestMessage);
+            // A duplicate of a multicast message would pass its results to the callback twice:
+            this.hedgeable = hedgingPolicy != null && !(requestMessage instanceof FcmMulticastMessage) && hedgingPolicy.isHedgeable(requestMessage);
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+            // The body is parsed while it is received. Error responses are rejected by evaluateResponse, so their body is discarded:
+            return isErrorStatus(responseInfo.statusCode())
+                    ? HttpResponse.BodySubscribers.replacing(null)
+                    : bodySubscriber.get();
+        }
+
+        @Override
+        public void run() {
+            try {
+                switch (next) {
+                    case SERIALIZE:
+                        writeBody();
+                        attempt();
+                        break;
+                    case ATTEMPT:
+                        attempt();
+                        break;
+                    case SEND:
+                        send();
+                        break;
+                    case TRANSMIT:
+                        transmit();
+                        break;
+                    default:
+                        complete();
+                        break;
+                }
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void writeBody() {
+            content = requestFactory.writeBody(requestMessage);
+            body = content.toBodyPublisher();
+            request = requestFactory.createRequest(body, getTimeout(deadline));
+            next = ATTEMPT;
+        }
+
+        private void attempt() {
+            if ((response != null && response.statusCode() < 500) || count > MAX_RETRY) {
+                if (response == null) {
+                    LOGGER.error("Failed on all retries.");
+                    fail(new RuntimeException("All retries failed."));
+                    return;
+                }
+                finish();
+                return;
+            }
+            if (isExpired()) {
+                giveUp();
+                return;
+            }
+            // Every attempt counts against the message rates of FCM, so every attempt is paced. The wait is scheduled
+            // on a timer like a retry, so no thread is blocked:
+            if (rateLimiter != null) {
+                long wait = rateLimiter.reserve(settings.getApiKey(), requestMessage);
+                if (wait > 0) {
+                    schedule(Duration.ofNanos(wait), SEND);
+                    return;
+                }
+            }
+            send();
+        }
+
+        private void send() {
+            Duration remainingPause = retryAfterGate.getRemainingPause();
+            if (!remainingPause.isZero()) {
+                // The pause may have been extended meanwhile, so check the gate again after waiting:
+                schedule(remainingPause, SEND);
+                return;
+            }
+            // Do not retry against a server, which keeps failing. A failed response so far is the result of the request:
+            if (circuitBreaker != null && (breakerPermit = circuitBreaker.tryAcquire()) == CircuitBreaker.REJECTED) {
+                if (response != null) {
+                    finish();
+                } else {
+                    fail(new CircuitBreakerOpenException("The circuit breaker is open. The request has not been sent."));
+                }
+                return;
+            }
+            // Requests above the concurrency limit are queued and transmitted by the limiter, once they hold a permit:
+            if (concurrencyLimiter != null) {
+                next = TRANSMIT;
+                boolean acquired;
+                try {
+                    acquired = concurrencyLimiter.acquire(this, this::onQueueTimeout);
+                } catch (RuntimeException e) {
+                    if (circuitBreaker != null) {
+                        circuitBreaker.release(breakerPermit);
+                    }
+                    throw e;
+                }
+                if (!acquired) {
+                    return;
+                }
+            }
+            transmit();
+        }
+
+        /**
+         * Ends a request, which waited too long for the concurrency limit. A failed response so far is its result.
+         */
+        private void onQueueTimeout(ConcurrencyLimitExceededException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.release(breakerPermit);
+            }
+            if (response != null) {
+                finish();
+            } else {
+                fail(e);
+            }
+        }
+
+        private void transmit() {
+            sentAt = System.nanoTime();
+            // The request may have waited for the limiters until its deadline. Otherwise its timeout has to end
+            // with the remaining time:
+            if (deadline != null || adaptiveTimeoutPolicy != null) {
+                Duration remaining = getRemaining();
+                if (remaining != null && remaining.isNegative()) {
+                    if (concurrencyLimiter != null) {
+                        concurrencyLimiter.release(0, false);
+                    }
+                    if (circuitBreaker != null) {
+                        circuitBreaker.release(breakerPermit);
+                    }
+                    giveUp();
+                    return;
+                }
+                request = requestFactory.createRequest(body, getTimeout(remaining));
+            }
+            CompletableFuture<HttpResponse<T>> future;
+            bodyInUse = true;
+            try {
+                future = transport.sendAsync(request, this);
+            } catch (RuntimeException e) {
+                if (concurrencyLimiter != null) {
+                    concurrencyLimiter.release(System.nanoTime() - sentAt, false);
+                }
+                if (circuitBreaker != null) {
+                    circuitBreaker.release(breakerPermit);
+                }
+                throw e;
+            }
+            Duration hedgeDelay = hedgeable ? hedgingPolicy.getHedgeDelay() : null;
+            if (hedgeDelay == null) {
+                future.whenComplete(this);
+                return;
+            }
+            HedgedAttempt<T> hedgedAttempt = new HedgedAttempt<>(this, sentAt, breakerPermit);
+            future.whenComplete(hedgedAttempt.primary);
+            delay(hedgeDelay, hedgedAttempt);
+        }
+
+        @Override
+        public void accept(HttpResponse<T> currentResponse, Throwable error) {
+            try {
+                onAttempt(currentResponse, error, true);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        /**
+         * Passes the winner of a hedged attempt to the exchange. Both requests have already released their permits.
+         */
+        private void onHedgedAttempt(HttpResponse<T> currentResponse, Throwable error) {
+            try {
+                onAttempt(currentResponse, error, false);
+            } catch (Throwable t) {
+                fail(t);
+            }
+        }
+
+        private void onAttempt(HttpResponse<T> currentResponse, Throwable error, boolean holdsPermits) {
+            Throwable cause = unwrap(error);
+            // The body has been written, once a response arrived. A failed attempt may still hold its buffers:
+            bodyInUse = currentResponse == null;
+
+            int statusCode = currentResponse != null ? currentResponse.statusCode() : 0;
+            long latency = System.nanoTime() - sentAt;
+            if (holdsPermits) {
+                releasePermits(breakerPermit, latency, statusCode, cause);
+            }
+            if (hedgingPolicy != null && error == null && statusCode < 500) {
+                hedgingPolicy.recordLatency(latency);
+            }
+            if (adaptiveTimeoutPolicy != null && ((error == null && statusCode < 500) || cause instanceof HttpTimeoutException)) {
+                adaptiveTimeoutPolicy.recordLatency(latency);
+            }
+
+            if (error != null) {
+                // It is useful to retry on IOExceptions we well, along with server errors.
+                if (!(cause instanceof IOException)) {
+                    fail(new RuntimeException("FCM call failed", cause));
+                    return;
+                }
+                LOGGER.info("IOException - {}. Calling the retrySend again...", cause.getMessage());
+            }
+
+            if (currentResponse != null && currentResponse.statusCode() < 500) {
+                retryBudget.deposit();
+            } else if (count < MAX_RETRY && !retryBudget.tryWithdraw()) {
+                // Fail fast instead of adding load to a struggling server:
+                LOGGER.warn("Retry budget exhausted. Not retrying the failed request.");
+                if (currentResponse != null) {
+                    response = currentResponse;
+                    finish();
+                } else {
+                    fail(new RetryBudgetExhaustedException("Request failed and the retry budget is exhausted."));
+                }
+                return;
+            }
+
+            response = currentResponse;
+
+            // Wait before retrying a failed call, unless this was the last attempt:
+            if (currentResponse == null && count < MAX_RETRY) {
+                schedule(backoffPolicy.getDelay(count++), ATTEMPT);
+                return;
+            }
+            // If FCM sent a Retry-After Header, the gate delays the retry. Otherwise back off:
+            boolean paused = currentResponse != null && pauseOnRetryAfter(currentResponse);
+            if (currentResponse != null && currentResponse.statusCode() >= 500 && !paused && count < MAX_RETRY) {
+                schedule(backoffPolicy.getDelay(count++), ATTEMPT);
+                return;
+            }
+            count++;
+            attempt();
+        }
+
+        /**
+         * Runs the next step after the given delay.
+         */
+        private void schedule(Duration delay, int step) {
+            // Do not wait for a retry, which would start after the deadline:
+            Duration remaining = getRemaining();
+            if (remaining != null && delay.compareTo(remaining) >= 0) {
+                giveUp();
+                return;
+            }
+            next = step;
+            delay(delay, this);
+        }
+
+        private Duration getRemaining() {
+            return deadline == null ? null : deadline.minusNanos(System.nanoTime() - startedAt);
+        }
+
+        private boolean isExpired() {
+            return result.isDone() || (deadline != null && getRemaining().isNegative());
+        }
+
+        /**
+         * Ends the request at its deadline. A failed response received so far is the result of the request.
+         */
+        private void giveUp() {
+            if (response != null) {
+                finish();
+            } else {
+                fail(newDeadlineExceededException());
+            }
+        }
+
+        private void expire() {
+            result.completeExceptionally(newDeadlineExceededException());
+        }
+
+        private DeadlineExceededException newDeadlineExceededException() {
+            return deadlineExceeded(deadline);
+        }
+
+        private void finish() {
+            cancelDeadlineTimer();
+            releaseContent();
+            if (responseExecutor == null) {
+                complete();
+            } else {
+                next = COMPLETE;
+                responseExecutor.execute(this);
+            }
+        }
+
+        private void complete() {
+            try {
+                result.complete(toResult(response));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        private void fail(Throwable t) {
+            cancelDeadlineTimer();
+            releaseContent();
+            result.completeExceptionally(t);
+        }
+
+        private void cancelDeadlineTimer() {
+            // A pending timer would keep the finished exchange, its request and its response until the deadline:
+            Future<?> timer = deadlineTimer;
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+
+        private void releaseContent() {
+            // The buffers of the body are reused, once all attempts of the request are done. A duplicate, which lost
+            // the race, may not have subscribed to the body yet, and the HttpClient may still write the buffers of a
+            // failed or pending attempt, so in both cases they are left to the garbage collector:
+            if (content != null) {
+                if (!hedged && !bodyInUse) {
+                    content.release();
+                }
+                content = null;
+            }
+        }
+
+        abstract R toResult(HttpResponse<T> response);
+    }
+
+    /**
+     * Races a duplicate against a slow attempt. The first response is passed to the exchange and the other one is
+     * dropped. An error only completes the attempt, if the other request has failed as well, so a duplicate failing
+     * fast does not fail a request, which would have succeeded.
+     *
+     * The duplicate is an attempt like any other, so it passes the message rate limiter, the Retry-After gate, the
+     * circuit breaker and the concurrency limiter, and each of the two requests releases its own permits. If it is not
+     * admitted in time, the request simply waits for the first attempt.
+     */
+    private class HedgedAttempt<T> implements Runnable {
+
+        private static final int PENDING = 0;
+        private static final int HEDGING = 1;
+        private static final int ONE_FAILED = 2;
+        private static final int DONE = 3;
+
+        private static final int HEDGE = 0;
+        private static final int SEND = 1;
+        private static final int TRANSMIT = 2;
+
+        private final PostExchange<T, ?> exchange;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        private final BiConsumer<HttpResponse<T>, Throwable> primary;
+        private final BiConsumer<HttpResponse<T>, Throwable> duplicate;
+
+        // The steps of the duplicate run one after another and are handed on through the executors and the future of
+        // the transport, which publish these fields:
+        private int next = HEDGE;
+        private long duplicateSentAt;
+        private long duplicatePermit;
+        private volatile boolean duplicateSent;
+        private volatile Throwable firstError;
+
+        private HedgedAttempt(PostExchange<T, ?> exchange, long primarySentAt, long primaryPermit) {
+            this.exchange = exchange;
+            this.primary = (response, error) -> onResponse(primaryPermit, primarySentAt, response, error);
+            this.duplicate = (response, error) -> onResponse(duplicatePermit, duplicateSentAt, response, error);
+        }
+
+        @Override
+        public void run() {
+            try {
+                switch (next) {
+                    case HEDGE:
+                        hedge();
+                        break;
+                    case SEND:
+                        send();
+                        break;
+                    default:
+                        transmit();
+                        break;
+                }
+            } catch (Throwable t) {
+                exchange.fail(t);
+            }
+        }
+
+        private void hedge() {
+            // Claim the duplicate before taking from the budget, so a request, which completed meanwhile, does not use it up:
+            if (!state.compareAndSet(PENDING, HEDGING)) {
+                return;
+            }
+            if (!hedgingPolicy.tryHedge()) {
+                decline();
+                return;
+            }
+            next = SEND;
+            if (rateLimiter != null) {
+                long wait = rateLimiter.reserve(settings.getApiKey(), exchange.requestMessage);
+                if (wait > 0) {
+                    delay(Duration.ofNanos(wait), this);
+                    return;
+                }
+            }
+            send();
+        }
+
+        private void send() {
+            // A duplicate is only worth sending, while the first attempt is pending and FCM accepts requests:
+            if (state.get() != HEDGING || exchange.isExpired() || !retryAfterGate.getRemainingPause().isZero()) {
+                decline();
+                return;
+            }
+            if (circuitBreaker != null && (duplicatePermit = circuitBreaker.tryAcquire()) == CircuitBreaker.REJECTED) {
+                decline();
+                return;
+            }
+            if (concurrencyLimiter != null) {
+                next = TRANSMIT;
+                boolean acquired;
+                try {
+                    acquired = concurrencyLimiter.acquire(this, this::onQueueTimeout);
+                } catch (ConcurrencyLimitExceededException e) {
+                    if (circuitBreaker != null) {
+                        circuitBreaker.release(duplicatePermit);
+                    }
+                    decline();
+                    return;
+                }
+                if (!acquired) {
+                    return;
+                }
+            }
+            transmit();
+        }
+
+        private void transmit() {
+            duplicateSentAt = System.nanoTime();
+            // Mark the body as used before checking the state, so a winner completing meanwhile does not release it:
+            duplicateSent = true;
+            if (state.get() != HEDGING) {
+                releasePermits(duplicatePermit, 0, 0, null);
+                decline();
+                return;
+            }
+            CompletableFuture<HttpResponse<T>> future;
+            try {
+                future = transport.sendAsync(exchange.request, exchange);
+            } catch (RuntimeException e) {
+                releasePermits(duplicatePermit, System.nanoTime() - duplicateSentAt, 0, e);
+                decline();
+                return;
+            }
+            future.whenComplete(duplicate);
+        }
+
+        private void onQueueTimeout(ConcurrencyLimitExceededException e) {
+            if (circuitBreaker != null) {
+                circuitBreaker.release(duplicatePermit);
+            }
+            decline();
+        }
+
+        /**
+         * Gives up the duplicate, which has not been sent. The request continues with the first attempt.
+         */
+        private void decline() {
+            while (true) {
+                int current = state.get();
+                if (current == HEDGING) {
+                    if (state.compareAndSet(HEDGING, PENDING)) {
+                        return;
+                    }
+                } else if (current == ONE_FAILED) {
+                    if (state.compareAndSet(ONE_FAILED, DONE)) {
+                        exchange.onHedgedAttempt(null, firstError);
+                        return;
+                    }
+                } else {
+                    return;
+                }
+            }
+        }
+
+        private void onResponse(long permit, long sentAt, HttpResponse<T> response, Throwable error) {
+            releasePermits(permit, System.nanoTime() - sentAt, response != null ? response.statusCode() : 0, unwrap(error));
+            while (true) {
+                int current = state.get();
+                if (current == DONE) {
+                    return;
+                }
+                if (error != null && current == HEDGING) {
+                    firstError = error;
+                    if (state.compareAndSet(HEDGING, ONE_FAILED)) {
+                        return;
+                    }
+                    continue;
+                }
+                if (state.compareAndSet(current, DONE)) {
+                    exchange.hedged |= duplicateSent;
+                    exchange.onHedgedAttempt(response, error);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Releases the concurrency limit and the circuit breaker permit of a sent request and records its outcome.
+     */
+    private void releasePermits(long breakerPermit, long latency, int statusCode, Throwable cause) {
+        if (concurrencyLimiter != null) {
+            concurrencyLimiter.release(latency, cause instanceof IOException || statusCode >= 500 || statusCode == 429);
+        }
+        if (circuitBreaker != null) {
+            // Only unreachable or failing servers open the breaker. A 429 is handled by the limiters and the gate:
+            if (cause == null || cause instanceof IOException) {
+                circuitBreaker.onResult(breakerPermit, latency, cause instanceof IOException || statusCode >= 500);
+            } else {
+                circuitBreaker.release(breakerPermit);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    /**
+     * Runs the task after the given delay. The delay is scheduled on a timer, so no thread is blocked while waiting.
+     */
+    private void delay(Duration delay, Runnable task) {
+        if (retryScheduler == null) {
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS).execute(task);
         } else {
-            LOGGER.error("Failed on all retries.");
-            throw new RuntimeException("All retries failed.");
+            retryScheduler.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
         }
     }
 
-    private void fixedDelay() {
-        try {
-            long waitMilliSec = random.nextInt(29000) + 1000;
-            Thread.sleep(waitMilliSec);
-        } catch (InterruptedException e) {
-            LOGGER.warn("Delay interrupted.");
-            throw new RuntimeException("Delay interrupted.");
+    /**
+     * Runs the task after the given delay like delay, but returns a handle to cancel the timer. A cancelled timer is
+     * removed from the scheduler and no longer references the task.
+     */
+    private Future<?> delayCancellable(Duration delay, Runnable task) {
+        if (retryScheduler != null) {
+            return retryScheduler.schedule(task, delay.toNanos(), TimeUnit.NANOSECONDS);
+        }
+        // The timer of orTimeout is cancelled and removed, once the future is completed:
+        CompletableFuture<Void> timer = new CompletableFuture<>();
+        timer.orTimeout(delay.toNanos(), TimeUnit.NANOSECONDS).whenComplete((ignored, e) -> {
+            if (e instanceof TimeoutException) {
+                task.run();
+            }
+        });
+        return timer;
+    }
+
+    /**
+     * Completes with the body of the response and fails with an FcmException, if FCM rejected the request.
+     */
+    private class ResponseExchange<T> extends PostExchange<T, T> {
+
+        private ResponseExchange(Object requestMessage, Supplier<HttpResponse.BodySubscriber<T>> bodySubscriber) {
+            super(requestMessage, bodySubscriber);
+        }
+
+        @Override
+        T toResult(HttpResponse<T> response) {
+            return evaluateResponse(response).body();
+        }
+    }
+
+    /**
+     * Completes with an FcmResult, so a request rejected by FCM does not create an exception.
+     */
+    private class ResultExchange<T> extends PostExchange<T, FcmResult<T>> {
+
+        private ResultExchange(Object requestMessage, Supplier<HttpResponse.BodySubscriber<T>> bodySubscriber) {
+            super(requestMessage, bodySubscriber);
+        }
+
+        @Override
+        FcmResult<T> toResult(HttpResponse<T> response) {
+            return evaluateResult(response);
         }
     }
 
@@ -164,21 +1079,144 @@ public class DefaultHttpClient implements IHttpClient {
         }
 
         if (resp.statusCode() >= 500) {
+            OutParameter<Duration> retryDelay = new OutParameter<>();
+            if (RetryHeaderUtils.tryDetermineRetryDelay(resp, retryDelay)) {
+                throw new FcmRetryAfterException(resp.statusCode(), "Retry later.", retryDelay.get());
+            }
             throw new FcmGeneralException(resp.statusCode(), "Something went wrong.");
         }
 
         return resp;
     }
 
+    private static <T> FcmResult<T> evaluateResult(HttpResponse<T> resp) {
+
+        if (resp.statusCode() == 401 || resp.statusCode() == 403) {
+            return FcmResult.authenticationFailure(resp.statusCode());
+        }
+
+        if (resp.statusCode() == 400) {
+            return FcmResult.permanentFailure(resp.statusCode());
+        }
+
+        if (resp.statusCode() >= 500) {
+            OutParameter<Duration> retryDelay = new OutParameter<>();
+            return FcmResult.retryableFailure(resp.statusCode(), RetryHeaderUtils.tryDetermineRetryDelay(resp, retryDelay) ? retryDelay.get() : null);
+        }
+
+        return FcmResult.success(resp.statusCode(), resp.body());
+    }
+
     @Override
+    @SuppressWarnings("unchecked")
     public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        long startedAt = System.nanoTime();
+        Duration requestDeadline = getDeadline(requestMessage);
         try {
-            HttpRequest request = buildPostRequest(requestMessage);
+            ChunkedByteArrayOutputStream content = requestFactory.writeBody(requestMessage);
+
+            // There is no way around blocking in a synchronous call, so sleep while the gate is paused:
+            HttpResponse<String> response;
+            boolean bodyInUse = false;
+            try {
+                Duration remainingPause;
+                while (!(remainingPause = retryAfterGate.getRemainingPause()).isZero()) {
+                    sleep(remainingPause.plusMillis(1), startedAt, requestDeadline);
+                }
 
-            HttpResponse<String> response = client.send(request, java.net.http.HttpResponse.BodyHandlers.ofString());
-            return serializer.deserialize(response.body(), responseType);
+                if (rateLimiter != null) {
+                    sleep(Duration.ofNanos(rateLimiter.reserve(settings.getApiKey(), requestMessage)), startedAt, requestDeadline);
+                }
+
+                bodyInUse = true;
+                response = send(content.toBodyPublisher(), startedAt, requestDeadline);
+                bodyInUse = false;
+            } finally {
+                // If sending failed, the HttpClient may still write the buffers, so they are left to the garbage collector:
+                if (!bodyInUse) {
+                    content.release();
+                }
+            }
+            pauseOnRetryAfter(response);
+            TResponseMessage responseMessage = serializer.deserialize(response.body(), responseType);
+            if (isCompact(responseType)) {
+                return (TResponseMessage) CompactFcmMessageResponse.of((FcmMessageResponse) responseMessage, responseMode == ResponseModeEnum.Compact);
+            }
+            return responseMessage;
+        } catch (CircuitBreakerOpenException | ConcurrencyLimitExceededException | DeadlineExceededException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Something went wrong.", e);
         }
     }
+
+    /**
+     * Sends a synchronous request. It passes the circuit breaker and waits for a permit of the concurrency limiter
+     * like an asynchronous request, but blocks the calling thread while waiting.
+     */
+    private HttpResponse<String> send(HttpRequest.BodyPublisher body, long startedAt, Duration requestDeadline) throws IOException, InterruptedException {
+        Duration remaining = remainingUntil(startedAt, requestDeadline);
+        if (remaining != null && remaining.isNegative()) {
+            throw deadlineExceeded(requestDeadline);
+        }
+        long breakerPermit = circuitBreaker != null ? circuitBreaker.tryAcquire() : 0;
+        if (breakerPermit == CircuitBreaker.REJECTED) {
+            throw new CircuitBreakerOpenException("The circuit breaker is open. The request has not been sent.");
+        }
+        if (concurrencyLimiter != null) {
+            try {
+                concurrencyLimiter.acquireSync(remaining);
+                // The request may have waited for a permit until its deadline:
+                remaining = remainingUntil(startedAt, requestDeadline);
+                if (remaining != null && remaining.isNegative()) {
+                    concurrencyLimiter.release(0, false);
+                    throw deadlineExceeded(requestDeadline);
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                if (circuitBreaker != null) {
+                    circuitBreaker.release(breakerPermit);
+                }
+                // The wait for a permit is bounded by the remaining time as well:
+                if (e instanceof ConcurrencyLimitExceededException && requestDeadline != null && remainingUntil(startedAt, requestDeadline).compareTo(Duration.ZERO) <= 0) {
+                    throw deadlineExceeded(requestDeadline);
+                }
+                throw e;
+            }
+        }
+        Duration timeout = getTimeout(remaining);
+        HttpRequest request = requestFactory.createRequest(body, timeout);
+        long sentAt = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = transport.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            releasePermits(breakerPermit, System.nanoTime() - sentAt, 0, e);
+            // The timeout of the request ended with the remaining time, so the deadline has passed:
+            if (e instanceof HttpTimeoutException && remaining != null && timeout.compareTo(remaining) >= 0) {
+                throw deadlineExceeded(requestDeadline);
+            }
+            throw e;
+        }
+        releasePermits(breakerPermit, System.nanoTime() - sentAt, response.statusCode(), null);
+        return response;
+    }
+
+    /**
+     * Blocks for the given delay. A request, which would wait beyond its deadline, fails at once instead.
+     */
+    private static void sleep(Duration delay, long startedAt, Duration requestDeadline) throws InterruptedException {
+        Duration remaining = remainingUntil(startedAt, requestDeadline);
+        if (remaining != null && delay.compareTo(remaining) >= 0) {
+            throw deadlineExceeded(requestDeadline);
+        }
+        TimeUnit.NANOSECONDS.sleep(delay.toNanos());
+    }
+
+    private static Duration remainingUntil(long startedAt, Duration deadline) {
+        return deadline == null ? null : deadline.minusNanos(System.nanoTime() - startedAt);
+    }
+
+    private static DeadlineExceededException deadlineExceeded(Duration deadline) {
+        return new DeadlineExceededException("The request did not complete within its deadline of " + deadline + ".");
+    }
 }
@@ -0,0 +1,135 @@
+package io.github.shsmysore.fcmjava.client.http.apache.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free pool of byte arrays of a fixed size.
+ *
+ * The arrays are kept in a ring of a fixed number of slots, so taking and returning an array does not allocate and
+ * does not scan the pool. Every slot has a sequence number, which tells whether it holds an array for the next take
+ * or is free for the next return, so each operation only claims a position with a single CAS (Vyukov's bounded
+ * queue). An operation only spins, while another thread is between claiming the same slot and publishing it.
+ *
+ * If the pool is empty, {@link #acquire()} returns null and the caller allocates an array of its own. Arrays
+ * returned to a full pool are left to the garbage collector.
+ */
+public class ByteArrayPool {
+
+    private final int bufferSize;
+    private final AtomicReferenceArray<byte[]> slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong takePosition = new AtomicLong();
+    private final AtomicLong returnPosition = new AtomicLong();
+
+    public ByteArrayPool(int bufferSize, int capacity) {
+
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("bufferSize");
+        }
+
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity");
+        }
+
+        this.bufferSize = bufferSize;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Takes an array from the pool. The pool starts empty and is filled by the arrays returned to it.
+     *
+     * @return Array of {@link #getBufferSize()} bytes or null, if all arrays are in use
+     */
+    public byte[] acquire() {
+        long position = takePosition.get();
+        while (true) {
+            int index = (int) (position % slots.length());
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (takePosition.compareAndSet(position, position + 1)) {
+                    byte[] buffer = slots.get(index);
+                    slots.set(index, null);
+                    // The slot is free for the return one round later:
+                    sequences.set(index, position + slots.length());
+                    return buffer;
+                }
+                position = takePosition.get();
+            } else if (difference < 0) {
+                // The slot has not been filled yet. Unless a return to it is in progress, the pool is empty:
+                if (returnPosition.get() <= position) {
+                    return null;
+                }
+                Thread.onSpinWait();
+            } else {
+                position = takePosition.get();
+            }
+        }
+    }
+
+    /**
+     * Returns an array to the pool. Arrays of a different size are ignored.
+     *
+     * @param buffer Array to return
+     */
+    public void release(byte[] buffer) {
+        if (buffer == null || buffer.length != bufferSize) {
+            return;
+        }
+        long position = returnPosition.get();
+        while (true) {
+            int index = (int) (position % slots.length());
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (returnPosition.compareAndSet(position, position + 1)) {
+                    slots.set(index, buffer);
+                    // The slot holds an array for the take at the same position:
+                    sequences.set(index, position + 1);
+                    return;
+                }
+                position = returnPosition.get();
+            } else if (difference < 0) {
+                // The slot has not been taken yet. Unless a take from it is in progress, the pool is full:
+                if (takePosition.get() + slots.length() <= position) {
+                    return;
+                }
+                Thread.onSpinWait();
+            } else {
+                position = returnPosition.get();
+            }
+        }
+    }
+
+    /**
+     * Gets the size of the pooled arrays.
+     *
+     * @return Size of an array in bytes
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Gets the maximum number of arrays kept by the pool.
+     *
+     * @return Capacity of the pool
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    /**
+     * Gets the number of arrays currently available in the pool.
+     *
+     * @return Number of available arrays
+     */
+    public int getAvailable() {
+        long available = returnPosition.get() - takePosition.get();
+        return (int) Math.max(0, Math.min(available, slots.length()));
+    }
+}
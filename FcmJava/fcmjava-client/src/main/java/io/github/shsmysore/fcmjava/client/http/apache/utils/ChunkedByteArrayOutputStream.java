@@ -0,0 +1,349 @@
+package io.github.shsmysore.fcmjava.client.http.apache.utils;
+
+import java.io.OutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An OutputStream, which collects the written bytes in chunks instead of a single growing array.
+ *
+ * The chunks start small and double in size up to a maximum chunk size, so small bodies allocate little memory and
+ * large bodies are never copied into a contiguous array. The written bytes are copied into the chunks once. The
+ * chunks are then published as the body of a request one after another, wrapped in ByteBuffers instead of being
+ * copied again.
+ *
+ * With a {@link ByteArrayPool} all chunks have the size of the pooled arrays and are taken from the pool. Call
+ * {@link #release()} once the request is done: the chunks go back to the pool as soon as no subscriber of the
+ * published body is reading them anymore.
+ */
+public class ChunkedByteArrayOutputStream extends OutputStream {
+
+    private static final int DEFAULT_INITIAL_CHUNK_SIZE = 512;
+
+    private final int initialChunkSize;
+    private final int maxChunkSize;
+    private final ByteArrayPool pool;
+    private final List<byte[]> chunks = new ArrayList<>(1);
+
+    // One reference for the owner of the stream and one for every subscriber reading the published body:
+    private final AtomicInteger references = new AtomicInteger(1);
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    private byte[] current;
+    private int position;
+    private long size;
+
+    public ChunkedByteArrayOutputStream(int maxChunkSize) {
+        this(DEFAULT_INITIAL_CHUNK_SIZE, maxChunkSize);
+    }
+
+    /**
+     * Creates a ChunkedByteArrayOutputStream.
+     *
+     * @param initialChunkSize Size of the first chunk, for example the expected size of the body
+     * @param maxChunkSize Maximum size of a chunk
+     */
+    public ChunkedByteArrayOutputStream(int initialChunkSize, int maxChunkSize) {
+
+        if (initialChunkSize < 1) {
+            throw new IllegalArgumentException("initialChunkSize");
+        }
+
+        if (maxChunkSize < 1) {
+            throw new IllegalArgumentException("maxChunkSize");
+        }
+
+        this.initialChunkSize = initialChunkSize;
+        this.maxChunkSize = maxChunkSize;
+        this.pool = null;
+    }
+
+    /**
+     * Creates a ChunkedByteArrayOutputStream, which takes its chunks from a pool.
+     *
+     * @param pool Pool of the chunks
+     */
+    public ChunkedByteArrayOutputStream(ByteArrayPool pool) {
+
+        if (pool == null) {
+            throw new IllegalArgumentException("pool");
+        }
+
+        this.initialChunkSize = pool.getBufferSize();
+        this.maxChunkSize = pool.getBufferSize();
+        this.pool = pool;
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity();
+        current[position++] = (byte) b;
+        size++;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) {
+        while (length > 0) {
+            ensureCapacity();
+            int count = Math.min(length, current.length - position);
+            System.arraycopy(bytes, offset, current, position, count);
+            position += count;
+            offset += count;
+            length -= count;
+            size += count;
+        }
+    }
+
+    /**
+     * Gets the number of bytes written.
+     *
+     * @return Number of bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Creates a BodyPublisher for the written bytes. The stream must not be written to afterwards.
+     *
+     * The chunks are published as ByteBuffers wrapping them, so neither the first subscriber nor the subscriber of a
+     * retry copies the body.
+     *
+     * @return BodyPublisher with a known content length
+     */
+    public HttpRequest.BodyPublisher toBodyPublisher() {
+        if (current == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+
+        HttpRequest.BodyPublisher publisher = new ChunkBodyPublisher(chunks.toArray(new byte[0][]), position, size);
+
+        return pool == null ? publisher : new ReleasingBodyPublisher(publisher);
+    }
+
+    /**
+     * Releases the chunks of a pooled stream. They are returned to the pool, when the last subscriber of the
+     * published body has completed. The stream and its body must not be used after the release.
+     *
+     * The published ByteBuffers wrap the chunks, and the HttpClient may still write them after its subscriber has
+     * completed. So only release the stream once the response to the request has been received.
+     */
+    public void release() {
+        if (released.compareAndSet(false, true)) {
+            dereference();
+        }
+    }
+
+    private void dereference() {
+        if (references.decrementAndGet() == 0 && pool != null) {
+            for (byte[] chunk : chunks) {
+                pool.release(chunk);
+            }
+            chunks.clear();
+            current = null;
+        }
+    }
+
+    private boolean reference() {
+        int count;
+        do {
+            count = references.get();
+            if (count == 0) {
+                return false;
+            }
+        } while (!references.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    private void ensureCapacity() {
+        if (current == null || position == current.length) {
+            byte[] chunk = pool != null ? pool.acquire() : null;
+            if (chunk == null) {
+                int chunkSize = current == null ? initialChunkSize : current.length * 2;
+                chunk = new byte[Math.min(chunkSize, maxChunkSize)];
+            }
+            current = chunk;
+            position = 0;
+            chunks.add(current);
+        }
+    }
+
+    /**
+     * Publishes the chunks of a body as ByteBuffers, which wrap the chunks instead of copying them. The last chunk is
+     * only published up to its last written byte.
+     */
+    private static class ChunkBodyPublisher implements HttpRequest.BodyPublisher {
+
+        private final byte[][] chunks;
+        private final int lastChunkLength;
+        private final long contentLength;
+
+        private ChunkBodyPublisher(byte[][] chunks, int lastChunkLength, long contentLength) {
+            this.chunks = chunks;
+            this.lastChunkLength = lastChunkLength;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public long contentLength() {
+            return contentLength;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            subscriber.onSubscribe(new ChunkSubscription(subscriber));
+        }
+
+        private class ChunkSubscription implements Flow.Subscription {
+
+            private final Flow.Subscriber<? super ByteBuffer> subscriber;
+            private final AtomicLong demand = new AtomicLong();
+            private final AtomicInteger wip = new AtomicInteger();
+
+            private volatile boolean done;
+
+            // Only accessed by the thread emitting:
+            private int index;
+
+            private ChunkSubscription(Flow.Subscriber<? super ByteBuffer> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                if (n <= 0) {
+                    done = true;
+                    subscriber.onError(new IllegalArgumentException("n"));
+                    return;
+                }
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+                emit();
+            }
+
+            @Override
+            public void cancel() {
+                done = true;
+            }
+
+            /**
+             * Emits the chunks as long as there is demand. A subscriber requesting more from onNext only marks the
+             * emitting thread to loop again.
+             */
+            private void emit() {
+                if (wip.getAndIncrement() != 0) {
+                    return;
+                }
+                int missed = 1;
+                do {
+                    while (!done && index < chunks.length && demand.get() > 0) {
+                        demand.decrementAndGet();
+                        int chunk = index++;
+                        subscriber.onNext(ByteBuffer.wrap(chunks[chunk], 0, chunk == chunks.length - 1 ? lastChunkLength : chunks[chunk].length));
+                    }
+                    if (!done && index == chunks.length) {
+                        done = true;
+                        subscriber.onComplete();
+                    }
+                    missed = wip.addAndGet(-missed);
+                } while (missed != 0);
+            }
+        }
+    }
+
+    /**
+     * Holds a reference to the chunks for every subscriber, until it has completed, failed or cancelled.
+     */
+    private class ReleasingBodyPublisher implements HttpRequest.BodyPublisher {
+
+        private final HttpRequest.BodyPublisher publisher;
+
+        private ReleasingBodyPublisher(HttpRequest.BodyPublisher publisher) {
+            this.publisher = publisher;
+        }
+
+        @Override
+        public long contentLength() {
+            return publisher.contentLength();
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            if (!reference()) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("The body has already been released."));
+                return;
+            }
+            publisher.subscribe(new ReleasingSubscriber(subscriber));
+        }
+    }
+
+    private class ReleasingSubscriber extends AtomicBoolean implements Flow.Subscriber<ByteBuffer>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super ByteBuffer> subscriber;
+        private Flow.Subscription subscription;
+
+        private ReleasingSubscriber(Flow.Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        private void done() {
+            if (compareAndSet(false, true)) {
+                dereference();
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscriber.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            subscriber.onNext(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            try {
+                subscriber.onError(throwable);
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                subscriber.onComplete();
+            } finally {
+                done();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            subscription.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            subscription.cancel();
+            done();
+        }
+    }
+}
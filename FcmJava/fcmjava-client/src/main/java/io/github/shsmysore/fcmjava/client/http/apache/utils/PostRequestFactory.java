@@ -0,0 +1,137 @@
+package io.github.shsmysore.fcmjava.client.http.apache.utils;
+
+import io.github.shsmysore.fcmjava.client.serializer.IJsonSerializer;
+import io.github.shsmysore.fcmjava.client.templates.PreSerializedMulticastMessage;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Builds the POST requests to FCM.
+ *
+ * The URI and the headers depend only on the settings, so they are prepared once in a request template and only
+ * built again, if the URL or API Key of the settings change. Bodies are written into chunks taken from a
+ * {@link ByteArrayPool}, which have to be released once the request is done.
+ *
+ * In steady state, writing the body of a typical unicast message and building its request allocates less than
+ * {@link #UNICAST_ALLOCATION_THRESHOLD} bytes. Most of it is the HttpRequest and its headers, which cannot be reused.
+ */
+public class PostRequestFactory {
+
+    /**
+     * Upper bound of the bytes allocated to write the body and build the request of a unicast message.
+     */
+    public static final int UNICAST_ALLOCATION_THRESHOLD = 2048;
+
+    private static final int MAX_CHUNK_SIZE = 16 * 1024;
+
+    private final IFcmClientSettings settings;
+    private final IJsonSerializer serializer;
+    private final ByteArrayPool pool;
+
+    private volatile RequestTemplate template;
+
+    /**
+     * Creates a PostRequestFactory.
+     *
+     * @param settings Client Settings
+     * @param serializer Serializer for the request messages
+     * @param pool Pool for the chunks of the bodies or null, if bodies should not be pooled
+     */
+    public PostRequestFactory(IFcmClientSettings settings, IJsonSerializer serializer, ByteArrayPool pool) {
+
+        if (settings == null) {
+            throw new IllegalArgumentException("settings");
+        }
+
+        if (serializer == null) {
+            throw new IllegalArgumentException("serializer");
+        }
+
+        this.settings = settings;
+        this.serializer = serializer;
+        this.pool = pool;
+    }
+
+    /**
+     * Writes the UTF-8 encoded JSON of a request message. Messages from a template are already serialized.
+     *
+     * @param requestMessage Message to write
+     * @return Body of the request, which has to be released once the request is done
+     */
+    public ChunkedByteArrayOutputStream writeBody(Object requestMessage) {
+        ChunkedByteArrayOutputStream content;
+        if (requestMessage instanceof PreSerializedMulticastMessage) {
+            PreSerializedMulticastMessage preSerializedMessage = (PreSerializedMulticastMessage) requestMessage;
+            content = pool != null
+                    ? new ChunkedByteArrayOutputStream(pool)
+                    : new ChunkedByteArrayOutputStream(Math.min(preSerializedMessage.getEstimatedSize(), MAX_CHUNK_SIZE), MAX_CHUNK_SIZE);
+            preSerializedMessage.writeTo(content);
+        } else {
+            content = pool != null
+                    ? new ChunkedByteArrayOutputStream(pool)
+                    : new ChunkedByteArrayOutputStream(MAX_CHUNK_SIZE);
+            serializer.serialize(requestMessage, content);
+        }
+        return content;
+    }
+
+    /**
+     * Builds a POST request to FCM with the given body.
+     *
+     * @param body Body of the request
+     * @return Request
+     */
+    public HttpRequest createRequest(HttpRequest.BodyPublisher body) {
+        return createRequest(body, null);
+    }
+
+    /**
+     * Builds a POST request to FCM with the given body, which times out, if no response has been received in time.
+     *
+     * @param body Body of the request
+     * @param timeout Timeout of the request or null, if it should not time out
+     * @return Request
+     */
+    public HttpRequest createRequest(HttpRequest.BodyPublisher body, Duration timeout) {
+        HttpRequest.Builder builder = getTemplate().builder.copy()
+                .POST(body);
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        return builder.build();
+    }
+
+    private RequestTemplate getTemplate() {
+        String fcmUrl = settings.getFcmUrl();
+        String apiKey = settings.getApiKey();
+
+        RequestTemplate current = template;
+        if (current == null || !Objects.equals(current.fcmUrl, fcmUrl) || !Objects.equals(current.apiKey, apiKey)) {
+            current = new RequestTemplate(fcmUrl, apiKey);
+            template = current;
+        }
+        return current;
+    }
+
+    private static class RequestTemplate {
+
+        private final String fcmUrl;
+        private final String apiKey;
+
+        // Never modified after construction, so it is safe to copy from multiple threads:
+        private final HttpRequest.Builder builder;
+
+        private RequestTemplate(String fcmUrl, String apiKey) {
+            this.fcmUrl = fcmUrl;
+            this.apiKey = apiKey;
+            this.builder = HttpRequest.newBuilder()
+                    .uri(URI.create(fcmUrl))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "key=" + apiKey);
+        }
+    }
+}
@@ -24,6 +24,14 @@ public class RetryHeaderUtils {
         }
     }
 
+    public static boolean tryDetermineRetryDelay(java.net.http.HttpResponse<?> httpResponse, OutParameter<Duration> result) {
+        try {
+            return internalTryDetermineRetryDelay(httpResponse, result);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private static boolean internalTryDetermineRetryDelay(HttpResponse httpResponse, OutParameter<Duration> result) {
 
         // Try to get the Retry-After Header send by FCM:
@@ -34,8 +42,19 @@ public class RetryHeaderUtils {
             return false;
         }
 
-        // Try to get the Value:
-        String retryDelayAsString = retryAfterHeader.getValue();
+        return internalTryDetermineRetryDelay(retryAfterHeader.getValue(), result);
+    }
+
+    private static boolean internalTryDetermineRetryDelay(java.net.http.HttpResponse<?> httpResponse, OutParameter<Duration> result) {
+
+        // Try to get the Retry-After Header send by FCM. Early exit, if we do not have a Retry Header:
+        return httpResponse.headers()
+                .firstValue("Retry-After")
+                .map(retryDelayAsString -> internalTryDetermineRetryDelay(retryDelayAsString, result))
+                .orElse(false);
+    }
+
+    private static boolean internalTryDetermineRetryDelay(String retryDelayAsString, OutParameter<Duration> result) {
 
         // Early exit, if the Retry Header has no Value:
         if(StringUtils.isNullOrWhiteSpace(retryDelayAsString)) {
@@ -0,0 +1,297 @@
+package io.github.shsmysore.fcmjava.client.http.breaker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The CircuitBreaker stops sending requests, while FCM or the network to it is down.
+ *
+ * In the Closed state the outcomes of the last requests are recorded in a sliding window. Once the window holds the
+ * minimum number of calls and the rate of failed or slow calls reaches its threshold, the breaker opens and rejects
+ * all requests without touching the network. After the open duration the next request moves it to HalfOpen, which
+ * lets a few trial requests through. If all of them succeed, the breaker closes again, otherwise it opens again.
+ *
+ * Every state transition starts a new generation, and a permit is stamped with the generation it was acquired in.
+ * Outcomes of calls permitted in an earlier generation are not evaluated, so a slow call sent while the breaker was
+ * closed cannot close or reopen it after it moved to HalfOpen.
+ *
+ * State transitions are logged and passed to the registered {@link ICircuitBreakerListener} instances.
+ */
+public class CircuitBreaker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /**
+     * Returned by tryAcquire, if the call has to be rejected.
+     */
+    public static final long REJECTED = -1;
+
+    private static final byte FAILED = 1;
+    private static final byte SLOW = 2;
+
+    private final int minimumNumberOfCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallDurationNanos;
+    private final long openDurationNanos;
+    private final int permittedCallsInHalfOpen;
+    private final List<ICircuitBreakerListener> listeners = new CopyOnWriteArrayList<>();
+
+    // All fields below are guarded by this:
+    private final byte[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int failedCalls;
+    private int slowCalls;
+    private CircuitBreakerStateEnum state = CircuitBreakerStateEnum.Closed;
+    private long generation;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    private long rejectedCalls;
+
+    public CircuitBreaker() {
+        this(100, 20, 0.5, 0.8, Duration.ofSeconds(10), Duration.ofSeconds(30), 5);
+    }
+
+    /**
+     * Creates a CircuitBreaker.
+     *
+     * @param windowSize Number of the most recent calls, whose outcomes are evaluated.
+     * @param minimumNumberOfCalls Number of calls the window has to hold, before the breaker can open.
+     * @param failureRateThreshold Rate of failed calls in the window, for example 0.5, which opens the breaker.
+     * @param slowCallRateThreshold Rate of slow calls in the window, which opens the breaker.
+     * @param slowCallDuration Duration, above which a call counts as slow, or null to not evaluate slow calls.
+     * @param openDuration Time the breaker stays open, before it lets trial calls through.
+     * @param permittedCallsInHalfOpen Number of trial calls, which have to succeed to close the breaker.
+     */
+    public CircuitBreaker(int windowSize, int minimumNumberOfCalls, double failureRateThreshold, double slowCallRateThreshold,
+                          Duration slowCallDuration, Duration openDuration, int permittedCallsInHalfOpen) {
+
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize");
+        }
+
+        if (minimumNumberOfCalls < 1 || minimumNumberOfCalls > windowSize) {
+            throw new IllegalArgumentException("minimumNumberOfCalls");
+        }
+
+        if (!(failureRateThreshold > 0) || failureRateThreshold > 1) {
+            throw new IllegalArgumentException("failureRateThreshold");
+        }
+
+        if (!(slowCallRateThreshold > 0) || slowCallRateThreshold > 1) {
+            throw new IllegalArgumentException("slowCallRateThreshold");
+        }
+
+        if (slowCallDuration != null && (slowCallDuration.isNegative() || slowCallDuration.isZero())) {
+            throw new IllegalArgumentException("slowCallDuration");
+        }
+
+        if (openDuration == null || openDuration.isNegative()) {
+            throw new IllegalArgumentException("openDuration");
+        }
+
+        if (permittedCallsInHalfOpen < 1) {
+            throw new IllegalArgumentException("permittedCallsInHalfOpen");
+        }
+
+        this.window = new byte[windowSize];
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.slowCallDurationNanos = slowCallDuration == null ? Long.MAX_VALUE : slowCallDuration.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+        this.permittedCallsInHalfOpen = permittedCallsInHalfOpen;
+    }
+
+    /**
+     * Asks for permission to send a call. Every permitted call has to be recorded with onResult or release.
+     *
+     * @return Permit of the call, or {@link #REJECTED}, if it has to be rejected, because the breaker is open.
+     */
+    public long tryAcquire() {
+        long permit;
+        synchronized (this) {
+            if (state == CircuitBreakerStateEnum.Closed) {
+                return generation;
+            }
+            if (state == CircuitBreakerStateEnum.Open) {
+                if (System.nanoTime() - openedAt < openDurationNanos) {
+                    rejectedCalls++;
+                    return REJECTED;
+                }
+                // The open duration has passed, so let the trial calls through:
+                state = CircuitBreakerStateEnum.HalfOpen;
+                generation++;
+                resetWindow();
+                halfOpenPermits++;
+                permit = generation;
+            } else if (halfOpenPermits < permittedCallsInHalfOpen) {
+                halfOpenPermits++;
+                return generation;
+            } else {
+                rejectedCalls++;
+                return REJECTED;
+            }
+        }
+        notifyListeners(CircuitBreakerStateEnum.Open, CircuitBreakerStateEnum.HalfOpen);
+        return permit;
+    }
+
+    /**
+     * Records the outcome of a permitted call.
+     *
+     * @param permit Permit returned by tryAcquire for the call
+     * @param latency Time from sending the call until its response or error, in nanoseconds
+     * @param failed true, if the call failed with a server error or an IOException
+     */
+    public void onResult(long permit, long latency, boolean failed) {
+        boolean slow = latency > slowCallDurationNanos;
+        CircuitBreakerStateEnum from;
+        CircuitBreakerStateEnum to;
+        synchronized (this) {
+            // Calls permitted before the last state transition do not tell anything about the current state:
+            if (permit != generation) {
+                return;
+            }
+            from = state;
+            to = state == CircuitBreakerStateEnum.Closed ? recordClosed(failed, slow) : recordHalfOpen(failed, slow);
+        }
+        if (from != to) {
+            notifyListeners(from, to);
+        }
+    }
+
+    /**
+     * Returns the permit of a call, which has not been sent or failed for a reason unrelated to FCM, so its outcome
+     * is not evaluated.
+     *
+     * @param permit Permit returned by tryAcquire for the call
+     */
+    public synchronized void release(long permit) {
+        if (permit == generation && state == CircuitBreakerStateEnum.HalfOpen && halfOpenPermits > 0) {
+            halfOpenPermits--;
+        }
+    }
+
+    private CircuitBreakerStateEnum recordClosed(boolean failed, boolean slow) {
+        byte outcome = (byte) ((failed ? FAILED : 0) | (slow ? SLOW : 0));
+        if (windowCount == window.length) {
+            byte evicted = window[windowPosition];
+            failedCalls -= evicted & FAILED;
+            slowCalls -= (evicted & SLOW) >> 1;
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = outcome;
+        windowPosition = (windowPosition + 1) % window.length;
+        failedCalls += outcome & FAILED;
+        slowCalls += (outcome & SLOW) >> 1;
+
+        if (windowCount >= minimumNumberOfCalls
+                && (failedCalls >= failureRateThreshold * windowCount || slowCalls >= slowCallRateThreshold * windowCount)) {
+            open();
+        }
+        return state;
+    }
+
+    private CircuitBreakerStateEnum recordHalfOpen(boolean failed, boolean slow) {
+        if (failed || slow) {
+            open();
+        } else if (++halfOpenSuccesses >= permittedCallsInHalfOpen) {
+            state = CircuitBreakerStateEnum.Closed;
+            generation++;
+            resetWindow();
+        }
+        return state;
+    }
+
+    private void open() {
+        state = CircuitBreakerStateEnum.Open;
+        generation++;
+        openedAt = System.nanoTime();
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        windowCount = 0;
+        failedCalls = 0;
+        slowCalls = 0;
+        halfOpenPermits = 0;
+        halfOpenSuccesses = 0;
+    }
+
+    private void notifyListeners(CircuitBreakerStateEnum from, CircuitBreakerStateEnum to) {
+        LOGGER.warn("Circuit Breaker changed from {} to {}.", from, to);
+        for (ICircuitBreakerListener listener : listeners) {
+            try {
+                listener.onStateTransition(from, to);
+            } catch (RuntimeException e) {
+                LOGGER.error("Circuit Breaker listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for the state transitions of this breaker.
+     *
+     * @param listener Listener to add
+     */
+    public void addListener(ICircuitBreakerListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("listener");
+        }
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener from this breaker.
+     *
+     * @param listener Listener to remove
+     */
+    public void removeListener(ICircuitBreakerListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Gets the current state. An open breaker moves to HalfOpen with the first call after the open duration.
+     *
+     * @return Current state
+     */
+    public synchronized CircuitBreakerStateEnum getState() {
+        return state;
+    }
+
+    /**
+     * Gets the rate of failed calls in the sliding window.
+     *
+     * @return Failure rate between 0 and 1, or 0 if the window is empty
+     */
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : (double) failedCalls / windowCount;
+    }
+
+    /**
+     * Gets the rate of slow calls in the sliding window.
+     *
+     * @return Slow call rate between 0 and 1, or 0 if the window is empty
+     */
+    public synchronized double getSlowCallRate() {
+        return windowCount == 0 ? 0 : (double) slowCalls / windowCount;
+    }
+
+    /**
+     * Gets the total number of calls rejected by this breaker, since it was created.
+     *
+     * @return Rejected calls
+     */
+    public synchronized long getRejectedCalls() {
+        return rejectedCalls;
+    }
+}
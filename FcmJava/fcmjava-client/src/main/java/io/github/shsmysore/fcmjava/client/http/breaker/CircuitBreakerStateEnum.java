@@ -0,0 +1,23 @@
+package io.github.shsmysore.fcmjava.client.http.breaker;
+
+/**
+ * The states of a CircuitBreaker.
+ */
+public enum CircuitBreakerStateEnum {
+
+    /**
+     * Requests are sent and their outcomes are recorded in the sliding window.
+     */
+    Closed,
+
+    /**
+     * Requests are rejected without touching the network, until the open duration has passed.
+     */
+    Open,
+
+    /**
+     * A limited number of trial requests is sent. If all of them succeed, the breaker closes, otherwise it opens again.
+     */
+    HalfOpen
+
+}
@@ -0,0 +1,75 @@
+package io.github.shsmysore.fcmjava.client.http.breaker;
+
+import io.github.shsmysore.fcmjava.client.exceptions.CircuitBreakerOpenException;
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * The FallbackHttpClient diverts the requests, which an open {@link CircuitBreaker} of the delegate rejected, to a
+ * fallback client. The fallback can, for example, write the messages to a durable queue and answer with an empty
+ * response, so they are sent once FCM is available again.
+ *
+ * Only requests, which have not been sent, are diverted. Requests failing for any other reason fail as before.
+ */
+public class FallbackHttpClient implements IHttpClient {
+
+    private final IHttpClient delegate;
+    private final IHttpClient fallback;
+
+    public FallbackHttpClient(IHttpClient delegate, IHttpClient fallback) {
+
+        if (delegate == null) {
+            throw new IllegalArgumentException("delegate");
+        }
+
+        if (fallback == null) {
+            throw new IllegalArgumentException("fallback");
+        }
+
+        this.delegate = delegate;
+        this.fallback = fallback;
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        try {
+            return delegate.postSync(requestMessage, responseType);
+        } catch (CircuitBreakerOpenException e) {
+            return fallback.postSync(requestMessage, responseType);
+        }
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return withFallback(delegate.postAsync(requestMessage, responseType), () -> fallback.postAsync(requestMessage, responseType));
+    }
+
+    @Override
+    public CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> requestMessage, IResultItemCallback callback) {
+        return withFallback(delegate.postMulticastAsync(requestMessage, callback), () -> fallback.postMulticastAsync(requestMessage, callback));
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return withFallback(delegate.postForResultAsync(requestMessage, responseType), () -> fallback.postForResultAsync(requestMessage, responseType));
+    }
+
+    private static <T> CompletableFuture<T> withFallback(CompletableFuture<T> future, Supplier<CompletableFuture<T>> fallback) {
+        return future
+                .handle((response, error) -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof CircuitBreakerOpenException) {
+                        return fallback.get();
+                    }
+                    return error == null ? CompletableFuture.completedFuture(response) : CompletableFuture.<T>failedFuture(cause);
+                })
+                .thenCompose(f -> f);
+    }
+}
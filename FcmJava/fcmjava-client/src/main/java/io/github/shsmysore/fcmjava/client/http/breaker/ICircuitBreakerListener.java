@@ -0,0 +1,18 @@
+package io.github.shsmysore.fcmjava.client.http.breaker;
+
+/**
+ * Is notified, when a CircuitBreaker changes its state.
+ */
+@FunctionalInterface
+public interface ICircuitBreakerListener {
+
+    /**
+     * Called after the state has changed. It is called outside of the lock of the CircuitBreaker, so it may query
+     * the breaker, but it should return quickly, because it runs on the thread completing a request.
+     *
+     * @param from Previous state
+     * @param to New state
+     */
+    void onStateTransition(CircuitBreakerStateEnum from, CircuitBreakerStateEnum to);
+
+}
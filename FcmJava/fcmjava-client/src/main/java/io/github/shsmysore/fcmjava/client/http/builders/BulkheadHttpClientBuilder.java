@@ -0,0 +1,139 @@
+package io.github.shsmysore.fcmjava.client.http.builders;
+
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.bulkhead.BulkheadHttpClient;
+import io.github.shsmysore.fcmjava.client.http.bulkhead.MessageCategoryEnum;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.transport.IHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.SimpleHttpTransport;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+public class BulkheadHttpClientBuilder {
+
+    private IHttpClient defaultClient = null;
+    private final Map<MessageCategoryEnum, IHttpClient> clients = new EnumMap<>(MessageCategoryEnum.class);
+
+    private IFcmClientSettings settings = null;
+    private IHttpTransport transport = null;
+    private HttpClientOptionsBuilder options = HttpClientOptions.builder();
+    private int maxRetry = 3;
+    private int[] defaultBulkhead = null;
+    private final Map<MessageCategoryEnum, int[]> bulkheads = new EnumMap<>(MessageCategoryEnum.class);
+
+    public BulkheadHttpClientBuilder setDefaultClient(IHttpClient defaultClient) {
+        this.defaultClient = defaultClient;
+
+        return this;
+    }
+
+    public BulkheadHttpClientBuilder setClient(MessageCategoryEnum category, IHttpClient client) {
+        this.clients.put(category, client);
+
+        return this;
+    }
+
+    public BulkheadHttpClientBuilder setSettings(IFcmClientSettings settings) {
+        this.settings = settings;
+
+        return this;
+    }
+
+    public BulkheadHttpClientBuilder setTransport(IHttpTransport transport) {
+        this.transport = transport;
+
+        return this;
+    }
+
+    public BulkheadHttpClientBuilder setOptions(HttpClientOptionsBuilder options) {
+        this.options = options;
+
+        return this;
+    }
+
+    public BulkheadHttpClientBuilder setMaxRetry(int maxRetry) {
+        this.maxRetry = maxRetry;
+
+        return this;
+    }
+
+    /**
+     * Creates a DefaultHttpClient for the categories without a client of their own, with a concurrency limiter of
+     * its own.
+     *
+     * @param maxConcurrentRequests Maximum number of requests in flight
+     * @param maxQueueSize Maximum number of requests waiting for the limit
+     * @return This builder
+     */
+    public BulkheadHttpClientBuilder setDefaultBulkhead(int maxConcurrentRequests, int maxQueueSize) {
+        this.defaultBulkhead = new int[] { maxConcurrentRequests, maxQueueSize };
+
+        return this;
+    }
+
+    /**
+     * Creates a DefaultHttpClient for a category, with a concurrency limiter of its own.
+     *
+     * @param category Category of the messages
+     * @param maxConcurrentRequests Maximum number of requests in flight
+     * @param maxQueueSize Maximum number of requests waiting for the limit
+     * @return This builder
+     */
+    public BulkheadHttpClientBuilder setBulkhead(MessageCategoryEnum category, int maxConcurrentRequests, int maxQueueSize) {
+        this.bulkheads.put(category, new int[] { maxConcurrentRequests, maxQueueSize });
+
+        return this;
+    }
+
+    public BulkheadHttpClient build() {
+        if (defaultBulkhead == null && bulkheads.isEmpty()) {
+            return new BulkheadHttpClient(defaultClient, clients);
+        }
+
+        if (settings == null) {
+            throw new IllegalArgumentException("settings");
+        }
+
+        if (options == null) {
+            throw new IllegalArgumentException("options");
+        }
+
+        // The bulkheads share the connections, but not their limiters:
+        IHttpTransport sharedTransport = transport != null
+                ? transport
+                : new SimpleHttpTransport(HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build());
+
+        Map<MessageCategoryEnum, IHttpClient> allClients = new EnumMap<>(clients);
+        for (Map.Entry<MessageCategoryEnum, int[]> bulkhead : bulkheads.entrySet()) {
+            allClients.put(bulkhead.getKey(), createBulkhead(sharedTransport, bulkhead.getValue()));
+        }
+
+        IHttpClient allDefault = defaultBulkhead != null ? createBulkhead(sharedTransport, defaultBulkhead) : defaultClient;
+
+        return new BulkheadHttpClient(allDefault, allClients);
+    }
+
+    private IHttpClient createBulkhead(IHttpTransport sharedTransport, int[] bulkhead) {
+        int maxConcurrentRequests = bulkhead[0];
+        int maxQueueSize = bulkhead[1];
+
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests");
+        }
+
+        // The limit adapts to FCM, but never exceeds the limit of the bulkhead:
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(maxConcurrentRequests, 1, maxConcurrentRequests,
+                0.9, Duration.ofSeconds(5), maxQueueSize);
+
+        return new DefaultHttpClient(settings, new JsonSerializer(), sharedTransport, maxRetry, options
+                .setConcurrencyLimiter(limiter)
+                .build());
+    }
+}
@@ -0,0 +1,169 @@
+package io.github.shsmysore.fcmjava.client.http.builders;
+
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreaker;
+import io.github.shsmysore.fcmjava.client.http.hedging.HedgingPolicy;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.MessageRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.http.timeout.AdaptiveTimeoutPolicy;
+import io.github.shsmysore.fcmjava.client.retry.RetryAfterGate;
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.RandomBackoffPolicy;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class HttpClientOptionsBuilder {
+
+    private HttpClient.Version httpVersion = HttpClient.Version.HTTP_1_1;
+    private int maxConnections = 4;
+    private int maxConcurrentStreamsPerConnection = 100;
+    private IBackoffPolicy backoffPolicy = new RandomBackoffPolicy(Duration.ofSeconds(1), Duration.ofSeconds(30));
+    private Executor serializationExecutor = null;
+    private Executor responseExecutor = null;
+    private ScheduledExecutorService retryScheduler = null;
+    private boolean virtualThreads = false;
+    private RetryAfterGate retryAfterGate = null;
+    private RetryBudget retryBudget = null;
+    private ResponseModeEnum responseMode = ResponseModeEnum.Full;
+    private int bodyBufferPoolCapacity = 256;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter = null;
+    private MessageRateLimiter rateLimiter = null;
+    private CircuitBreaker circuitBreaker = null;
+    private HedgingPolicy hedgingPolicy = null;
+    private Duration requestTimeout = null;
+    private Duration deadline = null;
+    private AdaptiveTimeoutPolicy adaptiveTimeoutPolicy = null;
+    private int stripes = 1;
+
+    public HttpClientOptionsBuilder setHttpVersion(HttpClient.Version httpVersion) {
+        this.httpVersion = httpVersion;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setMaxConcurrentStreamsPerConnection(int maxConcurrentStreamsPerConnection) {
+        this.maxConcurrentStreamsPerConnection = maxConcurrentStreamsPerConnection;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setBackoffPolicy(IBackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setSerializationExecutor(Executor serializationExecutor) {
+        this.serializationExecutor = serializationExecutor;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setResponseExecutor(Executor responseExecutor) {
+        this.responseExecutor = responseExecutor;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setRetryScheduler(ScheduledExecutorService retryScheduler) {
+        this.retryScheduler = retryScheduler;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setRetryAfterGate(RetryAfterGate retryAfterGate) {
+        this.retryAfterGate = retryAfterGate;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setRetryBudget(RetryBudget retryBudget) {
+        this.retryBudget = retryBudget;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setResponseMode(ResponseModeEnum responseMode) {
+        this.responseMode = responseMode;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setBodyBufferPoolCapacity(int bodyBufferPoolCapacity) {
+        this.bodyBufferPoolCapacity = bodyBufferPoolCapacity;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setConcurrencyLimiter(AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setRateLimiter(MessageRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setCircuitBreaker(CircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setHedgingPolicy(HedgingPolicy hedgingPolicy) {
+        this.hedgingPolicy = hedgingPolicy;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setRequestTimeout(Duration requestTimeout) {
+        this.requestTimeout = requestTimeout;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setDeadline(Duration deadline) {
+        this.deadline = deadline;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setAdaptiveTimeoutPolicy(AdaptiveTimeoutPolicy adaptiveTimeoutPolicy) {
+        this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+
+        return this;
+    }
+
+    public HttpClientOptionsBuilder setStripes(int stripes) {
+        this.stripes = stripes;
+
+        return this;
+    }
+
+    public HttpClientOptions build() {
+        return new HttpClientOptions(httpVersion, maxConnections, maxConcurrentStreamsPerConnection, backoffPolicy,
+                serializationExecutor, responseExecutor, retryScheduler, virtualThreads, retryAfterGate, retryBudget, responseMode, bodyBufferPoolCapacity,
+                concurrencyLimiter, rateLimiter, circuitBreaker, hedgingPolicy,
+                requestTimeout, deadline, adaptiveTimeoutPolicy, stripes);
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.shsmysore.fcmjava.client.http.bulkhead;
+
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.builders.BulkheadHttpClientBuilder;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.FcmUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.DeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The BulkheadHttpClient sends every category of messages on a client of its own, so a large topic campaign cannot
+ * starve latency-sensitive unicast messages or the device group housekeeping.
+ *
+ * Every bulkhead is a client with its own concurrency limit and queue. The builder creates a DefaultHttpClient with
+ * an {@link AdaptiveConcurrencyLimiter} of its own for every category given a limit and a queue size, and these
+ * bulkheads share an IHttpTransport and with it the connections. A DefaultHttpClient passed in has to have a limiter,
+ * which no other bulkhead uses, otherwise the bulkheads would not be isolated. Other clients have to limit their
+ * requests themselves. Categories without a client of their own are sent on the default client.
+ */
+public class BulkheadHttpClient implements IHttpClient {
+
+    private static final MessageCategoryEnum[] CATEGORIES = MessageCategoryEnum.values();
+
+    private final IHttpClient[] clients = new IHttpClient[CATEGORIES.length];
+
+    /**
+     * Creates a BulkheadHttpClient.
+     *
+     * @param defaultClient Client for the categories, which have no client of their own
+     * @param clients Clients per category
+     * @throws IllegalArgumentException if a DefaultHttpClient has no AdaptiveConcurrencyLimiter or shares it with another client
+     */
+    public BulkheadHttpClient(IHttpClient defaultClient, Map<MessageCategoryEnum, IHttpClient> clients) {
+
+        if (defaultClient == null) {
+            throw new IllegalArgumentException("defaultClient");
+        }
+
+        if (clients == null) {
+            throw new IllegalArgumentException("clients");
+        }
+
+        for (MessageCategoryEnum category : CATEGORIES) {
+            IHttpClient client = clients.get(category);
+            this.clients[category.ordinal()] = client != null ? client : defaultClient;
+        }
+
+        // A bulkhead without a limiter would not limit its requests at all, and bulkheads created with the same
+        // HttpClientOptions would queue their requests in the same limiter:
+        Map<AdaptiveConcurrencyLimiter, IHttpClient> limiters = new IdentityHashMap<>();
+        for (IHttpClient client : this.clients) {
+            if (client instanceof DefaultHttpClient) {
+                AdaptiveConcurrencyLimiter limiter = ((DefaultHttpClient) client).getConcurrencyLimiter();
+                if (limiter == null) {
+                    throw new IllegalArgumentException("clients");
+                }
+                IHttpClient owner = limiters.putIfAbsent(limiter, client);
+                if (owner != null && owner != client) {
+                    throw new IllegalArgumentException("clients");
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the client, which sends the messages of a category.
+     *
+     * @param category Category of the messages
+     * @return Client of the category
+     */
+    public IHttpClient getClient(MessageCategoryEnum category) {
+        return clients[category.ordinal()];
+    }
+
+    /**
+     * Gets the category of a message. Messages of an unknown type, like raw JSON maps, are Unicast messages.
+     *
+     * @param message Message to send
+     * @return Category of the message
+     */
+    public static MessageCategoryEnum getCategory(Object message) {
+        if (message instanceof DeviceGroupMessage) {
+            return MessageCategoryEnum.DeviceGroup;
+        }
+        if (message instanceof TopicMulticastMessage
+                || (message instanceof FcmUnicastMessage && ((FcmUnicastMessage<?>) message).getTo().startsWith("/topics/"))) {
+            return MessageCategoryEnum.Topic;
+        }
+        if (message instanceof FcmMulticastMessage) {
+            return MessageCategoryEnum.Multicast;
+        }
+        return MessageCategoryEnum.Unicast;
+    }
+
+    private IHttpClient getClient(Object message) {
+        return clients[getCategory(message).ordinal()];
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return getClient(requestMessage).postSync(requestMessage, responseType);
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return getClient(requestMessage).postAsync(requestMessage, responseType);
+    }
+
+    @Override
+    public CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> requestMessage, IResultItemCallback callback) {
+        return getClient(requestMessage).postMulticastAsync(requestMessage, callback);
+    }
+
+    @Override
+    public <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+        return getClient(requestMessage).postForResultAsync(requestMessage, responseType);
+    }
+
+    public static BulkheadHttpClientBuilder builder() {
+        return new BulkheadHttpClientBuilder();
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.shsmysore.fcmjava.client.http.bulkhead;
+
+/**
+ * The categories of messages, which the BulkheadHttpClient sends on separate clients.
+ */
+public enum MessageCategoryEnum {
+
+    /**
+     * Messages to a single device token, like DataUnicastMessage and NotificationUnicastMessage.
+     */
+    Unicast,
+
+    /**
+     * Messages to a list of device tokens, like DataMulticastMessage and NotificationMulticastMessage.
+     */
+    Multicast,
+
+    /**
+     * Messages to a topic or a condition of topics, like TopicUnicastMessage and TopicMulticastMessage.
+     */
+    Topic,
+
+    /**
+     * Messages managing device groups, like CreateDeviceGroupMessage and AddDeviceGroupMessage.
+     */
+    DeviceGroup
+
+}
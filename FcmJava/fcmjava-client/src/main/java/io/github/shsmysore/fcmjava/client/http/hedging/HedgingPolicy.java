@@ -0,0 +1,146 @@
+package io.github.shsmysore.fcmjava.client.http.hedging;
+
+import io.github.shsmysore.fcmjava.client.http.metrics.LatencyHistogram;
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import io.github.shsmysore.fcmjava.requests.FcmMessage;
+import io.github.shsmysore.fcmjava.requests.FcmUnicastMessage;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * The HedgingPolicy decides, when the DefaultHttpClient sends a duplicate of a slow request.
+ *
+ * If the response to an idempotent request has not arrived within a percentile of the recently observed latencies,
+ * a single duplicate is sent and the first response wins. The duplicates are limited to a ratio of the idempotent
+ * requests by a {@link RetryBudget}, so hedging cannot multiply the load on a slow server.
+ *
+ * By default only unicast messages with a Collapse Key are idempotent, because FCM replaces a message with the same
+ * Collapse Key on the device, so a duplicate is never shown twice.
+ */
+public class HedgingPolicy {
+
+    private final double latencyPercentile;
+    private final int minimumSamples;
+    private final long minDelayNanos;
+    private final Predicate<Object> idempotent;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final RetryBudget hedgeBudget;
+    private final AtomicLong hedgedRequests = new AtomicLong();
+
+    private volatile long hedgeDelayNanos = -1;
+
+    public HedgingPolicy() {
+        this(0.95, 0.05, 100, Duration.ofMillis(5), HedgingPolicy::hasCollapseKey);
+    }
+
+    /**
+     * Creates a HedgingPolicy.
+     *
+     * @param latencyPercentile Percentile of the latencies, after which a duplicate is sent, for example 0.95.
+     * @param maxHedgeRatio Maximum ratio of idempotent requests, which are duplicated, for example 0.05.
+     * @param minimumSamples Number of latencies to observe, before requests are hedged. At most 1024.
+     * @param minDelay Minimum time to wait before sending a duplicate.
+     * @param idempotent Predicate deciding, if a message may be sent twice.
+     */
+    public HedgingPolicy(double latencyPercentile, double maxHedgeRatio, int minimumSamples, Duration minDelay, Predicate<Object> idempotent) {
+
+        if (!(latencyPercentile > 0) || latencyPercentile > 1) {
+            throw new IllegalArgumentException("latencyPercentile");
+        }
+
+        if (!(maxHedgeRatio > 0) || maxHedgeRatio > 1) {
+            throw new IllegalArgumentException("maxHedgeRatio");
+        }
+
+        if (minimumSamples < 1 || minimumSamples > latencies.getWindowSize()) {
+            throw new IllegalArgumentException("minimumSamples");
+        }
+
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("minDelay");
+        }
+
+        if (idempotent == null) {
+            throw new IllegalArgumentException("idempotent");
+        }
+
+        this.latencyPercentile = latencyPercentile;
+        this.minimumSamples = minimumSamples;
+        this.minDelayNanos = minDelay.toNanos();
+        this.idempotent = idempotent;
+        this.hedgeBudget = new RetryBudget(maxHedgeRatio, 0, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Returns true, if the message may be hedged. Every hedgeable request also adds to the budget of duplicates.
+     *
+     * @param message Message to send
+     * @return true, if a duplicate of the message may be sent
+     */
+    public boolean isHedgeable(Object message) {
+        if (!idempotent.test(message)) {
+            return false;
+        }
+        hedgeBudget.deposit();
+        return true;
+    }
+
+    /**
+     * Gets the time to wait for a response, before a duplicate is sent.
+     *
+     * @return Hedging delay, or null, if not enough latencies have been observed yet
+     */
+    public Duration getHedgeDelay() {
+        long delay = hedgeDelayNanos;
+        return delay < 0 ? null : Duration.ofNanos(delay);
+    }
+
+    /**
+     * Withdraws a duplicate from the budget.
+     *
+     * @return true, if the duplicate may be sent
+     */
+    public boolean tryHedge() {
+        if (!hedgeBudget.tryWithdraw()) {
+            return false;
+        }
+        hedgedRequests.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Records the latency of a successful request.
+     *
+     * @param latency Latency in nanoseconds
+     */
+    public void recordLatency(long latency) {
+        Duration percentile = latencies.recordAndGetPercentile(latency, latencyPercentile, minimumSamples);
+        if (percentile != null) {
+            hedgeDelayNanos = Math.max(minDelayNanos, percentile.toNanos());
+        }
+    }
+
+    /**
+     * Gets the number of duplicates sent, since the policy was created.
+     *
+     * @return Sent duplicates
+     */
+    public long getHedgedRequests() {
+        return hedgedRequests.get();
+    }
+
+    /**
+     * Gets the number of duplicates rejected because the budget was used up.
+     *
+     * @return Rejected duplicates
+     */
+    public long getRejectedHedges() {
+        return hedgeBudget.getRejectedRetries();
+    }
+
+    private static boolean hasCollapseKey(Object message) {
+        return message instanceof FcmUnicastMessage && ((FcmMessage<?>) message).getCollapseKey() != null;
+    }
+}
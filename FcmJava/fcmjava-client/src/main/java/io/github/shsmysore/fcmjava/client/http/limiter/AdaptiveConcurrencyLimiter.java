@@ -0,0 +1,336 @@
+package io.github.shsmysore.fcmjava.client.http.limiter;
+
+import io.github.shsmysore.fcmjava.client.exceptions.ConcurrencyLimitExceededException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * The AdaptiveConcurrencyLimiter limits the number of requests in flight to FCM and adapts the limit with an AIMD
+ * (additive increase, multiplicative decrease) algorithm.
+ *
+ * While requests succeed and the limit is actually used, it grows by about one per round trip. A request failing with
+ * a server error, a 429 or an IOException, or taking longer than the latency threshold, shrinks the limit by the
+ * backoff ratio. Requests above the limit wait in a queue and are rejected, once the queue is full.
+ *
+ * Queued waiters are handed to an Executor, once they get a permit, so a releasing thread never sends the requests
+ * of others. A waiter, which has waited longer than the maximum queue wait, is failed with a
+ * {@link ConcurrencyLimitExceededException}. Expired waiters are found, whenever a permit is released or a request has
+ * to wait.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final int maxQueueSize;
+    private final long maxQueueWaitNanos;
+    private final Executor executor;
+
+    // All fields below are guarded by this:
+    private final Queue<Waiter> queue = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+    private long queuedRequests;
+    private long rejectedRequests;
+    private long timedOutRequests;
+    private long totalQueueWaitNanos;
+
+    public AdaptiveConcurrencyLimiter() {
+        this(20, 1, 200, 0.9, Duration.ofSeconds(5), 1000);
+    }
+
+    /**
+     * Creates an AdaptiveConcurrencyLimiter, which runs the waiters on the common ForkJoinPool and fails them after
+     * waiting for 30 seconds.
+     *
+     * @param initialLimit Limit to start with.
+     * @param minLimit Lower bound of the limit.
+     * @param maxLimit Upper bound of the limit.
+     * @param backoffRatio Factor the limit is multiplied with on overload, for example 0.9.
+     * @param latencyThreshold Latency, above which a request counts as overload, or null to only use the status codes.
+     * @param maxQueueSize Maximum number of requests waiting for the limit.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration latencyThreshold, int maxQueueSize) {
+        this(initialLimit, minLimit, maxLimit, backoffRatio, latencyThreshold, maxQueueSize, Duration.ofSeconds(30), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an AdaptiveConcurrencyLimiter.
+     *
+     * @param initialLimit Limit to start with.
+     * @param minLimit Lower bound of the limit.
+     * @param maxLimit Upper bound of the limit.
+     * @param backoffRatio Factor the limit is multiplied with on overload, for example 0.9.
+     * @param latencyThreshold Latency, above which a request counts as overload, or null to only use the status codes.
+     * @param maxQueueSize Maximum number of requests waiting for the limit.
+     * @param maxQueueWait Maximum time a request waits for the limit, or null to wait without a timeout.
+     * @param executor Executor, which runs the waiters once they get a permit.
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, Duration latencyThreshold, int maxQueueSize,
+                                      Duration maxQueueWait, Executor executor) {
+
+        if (minLimit < 1) {
+            throw new IllegalArgumentException("minLimit");
+        }
+
+        if (maxLimit < minLimit) {
+            throw new IllegalArgumentException("maxLimit");
+        }
+
+        if (initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("initialLimit");
+        }
+
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio");
+        }
+
+        if (latencyThreshold != null && (latencyThreshold.isNegative() || latencyThreshold.isZero())) {
+            throw new IllegalArgumentException("latencyThreshold");
+        }
+
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize");
+        }
+
+        if (maxQueueWait != null && (maxQueueWait.isNegative() || maxQueueWait.isZero())) {
+            throw new IllegalArgumentException("maxQueueWait");
+        }
+
+        if (executor == null) {
+            throw new IllegalArgumentException("executor");
+        }
+
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold == null ? Long.MAX_VALUE : latencyThreshold.toNanos();
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWaitNanos = maxQueueWait == null ? Long.MAX_VALUE : maxQueueWait.toNanos();
+        this.executor = executor;
+    }
+
+    /**
+     * Acquires a permit to send a request. If the limit is reached, the waiter is queued and run on the executor as
+     * soon as a permit is free. The waiter then holds the permit. If it waits longer than the maximum queue wait, the
+     * timeout callback is run on the executor instead.
+     *
+     * @param waiter Task to run, once a permit has been acquired for it
+     * @param timeout Callback for a waiter, which did not get a permit in time
+     * @return true, if the permit was acquired at once. false, if the waiter has been queued.
+     * @throws ConcurrencyLimitExceededException if the queue is full
+     */
+    public boolean acquire(Runnable waiter, Consumer<? super ConcurrencyLimitExceededException> timeout) {
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+        }
+        // Make room in the queue by failing the waiters, which have waited too long:
+        runWaiters();
+        synchronized (this) {
+            if (inFlight < (int) limit) {
+                inFlight++;
+                return true;
+            }
+            if (queue.size() >= maxQueueSize) {
+                rejectedRequests++;
+                throw new ConcurrencyLimitExceededException("Too many requests are waiting for the concurrency limit.");
+            }
+            queue.add(new Waiter(waiter, timeout, System.nanoTime()));
+            queuedRequests++;
+            return false;
+        }
+    }
+
+    /**
+     * Acquires a permit for a synchronous request and blocks, until the permit is free. The request waits in the same
+     * queue as the asynchronous requests and holds the permit, once this method returns.
+     *
+     * @param timeout Maximum time to wait, or null to wait up to the maximum queue wait
+     * @throws ConcurrencyLimitExceededException if the queue is full or no permit has been acquired in time
+     * @throws InterruptedException if the thread has been interrupted while waiting
+     */
+    public void acquireSync(Duration timeout) throws InterruptedException {
+        CompletableFuture<Void> permit = new CompletableFuture<>();
+        // A permit passed to a caller, which has stopped waiting, is given back at once:
+        if (acquire(() -> {
+            if (!permit.complete(null)) {
+                releaseUnused();
+            }
+        }, permit::completeExceptionally)) {
+            return;
+        }
+        long timeoutNanos = timeout == null ? maxQueueWaitNanos : Math.min(Math.max(0, timeout.toNanos()), maxQueueWaitNanos);
+        try {
+            permit.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw (ConcurrencyLimitExceededException) e.getCause();
+        } catch (TimeoutException e) {
+            if (permit.completeExceptionally(e)) {
+                throw new ConcurrencyLimitExceededException("The request has waited too long for the concurrency limit.");
+            }
+            // The permit has been passed to the request meanwhile:
+            if (permit.isCompletedExceptionally()) {
+                throw new ConcurrencyLimitExceededException("The request has waited too long for the concurrency limit.");
+            }
+        } catch (InterruptedException e) {
+            if (!permit.completeExceptionally(e) && !permit.isCompletedExceptionally()) {
+                releaseUnused();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Releases the permit of a request and adapts the limit to its outcome. Queued waiters, which now get a permit,
+     * are handed to the executor.
+     *
+     * @param latency Time from sending the request until its response or error, in nanoseconds
+     * @param overloaded true, if the request failed with a server error, a 429 or an IOException
+     */
+    public void release(long latency, boolean overloaded) {
+        synchronized (this) {
+            if (overloaded || latency > latencyThresholdNanos) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow, if the limit is used, or it grows without bounds while the traffic is low:
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            inFlight--;
+        }
+        runWaiters();
+    }
+
+    private void releaseUnused() {
+        synchronized (this) {
+            inFlight--;
+        }
+        runWaiters();
+    }
+
+    /**
+     * Gets the current limit of requests in flight.
+     *
+     * @return Current limit
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return Requests in flight
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of requests currently waiting for a permit.
+     *
+     * @return Length of the queue
+     */
+    public synchronized int getQueueLength() {
+        return queue.size();
+    }
+
+    /**
+     * Gets the total number of requests, which had to wait for a permit, since the limiter was created.
+     *
+     * @return Queued requests
+     */
+    public synchronized long getQueuedRequests() {
+        return queuedRequests;
+    }
+
+    /**
+     * Gets the total time requests waited for a permit, since the limiter was created. Divided by the number of
+     * dequeued requests, this is the average queue wait time.
+     *
+     * @return Total queue wait time
+     */
+    public synchronized Duration getTotalQueueWait() {
+        return Duration.ofNanos(totalQueueWaitNanos);
+    }
+
+    /**
+     * Gets the total number of requests rejected because the queue was full, since the limiter was created.
+     *
+     * @return Rejected requests
+     */
+    public synchronized long getRejectedRequests() {
+        return rejectedRequests;
+    }
+
+    /**
+     * Gets the total number of requests failed because they waited longer than the maximum queue wait, since the
+     * limiter was created.
+     *
+     * @return Timed out requests
+     */
+    public synchronized long getTimedOutRequests() {
+        return timedOutRequests;
+    }
+
+    private void runWaiters() {
+        // The waiters send their requests, so they are run by the executor and outside of the lock:
+        while (true) {
+            Waiter waiter;
+            boolean expired;
+            synchronized (this) {
+                waiter = queue.peek();
+                if (waiter == null) {
+                    return;
+                }
+                long waited = System.nanoTime() - waiter.enqueuedAt;
+                expired = waited > maxQueueWaitNanos;
+                if (!expired && inFlight >= (int) limit) {
+                    return;
+                }
+                queue.poll();
+                if (expired) {
+                    timedOutRequests++;
+                } else {
+                    inFlight++;
+                    totalQueueWaitNanos += waited;
+                }
+            }
+            executor.execute(expired ? waiter : waiter.task);
+        }
+    }
+
+    /**
+     * A queued request. Running it fails the request, because it did not get a permit in time.
+     */
+    private static class Waiter implements Runnable {
+
+        private final Runnable task;
+        private final Consumer<? super ConcurrencyLimitExceededException> timeout;
+        private final long enqueuedAt;
+
+        private Waiter(Runnable task, Consumer<? super ConcurrencyLimitExceededException> timeout, long enqueuedAt) {
+            this.task = task;
+            this.timeout = timeout;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            timeout.accept(new ConcurrencyLimitExceededException("The request has waited too long for the concurrency limit."));
+        }
+    }
+}
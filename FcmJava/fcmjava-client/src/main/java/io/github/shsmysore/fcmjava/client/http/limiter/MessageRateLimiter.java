@@ -0,0 +1,90 @@
+package io.github.shsmysore.fcmjava.client.http.limiter;
+
+import io.github.shsmysore.fcmjava.requests.FcmMessage;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.FcmUnicastMessage;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The MessageRateLimiter paces messages before they are sent, so FCM does not reject them with a
+ * DeviceMessageRateExceeded or TopicsMessageRateExceeded error.
+ *
+ * It takes a token for the API Key of the request, for every topic of a topic message and for every device token a
+ * message is sent to. A message has to wait for the longest of these reservations. Every limit is optional.
+ */
+public class MessageRateLimiter {
+
+    private static final String TOPICS_PREFIX = "/topics/";
+
+    // Matches the topics of a condition like "'TopicA' in topics || 'TopicB' in topics":
+    private static final Pattern TOPIC_CONDITION = Pattern.compile("'([^']+)'\\s+in\\s+topics");
+
+    private final TokenBucketRateLimiter apiKeyLimiter;
+    private final TokenBucketRateLimiter topicLimiter;
+    private final TokenBucketRateLimiter deviceLimiter;
+
+    /**
+     * Creates a MessageRateLimiter.
+     *
+     * @param apiKeyLimiter Limiter per API Key, or null to not limit the API Keys
+     * @param topicLimiter Limiter per topic, or null to not limit the topics
+     * @param deviceLimiter Limiter per device token, or null to not limit the devices
+     */
+    public MessageRateLimiter(TokenBucketRateLimiter apiKeyLimiter, TokenBucketRateLimiter topicLimiter, TokenBucketRateLimiter deviceLimiter) {
+        this.apiKeyLimiter = apiKeyLimiter;
+        this.topicLimiter = topicLimiter;
+        this.deviceLimiter = deviceLimiter;
+    }
+
+    /**
+     * Reserves the tokens for sending a message.
+     *
+     * @param apiKey API Key the message is sent with
+     * @param message Message to send
+     * @return Time to wait in nanoseconds before sending the message, or 0 to send it at once
+     */
+    public long reserve(String apiKey, Object message) {
+        long wait = 0;
+
+        if (apiKeyLimiter != null && apiKey != null) {
+            wait = apiKeyLimiter.reserve(apiKey);
+        }
+
+        if (message instanceof FcmUnicastMessage) {
+            String to = ((FcmUnicastMessage<?>) message).getTo();
+            if (to.startsWith(TOPICS_PREFIX)) {
+                wait = Math.max(wait, reserve(topicLimiter, to.substring(TOPICS_PREFIX.length())));
+            } else {
+                wait = Math.max(wait, reserve(deviceLimiter, to));
+            }
+        }
+
+        if (message instanceof FcmMulticastMessage && deviceLimiter != null) {
+            List<String> registrationIds = ((FcmMulticastMessage<?>) message).getRegistrationIds();
+            if (registrationIds != null) {
+                for (String registrationId : registrationIds) {
+                    wait = Math.max(wait, deviceLimiter.reserve(registrationId));
+                }
+            }
+        }
+
+        if (message instanceof FcmMessage && topicLimiter != null) {
+            String condition = ((FcmMessage<?>) message).getCondition();
+            if (condition != null) {
+                Matcher matcher = TOPIC_CONDITION.matcher(condition);
+                while (matcher.find()) {
+                    wait = Math.max(wait, topicLimiter.reserve(matcher.group(1)));
+                }
+            }
+        }
+
+        return wait;
+    }
+
+    private static long reserve(TokenBucketRateLimiter limiter, String key) {
+        return limiter == null ? 0 : limiter.reserve(key);
+    }
+}
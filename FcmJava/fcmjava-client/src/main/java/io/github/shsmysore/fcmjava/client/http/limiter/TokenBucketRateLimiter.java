@@ -0,0 +1,214 @@
+package io.github.shsmysore.fcmjava.client.http.limiter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The TokenBucketRateLimiter paces requests with a token bucket per key, for example per device token or topic.
+ *
+ * A bucket is stored as a single number, the time its next token becomes available (GCRA, the generic cell rate
+ * algorithm), and is updated with a compare-and-set, so reserving a token never takes a lock. The buckets are held
+ * in a segmented open-addressing table of 64-bit key hashes, which takes 32 to 64 bytes per key and does not retain
+ * the keys themselves. A full bucket is equivalent to a missing one, so full buckets are dropped whenever a segment
+ * is rebuilt. Keys with the same 64-bit hash share a bucket, which only paces them more than necessary.
+ */
+public class TokenBucketRateLimiter {
+
+    private static final int SEGMENTS = 64;
+    private static final int SEGMENT_SHIFT = 64 - 6;
+    private static final int MIN_CAPACITY = 16;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final long originNanos = System.nanoTime() - 1;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Creates a TokenBucketRateLimiter.
+     *
+     * @param permitsPerSecond Rate tokens are added to every bucket.
+     * @param burst Tokens a bucket holds, which can be used without waiting.
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+
+        if (!(permitsPerSecond > 0) || permitsPerSecond > 1_000_000_000.0) {
+            throw new IllegalArgumentException("permitsPerSecond");
+        }
+
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst");
+        }
+
+        this.intervalNanos = Math.max(1, Math.round(1_000_000_000.0 / permitsPerSecond));
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Takes a token from the bucket of the key. If the bucket is empty, the token is reserved and the caller has to
+     * wait for the returned time before sending.
+     *
+     * @param key Key of the bucket
+     * @return Time to wait in nanoseconds, or 0 if a token was available
+     */
+    public long reserve(String key) {
+
+        if (key == null) {
+            throw new IllegalArgumentException("key");
+        }
+
+        long hash = hash(key);
+        Segment segment = segments[(int) (hash >>> SEGMENT_SHIFT)];
+
+        while (true) {
+            Table table = segment.table;
+            int slot = table.find(hash);
+            if (slot < 0) {
+                segment.insert(hash, now());
+                continue;
+            }
+
+            long wait = reserve(table.tokenTimes, slot);
+
+            // The segment may have been rebuilt concurrently and missed the reservation, so reserve it again. At worst
+            // a request is counted twice, which paces the key a little more than necessary:
+            if (segment.table == table) {
+                return wait;
+            }
+        }
+    }
+
+    /**
+     * Gets the number of buckets held by the limiter, including full buckets, which have not been dropped yet.
+     *
+     * @return Number of buckets
+     */
+    public int getBucketCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                count += segment.size;
+            }
+        }
+        return count;
+    }
+
+    private long reserve(AtomicLongArray tokenTimes, int slot) {
+        long now = now();
+        while (true) {
+            long tokenTime = tokenTimes.get(slot);
+            long base = Math.max(tokenTime, now);
+            if (tokenTimes.compareAndSet(slot, tokenTime, base + intervalNanos)) {
+                return Math.max(0, base - toleranceNanos - now);
+            }
+        }
+    }
+
+    private long now() {
+        return System.nanoTime() - originNanos;
+    }
+
+    private static long hash(String key) {
+        // FNV-1a over the chars, finished with the mixer of MurmurHash3 to spread the bits:
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        // 0 marks a free slot:
+        return h == 0 ? 1 : h;
+    }
+
+    private static class Table {
+
+        private final AtomicLongArray hashes;
+        private final AtomicLongArray tokenTimes;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.hashes = new AtomicLongArray(capacity);
+            this.tokenTimes = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private int find(long hash) {
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                long current = hashes.get(i);
+                if (current == hash) {
+                    return i;
+                }
+                if (current == 0) {
+                    return -1;
+                }
+            }
+        }
+
+        private void put(long hash, long tokenTime) {
+            int i = (int) hash & mask;
+            while (hashes.get(i) != 0) {
+                i = (i + 1) & mask;
+            }
+            // The token time is set first, because readers find the slot by its hash:
+            tokenTimes.set(i, tokenTime);
+            hashes.set(i, hash);
+        }
+    }
+
+    private class Segment {
+
+        private volatile Table table = new Table(MIN_CAPACITY);
+
+        // Guarded by this:
+        private int size;
+
+        private synchronized void insert(long hash, long now) {
+            Table current = table;
+            if (current.find(hash) >= 0) {
+                return;
+            }
+            // Keep the table at most half full, so probes stay short:
+            if ((size + 1) * 2 > current.mask + 1) {
+                current = rebuild(current, now);
+            }
+            current.put(hash, 0);
+            size++;
+        }
+
+        private Table rebuild(Table current, long now) {
+            // Full buckets are not copied, a new bucket for their key starts full again. The buckets are read once,
+            // because concurrent reservations keep changing them:
+            long[] hashes = new long[size];
+            long[] tokenTimes = new long[size];
+            int live = 0;
+            for (int i = 0; i <= current.mask && live < size; i++) {
+                long hash = current.hashes.get(i);
+                long tokenTime = current.tokenTimes.get(i);
+                if (hash != 0 && tokenTime > now) {
+                    hashes[live] = hash;
+                    tokenTimes[live] = tokenTime;
+                    live++;
+                }
+            }
+
+            int capacity = MIN_CAPACITY;
+            while (capacity < (live + 1) * 4) {
+                capacity <<= 1;
+            }
+
+            Table rebuilt = new Table(capacity);
+            for (int i = 0; i < live; i++) {
+                rebuilt.put(hashes[i], tokenTimes[i]);
+            }
+
+            size = live;
+            table = rebuilt;
+            return rebuilt;
+        }
+    }
+}
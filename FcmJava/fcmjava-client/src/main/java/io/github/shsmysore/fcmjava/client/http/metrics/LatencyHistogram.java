@@ -0,0 +1,148 @@
+package io.github.shsmysore.fcmjava.client.http.metrics;
+
+import java.time.Duration;
+
+/**
+ * The LatencyHistogram holds the latencies of the most recent requests in a sliding window and answers percentile
+ * queries, for example to derive a hedging delay or a timeout from the latencies actually observed.
+ *
+ * The latencies are counted in logarithmic buckets with 8 linear sub-buckets each, so a percentile is at most 12.5
+ * percent above the exact value. The window only keeps the bucket of every sample, which takes 2 bytes per sample.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = 62 * SUB_BUCKETS;
+    private static final int RECOMPUTE_INTERVAL = 16;
+
+    // All fields below are guarded by this:
+    private final short[] window;
+    private final int[] counts = new int[BUCKETS];
+    private int position;
+    private int count;
+    // -1 until the first percentile has been computed by recordAndGetPercentile:
+    private int samplesSinceRecompute = -1;
+
+    public LatencyHistogram() {
+        this(1024);
+    }
+
+    /**
+     * Creates a LatencyHistogram.
+     *
+     * @param windowSize Number of the most recent latencies, which are evaluated.
+     */
+    public LatencyHistogram(int windowSize) {
+
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize");
+        }
+
+        this.window = new short[windowSize];
+    }
+
+    /**
+     * Records the latency of a request. The oldest latency is evicted, once the window is full.
+     *
+     * @param latency Latency in nanoseconds
+     */
+    public synchronized void record(long latency) {
+        int bucket = bucketOf(Math.max(0, latency / 1000));
+        if (count == window.length) {
+            counts[window[position]]--;
+        } else {
+            count++;
+        }
+        window[position] = (short) bucket;
+        counts[bucket]++;
+        position = (position + 1) % window.length;
+    }
+
+    /**
+     * Records the latency of a request and recomputes a percentile of the latencies in the window. Computing the
+     * percentile walks the histogram, so after the first percentile it is only recomputed every few samples.
+     *
+     * @param latency Latency in nanoseconds
+     * @param percentile Percentile between 0 and 1, for example 0.99
+     * @param minimumSamples Number of latencies to record, before the first percentile is computed
+     * @return Recomputed percentile, or null, if it has not been recomputed
+     */
+    public synchronized Duration recordAndGetPercentile(long latency, double percentile, int minimumSamples) {
+
+        if (minimumSamples < 1 || minimumSamples > window.length) {
+            throw new IllegalArgumentException("minimumSamples");
+        }
+
+        record(latency);
+        if (count < minimumSamples) {
+            return null;
+        }
+        if (samplesSinceRecompute >= 0 && ++samplesSinceRecompute < RECOMPUTE_INTERVAL) {
+            return null;
+        }
+        samplesSinceRecompute = 0;
+        return getPercentile(percentile);
+    }
+
+    /**
+     * Gets a percentile of the latencies in the window.
+     *
+     * @param percentile Percentile between 0 and 1, for example 0.99
+     * @return Upper bound of the bucket holding the percentile, or null, if no latency has been recorded
+     */
+    public synchronized Duration getPercentile(double percentile) {
+
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("percentile");
+        }
+
+        if (count == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Duration.ofNanos(upperBoundOf(bucket) * 1000);
+            }
+        }
+        return Duration.ofNanos(upperBoundOf(BUCKETS - 1) * 1000);
+    }
+
+    /**
+     * Gets the number of latencies in the window.
+     *
+     * @return Number of latencies
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the maximum number of latencies in the window.
+     *
+     * @return Window size
+     */
+    public int getWindowSize() {
+        return window.length;
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, (exponent - 2) * SUB_BUCKETS + subBucket);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + 2;
+        int subBucket = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - 3)) - 1;
+    }
+}
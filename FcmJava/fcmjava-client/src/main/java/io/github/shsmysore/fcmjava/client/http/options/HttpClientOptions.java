@@ -0,0 +1,271 @@
+package io.github.shsmysore.fcmjava.client.http.options;
+
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreaker;
+import io.github.shsmysore.fcmjava.client.http.builders.HttpClientOptionsBuilder;
+import io.github.shsmysore.fcmjava.client.http.hedging.HedgingPolicy;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.MessageRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.timeout.AdaptiveTimeoutPolicy;
+import io.github.shsmysore.fcmjava.client.retry.RetryAfterGate;
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Options for the DefaultHttpClient.
+ */
+public class HttpClientOptions {
+
+    private final HttpClient.Version httpVersion;
+    private final int maxConnections;
+    private final int maxConcurrentStreamsPerConnection;
+    private final IBackoffPolicy backoffPolicy;
+    private final Executor serializationExecutor;
+    private final Executor responseExecutor;
+    private final ScheduledExecutorService retryScheduler;
+    private final boolean virtualThreads;
+    private final RetryAfterGate retryAfterGate;
+    private final RetryBudget retryBudget;
+    private final ResponseModeEnum responseMode;
+    private final int bodyBufferPoolCapacity;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final MessageRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final HedgingPolicy hedgingPolicy;
+    private final Duration requestTimeout;
+    private final Duration deadline;
+    private final AdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+    private final int stripes;
+
+    public HttpClientOptions(HttpClient.Version httpVersion, int maxConnections, int maxConcurrentStreamsPerConnection, IBackoffPolicy backoffPolicy,
+                             Executor serializationExecutor, Executor responseExecutor, ScheduledExecutorService retryScheduler, boolean virtualThreads,
+                             RetryAfterGate retryAfterGate, RetryBudget retryBudget, ResponseModeEnum responseMode,
+                             int bodyBufferPoolCapacity, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                             MessageRateLimiter rateLimiter, CircuitBreaker circuitBreaker,
+                             HedgingPolicy hedgingPolicy, Duration requestTimeout, Duration deadline,
+                             AdaptiveTimeoutPolicy adaptiveTimeoutPolicy, int stripes) {
+        this.httpVersion = httpVersion;
+        this.maxConnections = maxConnections;
+        this.maxConcurrentStreamsPerConnection = maxConcurrentStreamsPerConnection;
+        this.backoffPolicy = backoffPolicy;
+        this.serializationExecutor = serializationExecutor;
+        this.responseExecutor = responseExecutor;
+        this.retryScheduler = retryScheduler;
+        this.virtualThreads = virtualThreads;
+        this.retryAfterGate = retryAfterGate;
+        this.retryBudget = retryBudget;
+        this.responseMode = responseMode;
+        this.bodyBufferPoolCapacity = bodyBufferPoolCapacity;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.rateLimiter = rateLimiter;
+        this.circuitBreaker = circuitBreaker;
+        this.hedgingPolicy = hedgingPolicy;
+        this.requestTimeout = requestTimeout;
+        this.deadline = deadline;
+        this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+        this.stripes = stripes;
+    }
+
+    /**
+     * Gets the HTTP Version. With HTTP/2 concurrent requests are multiplexed over a small number of connections,
+     * with HTTP/1.1 every in-flight request needs a connection of its own.
+     *
+     * @return HTTP Version
+     */
+    public HttpClient.Version getHttpVersion() {
+        return httpVersion;
+    }
+
+    /**
+     * Gets the maximum number of HTTP/2 connections. Requests are queued, if all streams of these connections are in use.
+     *
+     * @return Maximum number of HTTP/2 connections
+     */
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Gets the maximum number of concurrent HTTP/2 streams on a single connection.
+     *
+     * @return Maximum number of concurrent streams per connection
+     */
+    public int getMaxConcurrentStreamsPerConnection() {
+        return maxConcurrentStreamsPerConnection;
+    }
+
+    /**
+     * Gets the Backoff Policy, which determines how long to wait before a failed request is retried.
+     *
+     * @return Backoff Policy for retries
+     */
+    public IBackoffPolicy getBackoffPolicy() {
+        return backoffPolicy;
+    }
+
+    /**
+     * Gets the Executor request messages are serialized on. If null, postAsync serializes on the calling thread.
+     *
+     * @return Executor for serialization or null
+     */
+    public Executor getSerializationExecutor() {
+        return serializationExecutor;
+    }
+
+    /**
+     * Gets the Executor responses are evaluated and completed on. If null, this happens on the thread
+     * completing the HTTP response, which is usually a thread of the HttpClient executor. The body itself is
+     * parsed on the HttpClient executor, while it is received.
+     *
+     * @return Executor for response handling or null
+     */
+    public Executor getResponseExecutor() {
+        return responseExecutor;
+    }
+
+    /**
+     * Gets the Scheduler used to wait before a retry. If null, retries are scheduled on the shared
+     * CompletableFuture timer.
+     *
+     * @return Scheduler for retries or null
+     */
+    public ScheduledExecutorService getRetryScheduler() {
+        return retryScheduler;
+    }
+
+    /**
+     * Returns true, if each request should run on Virtual Threads. This requires JDK 21 or later and uses a Virtual
+     * Thread per Task Executor for the HttpClient and for every Executor that has not been set explicitly.
+     *
+     * @return true, if Virtual Threads are used
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Gets the gate, which pauses all requests when FCM responds with a Retry-After Header. If null, every
+     * DefaultHttpClient uses a gate of its own.
+     *
+     * @return Shared Retry-After gate or null
+     */
+    public RetryAfterGate getRetryAfterGate() {
+        return retryAfterGate;
+    }
+
+    /**
+     * Gets the Retry Budget, which limits the retries of the client to a percentage of its successful requests.
+     * If null, every DefaultHttpClient uses a budget of its own with the default limits.
+     *
+     * @return Retry Budget or null
+     */
+    public RetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    /**
+     * Gets the Response Mode, which determines how the results of a FcmMessageResponse are held in memory.
+     *
+     * @return Response Mode
+     */
+    public ResponseModeEnum getResponseMode() {
+        return responseMode;
+    }
+
+    /**
+     * Gets the number of buffers kept for the bodies of requests. The buffers are reused once a request is done,
+     * so it should cover the number of requests in flight. If 0, every request allocates its own body.
+     *
+     * @return Capacity of the body buffer pool
+     */
+    public int getBodyBufferPoolCapacity() {
+        return bodyBufferPoolCapacity;
+    }
+
+    /**
+     * Gets the Concurrency Limiter, which limits the requests in flight and queues the excess requests. If null, the
+     * number of requests in flight is not limited. Clients created with the same options share the limiter.
+     *
+     * @return Concurrency Limiter or null
+     */
+    public AdaptiveConcurrencyLimiter getConcurrencyLimiter() {
+        return concurrencyLimiter;
+    }
+
+    /**
+     * Gets the Rate Limiter, which paces the requests per API Key, topic and device token before they are sent.
+     * If null, requests are not paced.
+     *
+     * @return Rate Limiter or null
+     */
+    public MessageRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets the Circuit Breaker, which rejects requests without sending them, while FCM keeps failing. If null, every
+     * request is sent.
+     *
+     * @return Circuit Breaker or null
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * Gets the Hedging Policy, which sends a duplicate of a slow idempotent request. If null, requests are not hedged.
+     *
+     * @return Hedging Policy or null
+     */
+    public HedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * Gets the timeout of a single attempt, until the response headers have been received. If null, an attempt
+     * only times out, when the deadline of the request passes.
+     *
+     * @return Timeout of an attempt or null
+     */
+    public Duration getRequestTimeout() {
+        return requestTimeout;
+    }
+
+    /**
+     * Gets the time a request may take including all retries, if its FcmMessageOptions have no deadline of their
+     * own. If null, requests without a deadline are retried until all attempts are used.
+     *
+     * @return Default deadline of a request or null
+     */
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    /**
+     * Gets the policy, which derives the timeout of an attempt from the observed latencies. If set, it replaces the
+     * fixed request timeout.
+     *
+     * @return Adaptive Timeout Policy or null
+     */
+    public AdaptiveTimeoutPolicy getAdaptiveTimeoutPolicy() {
+        return adaptiveTimeoutPolicy;
+    }
+
+    /**
+     * Gets the number of HttpClient instances HTTP/1.1 requests are striped over. Every HttpClient has a selector
+     * thread and a connection pool of its own. HTTP/2 connections always have a HttpClient of their own.
+     *
+     * @return Number of stripes
+     */
+    public int getStripes() {
+        return stripes;
+    }
+
+    public static HttpClientOptionsBuilder builder() {
+        return new HttpClientOptionsBuilder();
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.shsmysore.fcmjava.client.http.options;
+
+/**
+ * Determines how the results of a FcmMessageResponse are held in memory.
+ */
+public enum ResponseModeEnum {
+
+    /**
+     * Keep a FcmMessageResultItem for every result.
+     */
+    Full,
+
+    /**
+     * Keep the results in a CompactFcmMessageResponse, which stores Error Codes as bytes and only materializes the
+     * Message IDs and Canonical Registration IDs of the results that have them.
+     */
+    Compact,
+
+    /**
+     * Like Compact, but discards the Message IDs of all results. Use this, if successful results are never inspected.
+     */
+    CompactWithoutMessageIds
+
+}
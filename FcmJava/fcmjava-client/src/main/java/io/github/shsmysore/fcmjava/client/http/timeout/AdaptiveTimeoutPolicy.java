@@ -0,0 +1,90 @@
+package io.github.shsmysore.fcmjava.client.http.timeout;
+
+import io.github.shsmysore.fcmjava.client.http.metrics.LatencyHistogram;
+
+import java.time.Duration;
+
+/**
+ * The AdaptiveTimeoutPolicy derives the timeout of a request from the recently observed latencies, so hung requests
+ * are cut and retried without tuning the timeout by hand.
+ *
+ * The timeout is a percentile of the latencies multiplied by a safety factor and kept between a minimum and a
+ * maximum. Until enough latencies have been observed, the maximum is used. Requests running into the timeout are
+ * recorded with the timeout as their latency, so the timeout grows again, when FCM gets slower.
+ */
+public class AdaptiveTimeoutPolicy {
+
+    private final double latencyPercentile;
+    private final double multiplier;
+    private final int minimumSamples;
+    private final long minTimeoutNanos;
+    private final long maxTimeoutNanos;
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    private volatile long timeoutNanos;
+
+    public AdaptiveTimeoutPolicy() {
+        this(0.99, 3.0, 100, Duration.ofSeconds(1), Duration.ofSeconds(30));
+    }
+
+    /**
+     * Creates an AdaptiveTimeoutPolicy.
+     *
+     * @param latencyPercentile Percentile of the latencies the timeout is based on, for example 0.99.
+     * @param multiplier Factor the percentile is multiplied with, for example 3.
+     * @param minimumSamples Number of latencies to observe, before the timeout adapts. At most 1024.
+     * @param minTimeout Lower bound of the timeout.
+     * @param maxTimeout Upper bound of the timeout, which is also used until enough latencies have been observed.
+     */
+    public AdaptiveTimeoutPolicy(double latencyPercentile, double multiplier, int minimumSamples, Duration minTimeout, Duration maxTimeout) {
+
+        if (!(latencyPercentile > 0) || latencyPercentile > 1) {
+            throw new IllegalArgumentException("latencyPercentile");
+        }
+
+        if (!(multiplier >= 1)) {
+            throw new IllegalArgumentException("multiplier");
+        }
+
+        if (minimumSamples < 1 || minimumSamples > latencies.getWindowSize()) {
+            throw new IllegalArgumentException("minimumSamples");
+        }
+
+        if (minTimeout == null || minTimeout.isNegative() || minTimeout.isZero()) {
+            throw new IllegalArgumentException("minTimeout");
+        }
+
+        if (maxTimeout == null || maxTimeout.compareTo(minTimeout) < 0) {
+            throw new IllegalArgumentException("maxTimeout");
+        }
+
+        this.latencyPercentile = latencyPercentile;
+        this.multiplier = multiplier;
+        this.minimumSamples = minimumSamples;
+        this.minTimeoutNanos = minTimeout.toNanos();
+        this.maxTimeoutNanos = maxTimeout.toNanos();
+        this.timeoutNanos = maxTimeoutNanos;
+    }
+
+    /**
+     * Gets the timeout for the next request.
+     *
+     * @return Timeout
+     */
+    public Duration getTimeout() {
+        return Duration.ofNanos(timeoutNanos);
+    }
+
+    /**
+     * Records the latency of a request, which got a response or ran into its timeout.
+     *
+     * @param latency Latency in nanoseconds
+     */
+    public void recordLatency(long latency) {
+        Duration percentile = latencies.recordAndGetPercentile(latency, latencyPercentile, minimumSamples);
+        if (percentile != null) {
+            long timeout = (long) (percentile.toNanos() * multiplier);
+            timeoutNanos = Math.max(minTimeoutNanos, Math.min(maxTimeoutNanos, timeout));
+        }
+    }
+}
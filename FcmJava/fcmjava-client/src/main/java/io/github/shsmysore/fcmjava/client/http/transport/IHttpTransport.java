@@ -0,0 +1,17 @@
+package io.github.shsmysore.fcmjava.client.http.transport;
+
+import java.io.IOException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An IHttpTransport decides which underlying java.net.http.HttpClient a request is sent on.
+ */
+public interface IHttpTransport {
+
+    <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException;
+
+    <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler);
+
+}
@@ -0,0 +1,328 @@
+package io.github.shsmysore.fcmjava.client.http.transport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Multiplexes concurrent requests over a small number of HTTP/2 connections.
+ *
+ * A java.net.http.HttpClient holds a single HTTP/2 connection per host, so every connection of this transport
+ * is backed by its own HttpClient instance. A request reserves a stream on the first connection with a free
+ * stream, a new connection is opened when all streams are taken, and requests are queued once the maximum
+ * number of connections is reached. The queue is bounded, and a request waiting longer than the maximum queue wait
+ * fails with a HttpTimeoutException.
+ *
+ * If the server does not negotiate HTTP/2, the HttpClient falls back to HTTP/1.1. The transport then stops
+ * limiting streams and sends all requests on the first connection, which manages its own HTTP/1.1 pool.
+ */
+public class MultiplexedHttpTransport implements IHttpTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiplexedHttpTransport.class);
+
+    private final Supplier<HttpClient> connectionFactory;
+    private final int maxConnections;
+    private final int maxConcurrentStreams;
+    private final int maxQueueSize;
+    private final Duration maxQueueWait;
+
+    private final Object lock = new Object();
+    private final List<Connection> connections = new ArrayList<>();
+    private final Queue<CompletableFuture<Connection>> waiters = new ArrayDeque<>();
+
+    private volatile boolean http1Fallback;
+
+    /**
+     * Creates a transport, which queues up to 10000 requests for at most 30 seconds.
+     *
+     * @param connectionFactory Factory for the HttpClient of a connection
+     * @param maxConnections Maximum number of connections
+     * @param maxConcurrentStreams Maximum number of streams per connection
+     */
+    public MultiplexedHttpTransport(Supplier<HttpClient> connectionFactory, int maxConnections, int maxConcurrentStreams) {
+        this(connectionFactory, maxConnections, maxConcurrentStreams, 10000, Duration.ofSeconds(30));
+    }
+
+    /**
+     * Creates a transport.
+     *
+     * @param connectionFactory Factory for the HttpClient of a connection
+     * @param maxConnections Maximum number of connections
+     * @param maxConcurrentStreams Maximum number of streams per connection
+     * @param maxQueueSize Maximum number of requests waiting for a free stream
+     * @param maxQueueWait Maximum time a request waits for a free stream, or null to wait without a timeout
+     */
+    public MultiplexedHttpTransport(Supplier<HttpClient> connectionFactory, int maxConnections, int maxConcurrentStreams,
+                                    int maxQueueSize, Duration maxQueueWait) {
+
+        if (connectionFactory == null) {
+            throw new IllegalArgumentException("connectionFactory");
+        }
+
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("maxConnections");
+        }
+
+        if (maxConcurrentStreams < 1) {
+            throw new IllegalArgumentException("maxConcurrentStreams");
+        }
+
+        if (maxQueueSize < 0) {
+            throw new IllegalArgumentException("maxQueueSize");
+        }
+
+        if (maxQueueWait != null && (maxQueueWait.isNegative() || maxQueueWait.isZero())) {
+            throw new IllegalArgumentException("maxQueueWait");
+        }
+
+        this.connectionFactory = connectionFactory;
+        this.maxConnections = maxConnections;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.maxQueueSize = maxQueueSize;
+        this.maxQueueWait = maxQueueWait;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        CompletableFuture<Connection> waiter = acquire();
+        Connection connection;
+        try {
+            connection = waiter.get();
+        } catch (InterruptedException e) {
+            // Give up the place in the queue. If the stream has been handed over in the meantime, pass it on:
+            if (waiter.cancel(false) || waiter.isCompletedExceptionally()) {
+                remove(waiter);
+            } else {
+                release(waiter.join());
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            remove(waiter);
+            Throwable cause = toQueueException(e.getCause());
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+
+        HttpResponse<T> response = null;
+        try {
+            response = connection.client.send(request, handler);
+            return response;
+        } finally {
+            onCompleted(connection, response);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        CompletableFuture<Connection> waiter = acquire();
+        return waiter.handle((connection, e) -> {
+            if (e != null) {
+                // A timed out waiter leaves the queue, before the request fails:
+                remove(waiter);
+                throw new CompletionException(toQueueException(e));
+            }
+            return connection;
+        }).thenCompose(connection -> {
+            CompletableFuture<HttpResponse<T>> responseFuture;
+            try {
+                responseFuture = connection.client.sendAsync(request, handler);
+            } catch (RuntimeException e) {
+                release(connection);
+                throw e;
+            }
+            return responseFuture.whenComplete((response, ex) -> onCompleted(connection, response));
+        });
+    }
+
+    private void onCompleted(Connection connection, HttpResponse<?> response) {
+        if (response != null && response.version() == HttpClient.Version.HTTP_1_1) {
+            onHttp1Response();
+        }
+        release(connection);
+    }
+
+    private Throwable toQueueException(Throwable e) {
+        if (e instanceof TimeoutException) {
+            return new HttpTimeoutException(String.format("Timed out after %s waiting for a free stream.", maxQueueWait));
+        }
+        return e;
+    }
+
+    /**
+     * Returns true, if the server did not negotiate HTTP/2 and requests are sent over HTTP/1.1.
+     *
+     * @return true, if the transport fell back to HTTP/1.1
+     */
+    public boolean isHttp1Fallback() {
+        return http1Fallback;
+    }
+
+    /**
+     * Gets the number of connections opened so far.
+     *
+     * @return Number of open connections
+     */
+    public int getConnectionCount() {
+        synchronized (lock) {
+            return connections.size();
+        }
+    }
+
+    /**
+     * Gets the number of streams currently in use over all connections.
+     *
+     * @return Number of active streams
+     */
+    public int getActiveStreams() {
+        synchronized (lock) {
+            int activeStreams = 0;
+            for (Connection connection : connections) {
+                activeStreams += connection.activeStreams;
+            }
+            return activeStreams;
+        }
+    }
+
+    /**
+     * Gets the number of requests waiting for a free stream.
+     *
+     * @return Number of queued requests
+     */
+    public int getQueuedRequests() {
+        synchronized (lock) {
+            return waiters.size();
+        }
+    }
+
+    private CompletableFuture<Connection> acquire() {
+        synchronized (lock) {
+            Connection connection = tryReserve();
+            if (connection != null) {
+                return CompletableFuture.completedFuture(connection);
+            }
+            if (waiters.size() >= maxQueueSize) {
+                CompletableFuture<Connection> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new IOException(String.format("Too many requests waiting for a free stream. Queue Size = %d", maxQueueSize)));
+                return rejected;
+            }
+            CompletableFuture<Connection> waiter = new CompletableFuture<>();
+            waiters.add(waiter);
+            if (maxQueueWait != null) {
+                // The timer is cancelled, once the waiter is completed:
+                waiter.orTimeout(maxQueueWait.toNanos(), TimeUnit.NANOSECONDS);
+            }
+            return waiter;
+        }
+    }
+
+    private void remove(CompletableFuture<Connection> waiter) {
+        synchronized (lock) {
+            waiters.remove(waiter);
+        }
+    }
+
+    private Connection tryReserve() {
+
+        // After falling back to HTTP/1.1 the first HttpClient pools its own connections:
+        if (http1Fallback) {
+            Connection connection = connections.get(0);
+            connection.activeStreams++;
+            return connection;
+        }
+
+        // Fill up the existing connections first, so we keep the number of connections small:
+        for (Connection connection : connections) {
+            if (connection.activeStreams < maxConcurrentStreams) {
+                connection.activeStreams++;
+                return connection;
+            }
+        }
+
+        // All streams are taken, so open another connection if we are allowed to:
+        if (connections.size() < maxConnections) {
+            Connection connection = new Connection(connectionFactory.get());
+            connection.activeStreams++;
+            connections.add(connection);
+            LOGGER.debug("Opened HTTP/2 connection {} of {}.", connections.size(), maxConnections);
+            return connection;
+        }
+
+        return null;
+    }
+
+    private void release(Connection connection) {
+        while (true) {
+            CompletableFuture<Connection> waiter;
+            synchronized (lock) {
+                waiter = waiters.poll();
+                if (waiter == null) {
+                    connection.activeStreams--;
+                    return;
+                }
+            }
+            // Hand the stream over to the next queued request. This happens outside of the lock, because completing
+            // the waiter sends the queued request. A waiter, which timed out or was cancelled meanwhile, is skipped:
+            if (waiter.complete(connection)) {
+                return;
+            }
+        }
+    }
+
+    private void onHttp1Response() {
+        if (http1Fallback) {
+            return;
+        }
+
+        List<CompletableFuture<Connection>> pending = new ArrayList<>();
+        Connection connection;
+        synchronized (lock) {
+            if (http1Fallback) {
+                return;
+            }
+            LOGGER.info("Server did not negotiate HTTP/2. Falling back to HTTP/1.1.");
+            http1Fallback = true;
+            connection = connections.get(0);
+            connection.activeStreams += waiters.size();
+            pending.addAll(waiters);
+            waiters.clear();
+        }
+        for (CompletableFuture<Connection> waiter : pending) {
+            if (!waiter.complete(connection)) {
+                release(connection);
+            }
+        }
+    }
+
+    private static class Connection {
+
+        private final HttpClient client;
+
+        // Guarded by the lock of the transport:
+        private int activeStreams;
+
+        private Connection(HttpClient client) {
+            this.client = client;
+        }
+    }
+}
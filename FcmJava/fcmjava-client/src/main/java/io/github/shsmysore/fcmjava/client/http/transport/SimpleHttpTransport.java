@@ -0,0 +1,34 @@
+package io.github.shsmysore.fcmjava.client.http.transport;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Sends all requests on a single HttpClient and leaves connection handling to it.
+ */
+public class SimpleHttpTransport implements IHttpTransport {
+
+    private final HttpClient client;
+
+    public SimpleHttpTransport(HttpClient client) {
+
+        if (client == null) {
+            throw new IllegalArgumentException("client");
+        }
+
+        this.client = client;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        return client.send(request, handler);
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        return client.sendAsync(request, handler);
+    }
+}
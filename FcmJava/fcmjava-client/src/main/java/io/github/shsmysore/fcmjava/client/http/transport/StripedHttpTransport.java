@@ -0,0 +1,175 @@
+package io.github.shsmysore.fcmjava.client.http.transport;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Stripes the requests over several HttpClient instances.
+ *
+ * A java.net.http.HttpClient handles all of its connections on a single selector thread, which saturates a core at
+ * high request rates. Every stripe of this transport is a HttpClient with a selector thread and a connection pool of
+ * its own. By default a request is sent on the stripe with the fewest requests in flight. With an affinity function
+ * the stripe is chosen by the hash of the request instead, so related requests always share a stripe.
+ *
+ * The number of requests per stripe is counted, so it can be checked, if the load is balanced.
+ */
+public class StripedHttpTransport implements IHttpTransport {
+
+    private final Stripe[] stripes;
+    private final ToIntFunction<HttpRequest> affinity;
+    private final AtomicInteger nextStripe = new AtomicInteger();
+
+    /**
+     * Creates a transport, which sends a request on the least loaded stripe.
+     *
+     * @param clientFactory Factory for the HttpClient of a stripe
+     * @param stripeCount Number of stripes
+     */
+    public StripedHttpTransport(Supplier<HttpClient> clientFactory, int stripeCount) {
+        this(clientFactory, stripeCount, null);
+    }
+
+    /**
+     * Creates a transport, which sends a request on the stripe selected by its hash.
+     *
+     * @param clientFactory Factory for the HttpClient of a stripe
+     * @param stripeCount Number of stripes
+     * @param affinity Hash of a request or null, if requests should be sent on the least loaded stripe
+     */
+    public StripedHttpTransport(Supplier<HttpClient> clientFactory, int stripeCount, ToIntFunction<HttpRequest> affinity) {
+
+        if (clientFactory == null) {
+            throw new IllegalArgumentException("clientFactory");
+        }
+
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("stripeCount");
+        }
+
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new Stripe(clientFactory.get());
+        }
+        this.affinity = affinity;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException, InterruptedException {
+        Stripe stripe = acquire(request);
+        boolean failed = true;
+        try {
+            HttpResponse<T> response = stripe.client.send(request, handler);
+            failed = false;
+            return response;
+        } finally {
+            stripe.release(failed);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        Stripe stripe = acquire(request);
+        CompletableFuture<HttpResponse<T>> responseFuture;
+        try {
+            responseFuture = stripe.client.sendAsync(request, handler);
+        } catch (RuntimeException e) {
+            stripe.release(true);
+            throw e;
+        }
+        return responseFuture.whenComplete((response, ex) -> stripe.release(ex != null));
+    }
+
+    private Stripe acquire(HttpRequest request) {
+        Stripe stripe = stripes[selectStripe(request)];
+        stripe.inFlight.incrementAndGet();
+        return stripe;
+    }
+
+    private int selectStripe(HttpRequest request) {
+        if (stripes.length == 1) {
+            return 0;
+        }
+        if (affinity != null) {
+            return Math.floorMod(affinity.applyAsInt(request), stripes.length);
+        }
+        // Start the scan at a different stripe every time, so stripes with the same load take turns:
+        int start = Math.floorMod(nextStripe.getAndIncrement(), stripes.length);
+        int selected = start;
+        int minInFlight = stripes[start].inFlight.get();
+        for (int i = 1; i < stripes.length && minInFlight > 0; i++) {
+            int index = (start + i) % stripes.length;
+            int inFlight = stripes[index].inFlight.get();
+            if (inFlight < minInFlight) {
+                selected = index;
+                minInFlight = inFlight;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Gets the number of stripes.
+     *
+     * @return Number of stripes
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Gets the number of requests currently in flight on a stripe.
+     *
+     * @param stripe Index of the stripe
+     * @return Requests in flight
+     */
+    public int getInFlightRequests(int stripe) {
+        return stripes[stripe].inFlight.get();
+    }
+
+    /**
+     * Gets the number of requests completed on a stripe, since the transport was created.
+     *
+     * @param stripe Index of the stripe
+     * @return Completed requests, including the failed requests
+     */
+    public long getCompletedRequests(int stripe) {
+        return stripes[stripe].completed.sum();
+    }
+
+    /**
+     * Gets the number of requests failed on a stripe without a response, since the transport was created.
+     *
+     * @param stripe Index of the stripe
+     * @return Failed requests
+     */
+    public long getFailedRequests(int stripe) {
+        return stripes[stripe].failed.sum();
+    }
+
+    private static class Stripe {
+
+        private final HttpClient client;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+
+        private Stripe(HttpClient client) {
+            this.client = client;
+        }
+
+        private void release(boolean failedRequest) {
+            inFlight.decrementAndGet();
+            completed.increment();
+            if (failedRequest) {
+                failed.increment();
+            }
+        }
+    }
+}
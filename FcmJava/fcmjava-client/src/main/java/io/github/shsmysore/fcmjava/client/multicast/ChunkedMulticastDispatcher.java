@@ -0,0 +1,263 @@
+package io.github.shsmysore.fcmjava.client.multicast;
+
+import io.github.shsmysore.fcmjava.client.exceptions.PartialMulticastException;
+import io.github.shsmysore.fcmjava.constants.Constants;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import io.github.shsmysore.fcmjava.responses.builders.CompactFcmMessageResponseBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * The ChunkedMulticastDispatcher splits multicast messages with more Registration IDs than FCM accepts into smaller
+ * messages, which are sent concurrently with a maximum parallelism.
+ *
+ * The chunks are views on the Registration IDs of the original message, so no IDs are copied. The responses of all
+ * chunks are merged into a single response: the counts are summed up and the results are concatenated in the order
+ * of the chunks, so they stay index-aligned with the original Registration IDs.
+ */
+public class ChunkedMulticastDispatcher {
+
+    private final int chunkSize;
+    private final int parallelism;
+
+    public ChunkedMulticastDispatcher(int chunkSize, int parallelism) {
+
+        if (chunkSize < 1 || chunkSize > Constants.MAX_REGISTRATION_IDS) {
+            throw new IllegalArgumentException("chunkSize");
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism");
+        }
+
+        this.chunkSize = chunkSize;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sends a multicast message, split into chunks if it has too many Registration IDs. If a chunk fails, no further
+     * chunks are sent. Once the chunks in flight are done, the returned future fails with a
+     * {@link PartialMulticastException}. The exception carries the merged response of the delivered chunks and the
+     * Registration IDs, which have to be sent again.
+     *
+     * @param message Multicast Message to send
+     * @param messageFactory Creates a copy of the message for a subset of its registration IDs
+     * @param sender Sends a message to FCM
+     * @param <TMessage> Type of the Multicast Message
+     * @return Merged response of all chunks
+     */
+    public <TMessage extends FcmMulticastMessage<?>> CompletableFuture<FcmMessageResponse> sendAsync(TMessage message,
+                                                                                                      Function<List<String>, TMessage> messageFactory,
+                                                                                                      Function<TMessage, CompletableFuture<FcmMessageResponse>> sender) {
+        List<String> registrationIds = message.getRegistrationIds();
+
+        if (registrationIds.size() <= chunkSize) {
+            return sender.apply(message);
+        }
+
+        Dispatch<TMessage> dispatch = new Dispatch<>(registrationIds, messageFactory, sender);
+        dispatch.drain();
+        return dispatch.result;
+    }
+
+    private class Dispatch<TMessage extends FcmMulticastMessage<?>> {
+
+        private final List<String> registrationIds;
+        private final Function<List<String>, TMessage> messageFactory;
+        private final Function<TMessage, CompletableFuture<FcmMessageResponse>> sender;
+
+        private final FcmMessageResponse[] responses;
+        private final Throwable[] failures;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final CompletableFuture<FcmMessageResponse> result = new CompletableFuture<>();
+
+        private volatile boolean failed;
+
+        // Only accessed by the thread draining:
+        private int nextChunk;
+
+        private Dispatch(List<String> registrationIds, Function<List<String>, TMessage> messageFactory, Function<TMessage, CompletableFuture<FcmMessageResponse>> sender) {
+            this.registrationIds = registrationIds;
+            this.messageFactory = messageFactory;
+            this.sender = sender;
+            this.responses = new FcmMessageResponse[(registrationIds.size() + chunkSize - 1) / chunkSize];
+            this.failures = new Throwable[responses.length];
+        }
+
+        /**
+         * Sends chunks until the parallelism is reached and completes the result, once all chunks are done. Only one
+         * thread drains at a time. Chunks completing while it drains only mark it to loop again, so chunks completing
+         * at once do not recurse.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                while (!failed && nextChunk < responses.length && inFlight.get() < parallelism) {
+                    inFlight.incrementAndGet();
+                    sendChunk(nextChunk++);
+                }
+                if (inFlight.get() == 0 && (failed || nextChunk == responses.length) && !result.isDone()) {
+                    complete();
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void sendChunk(int chunk) {
+            CompletableFuture<FcmMessageResponse> future;
+            try {
+                future = sender.apply(messageFactory.apply(getChunk(chunk)));
+            } catch (Throwable t) {
+                future = CompletableFuture.failedFuture(t);
+            }
+
+            future.whenComplete((response, error) -> {
+                if (error != null) {
+                    failures[chunk] = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    failed = true;
+                } else {
+                    responses[chunk] = response;
+                }
+                inFlight.decrementAndGet();
+                drain();
+            });
+        }
+
+        private void complete() {
+            try {
+                if (!failed) {
+                    result.complete(merge(responses, chunk -> getChunk(chunk).size()));
+                    return;
+                }
+
+                List<Integer> deliveredChunks = new ArrayList<>();
+                List<String> deliveredRegistrationIds = new ArrayList<>();
+                List<String> failedRegistrationIds = new ArrayList<>();
+                List<Throwable> chunkFailures = new ArrayList<>();
+                for (int chunk = 0; chunk < responses.length; chunk++) {
+                    if (responses[chunk] != null) {
+                        deliveredChunks.add(chunk);
+                        deliveredRegistrationIds.addAll(getChunk(chunk));
+                    } else {
+                        // The chunk failed or has not been sent:
+                        failedRegistrationIds.addAll(getChunk(chunk));
+                        if (failures[chunk] != null) {
+                            chunkFailures.add(failures[chunk]);
+                        }
+                    }
+                }
+
+                FcmMessageResponse[] deliveredResponses = new FcmMessageResponse[deliveredChunks.size()];
+                for (int i = 0; i < deliveredResponses.length; i++) {
+                    deliveredResponses[i] = responses[deliveredChunks.get(i)];
+                }
+                FcmMessageResponse response = merge(deliveredResponses, index -> getChunk(deliveredChunks.get(index)).size());
+
+                result.completeExceptionally(new PartialMulticastException(String.format("%d of %d Registration IDs have not been sent.",
+                        failedRegistrationIds.size(), registrationIds.size()), response, deliveredRegistrationIds, failedRegistrationIds, chunkFailures));
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+
+        private List<String> getChunk(int chunk) {
+            int fromIndex = chunk * chunkSize;
+            return registrationIds.subList(fromIndex, Math.min(fromIndex + chunkSize, registrationIds.size()));
+        }
+    }
+
+    private static FcmMessageResponse merge(FcmMessageResponse[] responses, IntUnaryOperator chunkSizes) {
+        for (int chunk = 0; chunk < responses.length; chunk++) {
+            checkAlignment(chunk, responses[chunk], chunkSizes.applyAsInt(chunk));
+        }
+
+        if (isCompact(responses)) {
+            return mergeCompact(responses);
+        }
+
+        long multicastId = 0;
+        int numberOfSuccess = 0;
+        int numberOfFailure = 0;
+        int numberOfCanonicalIds = 0;
+        List<FcmMessageResultItem> results = new ArrayList<>();
+
+        for (FcmMessageResponse response : responses) {
+            // There is no multicast ID for the whole message, so use the one of the first chunk:
+            if (multicastId == 0) {
+                multicastId = response.getMulticastId();
+            }
+            numberOfSuccess += response.getNumberOfSuccess();
+            numberOfFailure += response.getNumberOfFailure();
+            numberOfCanonicalIds += response.getNumberOfCanonicalIds();
+            if (response.getResults() != null) {
+                results.addAll(response.getResults());
+            }
+        }
+
+        return new FcmMessageResponse(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, results);
+    }
+
+    /**
+     * Makes sure the results of a chunk can be concatenated without shifting the results of the following chunks.
+     * A chunk has no results, if they have been passed to a callback.
+     */
+    private static void checkAlignment(int chunk, FcmMessageResponse response, int chunkSize) {
+        if (response == null) {
+            throw new IllegalStateException(String.format("Chunk %d has no response.", chunk));
+        }
+        int numberOfResults = response instanceof CompactFcmMessageResponse
+                ? ((CompactFcmMessageResponse) response).getNumberOfResults()
+                : response.getResults() == null ? 0 : response.getResults().size();
+        if (numberOfResults != 0 && numberOfResults != chunkSize) {
+            throw new IllegalStateException(String.format("Chunk %d has %d results for %d Registration IDs.", chunk, numberOfResults, chunkSize));
+        }
+    }
+
+    private static boolean isCompact(FcmMessageResponse[] responses) {
+        for (FcmMessageResponse response : responses) {
+            if (!(response instanceof CompactFcmMessageResponse)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FcmMessageResponse mergeCompact(FcmMessageResponse[] responses) {
+        CompactFcmMessageResponseBuilder builder = CompactFcmMessageResponse.builder();
+
+        long multicastId = 0;
+        int numberOfSuccess = 0;
+        int numberOfFailure = 0;
+        int numberOfCanonicalIds = 0;
+
+        for (FcmMessageResponse response : responses) {
+            if (multicastId == 0) {
+                multicastId = response.getMulticastId();
+            }
+            numberOfSuccess += response.getNumberOfSuccess();
+            numberOfFailure += response.getNumberOfFailure();
+            numberOfCanonicalIds += response.getNumberOfCanonicalIds();
+            builder.addResults((CompactFcmMessageResponse) response);
+        }
+
+        return builder
+                .setMulticastId(multicastId)
+                .setNumberOfSuccess(numberOfSuccess)
+                .setNumberOfFailure(numberOfFailure)
+                .setNumberOfCanonicalIds(numberOfCanonicalIds)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.shsmysore.fcmjava.client.options;
+
+import io.github.shsmysore.fcmjava.client.builders.FcmClientOptionsBuilder;
+import io.github.shsmysore.fcmjava.client.retry.strategy.IAsyncRetryStrategy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
+
+/**
+ * Options for the FcmClient.
+ */
+public class FcmClientOptions {
+
+    private final IAsyncRetryStrategy retryStrategy;
+    private final MulticastRetryStrategy multicastRetryStrategy;
+    private final int maxRegistrationIdsPerRequest;
+    private final int maxMulticastParallelism;
+
+    public FcmClientOptions(IAsyncRetryStrategy retryStrategy, MulticastRetryStrategy multicastRetryStrategy, int maxRegistrationIdsPerRequest, int maxMulticastParallelism) {
+        this.retryStrategy = retryStrategy;
+        this.multicastRetryStrategy = multicastRetryStrategy;
+        this.maxRegistrationIdsPerRequest = maxRegistrationIdsPerRequest;
+        this.maxMulticastParallelism = maxMulticastParallelism;
+    }
+
+    /**
+     * Gets the Retry Strategy for failed asynchronous sends.
+     *
+     * @return Retry Strategy, or null to not retry
+     */
+    public IAsyncRetryStrategy getRetryStrategy() {
+        return retryStrategy;
+    }
+
+    /**
+     * Gets the Retry Strategy for registration IDs of a multicast message, which failed with a retryable error.
+     *
+     * @return Multicast Retry Strategy, or null to return the results of multicast messages as they are
+     */
+    public MulticastRetryStrategy getMulticastRetryStrategy() {
+        return multicastRetryStrategy;
+    }
+
+    /**
+     * Gets the maximum number of Registration IDs sent in a single request. Multicast messages with more
+     * Registration IDs are split into multiple requests.
+     *
+     * @return Maximum number of Registration IDs per request
+     */
+    public int getMaxRegistrationIdsPerRequest() {
+        return maxRegistrationIdsPerRequest;
+    }
+
+    /**
+     * Gets the maximum number of requests sent concurrently for a split multicast message.
+     *
+     * @return Maximum number of concurrent requests per multicast message
+     */
+    public int getMaxMulticastParallelism() {
+        return maxMulticastParallelism;
+    }
+
+    public static FcmClientOptionsBuilder builder() {
+        return new FcmClientOptionsBuilder();
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.shsmysore.fcmjava.client.retry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The RetryAfterGate holds the point in time until which FCM asked us to stop sending requests.
+ *
+ * A response with a Retry-After Header pauses the gate, and requests to the endpoint wait until the gate opens
+ * again. The gate only holds the state, waiting for it is up to the caller. Sharing a gate between clients makes all
+ * of them respect the pause.
+ */
+public class RetryAfterGate {
+
+    // Monotonic reference point, so the stored offsets are never negative:
+    private final long originNanos = System.nanoTime();
+
+    // Offset to the origin until which the gate is paused:
+    private final AtomicLong pausedUntilNanos = new AtomicLong();
+
+    /**
+     * Pauses the gate for the given delay. A pause never shortens a longer pause, that is already in place.
+     *
+     * @param delay The delay requested by FCM.
+     */
+    public void pauseFor(Duration delay) {
+        if (delay == null || delay.isNegative() || delay.isZero()) {
+            return;
+        }
+
+        long until = elapsedNanos() + delay.toNanos();
+
+        pausedUntilNanos.accumulateAndGet(until, Math::max);
+    }
+
+    /**
+     * Gets the time left until the gate opens.
+     *
+     * @return Remaining pause, or Duration.ZERO if the gate is open.
+     */
+    public Duration getRemainingPause() {
+        long remaining = pausedUntilNanos.get() - elapsedNanos();
+
+        return remaining > 0 ? Duration.ofNanos(remaining) : Duration.ZERO;
+    }
+
+    /**
+     * Returns true, if requests currently have to wait.
+     *
+     * @return true, if the gate is paused
+     */
+    public boolean isPaused() {
+        return pausedUntilNanos.get() > elapsedNanos();
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - originNanos;
+    }
+}
@@ -0,0 +1,152 @@
+package io.github.shsmysore.fcmjava.client.retry;
+
+import java.time.Duration;
+
+/**
+ * The RetryBudget limits the retries of a client to a percentage of its recent successful requests, so retries cannot
+ * multiply the load on FCM during an outage.
+ *
+ * Every successful request deposits into the budget and every retry withdraws from it. On top of the deposits a
+ * minimum number of retries per second is always allowed, so a client with little traffic can still retry. Deposits
+ * and withdrawals expire after the given time window.
+ */
+public class RetryBudget {
+
+    private static final int BUCKETS = 10;
+
+    private final double percentCanRetry;
+    private final int minRetriesPerSecond;
+    private final Duration window;
+    private final long bucketNanos;
+    private final long originNanos = System.nanoTime();
+
+    // All fields below are guarded by this:
+    private final long[] bucketIds = new long[BUCKETS];
+    private final long[] deposits = new long[BUCKETS];
+    private final long[] withdrawals = new long[BUCKETS];
+    private long rejectedRetries;
+
+    public RetryBudget() {
+        this(0.2, 10, Duration.ofSeconds(10));
+    }
+
+    /**
+     * Creates a RetryBudget.
+     *
+     * @param percentCanRetry Retries allowed per successful request, for example 0.2 for 20 percent.
+     * @param minRetriesPerSecond Retries per second, which are allowed regardless of the deposits.
+     * @param window Time window after which deposits and withdrawals expire.
+     */
+    public RetryBudget(double percentCanRetry, int minRetriesPerSecond, Duration window) {
+
+        if (percentCanRetry < 0) {
+            throw new IllegalArgumentException("percentCanRetry");
+        }
+
+        if (minRetriesPerSecond < 0) {
+            throw new IllegalArgumentException("minRetriesPerSecond");
+        }
+
+        if (window == null || window.toMillis() < BUCKETS) {
+            throw new IllegalArgumentException("window");
+        }
+
+        this.percentCanRetry = percentCanRetry;
+        this.minRetriesPerSecond = minRetriesPerSecond;
+        this.window = window;
+        this.bucketNanos = window.toNanos() / BUCKETS;
+    }
+
+    /**
+     * Records a successful request.
+     */
+    public synchronized void deposit() {
+        deposits[currentBucket()]++;
+    }
+
+    /**
+     * Withdraws a retry from the budget.
+     *
+     * @return true, if the retry is allowed. false, if the budget is empty and the request should fail fast.
+     */
+    public synchronized boolean tryWithdraw() {
+        if (balance() < 1) {
+            rejectedRetries++;
+            return false;
+        }
+        withdrawals[currentBucket()]++;
+        return true;
+    }
+
+    /**
+     * Gets the number of retries currently left in the budget.
+     *
+     * @return Retries left
+     */
+    public synchronized long getBalance() {
+        return balance();
+    }
+
+    /**
+     * Gets the number of successful requests within the time window.
+     *
+     * @return Successful requests in the window
+     */
+    public synchronized long getDeposits() {
+        return sum(deposits);
+    }
+
+    /**
+     * Gets the number of retries within the time window.
+     *
+     * @return Retries in the window
+     */
+    public synchronized long getWithdrawals() {
+        return sum(withdrawals);
+    }
+
+    /**
+     * Gets the total number of retries rejected, since the budget was created.
+     *
+     * @return Rejected retries
+     */
+    public synchronized long getRejectedRetries() {
+        return rejectedRetries;
+    }
+
+    private long balance() {
+        double reserve = minRetriesPerSecond * (window.toMillis() / 1000.0);
+
+        return (long) (reserve + percentCanRetry * sum(deposits)) - sum(withdrawals);
+    }
+
+    private int currentBucket() {
+        long currentBucketId = currentBucketId();
+        int bucket = (int) (currentBucketId % BUCKETS);
+
+        // The bucket still holds the counts of an expired period, so reset it:
+        if (bucketIds[bucket] != currentBucketId) {
+            bucketIds[bucket] = currentBucketId;
+            deposits[bucket] = 0;
+            withdrawals[bucket] = 0;
+        }
+
+        return bucket;
+    }
+
+    private long currentBucketId() {
+        return (System.nanoTime() - originNanos) / bucketNanos;
+    }
+
+    private long sum(long[] values) {
+        long oldestBucketId = currentBucketId() - BUCKETS;
+        long sum = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            // Only count buckets within the time window:
+            if (bucketIds[i] > oldestBucketId) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+}
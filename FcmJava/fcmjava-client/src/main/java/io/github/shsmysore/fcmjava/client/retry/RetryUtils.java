@@ -3,11 +3,16 @@
 
 package io.github.shsmysore.fcmjava.client.retry;
 
+import io.github.shsmysore.fcmjava.client.retry.strategy.BackoffRetryStrategy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.IAsyncRetryStrategy;
 import io.github.shsmysore.fcmjava.client.retry.strategy.IRetryStrategy;
 import io.github.shsmysore.fcmjava.client.retry.strategy.SimpleRetryStrategy;
 import io.github.shsmysore.fcmjava.client.functional.Action0;
 import io.github.shsmysore.fcmjava.client.functional.Func1;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
 /**
  * This class implements RetryStrategies, for explicitly retrying requests to the FCM server.
  */
@@ -61,4 +66,32 @@ public class RetryUtils {
         retryStrategy.doWithRetry(action);
     }
 
+    /**
+     * Retries an asynchronous method with the BackoffRetryStrategy and a maximum amount of retries.
+     *
+     * @param function Function starting a new attempt.
+     * @param maxRetries The Maximum Number of Retries.
+     * @param <TResult> The Result of the Method.
+     * @return Future with the Result of the Method invocation.
+     */
+    public static <TResult> CompletableFuture<TResult> getWithRetryAsync(Supplier<CompletableFuture<TResult>> function, int maxRetries) {
+        IAsyncRetryStrategy retryStrategy = BackoffRetryStrategy.builder()
+                .setMaxRetries(maxRetries)
+                .build();
+
+        return getWithRetryAsync(function, retryStrategy);
+    }
+
+    /**
+     * Retries an asynchronous method with the given Retry Strategy.
+     *
+     * @param function Function starting a new attempt.
+     * @param retryStrategy RetryStrategy to apply.
+     * @param <TResult> Result of the invocation.
+     * @return Future with the Result of the Method invocation.
+     */
+    public static <TResult> CompletableFuture<TResult> getWithRetryAsync(Supplier<CompletableFuture<TResult>> function, IAsyncRetryStrategy retryStrategy) {
+        return retryStrategy.getWithRetryAsync(function);
+    }
+
 }
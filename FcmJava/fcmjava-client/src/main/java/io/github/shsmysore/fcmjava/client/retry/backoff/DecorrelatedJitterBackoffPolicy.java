@@ -0,0 +1,52 @@
+package io.github.shsmysore.fcmjava.client.retry.backoff;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential Backoff with Decorrelated Jitter. Each delay is a random value between the base delay and three times
+ * the previous delay, capped at the maximum delay. This spreads retries of many clients better than a jitter applied
+ * to a fixed exponential schedule.
+ */
+public class DecorrelatedJitterBackoffPolicy implements IBackoffPolicy {
+
+    private final long baseDelayInMillis;
+    private final long maxDelayInMillis;
+
+    public DecorrelatedJitterBackoffPolicy(Duration baseDelay, Duration maxDelay) {
+
+        if (baseDelay == null || baseDelay.isNegative()) {
+            throw new IllegalArgumentException("baseDelay");
+        }
+
+        if (maxDelay == null || maxDelay.compareTo(baseDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay");
+        }
+
+        this.baseDelayInMillis = baseDelay.toMillis();
+        this.maxDelayInMillis = maxDelay.toMillis();
+    }
+
+    @Override
+    public Duration getDelay(int retryAttempt) {
+
+        // Without the previous delay, assume it grew by the expected factor of the previous retries:
+        double previousDelay = baseDelayInMillis * Math.pow(3, Math.max(0, retryAttempt - 2));
+
+        return nextDelay((long) Math.min(previousDelay, maxDelayInMillis));
+    }
+
+    @Override
+    public Duration getDelay(int retryAttempt, Duration previousDelay) {
+        if (previousDelay == null || previousDelay.isZero()) {
+            return getDelay(retryAttempt);
+        }
+        return nextDelay(previousDelay.toMillis());
+    }
+
+    private Duration nextDelay(long previousDelayInMillis) {
+        long upperBound = Math.min(maxDelayInMillis, Math.max(baseDelayInMillis, previousDelayInMillis) * 3);
+
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(baseDelayInMillis, upperBound + 1));
+    }
+}
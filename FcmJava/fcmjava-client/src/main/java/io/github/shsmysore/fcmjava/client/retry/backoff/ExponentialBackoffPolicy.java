@@ -0,0 +1,57 @@
+package io.github.shsmysore.fcmjava.client.retry.backoff;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Multiplies the delay with every retry up to a maximum delay and randomizes it with the given Jitter.
+ */
+public class ExponentialBackoffPolicy implements IBackoffPolicy {
+
+    private final long initialDelayInMillis;
+    private final long maxDelayInMillis;
+    private final double multiplier;
+    private final JitterEnum jitter;
+
+    public ExponentialBackoffPolicy(Duration initialDelay, Duration maxDelay, double multiplier, JitterEnum jitter) {
+
+        if (initialDelay == null || initialDelay.isNegative()) {
+            throw new IllegalArgumentException("initialDelay");
+        }
+
+        if (maxDelay == null || maxDelay.compareTo(initialDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay");
+        }
+
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplier");
+        }
+
+        if (jitter == null) {
+            throw new IllegalArgumentException("jitter");
+        }
+
+        this.initialDelayInMillis = initialDelay.toMillis();
+        this.maxDelayInMillis = maxDelay.toMillis();
+        this.multiplier = multiplier;
+        this.jitter = jitter;
+    }
+
+    @Override
+    public Duration getDelay(int retryAttempt) {
+
+        // Grow the delay with every retry, but never exceed the maximum delay:
+        double delay = initialDelayInMillis * Math.pow(multiplier, Math.max(0, retryAttempt - 1));
+        long delayInMillis = (long) Math.min(delay, maxDelayInMillis);
+
+        switch (jitter) {
+            case Full:
+                return Duration.ofMillis(ThreadLocalRandom.current().nextLong(delayInMillis + 1));
+            case Equal:
+                long half = delayInMillis / 2;
+                return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delayInMillis - half + 1));
+            default:
+                return Duration.ofMillis(delayInMillis);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.shsmysore.fcmjava.client.retry.backoff;
+
+import java.time.Duration;
+
+/**
+ * A Backoff Policy determines how long to wait before a failed request is retried.
+ */
+public interface IBackoffPolicy {
+
+    /**
+     * Gets the delay before the given retry.
+     *
+     * @param retryAttempt Number of the retry, starting at 1 for the first retry.
+     * @return Delay before the retry.
+     */
+    Duration getDelay(int retryAttempt);
+
+    /**
+     * Gets the delay before the given retry, when the delay before the previous retry is known.
+     *
+     * @param retryAttempt Number of the retry, starting at 1 for the first retry.
+     * @param previousDelay Delay before the previous retry, or Duration.ZERO before the first retry.
+     * @return Delay before the retry.
+     */
+    default Duration getDelay(int retryAttempt, Duration previousDelay) {
+        return getDelay(retryAttempt);
+    }
+
+}
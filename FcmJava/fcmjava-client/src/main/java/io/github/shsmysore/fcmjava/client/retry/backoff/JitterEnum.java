@@ -0,0 +1,20 @@
+package io.github.shsmysore.fcmjava.client.retry.backoff;
+
+public enum JitterEnum {
+
+    /**
+     * Always wait for the computed delay.
+     */
+    None,
+
+    /**
+     * Wait for a random delay between zero and the computed delay.
+     */
+    Full,
+
+    /**
+     * Wait for half of the computed delay plus a random delay up to the other half.
+     */
+    Equal
+
+}
@@ -0,0 +1,32 @@
+package io.github.shsmysore.fcmjava.client.retry.backoff;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Waits for a random delay between a minimum and a maximum delay, regardless of the number of retries.
+ */
+public class RandomBackoffPolicy implements IBackoffPolicy {
+
+    private final long minDelayInMillis;
+    private final long maxDelayInMillis;
+
+    public RandomBackoffPolicy(Duration minDelay, Duration maxDelay) {
+
+        if (minDelay == null || minDelay.isNegative()) {
+            throw new IllegalArgumentException("minDelay");
+        }
+
+        if (maxDelay == null || maxDelay.compareTo(minDelay) < 0) {
+            throw new IllegalArgumentException("maxDelay");
+        }
+
+        this.minDelayInMillis = minDelay.toMillis();
+        this.maxDelayInMillis = maxDelay.toMillis();
+    }
+
+    @Override
+    public Duration getDelay(int retryAttempt) {
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(minDelayInMillis, maxDelayInMillis + 1));
+    }
+}
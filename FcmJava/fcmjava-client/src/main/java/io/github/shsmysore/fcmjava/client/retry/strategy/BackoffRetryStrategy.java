@@ -0,0 +1,124 @@
+package io.github.shsmysore.fcmjava.client.retry.strategy;
+
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.builders.BackoffRetryStrategyBuilder;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * The BackoffRetryStrategy retries asynchronous operations, that fail with an exception accepted by the retry
+ * predicate, for a maximum number of retries and a maximum elapsed time.
+ *
+ * The delay between the attempts is given by a Backoff Policy, which defaults to Exponential Backoff with
+ * Decorrelated Jitter. If an attempt fails with a @see {@link FcmRetryAfterException}, the strategy waits at least
+ * for the Retry Delay returned by FCM. Waiting is done on a timer, so no thread is parked between the attempts.
+ */
+public class BackoffRetryStrategy implements IAsyncRetryStrategy {
+
+    private final int maxRetries;
+    private final Duration maxElapsedTime;
+    private final IBackoffPolicy backoffPolicy;
+    private final Predicate<Throwable> retryPredicate;
+    private final ScheduledExecutorService scheduler;
+
+    public BackoffRetryStrategy(int maxRetries, Duration maxElapsedTime, IBackoffPolicy backoffPolicy, Predicate<Throwable> retryPredicate, ScheduledExecutorService scheduler) {
+
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries");
+        }
+
+        if (backoffPolicy == null) {
+            throw new IllegalArgumentException("backoffPolicy");
+        }
+
+        if (retryPredicate == null) {
+            throw new IllegalArgumentException("retryPredicate");
+        }
+
+        this.maxRetries = maxRetries;
+        this.maxElapsedTime = maxElapsedTime;
+        this.backoffPolicy = backoffPolicy;
+        this.retryPredicate = retryPredicate;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public <TResult> CompletableFuture<TResult> getWithRetryAsync(Supplier<CompletableFuture<TResult>> function) {
+        CompletableFuture<TResult> result = new CompletableFuture<>();
+
+        attempt(function, result, 0, Duration.ZERO, System.nanoTime());
+
+        return result;
+    }
+
+    private <TResult> void attempt(Supplier<CompletableFuture<TResult>> function, CompletableFuture<TResult> result, int retryCount, Duration previousDelay, long startNanos) {
+
+        CompletableFuture<TResult> future;
+        try {
+            future = function.get();
+        } catch (Throwable t) {
+            future = CompletableFuture.failedFuture(t);
+        }
+
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+
+            Throwable cause = unwrap(error);
+
+            // Give up, if we hit the maximum retry count or the exception is not worth a retry:
+            if (retryCount >= maxRetries || !retryPredicate.test(cause)) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            Duration delay = backoffPolicy.getDelay(retryCount + 1, previousDelay);
+
+            // Never retry earlier than FCM asked us to:
+            if (cause instanceof FcmRetryAfterException) {
+                Duration retryDelay = ((FcmRetryAfterException) cause).getRetryDelay();
+                if (retryDelay != null && retryDelay.compareTo(delay) > 0) {
+                    delay = retryDelay;
+                }
+            }
+
+            // Give up, if the next attempt would start after the maximum elapsed time:
+            if (maxElapsedTime != null && Duration.ofNanos(System.nanoTime() - startNanos).plus(delay).compareTo(maxElapsedTime) > 0) {
+                result.completeExceptionally(cause);
+                return;
+            }
+
+            Duration nextPreviousDelay = delay;
+            schedule(() -> attempt(function, result, retryCount + 1, nextPreviousDelay, startNanos), delay);
+        });
+    }
+
+    private void schedule(Runnable runnable, Duration delay) {
+        if (scheduler == null) {
+            CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS).execute(runnable);
+        } else {
+            scheduler.schedule(runnable, delay.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    public static BackoffRetryStrategyBuilder builder() {
+        return new BackoffRetryStrategyBuilder();
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.shsmysore.fcmjava.client.retry.strategy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * An Async Retry Strategy retries asynchronous operations. Waiting between the attempts must not block a thread.
+ */
+public interface IAsyncRetryStrategy {
+
+    /**
+     * Retries an asynchronous function with a return value.
+     *
+     * @param function Function starting a new attempt.
+     * @param <TResult> Result of the invocation.
+     * @return Future completing with the result of the first successful attempt, or the error of the last attempt.
+     */
+    <TResult> CompletableFuture<TResult> getWithRetryAsync(Supplier<CompletableFuture<TResult>> function);
+
+}
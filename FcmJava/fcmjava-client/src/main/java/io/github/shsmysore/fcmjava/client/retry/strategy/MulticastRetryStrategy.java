@@ -0,0 +1,205 @@
+package io.github.shsmysore.fcmjava.client.retry.strategy;
+
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.builders.MulticastRetryStrategyBuilder;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * The MulticastRetryStrategy retries the registration IDs of a multicast message, which failed with a retryable
+ * error like Unavailable or InternalServerError.
+ *
+ * FCM returns the results of a multicast message in the order of its registration IDs, so the failed registration IDs
+ * are found by their index. Only these registration IDs are sent again in a smaller multicast message, and the results
+ * of all attempts are merged into a single response, which is index-aligned with the original registration IDs.
+ *
+ * A compact response is merged into a compact response again. Its Message IDs are only kept, if the response mode of
+ * the strategy is Compact, so it has to match the response mode of the client.
+ */
+public class MulticastRetryStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MulticastRetryStrategy.class);
+
+    private final int maxRetries;
+    private final IBackoffPolicy backoffPolicy;
+    private final Set<ErrorCodeEnum> retryableErrors;
+    private final ScheduledExecutorService scheduler;
+    private final ResponseModeEnum responseMode;
+
+    public MulticastRetryStrategy(int maxRetries, IBackoffPolicy backoffPolicy, Set<ErrorCodeEnum> retryableErrors, ScheduledExecutorService scheduler) {
+        this(maxRetries, backoffPolicy, retryableErrors, scheduler, ResponseModeEnum.Compact);
+    }
+
+    public MulticastRetryStrategy(int maxRetries, IBackoffPolicy backoffPolicy, Set<ErrorCodeEnum> retryableErrors, ScheduledExecutorService scheduler, ResponseModeEnum responseMode) {
+
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries");
+        }
+
+        if (backoffPolicy == null) {
+            throw new IllegalArgumentException("backoffPolicy");
+        }
+
+        if (retryableErrors == null) {
+            throw new IllegalArgumentException("retryableErrors");
+        }
+
+        if (responseMode == null) {
+            throw new IllegalArgumentException("responseMode");
+        }
+
+        this.maxRetries = maxRetries;
+        this.backoffPolicy = backoffPolicy;
+        this.retryableErrors = retryableErrors.isEmpty() ? EnumSet.noneOf(ErrorCodeEnum.class) : EnumSet.copyOf(retryableErrors);
+        this.scheduler = scheduler;
+        this.responseMode = responseMode;
+    }
+
+    /**
+     * Sends a multicast message and re-sends the registration IDs with retryable errors.
+     *
+     * @param message Multicast Message to send
+     * @param messageFactory Creates a copy of the message for a subset of its registration IDs
+     * @param sender Sends a message to FCM
+     * @param <TMessage> Type of the Multicast Message
+     * @return Merged response of all attempts
+     */
+    public <TMessage extends FcmMulticastMessage<?>> CompletableFuture<FcmMessageResponse> sendAsync(TMessage message,
+                                                                                                      Function<List<String>, TMessage> messageFactory,
+                                                                                                      Function<TMessage, CompletableFuture<FcmMessageResponse>> sender) {
+        return sender.apply(message)
+                .thenCompose(response -> {
+                    List<String> registrationIds = message.getRegistrationIds();
+
+                    // Without one result per registration ID the results cannot be matched, so return them as they are:
+                    if (response == null || response.getResults() == null || response.getResults().size() != registrationIds.size()) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+
+                    // Compact responses are only expanded, if there is something to retry:
+                    boolean compact = response instanceof CompactFcmMessageResponse;
+                    if (compact && !hasRetryableFailure((CompactFcmMessageResponse) response)) {
+                        return CompletableFuture.completedFuture(response);
+                    }
+
+                    FcmMessageResultItem[] results = response.getResults().toArray(new FcmMessageResultItem[0]);
+
+                    return retry(registrationIds, results, messageFactory, sender, 1, Duration.ZERO)
+                            .thenApply(ignored -> {
+                                FcmMessageResponse merged = merge(response.getMulticastId(), results);
+                                return compact ? CompactFcmMessageResponse.of(merged, responseMode == ResponseModeEnum.Compact) : merged;
+                            });
+                });
+    }
+
+    private <TMessage extends FcmMulticastMessage<?>> CompletableFuture<Void> retry(List<String> registrationIds,
+                                                                                     FcmMessageResultItem[] results,
+                                                                                     Function<List<String>, TMessage> messageFactory,
+                                                                                     Function<TMessage, CompletableFuture<FcmMessageResponse>> sender,
+                                                                                     int retryCount,
+                                                                                     Duration previousDelay) {
+        int[] failedIndices = getRetryableIndices(results);
+
+        if (failedIndices.length == 0 || retryCount > maxRetries) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        List<String> failedRegistrationIds = new ArrayList<>(failedIndices.length);
+        for (int index : failedIndices) {
+            failedRegistrationIds.add(registrationIds.get(index));
+        }
+
+        Duration delay = backoffPolicy.getDelay(retryCount, previousDelay);
+
+        LOGGER.info("Retrying {} of {} registration IDs in {} ms.", failedIndices.length, registrationIds.size(), delay.toMillis());
+
+        return delay(delay)
+                .thenCompose(ignored -> sender.apply(messageFactory.apply(failedRegistrationIds)))
+                .handle((response, error) -> {
+                    if (error != null || response == null || response.getResults() == null || response.getResults().size() != failedIndices.length) {
+                        // Keep the results we already have, instead of failing the whole multicast:
+                        LOGGER.warn("Retry of the failed registration IDs did not return matching results.", error);
+                        return false;
+                    }
+                    List<FcmMessageResultItem> retryResults = response.getResults();
+                    for (int i = 0; i < failedIndices.length; i++) {
+                        results[failedIndices[i]] = retryResults.get(i);
+                    }
+                    return true;
+                })
+                .thenCompose(merged -> merged
+                        ? retry(registrationIds, results, messageFactory, sender, retryCount + 1, delay)
+                        : CompletableFuture.completedFuture(null));
+    }
+
+    private boolean hasRetryableFailure(CompactFcmMessageResponse response) {
+        CompactFcmMessageResponse.FailureCursor cursor = response.failures();
+        while (cursor.next()) {
+            if (retryableErrors.contains(cursor.getErrorCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] getRetryableIndices(FcmMessageResultItem[] results) {
+        int[] indices = new int[results.length];
+        int count = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null && results[i].getErrorCode() != null && retryableErrors.contains(results[i].getErrorCode())) {
+                indices[count++] = i;
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    private static FcmMessageResponse merge(long multicastId, FcmMessageResultItem[] results) {
+        int numberOfSuccess = 0;
+        int numberOfFailure = 0;
+        int numberOfCanonicalIds = 0;
+        for (FcmMessageResultItem result : results) {
+            if (result == null) {
+                continue;
+            }
+            if (result.getErrorCode() != null) {
+                numberOfFailure++;
+            } else {
+                numberOfSuccess++;
+            }
+            if (result.getCanonicalRegistrationId() != null) {
+                numberOfCanonicalIds++;
+            }
+        }
+        return new FcmMessageResponse(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, Arrays.asList(results));
+    }
+
+    private CompletableFuture<Void> delay(Duration delay) {
+        if (scheduler == null) {
+            return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        scheduler.schedule(() -> future.complete(null), delay.toMillis(), TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    public static MulticastRetryStrategyBuilder builder() {
+        return new MulticastRetryStrategyBuilder();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.shsmysore.fcmjava.client.retry.strategy.builders;
+
+import io.github.shsmysore.fcmjava.client.retry.backoff.DecorrelatedJitterBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.BackoffRetryStrategy;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Predicate;
+
+public class BackoffRetryStrategyBuilder {
+
+    private int maxRetries = 3;
+    private Duration maxElapsedTime = null;
+    private IBackoffPolicy backoffPolicy = new DecorrelatedJitterBackoffPolicy(Duration.ofMillis(500), Duration.ofSeconds(30));
+    private Predicate<Throwable> retryPredicate = null;
+    private ScheduledExecutorService scheduler = null;
+
+    public BackoffRetryStrategyBuilder setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+
+        return this;
+    }
+
+    public BackoffRetryStrategyBuilder setMaxElapsedTime(Duration maxElapsedTime) {
+        this.maxElapsedTime = maxElapsedTime;
+
+        return this;
+    }
+
+    public BackoffRetryStrategyBuilder setBackoffPolicy(IBackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+
+        return this;
+    }
+
+    public BackoffRetryStrategyBuilder setScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+
+        return this;
+    }
+
+    /**
+     * Retries all exceptions of the given type.
+     *
+     * @param exceptionType Type of the exceptions to retry.
+     * @return This builder.
+     */
+    public BackoffRetryStrategyBuilder retryOn(Class<? extends Throwable> exceptionType) {
+        return retryIf(exceptionType::isInstance);
+    }
+
+    /**
+     * Retries all exceptions accepted by the given predicate. Predicates of multiple calls are combined, so an
+     * exception is retried if any of them accepts it.
+     *
+     * @param retryPredicate Predicate deciding if an exception is retried.
+     * @return This builder.
+     */
+    public BackoffRetryStrategyBuilder retryIf(Predicate<Throwable> retryPredicate) {
+        this.retryPredicate = this.retryPredicate == null ? retryPredicate : this.retryPredicate.or(retryPredicate);
+
+        return this;
+    }
+
+    public BackoffRetryStrategy build() {
+
+        // Like the SimpleRetryStrategy only retry, if FCM explicitly allows it:
+        Predicate<Throwable> predicate = retryPredicate != null ? retryPredicate : FcmRetryAfterException.class::isInstance;
+
+        return new BackoffRetryStrategy(maxRetries, maxElapsedTime, backoffPolicy, predicate, scheduler);
+    }
+}
@@ -0,0 +1,55 @@
+package io.github.shsmysore.fcmjava.client.retry.strategy.builders;
+
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.retry.backoff.DecorrelatedJitterBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class MulticastRetryStrategyBuilder {
+
+    private int maxRetries = 3;
+    private IBackoffPolicy backoffPolicy = new DecorrelatedJitterBackoffPolicy(Duration.ofMillis(500), Duration.ofSeconds(30));
+    private Set<ErrorCodeEnum> retryableErrors = EnumSet.of(ErrorCodeEnum.Unavailable, ErrorCodeEnum.InternalServerError);
+    private ScheduledExecutorService scheduler = null;
+    private ResponseModeEnum responseMode = ResponseModeEnum.Compact;
+
+    public MulticastRetryStrategyBuilder setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+
+        return this;
+    }
+
+    public MulticastRetryStrategyBuilder setBackoffPolicy(IBackoffPolicy backoffPolicy) {
+        this.backoffPolicy = backoffPolicy;
+
+        return this;
+    }
+
+    public MulticastRetryStrategyBuilder setRetryableErrors(Set<ErrorCodeEnum> retryableErrors) {
+        this.retryableErrors = retryableErrors;
+
+        return this;
+    }
+
+    public MulticastRetryStrategyBuilder setScheduler(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+
+        return this;
+    }
+
+    public MulticastRetryStrategyBuilder setResponseMode(ResponseModeEnum responseMode) {
+        this.responseMode = responseMode;
+
+        return this;
+    }
+
+    public MulticastRetryStrategy build() {
+        return new MulticastRetryStrategy(maxRetries, backoffPolicy, retryableErrors, scheduler, responseMode);
+    }
+}
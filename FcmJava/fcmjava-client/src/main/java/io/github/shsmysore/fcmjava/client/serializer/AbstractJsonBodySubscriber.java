@@ -0,0 +1,121 @@
+package io.github.shsmysore.fcmjava.client.serializer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import io.github.shsmysore.fcmjava.client.exceptions.SerializationException;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * A BodySubscriber, which feeds the bytes of a response into a non-blocking Jackson parser as they arrive.
+ *
+ * The response is never buffered as a String. Subclasses get the JSON tokens one by one and build the body from them.
+ * Errors while parsing complete the body with a SerializationException, so they are not mistaken for I/O errors.
+ */
+public abstract class AbstractJsonBodySubscriber<TBody> implements HttpResponse.BodySubscriber<TBody> {
+
+    private static final int MAX_SCRATCH_SIZE = 16 * 1024;
+
+    private final CompletableFuture<TBody> body = new CompletableFuture<>();
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private Flow.Subscription subscription;
+    private byte[] scratch = new byte[0];
+
+    protected AbstractJsonBodySubscriber(JsonFactory jsonFactory) {
+        try {
+            this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not create a non-blocking JSON parser.", e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * Handles the current token of the parser.
+     *
+     * @param parser Parser positioned on the token
+     * @throws IOException If the token cannot be handled
+     */
+    protected abstract void onToken(JsonParser parser) throws IOException;
+
+    /**
+     * Creates the body, after all tokens have been handled.
+     *
+     * @return Body of the response
+     * @throws IOException If the body cannot be created
+     */
+    protected abstract TBody onEndOfInput() throws IOException;
+
+    @Override
+    public CompletionStage<TBody> getBody() {
+        return body;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(List<ByteBuffer> buffers) {
+        if (body.isDone()) {
+            return;
+        }
+        try {
+            for (ByteBuffer buffer : buffers) {
+                int length = buffer.remaining();
+                if (length == 0) {
+                    continue;
+                }
+                // The parser has consumed all input before new input is fed, so the scratch array can be reused:
+                byte[] input = length <= scratch.length ? scratch : new byte[length];
+                if (length <= MAX_SCRATCH_SIZE && input != scratch) {
+                    scratch = input;
+                }
+                buffer.get(input, 0, length);
+                feeder.feedInput(input, 0, length);
+                drainTokens();
+            }
+        } catch (Throwable t) {
+            subscription.cancel();
+            body.completeExceptionally(new SerializationException(t));
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        body.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        if (body.isDone()) {
+            return;
+        }
+        try {
+            feeder.endOfInput();
+            drainTokens();
+            body.complete(onEndOfInput());
+        } catch (Throwable t) {
+            body.completeExceptionally(new SerializationException(t));
+        }
+    }
+
+    private void drainTokens() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            onToken(parser);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package io.github.shsmysore.fcmjava.client.serializer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.builders.CompactFcmMessageResponseBuilder;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Parses a FcmMessageResponse directly into a {@link CompactFcmMessageResponse}, without creating a
+ * FcmMessageResultItem for the results.
+ */
+public class CompactResponseBodySubscriber extends AbstractJsonBodySubscriber<FcmMessageResponse> {
+
+    private static final Map<String, ErrorCodeEnum> ERROR_CODES = new HashMap<>();
+
+    static {
+        for (ErrorCodeEnum errorCode : ErrorCodeEnum.values()) {
+            ERROR_CODES.put(errorCode.name(), errorCode);
+        }
+    }
+
+    private final CompactFcmMessageResponseBuilder builder;
+    private final boolean retainMessageIds;
+
+    private boolean hasContent;
+    private int depth;
+    private String field;
+    private boolean inResults;
+    private boolean inItem;
+
+    private String messageId;
+    private String canonicalRegistrationId;
+    private ErrorCodeEnum errorCode;
+
+    public CompactResponseBodySubscriber(JsonFactory jsonFactory, boolean retainMessageIds) {
+        super(jsonFactory);
+
+        this.retainMessageIds = retainMessageIds;
+        this.builder = CompactFcmMessageResponse.builder()
+                .setRetainMessageIds(retainMessageIds);
+    }
+
+    @Override
+    protected void onToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+
+        hasContent = true;
+
+        if (token.isStructStart()) {
+            depth++;
+            if (inResults && depth == 3 && token == JsonToken.START_OBJECT) {
+                inItem = true;
+            } else if (depth == 2 && token == JsonToken.START_ARRAY && "results".equals(field)) {
+                inResults = true;
+            }
+            return;
+        }
+
+        if (token.isStructEnd()) {
+            depth--;
+            if (inItem && depth == 2) {
+                onResultItem();
+            } else if (depth == 1) {
+                inResults = false;
+            }
+            return;
+        }
+
+        if (inItem && depth == 3) {
+            onItemToken(parser, token);
+        } else if (depth == 1) {
+            onResponseToken(parser, token);
+        }
+    }
+
+    private void onItemToken(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.FIELD_NAME) {
+            field = parser.getCurrentName();
+            return;
+        }
+
+        if (token != JsonToken.VALUE_STRING) {
+            return;
+        }
+
+        switch (field) {
+            case "message_id":
+                // Do not create the String at all, if Message IDs are discarded:
+                if (retainMessageIds) {
+                    messageId = parser.getText();
+                }
+                break;
+            case "registration_id":
+                canonicalRegistrationId = parser.getText();
+                break;
+            case "error":
+                errorCode = ERROR_CODES.get(parser.getText());
+                if (errorCode == null) {
+                    throw new JsonParseException(parser, "Unknown error code: " + parser.getText());
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void onResponseToken(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.FIELD_NAME) {
+            field = parser.getCurrentName();
+        } else if (token.isNumeric()) {
+            switch (field) {
+                case "multicast_id":
+                    builder.setMulticastId(parser.getLongValue());
+                    break;
+                case "success":
+                    builder.setNumberOfSuccess(parser.getIntValue());
+                    break;
+                case "failure":
+                    builder.setNumberOfFailure(parser.getIntValue());
+                    break;
+                case "canonical_ids":
+                    builder.setNumberOfCanonicalIds(parser.getIntValue());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void onResultItem() {
+        builder.addResult(messageId, canonicalRegistrationId, errorCode);
+
+        inItem = false;
+        messageId = null;
+        canonicalRegistrationId = null;
+        errorCode = null;
+    }
+
+    @Override
+    protected FcmMessageResponse onEndOfInput() throws IOException {
+        if (!hasContent) {
+            throw new IOException("No content to map due to end-of-input");
+        }
+
+        return builder.build();
+    }
+}
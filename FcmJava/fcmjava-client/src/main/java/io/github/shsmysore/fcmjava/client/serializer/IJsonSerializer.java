@@ -1,9 +1,85 @@
 package io.github.shsmysore.fcmjava.client.serializer;
 
+import io.github.shsmysore.fcmjava.client.exceptions.SerializationException;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
 public interface IJsonSerializer {
 
     <TModel> String serialize(TModel model);
 
+    /**
+     * Writes the UTF-8 encoded JSON representation of a model to an OutputStream. The OutputStream is not closed.
+     *
+     * Implementations should override this method to write the JSON without building an intermediate String.
+     *
+     * @param model Model to serialize
+     * @param outputStream Stream to write the JSON to
+     * @param <TModel> Type of the model
+     */
+    default <TModel> void serialize(TModel model, OutputStream outputStream) {
+        try {
+            outputStream.write(serialize(model).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
     <TModel> TModel deserialize(String content, Class<TModel> type);
 
+    /**
+     * Creates a BodySubscriber, which deserializes a response into the given type.
+     *
+     * Implementations should override this method to parse the response while it is received, instead of
+     * buffering it as a String.
+     *
+     * @param type Type of the response
+     * @param <TModel> Type of the response
+     * @return BodySubscriber for the response
+     */
+    default <TModel> HttpResponse.BodySubscriber<TModel> createBodySubscriber(Class<TModel> type) {
+        return HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofString(StandardCharsets.UTF_8), content -> deserialize(content, type));
+    }
+
+    /**
+     * Creates a BodySubscriber for the response of a multicast message, which passes every result with its
+     * Registration ID to the callback. The FcmMessageResponse of the BodySubscriber has no results.
+     *
+     * @param registrationIds Registration IDs of the multicast message
+     * @param callback Callback for the results
+     * @return BodySubscriber for the response
+     */
+    default HttpResponse.BodySubscriber<FcmMessageResponse> createMulticastBodySubscriber(List<String> registrationIds, IResultItemCallback callback) {
+        return HttpResponse.BodySubscribers.mapping(createBodySubscriber(FcmMessageResponse.class), response -> {
+            if (response.getResults() != null) {
+                for (int i = 0; i < response.getResults().size(); i++) {
+                    callback.onResultItem(i < registrationIds.size() ? registrationIds.get(i) : null, response.getResults().get(i));
+                }
+            }
+            return new FcmMessageResponse(response.getMulticastId(), response.getNumberOfSuccess(), response.getNumberOfFailure(),
+                    response.getNumberOfCanonicalIds(), Collections.emptyList());
+        });
+    }
+
+    /**
+     * Creates a BodySubscriber, which deserializes a FcmMessageResponse into a {@link CompactFcmMessageResponse}.
+     *
+     * Implementations should override this method to parse the response without creating a FcmMessageResultItem
+     * for every result.
+     *
+     * @param retainMessageIds true, if the Message IDs of the results should be kept
+     * @return BodySubscriber for the response
+     */
+    default HttpResponse.BodySubscriber<FcmMessageResponse> createCompactBodySubscriber(boolean retainMessageIds) {
+        return HttpResponse.BodySubscribers.mapping(createBodySubscriber(FcmMessageResponse.class), response -> CompactFcmMessageResponse.of(response, retainMessageIds));
+    }
+
 }
@@ -0,0 +1,44 @@
+package io.github.shsmysore.fcmjava.client.serializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+import java.io.IOException;
+
+/**
+ * Parses a response into the given type, without buffering the response as a String.
+ *
+ * The tokens are collected in a compact Jackson TokenBuffer while the response arrives, and are bound to the type at
+ * the end of the response.
+ */
+public class JsonBodySubscriber<TBody> extends AbstractJsonBodySubscriber<TBody> {
+
+    private final ObjectMapper objectMapper;
+    private final Class<TBody> type;
+    private final TokenBuffer tokens;
+
+    public JsonBodySubscriber(ObjectMapper objectMapper, Class<TBody> type) {
+        super(objectMapper.getFactory());
+
+        this.objectMapper = objectMapper;
+        this.type = type;
+        this.tokens = new TokenBuffer(objectMapper, false);
+    }
+
+    @Override
+    protected void onToken(JsonParser parser) throws IOException {
+        tokens.copyCurrentEvent(parser);
+    }
+
+    @Override
+    protected TBody onEndOfInput() throws IOException {
+        // Let Jackson fail on an empty response, like it does for an empty String:
+        if (tokens.firstToken() == null) {
+            return objectMapper.readValue(new byte[0], type);
+        }
+        try (JsonParser parser = tokens.asParser(objectMapper)) {
+            return objectMapper.readValue(parser, type);
+        }
+    }
+}
@@ -1,18 +1,39 @@
 package io.github.shsmysore.fcmjava.client.serializer;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.github.shsmysore.fcmjava.client.exceptions.SerializationException;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmJacksonModule;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+
+import java.io.OutputStream;
+import java.net.http.HttpResponse;
+import java.util.List;
 
 public class JsonSerializer implements IJsonSerializer {
 
     private final ObjectMapper objectMapper;
+    private final ObjectWriter streamWriter;
 
+    /**
+     * Creates a JsonSerializer, which uses the hand-written serializers and deserializers of the
+     * {@link FcmJacksonModule} instead of introspecting the annotated classes.
+     */
     public JsonSerializer() {
-        this(new ObjectMapper());
+        this(new ObjectMapper().registerModule(new FcmJacksonModule()));
     }
 
+    /**
+     * Creates a JsonSerializer for the given ObjectMapper. Register the {@link FcmJacksonModule} with the
+     * ObjectMapper to use the hand-written serializers and deserializers.
+     *
+     * @param objectMapper ObjectMapper to use
+     */
     public JsonSerializer(ObjectMapper objectMapper) {
         this.objectMapper = objectMapper;
+        this.streamWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @Override
@@ -24,6 +45,15 @@ public class JsonSerializer implements IJsonSerializer {
         }
     }
 
+    @Override
+    public <TModel> void serialize(TModel model, OutputStream outputStream) {
+        try {
+            streamWriter.writeValue(outputStream, model);
+        } catch(Exception e) {
+            throw new SerializationException(e);
+        }
+    }
+
     @Override
     public <TModel> TModel deserialize(String content, Class<TModel> type) {
         try {
@@ -32,4 +62,19 @@ public class JsonSerializer implements IJsonSerializer {
             throw new SerializationException(e);
         }
     }
+
+    @Override
+    public <TModel> HttpResponse.BodySubscriber<TModel> createBodySubscriber(Class<TModel> type) {
+        return new JsonBodySubscriber<>(objectMapper, type);
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<FcmMessageResponse> createMulticastBodySubscriber(List<String> registrationIds, IResultItemCallback callback) {
+        return new MulticastResponseBodySubscriber(objectMapper, registrationIds, callback);
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<FcmMessageResponse> createCompactBodySubscriber(boolean retainMessageIds) {
+        return new CompactResponseBodySubscriber(objectMapper.getFactory(), retainMessageIds);
+    }
 }
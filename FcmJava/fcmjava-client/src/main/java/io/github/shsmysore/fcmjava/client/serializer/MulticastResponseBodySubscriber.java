@@ -0,0 +1,131 @@
+package io.github.shsmysore.fcmjava.client.serializer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses the response of a multicast message and passes every result to a callback as soon as it has been parsed.
+ *
+ * Only a single result is held in memory at a time. The returned FcmMessageResponse contains the counts of the
+ * response and an empty list of results.
+ */
+public class MulticastResponseBodySubscriber extends AbstractJsonBodySubscriber<FcmMessageResponse> {
+
+    private final ObjectMapper objectMapper;
+    private final List<String> registrationIds;
+    private final IResultItemCallback callback;
+
+    private int depth;
+    private String field;
+    private boolean inResults;
+    private TokenBuffer item;
+    private int itemIndex;
+
+    private long multicastId;
+    private int numberOfSuccess;
+    private int numberOfFailure;
+    private int numberOfCanonicalIds;
+
+    public MulticastResponseBodySubscriber(ObjectMapper objectMapper, List<String> registrationIds, IResultItemCallback callback) {
+        super(objectMapper.getFactory());
+
+        if (registrationIds == null) {
+            throw new IllegalArgumentException("registrationIds");
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException("callback");
+        }
+
+        this.objectMapper = objectMapper;
+        this.registrationIds = registrationIds;
+        this.callback = callback;
+    }
+
+    @Override
+    protected void onToken(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+
+        // Collect the tokens of the current result, until its object is closed:
+        if (item != null) {
+            item.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd() && --depth == 2) {
+                onResultItem();
+            }
+            return;
+        }
+
+        if (token.isStructStart()) {
+            depth++;
+            if (inResults && depth == 3 && token == JsonToken.START_OBJECT) {
+                item = new TokenBuffer(objectMapper, false);
+                item.copyCurrentEvent(parser);
+            } else if (depth == 2 && token == JsonToken.START_ARRAY && "results".equals(field)) {
+                inResults = true;
+            }
+            return;
+        }
+
+        if (token.isStructEnd()) {
+            depth--;
+            if (depth == 1) {
+                inResults = false;
+            }
+            return;
+        }
+
+        if (depth != 1) {
+            return;
+        }
+
+        if (token == JsonToken.FIELD_NAME) {
+            field = parser.getCurrentName();
+        } else if (token.isNumeric()) {
+            switch (field) {
+                case "multicast_id":
+                    multicastId = parser.getLongValue();
+                    break;
+                case "success":
+                    numberOfSuccess = parser.getIntValue();
+                    break;
+                case "failure":
+                    numberOfFailure = parser.getIntValue();
+                    break;
+                case "canonical_ids":
+                    numberOfCanonicalIds = parser.getIntValue();
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void onResultItem() throws IOException {
+        FcmMessageResultItem resultItem;
+        try (JsonParser itemParser = item.asParser(objectMapper)) {
+            resultItem = objectMapper.readValue(itemParser, FcmMessageResultItem.class);
+        }
+        item = null;
+
+        String registrationId = itemIndex < registrationIds.size() ? registrationIds.get(itemIndex) : null;
+        itemIndex++;
+
+        callback.onResultItem(registrationId, resultItem);
+    }
+
+    @Override
+    protected FcmMessageResponse onEndOfInput() {
+        return new FcmMessageResponse(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, Collections.emptyList());
+    }
+}
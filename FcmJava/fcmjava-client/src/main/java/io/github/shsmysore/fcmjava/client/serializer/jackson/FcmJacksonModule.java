@@ -0,0 +1,100 @@
+package io.github.shsmysore.fcmjava.client.serializer.jackson;
+
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.deser.Deserializers;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmResponseDeserializers.CreateDeviceGroupMessageResponseDeserializer;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmResponseDeserializers.FcmMessageResponseDeserializer;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmResponseDeserializers.FcmMessageResultItemDeserializer;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmResponseDeserializers.TopicMessageResponseDeserializer;
+import io.github.shsmysore.fcmjava.requests.FcmMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.CreateDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.RemoveDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Registers hand-written serializers for the FcmMessage classes and deserializers for the FCM responses, so the
+ * ObjectMapper does not have to introspect them. They write and read the same JSON as the annotated classes.
+ *
+ * The serializers only apply to the exact classes of this library. Subclasses, like the PreSerializedMulticastMessage
+ * of a template or messages of an application, are still handled by the annotations.
+ */
+public class FcmJacksonModule extends SimpleModule {
+
+    public FcmJacksonModule() {
+        super(FcmJacksonModule.class.getSimpleName());
+    }
+
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+
+        context.addSerializers(new ExactTypeSerializers());
+        context.addDeserializers(new ExactTypeDeserializers());
+    }
+
+    private static class ExactTypeSerializers extends Serializers.Base {
+
+        private final Map<Class<?>, JsonSerializer<?>> serializers = new HashMap<>();
+
+        private ExactTypeSerializers() {
+            add(DataMulticastMessage.class, false);
+            add(DataUnicastMessage.class, false);
+            add(NotificationMulticastMessage.class, false);
+            add(NotificationUnicastMessage.class, false);
+            add(TopicUnicastMessage.class, false);
+            add(CreateDeviceGroupMessage.class, false);
+            add(AddDeviceGroupMessage.class, false);
+            add(RemoveDeviceGroupMessage.class, false);
+            // The TopicMulticastMessage has no JsonInclude annotation, so it writes null options:
+            add(TopicMulticastMessage.class, true);
+            serializers.put(NotificationPayload.class, new NotificationPayloadSerializer());
+        }
+
+        private <TMessage extends FcmMessage<?>> void add(Class<TMessage> messageType, boolean writeNulls) {
+            serializers.put(messageType, new FcmMessageSerializer<>(messageType, writeNulls));
+        }
+
+        @Override
+        public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type, BeanDescription beanDesc) {
+            return serializers.get(type.getRawClass());
+        }
+    }
+
+    private static class ExactTypeDeserializers extends Deserializers.Base {
+
+        private final Map<Class<?>, JsonDeserializer<?>> deserializers = new HashMap<>();
+
+        private ExactTypeDeserializers() {
+            deserializers.put(FcmMessageResponse.class, new FcmMessageResponseDeserializer());
+            deserializers.put(FcmMessageResultItem.class, new FcmMessageResultItemDeserializer());
+            deserializers.put(TopicMessageResponse.class, new TopicMessageResponseDeserializer());
+            deserializers.put(CreateDeviceGroupMessageResponse.class, new CreateDeviceGroupMessageResponseDeserializer());
+        }
+
+        @Override
+        public JsonDeserializer<?> findBeanDeserializer(JavaType type, DeserializationConfig config, BeanDescription beanDesc) {
+            return deserializers.get(type.getRawClass());
+        }
+    }
+}
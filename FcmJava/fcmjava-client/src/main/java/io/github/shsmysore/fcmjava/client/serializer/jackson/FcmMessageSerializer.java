@@ -0,0 +1,165 @@
+package io.github.shsmysore.fcmjava.client.serializer.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.shsmysore.fcmjava.model.enums.OperationEnum;
+import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
+import io.github.shsmysore.fcmjava.requests.FcmMessage;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.FcmUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.DeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.RemoveDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a FcmMessage with a JsonGenerator, in the property order pinned on the FcmMessage class.
+ *
+ * The output is the same as the one of a default ObjectMapper: Unicast and Multicast Messages skip null properties,
+ * while a TopicMulticastMessage writes its null options, because it is not annotated with JsonInclude. Only the
+ * data payload is passed to the SerializerProvider, because it may be any object.
+ */
+public class FcmMessageSerializer<TMessage extends FcmMessage<?>> extends StdSerializer<TMessage> {
+
+    private final boolean writeNulls;
+
+    public FcmMessageSerializer(Class<TMessage> messageType, boolean writeNulls) {
+        super(messageType);
+
+        this.writeNulls = writeNulls;
+    }
+
+    @Override
+    public void serialize(TMessage message, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(message);
+
+        if (message instanceof FcmUnicastMessage) {
+            writeString(gen, "to", ((FcmUnicastMessage<?>) message).getTo());
+        } else if (message instanceof FcmMulticastMessage) {
+            writeStringList(gen, "registration_ids", ((FcmMulticastMessage<?>) message).getRegistrationIds());
+        }
+
+        writeString(gen, "condition", message.getCondition());
+        writeString(gen, "collapse_key", message.getCollapseKey());
+        writePriority(gen, message.getPriorityEnum());
+        writeBoolean(gen, "content_available", message.getContentAvailable());
+        writeBoolean(gen, "delay_while_idle", message.getDelayWhileIdle());
+        gen.writeNumberField("time_to_live", message.getTimeToLive());
+        writeString(gen, "restricted_package_name", message.getRestrictedPackageName());
+        writeBoolean(gen, "dry_run", message.getDryRun());
+        writeBoolean(gen, "mutable_content", message.getMutableContent());
+
+        if (message instanceof DataMulticastMessage) {
+            writeData(gen, provider, message.getPayload(), ((DataMulticastMessage) message).getNotificationPayload());
+        } else if (message instanceof DataUnicastMessage) {
+            writeData(gen, provider, message.getPayload(), ((DataUnicastMessage) message).getNotificationPayload());
+        } else if (message instanceof TopicMulticastMessage) {
+            writeData(gen, provider, message.getPayload(), ((TopicMulticastMessage) message).getNotificationPayload());
+        } else if (message instanceof TopicUnicastMessage) {
+            writeData(gen, provider, message.getPayload(), ((TopicUnicastMessage) message).getNotificationPayload());
+        } else if (message instanceof NotificationMulticastMessage || message instanceof NotificationUnicastMessage) {
+            writeNotification(gen, (NotificationPayload) message.getPayload());
+        } else if (message instanceof DeviceGroupMessage) {
+            writeDeviceGroup(gen, (DeviceGroupMessage) message);
+        }
+
+        gen.writeEndObject();
+    }
+
+    private void writeData(JsonGenerator gen, SerializerProvider provider, Object data, NotificationPayload notification) throws IOException {
+        // Data and notification skip nulls in all messages:
+        if (data != null) {
+            provider.defaultSerializeField("data", data, gen);
+        }
+        if (notification != null) {
+            writeNotification(gen, notification);
+        }
+    }
+
+    private void writeNotification(JsonGenerator gen, NotificationPayload notification) throws IOException {
+        gen.writeFieldName("notification");
+        NotificationPayloadSerializer.writeNotificationPayload(gen, notification);
+    }
+
+    private void writeDeviceGroup(JsonGenerator gen, DeviceGroupMessage message) throws IOException {
+        writeOperation(gen, message.getOperation());
+        writeString(gen, "notification_key_name", message.getPayload());
+        if (message instanceof AddDeviceGroupMessage) {
+            writeString(gen, "notification_key", ((AddDeviceGroupMessage) message).getNotificationKey());
+        } else if (message instanceof RemoveDeviceGroupMessage) {
+            writeString(gen, "notification_key", ((RemoveDeviceGroupMessage) message).getNotificationKey());
+        }
+    }
+
+    private void writeString(JsonGenerator gen, String fieldName, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(fieldName, value);
+        } else if (writeNulls) {
+            gen.writeNullField(fieldName);
+        }
+    }
+
+    private void writeBoolean(JsonGenerator gen, String fieldName, Boolean value) throws IOException {
+        if (value != null) {
+            gen.writeBooleanField(fieldName, value);
+        } else if (writeNulls) {
+            gen.writeNullField(fieldName);
+        }
+    }
+
+    private void writeStringList(JsonGenerator gen, String fieldName, List<String> values) throws IOException {
+        if (values != null) {
+            gen.writeFieldName(fieldName);
+            NotificationPayloadSerializer.writeStringList(gen, values);
+        } else if (writeNulls) {
+            gen.writeNullField(fieldName);
+        }
+    }
+
+    private void writePriority(JsonGenerator gen, PriorityEnum priority) throws IOException {
+        if (priority == null) {
+            writeString(gen, "priority", null);
+            return;
+        }
+        switch (priority) {
+            case Normal:
+                gen.writeStringField("priority", "normal");
+                break;
+            case High:
+                gen.writeStringField("priority", "high");
+                break;
+            default:
+                throw new IllegalArgumentException("priority");
+        }
+    }
+
+    private void writeOperation(JsonGenerator gen, OperationEnum operation) throws IOException {
+        if (operation == null) {
+            writeString(gen, "operation", null);
+            return;
+        }
+        switch (operation) {
+            case Create:
+                gen.writeStringField("operation", "create");
+                break;
+            case Add:
+                gen.writeStringField("operation", "add");
+                break;
+            case Remove:
+                gen.writeStringField("operation", "remove");
+                break;
+            default:
+                throw new IllegalArgumentException("operation");
+        }
+    }
+}
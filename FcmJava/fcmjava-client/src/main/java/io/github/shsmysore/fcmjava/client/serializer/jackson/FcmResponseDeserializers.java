@@ -0,0 +1,205 @@
+package io.github.shsmysore.fcmjava.client.serializer.jackson;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deserializers for the responses of FCM, which read the properties with a JsonParser. Like the annotated
+ * classes, they ignore unknown properties and fail on unknown error codes.
+ */
+public final class FcmResponseDeserializers {
+
+    private static final Map<String, ErrorCodeEnum> ERROR_CODES = new HashMap<>();
+
+    static {
+        for (ErrorCodeEnum errorCode : ErrorCodeEnum.values()) {
+            ERROR_CODES.put(errorCode.name(), errorCode);
+        }
+    }
+
+    private FcmResponseDeserializers() {
+    }
+
+    public static class FcmMessageResponseDeserializer extends StdDeserializer<FcmMessageResponse> {
+
+        private final FcmMessageResultItemDeserializer resultItemDeserializer = new FcmMessageResultItemDeserializer();
+
+        public FcmMessageResponseDeserializer() {
+            super(FcmMessageResponse.class);
+        }
+
+        @Override
+        public FcmMessageResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            long multicastId = 0;
+            int numberOfSuccess = 0;
+            int numberOfFailure = 0;
+            int numberOfCanonicalIds = 0;
+            List<FcmMessageResultItem> results = null;
+
+            for (String field = firstFieldName(p, ctxt, FcmMessageResponse.class); field != null; field = p.nextFieldName()) {
+                JsonToken token = p.nextToken();
+                switch (field) {
+                    case "multicast_id":
+                        multicastId = _parseLongPrimitive(p, ctxt);
+                        break;
+                    case "success":
+                        numberOfSuccess = _parseIntPrimitive(p, ctxt);
+                        break;
+                    case "failure":
+                        numberOfFailure = _parseIntPrimitive(p, ctxt);
+                        break;
+                    case "canonical_ids":
+                        numberOfCanonicalIds = _parseIntPrimitive(p, ctxt);
+                        break;
+                    case "results":
+                        results = token == JsonToken.VALUE_NULL ? null : readResults(p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+
+            return new FcmMessageResponse(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, results);
+        }
+
+        @SuppressWarnings("unchecked")
+        private List<FcmMessageResultItem> readResults(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (!p.isExpectedStartArrayToken()) {
+                return (List<FcmMessageResultItem>) ctxt.handleUnexpectedToken(List.class, p);
+            }
+
+            List<FcmMessageResultItem> results = new ArrayList<>();
+            while (p.nextToken() != JsonToken.END_ARRAY) {
+                results.add(p.currentToken() == JsonToken.VALUE_NULL ? null : resultItemDeserializer.deserialize(p, ctxt));
+            }
+            return results;
+        }
+    }
+
+    public static class FcmMessageResultItemDeserializer extends StdDeserializer<FcmMessageResultItem> {
+
+        public FcmMessageResultItemDeserializer() {
+            super(FcmMessageResultItem.class);
+        }
+
+        @Override
+        public FcmMessageResultItem deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String messageId = null;
+            String canonicalRegistrationId = null;
+            ErrorCodeEnum errorCode = null;
+
+            for (String field = firstFieldName(p, ctxt, FcmMessageResultItem.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "message_id":
+                        messageId = _parseString(p, ctxt);
+                        break;
+                    case "registration_id":
+                        canonicalRegistrationId = _parseString(p, ctxt);
+                        break;
+                    case "error":
+                        errorCode = readErrorCode(p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+
+            return new FcmMessageResultItem(messageId, canonicalRegistrationId, errorCode);
+        }
+    }
+
+    public static class TopicMessageResponseDeserializer extends StdDeserializer<TopicMessageResponse> {
+
+        public TopicMessageResponseDeserializer() {
+            super(TopicMessageResponse.class);
+        }
+
+        @Override
+        public TopicMessageResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            long messageId = 0;
+            ErrorCodeEnum errorCode = null;
+
+            for (String field = firstFieldName(p, ctxt, TopicMessageResponse.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                switch (field) {
+                    case "message_id":
+                        messageId = _parseLongPrimitive(p, ctxt);
+                        break;
+                    case "error":
+                        errorCode = readErrorCode(p, ctxt);
+                        break;
+                    default:
+                        p.skipChildren();
+                        break;
+                }
+            }
+
+            return new TopicMessageResponse(messageId, errorCode);
+        }
+    }
+
+    public static class CreateDeviceGroupMessageResponseDeserializer extends StdDeserializer<CreateDeviceGroupMessageResponse> {
+
+        public CreateDeviceGroupMessageResponseDeserializer() {
+            super(CreateDeviceGroupMessageResponse.class);
+        }
+
+        @Override
+        public CreateDeviceGroupMessageResponse deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            String notificationKey = null;
+
+            for (String field = firstFieldName(p, ctxt, CreateDeviceGroupMessageResponse.class); field != null; field = p.nextFieldName()) {
+                p.nextToken();
+                if ("notification_key".equals(field)) {
+                    notificationKey = _parseString(p, ctxt);
+                } else {
+                    p.skipChildren();
+                }
+            }
+
+            return new CreateDeviceGroupMessageResponse(notificationKey);
+        }
+    }
+
+    private static String firstFieldName(JsonParser p, DeserializationContext ctxt, Class<?> type) throws IOException {
+        // Deserializers are called on START_OBJECT, or on the first FIELD_NAME when Jackson has buffered the object:
+        if (p.isExpectedStartObjectToken()) {
+            return p.nextFieldName();
+        }
+        if (p.hasToken(JsonToken.FIELD_NAME)) {
+            return p.currentName();
+        }
+        if (!p.hasToken(JsonToken.END_OBJECT)) {
+            ctxt.handleUnexpectedToken(type, p);
+        }
+        return null;
+    }
+
+    private static ErrorCodeEnum readErrorCode(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        String text = p.getValueAsString();
+        ErrorCodeEnum errorCode = text == null ? null : ERROR_CODES.get(text);
+        if (errorCode == null) {
+            return (ErrorCodeEnum) ctxt.handleWeirdStringValue(ErrorCodeEnum.class, text, "not one of the values accepted for Enum class: %s", ERROR_CODES.keySet());
+        }
+        return errorCode;
+    }
+}
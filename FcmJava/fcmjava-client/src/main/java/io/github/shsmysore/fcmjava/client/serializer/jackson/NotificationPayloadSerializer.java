@@ -0,0 +1,66 @@
+package io.github.shsmysore.fcmjava.client.serializer.jackson;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes a NotificationPayload with a JsonGenerator. Null properties are skipped.
+ */
+public class NotificationPayloadSerializer extends StdSerializer<NotificationPayload> {
+
+    public NotificationPayloadSerializer() {
+        super(NotificationPayload.class);
+    }
+
+    @Override
+    public void serialize(NotificationPayload notification, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        writeNotificationPayload(gen, notification);
+    }
+
+    static void writeNotificationPayload(JsonGenerator gen, NotificationPayload notification) throws IOException {
+        gen.writeStartObject(notification);
+        writeString(gen, "title", notification.getTitle());
+        writeString(gen, "body", notification.getBody());
+        writeString(gen, "icon", notification.getIcon());
+        writeString(gen, "sound", notification.getSound());
+        writeString(gen, "badge", notification.getBadge());
+        writeString(gen, "tag", notification.getTag());
+        writeString(gen, "color", notification.getColor());
+        writeString(gen, "click_action", notification.getClickAction());
+        writeString(gen, "body_loc_key", notification.getBodyLocKey());
+        if (notification.getBodyLocKeyArgs() != null) {
+            gen.writeFieldName("body_loc_args");
+            writeStringList(gen, notification.getBodyLocKeyArgs());
+        }
+        writeString(gen, "title_loc_key", notification.getTitleLocKey());
+        if (notification.getTitleLocKeyArgs() != null) {
+            gen.writeFieldName("title_loc_args");
+            writeStringList(gen, notification.getTitleLocKeyArgs());
+        }
+        writeString(gen, "android_channel_id", notification.getAndroidChannelId());
+        gen.writeEndObject();
+    }
+
+    static void writeStringList(JsonGenerator gen, List<String> values) throws IOException {
+        gen.writeStartArray(values, values.size());
+        for (String value : values) {
+            if (value == null) {
+                gen.writeNull();
+            } else {
+                gen.writeString(value);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    private static void writeString(JsonGenerator gen, String fieldName, String value) throws IOException {
+        if (value != null) {
+            gen.writeStringField(fieldName, value);
+        }
+    }
+}
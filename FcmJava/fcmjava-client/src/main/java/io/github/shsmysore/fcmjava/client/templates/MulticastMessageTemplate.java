@@ -0,0 +1,187 @@
+package io.github.shsmysore.fcmjava.client.templates;
+
+import io.github.shsmysore.fcmjava.client.exceptions.SerializationException;
+import io.github.shsmysore.fcmjava.client.serializer.IJsonSerializer;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A MulticastMessageTemplate is a multicast message, which has been serialized once without its Registration IDs.
+ *
+ * The options and the payload are kept as the JSON before and after the Registration IDs, so the body for a list of
+ * Registration IDs is built by only writing the Registration IDs between them. This makes sending the same message to
+ * a large number of Registration IDs in many requests much cheaper than serializing the whole message every time.
+ *
+ * The JSON before and after the Registration IDs is still copied into the body of every request, and the Registration
+ * IDs are encoded into a block buffer, which is copied into the body as well.
+ */
+public class MulticastMessageTemplate {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+    private final FcmMessageOptions options;
+    private final Object payload;
+    private final byte[] prefix;
+    private final byte[] suffix;
+
+    private MulticastMessageTemplate(FcmMessageOptions options, Object payload, byte[] prefix, byte[] suffix) {
+        this.options = options;
+        this.payload = payload;
+        this.prefix = prefix;
+        this.suffix = suffix;
+    }
+
+    public static MulticastMessageTemplate compile(DataMulticastMessage message) {
+        return compile(message, new JsonSerializer());
+    }
+
+    public static MulticastMessageTemplate compile(NotificationMulticastMessage message) {
+        return compile(message, new JsonSerializer());
+    }
+
+    public static MulticastMessageTemplate compile(DataMulticastMessage message, IJsonSerializer serializer) {
+
+        if (message == null) {
+            throw new IllegalArgumentException("message");
+        }
+
+        String placeholder = createPlaceholder();
+
+        DataMulticastMessage placeholderMessage = new DataMulticastMessage(message.getOptions(), Collections.singletonList(placeholder), message.getPayload(), message.getNotificationPayload());
+
+        return compile(placeholderMessage, placeholder, serializer);
+    }
+
+    public static MulticastMessageTemplate compile(NotificationMulticastMessage message, IJsonSerializer serializer) {
+
+        if (message == null) {
+            throw new IllegalArgumentException("message");
+        }
+
+        String placeholder = createPlaceholder();
+
+        NotificationMulticastMessage placeholderMessage = new NotificationMulticastMessage(message.getOptions(), Collections.singletonList(placeholder), message.getPayload());
+
+        return compile(placeholderMessage, placeholder, serializer);
+    }
+
+    private static MulticastMessageTemplate compile(FcmMulticastMessage<?> placeholderMessage, String placeholder, IJsonSerializer serializer) {
+
+        if (serializer == null) {
+            throw new IllegalArgumentException("serializer");
+        }
+
+        String content = serializer.serialize(placeholderMessage);
+
+        // The placeholder is random, so it only occurs as the Registration IDs of the message:
+        String registrationIds = "[\"" + placeholder + "\"]";
+        int index = content.indexOf(registrationIds);
+        if (index < 0) {
+            throw new IllegalStateException("Serialized message does not contain the Registration IDs.");
+        }
+
+        byte[] prefix = content.substring(0, index).getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = content.substring(index + registrationIds.length()).getBytes(StandardCharsets.UTF_8);
+
+        return new MulticastMessageTemplate(placeholderMessage.getOptions(), placeholderMessage.getPayload(), prefix, suffix);
+    }
+
+    /**
+     * Creates a message for the given Registration IDs, which is sent without serializing the template again.
+     *
+     * @param registrationIds Registration IDs to send the message to
+     * @return Message for the Registration IDs
+     */
+    public PreSerializedMulticastMessage toMessage(List<String> registrationIds) {
+        return new PreSerializedMulticastMessage(this, registrationIds);
+    }
+
+    FcmMessageOptions getOptions() {
+        return options;
+    }
+
+    Object getPayload() {
+        return payload;
+    }
+
+    void render(List<String> registrationIds, OutputStream output) {
+        try {
+            output.write(prefix);
+
+            // Write the Registration IDs through a small buffer, so the stream is written in blocks:
+            byte[] buffer = new byte[Math.min(BUFFER_SIZE, estimateSize(registrationIds))];
+            int position = 0;
+
+            buffer[position++] = '[';
+            for (int i = 0; i < registrationIds.size(); i++) {
+                String registrationId = registrationIds.get(i);
+                // Reserve space for the worst case of 6 bytes per character plus quotes, comma and the closing bracket:
+                int required = registrationId.length() * 6 + 4;
+                if (buffer.length - position < required) {
+                    output.write(buffer, 0, position);
+                    position = 0;
+                    if (buffer.length < required) {
+                        buffer = new byte[required];
+                    }
+                }
+                if (i > 0) {
+                    buffer[position++] = ',';
+                }
+                position = writeString(buffer, position, registrationId);
+            }
+            buffer[position++] = ']';
+
+            output.write(buffer, 0, position);
+            output.write(suffix);
+        } catch (IOException e) {
+            throw new SerializationException(e);
+        }
+    }
+
+    int estimateSize(List<String> registrationIds) {
+        int estimatedSize = prefix.length + suffix.length + 2;
+        if (!registrationIds.isEmpty()) {
+            estimatedSize += registrationIds.size() * (registrationIds.get(0).length() + 3);
+        }
+        return estimatedSize;
+    }
+
+    private static int writeString(byte[] buffer, int position, String value) {
+        buffer[position++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            // Registration IDs are plain ASCII, so they are copied as they are:
+            if (c >= 0x20 && c < 0x80 && c != '"' && c != '\\') {
+                buffer[position++] = (byte) c;
+            } else if (c == '"' || c == '\\') {
+                buffer[position++] = '\\';
+                buffer[position++] = (byte) c;
+            } else {
+                // Control characters and non-ASCII characters (including surrogates) are written as unicode escapes:
+                buffer[position++] = '\\';
+                buffer[position++] = 'u';
+                buffer[position++] = HEX[(c >> 12) & 0xF];
+                buffer[position++] = HEX[(c >> 8) & 0xF];
+                buffer[position++] = HEX[(c >> 4) & 0xF];
+                buffer[position++] = HEX[c & 0xF];
+            }
+        }
+        buffer[position++] = '"';
+        return position;
+    }
+
+    private static String createPlaceholder() {
+        return "fcmjava-template-" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.shsmysore.fcmjava.client.templates;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * A multicast message created from a @see {@link MulticastMessageTemplate}.
+ *
+ * The DefaultHttpClient writes the body with {@link #writeTo(OutputStream)} without serializing the message. Other
+ * Jackson-based clients write the same JSON, because the message serializes to its raw content.
+ */
+public class PreSerializedMulticastMessage extends FcmMulticastMessage<Object> {
+
+    private final MulticastMessageTemplate template;
+
+    PreSerializedMulticastMessage(MulticastMessageTemplate template, List<String> registrationIds) {
+        super(template.getOptions(), registrationIds);
+
+        this.template = template;
+    }
+
+    @Override
+    public Object getPayload() {
+        return template.getPayload();
+    }
+
+    /**
+     * Gets the template the message was created from.
+     *
+     * @return Message Template
+     */
+    public MulticastMessageTemplate getTemplate() {
+        return template;
+    }
+
+    /**
+     * Gets the UTF-8 encoded JSON body of the message.
+     *
+     * @return JSON body
+     */
+    public byte[] toByteArray() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(getEstimatedSize());
+        writeTo(output);
+        return output.toByteArray();
+    }
+
+    /**
+     * Gets the expected size of the JSON body, which is exact if the Registration IDs have the same length and
+     * contain no characters to escape.
+     *
+     * @return Expected size in bytes
+     */
+    public int getEstimatedSize() {
+        return template.estimateSize(getRegistrationIds());
+    }
+
+    /**
+     * Writes the UTF-8 encoded JSON body of the message to an OutputStream.
+     *
+     * @param outputStream Stream to write the JSON body to
+     */
+    public void writeTo(OutputStream outputStream) {
+        template.render(getRegistrationIds(), outputStream);
+    }
+
+    @JsonValue
+    @JsonRawValue
+    public String toJson() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+}
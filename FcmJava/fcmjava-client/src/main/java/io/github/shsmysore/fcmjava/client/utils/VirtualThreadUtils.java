@@ -0,0 +1,51 @@
+package io.github.shsmysore.fcmjava.client.utils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Creates Virtual Thread Executors on JDK 21 and later. The library is compiled for Java 11, so the JDK 21 API is
+ * looked up by reflection.
+ */
+public class VirtualThreadUtils {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactoryMethod();
+
+    private VirtualThreadUtils() {
+    }
+
+    /**
+     * Returns true, if the running JDK supports Virtual Threads.
+     *
+     * @return true, if Virtual Threads are supported
+     */
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates an Executor, which starts a new Virtual Thread for each task.
+     *
+     * @return Virtual Thread per Task Executor
+     * @throws UnsupportedOperationException if the running JDK does not support Virtual Threads
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new UnsupportedOperationException("Virtual Threads require JDK 21 or later, but running on " + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (Exception e) {
+            throw new UnsupportedOperationException("Could not create a Virtual Thread Executor", e);
+        }
+    }
+
+    private static Method findFactoryMethod() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.shsmysore.fcmjava.client.tests;
+
+import io.github.shsmysore.fcmjava.client.CoalescingFcmClient;
+import io.github.shsmysore.fcmjava.client.FcmClient;
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.tests.testutils.FakeFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CoalescingFcmClientTest {
+
+    private static class RecordingHttpClient implements IHttpClient {
+
+        private final List<Object> requests = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+            requests.add(requestMessage);
+
+            List<FcmMessageResultItem> results = new ArrayList<>();
+            if (requestMessage instanceof DataMulticastMessage) {
+                for (String registrationId : ((DataMulticastMessage) requestMessage).getRegistrationIds()) {
+                    results.add(result(registrationId));
+                }
+            } else {
+                results.add(result(((DataUnicastMessage) requestMessage).getTo()));
+            }
+            int failure = (int) results.stream().filter(r -> r.getErrorCode() != null).count();
+
+            return CompletableFuture.completedFuture((TResponseMessage) new FcmMessageResponse(7, results.size() - failure, failure, 0, results));
+        }
+
+        private static FcmMessageResultItem result(String registrationId) {
+            if (registrationId.startsWith("invalid")) {
+                return new FcmMessageResultItem(null, null, ErrorCodeEnum.InvalidRegistration);
+            }
+            return new FcmMessageResultItem("message-" + registrationId, null, null);
+        }
+    }
+
+    @Test
+    public void equalMessagesAreSentAsOneMulticastTest() throws Exception {
+
+        RecordingHttpClient httpClient = new RecordingHttpClient();
+
+        CoalescingFcmClient client = new CoalescingFcmClient(new FcmClient(new FakeFcmClientSettings(), httpClient), Duration.ofMillis(50), 1000);
+
+        List<CompletableFuture<FcmMessageResponse>> responses = new ArrayList<>();
+        responses.add(client.sendAsync(createMessage("a")));
+        responses.add(client.sendAsync(createMessage("invalid-b")));
+        responses.add(client.sendAsync(createMessage("c")));
+
+        Assert.assertEquals("message-a", responses.get(0).get(5, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+        Assert.assertEquals(ErrorCodeEnum.InvalidRegistration, responses.get(1).get(5, TimeUnit.SECONDS).getResults().get(0).getErrorCode());
+        Assert.assertEquals(1, responses.get(1).get().getNumberOfFailure());
+        Assert.assertEquals("message-c", responses.get(2).get(5, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+
+        Assert.assertEquals(1, httpClient.requests.size());
+        Assert.assertEquals(3, ((DataMulticastMessage) httpClient.requests.get(0)).getRegistrationIds().size());
+    }
+
+    @Test
+    public void fullBatchIsSentImmediatelyTest() throws Exception {
+
+        RecordingHttpClient httpClient = new RecordingHttpClient();
+
+        CoalescingFcmClient client = new CoalescingFcmClient(new FcmClient(new FakeFcmClientSettings(), httpClient), Duration.ofHours(1), 2);
+
+        CompletableFuture<FcmMessageResponse> first = client.sendAsync(createMessage("a"));
+        CompletableFuture<FcmMessageResponse> second = client.sendAsync(createMessage("b"));
+
+        Assert.assertTrue(first.isDone());
+        Assert.assertTrue(second.isDone());
+        Assert.assertEquals(1, httpClient.requests.size());
+    }
+
+    @Test
+    public void differentPayloadsAreNotCoalescedTest() throws Exception {
+
+        RecordingHttpClient httpClient = new RecordingHttpClient();
+
+        CoalescingFcmClient client = new CoalescingFcmClient(new FcmClient(new FakeFcmClientSettings(), httpClient), Duration.ofHours(1), 1000);
+
+        CompletableFuture<FcmMessageResponse> first = client.sendAsync(createMessage("a"));
+        CompletableFuture<FcmMessageResponse> second = client.sendAsync(new DataUnicastMessage(FcmMessageOptions.builder().build(), "b", Collections.singletonMap("key", "other")));
+        CompletableFuture<FcmMessageResponse> topic = client.sendAsync(createMessage("/topics/news"));
+
+        Assert.assertTrue(topic.isDone());
+
+        client.flush();
+
+        Assert.assertEquals("message-a", first.get(5, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+        Assert.assertEquals("message-b", second.get(5, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+
+        // Single messages are sent as they are:
+        Assert.assertEquals(3, httpClient.requests.size());
+        for (Object request : httpClient.requests) {
+            Assert.assertTrue(request instanceof DataUnicastMessage);
+        }
+    }
+
+    private static DataUnicastMessage createMessage(String to) {
+        return new DataUnicastMessage(FcmMessageOptions.builder().build(), to, Collections.singletonMap("key", "value"));
+    }
+}
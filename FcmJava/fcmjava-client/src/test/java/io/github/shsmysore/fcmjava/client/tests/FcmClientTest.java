@@ -0,0 +1,97 @@
+package io.github.shsmysore.fcmjava.client.tests;
+
+import io.github.shsmysore.fcmjava.client.FcmClient;
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.IResultItemCallback;
+import io.github.shsmysore.fcmjava.client.options.FcmClientOptions;
+import io.github.shsmysore.fcmjava.client.retry.backoff.ExponentialBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.JitterEnum;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
+import io.github.shsmysore.fcmjava.client.tests.testutils.FakeFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.FcmMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class FcmClientTest {
+
+    /**
+     * Answers the first request with an Unavailable error for the second Registration ID and all others with success.
+     */
+    private static class SyncHttpClient implements IHttpClient {
+
+        private final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+        private final List<List<String>> registrationIds = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+            threads.add(Thread.currentThread());
+            List<String> ids = ((FcmMulticastMessage<?>) requestMessage).getRegistrationIds();
+            registrationIds.add(ids);
+
+            List<FcmMessageResultItem> results = new ArrayList<>();
+            for (int i = 0; i < ids.size(); i++) {
+                results.add(registrationIds.size() == 1 && i == 1
+                        ? new FcmMessageResultItem(null, null, ErrorCodeEnum.Unavailable)
+                        : new FcmMessageResultItem("message-" + ids.get(i), null, null));
+            }
+            int failure = (int) results.stream().filter(r -> r.getErrorCode() != null).count();
+
+            return (TResponseMessage) new FcmMessageResponse(1, results.size() - failure, failure, 0, results);
+        }
+
+        @Override
+        public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<FcmMessageResponse> postMulticastAsync(FcmMulticastMessage<?> requestMessage, IResultItemCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <TRequestMessage, TResponseMessage> CompletableFuture<FcmResult<TResponseMessage>> postForResultAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    @Test
+    public void syncMulticastIsSentOnCallingThreadTest() {
+
+        SyncHttpClient httpClient = new SyncHttpClient();
+
+        FcmClient client = new FcmClient(new FakeFcmClientSettings(), httpClient, FcmClientOptions.builder()
+                .setMaxRegistrationIdsPerRequest(2)
+                .setMulticastRetryStrategy(MulticastRetryStrategy.builder()
+                        .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(10), Duration.ofMillis(10), 2.0, JitterEnum.None))
+                        .build())
+                .build());
+
+        FcmMessageResponse response = client.send(new DataMulticastMessage(FcmMessageOptions.builder().build(),
+                Arrays.asList("a", "b", "c"), Collections.singletonMap("key", "value")));
+
+        Assert.assertEquals(3, response.getNumberOfSuccess());
+        Assert.assertEquals("message-b", response.getResults().get(1).getMessageId());
+
+        // Two chunks and the retry of "b", which waited for its backoff on a timer:
+        Assert.assertEquals(3, httpClient.registrationIds.size());
+        Assert.assertTrue(httpClient.registrationIds.contains(Collections.singletonList("b")));
+        for (Thread thread : httpClient.threads) {
+            Assert.assertSame(Thread.currentThread(), thread);
+        }
+    }
+}
@@ -3,22 +3,8 @@
 
 package io.github.shsmysore.fcmjava.client.tests;
 
-import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
 import org.junit.Test;
 
-class FakeFcmClientSettings implements IFcmClientSettings {
-
-    @Override
-    public String getFcmUrl() {
-        return "";
-    }
-
-    @Override
-    public String getApiKey() {
-        return "";
-    }
-}
-
 public class HttpBuilderConfigurationTest {
 
 
@@ -0,0 +1,805 @@
+package io.github.shsmysore.fcmjava.client.tests.http.apache;
+
+import io.github.shsmysore.fcmjava.client.exceptions.CircuitBreakerOpenException;
+import io.github.shsmysore.fcmjava.client.exceptions.DeadlineExceededException;
+import io.github.shsmysore.fcmjava.client.http.IHttpClient;
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreaker;
+import io.github.shsmysore.fcmjava.client.http.breaker.FallbackHttpClient;
+import io.github.shsmysore.fcmjava.client.http.hedging.HedgingPolicy;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.MessageRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.TokenBucketRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.http.transport.MultiplexedHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.StripedHttpTransport;
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import io.github.shsmysore.fcmjava.client.retry.backoff.ExponentialBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.templates.MulticastMessageTemplate;
+import io.github.shsmysore.fcmjava.client.retry.backoff.JitterEnum;
+import io.github.shsmysore.fcmjava.client.tests.testutils.StubFcmServer;
+import io.github.shsmysore.fcmjava.client.utils.VirtualThreadUtils;
+import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DefaultHttpClientTest {
+
+    private static final String SUCCESS = "{\"multicast_id\":1,\"success\":1,\"failure\":0,\"canonical_ids\":0,\"results\":[{\"message_id\":\"m1\"}]}";
+
+    private StubFcmServer server;
+    private IFcmClientSettings settings;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubFcmServer();
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 200, SUCCESS));
+        settings = new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return server.getUrl();
+            }
+
+            @Override
+            public String getApiKey() {
+                return "key";
+            }
+        };
+    }
+
+    @After
+    public void teardown() {
+        server.close();
+    }
+
+    @Test
+    public void http1AndHttp2ModeReturnSameResponsesTest() throws Exception {
+
+        DefaultHttpClient http1Client = new DefaultHttpClient(settings);
+
+        DefaultHttpClient http2Client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setHttpVersion(HttpClient.Version.HTTP_2)
+                .setMaxConnections(2)
+                .setMaxConcurrentStreamsPerConnection(8)
+                .build());
+
+        for (DefaultHttpClient client : new DefaultHttpClient[] { http1Client, http2Client }) {
+            List<CompletableFuture<FcmMessageResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                responses.add(client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+            }
+            for (CompletableFuture<FcmMessageResponse> response : responses) {
+                Assert.assertEquals("m1", response.get(10, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+            }
+        }
+
+        // The stub server only speaks HTTP/1.1, so the HTTP/2 client has to fall back:
+        Assert.assertTrue(((MultiplexedHttpTransport) http2Client.getTransport()).isHttp1Fallback());
+        Assert.assertEquals(100, server.getRequestCount());
+    }
+
+    @Test
+    public void http1ModeDoesNotNegotiateHttp2Test() throws Exception {
+
+        // A HttpClient in HTTP/2 mode asks to upgrade a cleartext connection to h2c:
+        List<String> upgradeHeaders = Collections.synchronizedList(new ArrayList<>());
+        server.setHandler(exchange -> {
+            upgradeHeaders.add(String.valueOf(exchange.getRequestHeaders().getFirst("Upgrade")));
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        DefaultHttpClient simpleClient = new DefaultHttpClient(settings, HttpClientOptions.builder().build());
+        DefaultHttpClient stripedClient = new DefaultHttpClient(settings, HttpClientOptions.builder().setStripes(2).build());
+
+        for (DefaultHttpClient client : new DefaultHttpClient[] { simpleClient, stripedClient }) {
+            for (int i = 0; i < 2; i++) {
+                client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            }
+        }
+
+        Assert.assertEquals(Collections.nCopies(4, "null"), upgradeHeaders);
+    }
+
+    @Test
+    public void callerBuilderVersionIsKeptTest() throws Exception {
+
+        List<String> upgradeHeaders = Collections.synchronizedList(new ArrayList<>());
+        server.setHandler(exchange -> {
+            upgradeHeaders.add(String.valueOf(exchange.getRequestHeaders().getFirst("Upgrade")));
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClient.newBuilder().version(HttpClient.Version.HTTP_2));
+
+        client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Collections.singletonList("h2c"), upgradeHeaders);
+    }
+
+    @Test
+    public void requestsAreStripedOverHttpClientsTest() throws Exception {
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setStripes(4)
+                .build());
+
+        List<CompletableFuture<FcmMessageResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            responses.add(client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+        }
+        for (CompletableFuture<FcmMessageResponse> response : responses) {
+            Assert.assertEquals("m1", response.get(10, TimeUnit.SECONDS).getResults().get(0).getMessageId());
+        }
+
+        StripedHttpTransport transport = (StripedHttpTransport) client.getTransport();
+
+        long completedRequests = 0;
+        for (int stripe = 0; stripe < transport.getStripeCount(); stripe++) {
+            Assert.assertTrue(transport.getCompletedRequests(stripe) > 0);
+            completedRequests += transport.getCompletedRequests(stripe);
+        }
+
+        Assert.assertEquals(4, transport.getStripeCount());
+        Assert.assertEquals(40, completedRequests);
+    }
+
+    @Test
+    public void retriesIOExceptionsWithBackoffTest() throws Exception {
+
+        // Drop the connection for the first two requests, which makes the client fail with an IOException:
+        AtomicInteger calls = new AtomicInteger();
+        server.setHandler(exchange -> {
+            if (calls.incrementAndGet() > 2) {
+                StubFcmServer.respond(exchange, 200, SUCCESS);
+            }
+        });
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(10), Duration.ofMillis(50), 2.0, JitterEnum.None))
+                .build());
+
+        FcmMessageResponse response = client
+                .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+        Assert.assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void stagesRunOnConfiguredExecutorsTest() throws Exception {
+
+        ExecutorService serializationExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "serialization"));
+        ExecutorService responseExecutor = Executors.newSingleThreadExecutor(r -> new Thread(r, "response"));
+
+        try {
+            DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                    .setSerializationExecutor(serializationExecutor)
+                    .setResponseExecutor(responseExecutor)
+                    .build());
+
+            String responseThread = client
+                    .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                    .thenApply(response -> Thread.currentThread().getName())
+                    .get(10, TimeUnit.SECONDS);
+
+            Assert.assertEquals("response", responseThread);
+        } finally {
+            serializationExecutor.shutdown();
+            responseExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void virtualThreadsRequireJdk21Test() throws Exception {
+
+        HttpClientOptions options = HttpClientOptions.builder()
+                .setVirtualThreads(true)
+                .build();
+
+        if (!VirtualThreadUtils.isSupported()) {
+            try {
+                new DefaultHttpClient(settings, options);
+                Assert.fail("Expected an UnsupportedOperationException");
+            } catch (UnsupportedOperationException e) {
+                return;
+            }
+        }
+
+        FcmMessageResponse response = new DefaultHttpClient(settings, options)
+                .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+    }
+
+    @Test
+    public void retryAfterPausesAllRequestsTest() throws Exception {
+
+        // The first request is answered with a 503 and a Retry-After Header of one second:
+        AtomicInteger calls = new AtomicInteger();
+        server.setHandler(exchange -> {
+            if (calls.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                StubFcmServer.respond(exchange, 503, "");
+            } else {
+                StubFcmServer.respond(exchange, 200, SUCCESS);
+            }
+        });
+
+        DefaultHttpClient client = new DefaultHttpClient(settings);
+
+        long start = System.nanoTime();
+
+        FcmMessageResponse response = client
+                .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 1000);
+
+        // New requests are held back while the gate is paused:
+        client.getRetryAfterGate().pauseFor(Duration.ofMillis(500));
+
+        start = System.nanoTime();
+        client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 500);
+        Assert.assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void retryAfterIsReportedWhenAllAttemptsFailTest() throws Exception {
+
+        server.setHandler(exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "0");
+            StubFcmServer.respond(exchange, 500, "");
+        });
+
+        DefaultHttpClient client = new DefaultHttpClient(settings);
+
+        try {
+            client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a FcmRetryAfterException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmRetryAfterException.class, e.getCause().getClass());
+            Assert.assertEquals(500, ((FcmRetryAfterException) e.getCause()).getHttpStatusCode());
+        }
+
+        Assert.assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void emptyRetryBudgetFailsFastTest() throws Exception {
+
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 500, ""));
+
+        RetryBudget retryBudget = new RetryBudget(0.2, 0, Duration.ofMinutes(1));
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setRetryBudget(retryBudget)
+                .build());
+
+        try {
+            client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a FcmGeneralException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmGeneralException.class, e.getCause().getClass());
+        }
+
+        Assert.assertEquals(1, server.getRequestCount());
+        Assert.assertEquals(1, retryBudget.getRejectedRetries());
+    }
+
+    @Test
+    public void templateMessageIsSentWithoutSerializingTest() throws Exception {
+
+        DataMulticastMessage message = new DataMulticastMessage(FcmMessageOptions.builder().build(), Arrays.asList("a", "b"), Collections.singletonMap("key", "value"));
+
+        DefaultHttpClient client = new DefaultHttpClient(settings);
+
+        client.postAsync(MulticastMessageTemplate.compile(message).toMessage(message.getRegistrationIds()), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(new JsonSerializer().serialize(message), server.getLastRequestBody());
+    }
+
+    @Test
+    public void multicastResultsArePassedToCallbackTest() throws Exception {
+
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 200,
+                "{\"multicast_id\":1,\"success\":1,\"failure\":1,\"canonical_ids\":0,\"results\":[{\"message_id\":\"m1\"},{\"error\":\"NotRegistered\"}]}"));
+
+        DataMulticastMessage message = new DataMulticastMessage(FcmMessageOptions.builder().build(), Arrays.asList("a", "b"), Collections.singletonMap("key", "value"));
+
+        List<String> callbacks = new ArrayList<>();
+
+        FcmMessageResponse response = new DefaultHttpClient(settings)
+                .postMulticastAsync(message, (registrationId, resultItem) -> callbacks.add(registrationId + "=" + (resultItem.getMessageId() != null ? resultItem.getMessageId() : resultItem.getErrorCode())))
+                .get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Arrays.asList("a=m1", "b=NotRegistered"), callbacks);
+        Assert.assertEquals(1, response.getNumberOfFailure());
+    }
+
+    @Test
+    public void compactResponseModeReturnsCompactResponsesTest() throws Exception {
+
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 200,
+                "{\"multicast_id\":1,\"success\":1,\"failure\":1,\"canonical_ids\":0,\"results\":[{\"message_id\":\"m1\"},{\"error\":\"NotRegistered\"}]}"));
+
+        HttpClientOptions options = HttpClientOptions.builder()
+                .setResponseMode(ResponseModeEnum.CompactWithoutMessageIds)
+                .build();
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, options);
+
+        FcmMessageResponse asyncResponse = client.postAsync(Collections.emptyMap(), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+        FcmMessageResponse syncResponse = client.postSync(Collections.emptyMap(), FcmMessageResponse.class);
+
+        for (FcmMessageResponse response : Arrays.asList(asyncResponse, syncResponse)) {
+            CompactFcmMessageResponse compact = (CompactFcmMessageResponse) response;
+
+            Assert.assertEquals(2, compact.getNumberOfResults());
+            Assert.assertNull(compact.getMessageId(0));
+            Assert.assertEquals(ErrorCodeEnum.NotRegistered, compact.getErrorCode(1));
+        }
+    }
+
+    @Test
+    public void rejectedRequestsCompleteWithResultsTest() throws Exception {
+
+        AtomicInteger statusCode = new AtomicInteger();
+        server.setHandler(exchange -> {
+            if (statusCode.get() >= 500) {
+                exchange.getResponseHeaders().add("Retry-After", "7");
+            }
+            StubFcmServer.respond(exchange, statusCode.get(), statusCode.get() == 200 ? SUCCESS : "");
+        });
+
+        // A single attempt, so the Retry-After does not pause the retries of the test:
+        DefaultHttpClient client = new DefaultHttpClient(settings, new JsonSerializer(), HttpClient.newBuilder(), 1);
+
+        statusCode.set(200);
+        FcmResult<FcmMessageResponse> success = client.postForResultAsync(Collections.emptyMap(), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+        Assert.assertTrue(success.isSuccess());
+        Assert.assertEquals("m1", ((FcmResult.Success<FcmMessageResponse>) success).getResponse().getResults().get(0).getMessageId());
+
+        statusCode.set(400);
+        FcmResult<FcmMessageResponse> badRequest = client.postForResultAsync(Collections.emptyMap(), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(FcmResult.PermanentFailure.class, badRequest.getClass());
+        Assert.assertEquals(400, badRequest.getHttpStatusCode());
+
+        statusCode.set(403);
+        FcmResult<FcmMessageResponse> forbidden = client.postForResultAsync(Collections.emptyMap(), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(FcmResult.AuthenticationFailure.class, forbidden.getClass());
+        Assert.assertEquals(403, forbidden.getHttpStatusCode());
+
+        statusCode.set(503);
+        FcmResult<FcmMessageResponse> unavailable = client.postForResultAsync(Collections.emptyMap(), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(FcmResult.RetryableFailure.class, unavailable.getClass());
+        Assert.assertEquals(503, unavailable.getHttpStatusCode());
+        Assert.assertEquals(Duration.ofSeconds(7), ((FcmResult.RetryableFailure<FcmMessageResponse>) unavailable).getRetryAfter());
+    }
+
+    @Test
+    public void concurrencyLimiterQueuesRequestsAboveLimitTest() throws Exception {
+
+        // The server holds the responses, until all requests have been sent:
+        CountDownLatch allSent = new CountDownLatch(1);
+        AtomicInteger concurrentRequests = new AtomicInteger();
+        AtomicInteger maxConcurrentRequests = new AtomicInteger();
+        server.setHandler(exchange -> {
+            maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+            try {
+                allSent.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrentRequests.decrementAndGet();
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.5, null, 100);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setConcurrencyLimiter(limiter)
+                .build());
+
+        List<CompletableFuture<FcmMessageResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+        }
+
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(8, limiter.getQueueLength());
+
+        allSent.countDown();
+
+        for (CompletableFuture<FcmMessageResponse> response : responses) {
+            Assert.assertEquals(1, response.get(10, TimeUnit.SECONDS).getNumberOfSuccess());
+        }
+
+        Assert.assertTrue(maxConcurrentRequests.get() <= 2);
+        Assert.assertEquals(8, limiter.getQueuedRequests());
+        Assert.assertEquals(0, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getQueueLength());
+        Assert.assertSame(limiter, client.getConcurrencyLimiter());
+    }
+
+    @Test
+    public void postSyncWaitsForConcurrencyLimitTest() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        server.setHandler(exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, null, 100);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setConcurrencyLimiter(limiter)
+                .build());
+
+        try {
+            CompletableFuture<FcmMessageResponse> asyncResponse = client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class);
+            CompletableFuture<FcmMessageResponse> syncResponse = CompletableFuture.supplyAsync(
+                    () -> client.postSync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+
+            // The synchronous request blocks in the queue of the limiter:
+            long start = System.nanoTime();
+            while (limiter.getQueueLength() == 0 && System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(1, limiter.getInFlight());
+            Assert.assertEquals(1, limiter.getQueueLength());
+            Assert.assertFalse(syncResponse.isDone());
+
+            release.countDown();
+
+            Assert.assertEquals(1, asyncResponse.get(10, TimeUnit.SECONDS).getNumberOfSuccess());
+            Assert.assertEquals(1, syncResponse.get(10, TimeUnit.SECONDS).getNumberOfSuccess());
+            Assert.assertEquals(0, limiter.getInFlight());
+            Assert.assertEquals(2, server.getRequestCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void rateLimiterPacesRequestsTest() throws Exception {
+
+        // Ten requests per second without a burst, so the third request leaves after 200 milliseconds:
+        MessageRateLimiter rateLimiter = new MessageRateLimiter(new TokenBucketRateLimiter(10, 1), null, null);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setRateLimiter(rateLimiter)
+                .build());
+
+        long start = System.nanoTime();
+
+        List<CompletableFuture<FcmMessageResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            responses.add(client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+        }
+
+        // The requests wait on a timer, so none of them blocked the calling thread:
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 150);
+
+        for (CompletableFuture<FcmMessageResponse> response : responses) {
+            Assert.assertEquals(1, response.get(10, TimeUnit.SECONDS).getNumberOfSuccess());
+        }
+
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 190);
+        Assert.assertEquals(3, server.getRequestCount());
+    }
+
+    @Test
+    public void openCircuitBreakerRejectsRequestsTest() throws Exception {
+
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 500, ""));
+
+        // Two failed attempts open the breaker for a minute:
+        CircuitBreaker circuitBreaker = new CircuitBreaker(2, 2, 0.5, 1.0, null, Duration.ofMinutes(1), 1);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(1), Duration.ofMillis(1), 2.0, JitterEnum.None))
+                .setCircuitBreaker(circuitBreaker)
+                .build());
+
+        // The third attempt is not sent, so the request fails with the last response:
+        try {
+            client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a FcmGeneralException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmGeneralException.class, e.getCause().getClass());
+        }
+
+        try {
+            client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a CircuitBreakerOpenException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(CircuitBreakerOpenException.class, e.getCause().getClass());
+        }
+
+        try {
+            client.postSync(Collections.singletonMap("to", "device"), FcmMessageResponse.class);
+            Assert.fail("Expected a CircuitBreakerOpenException");
+        } catch (CircuitBreakerOpenException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(2, server.getRequestCount());
+        // The last attempt of the first request and both later requests have been rejected:
+        Assert.assertEquals(3, circuitBreaker.getRejectedCalls());
+
+        // Rejected requests can be diverted to a fallback instead:
+        FcmMessageResponse queued = new FcmMessageResponse(0, 0, 0, 0, Collections.emptyList());
+        IHttpClient fallback = new IHttpClient() {
+            @Override
+            public <TRequestMessage, TResponseMessage> TResponseMessage postSync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+                return responseType.cast(queued);
+            }
+
+            @Override
+            public <TRequestMessage, TResponseMessage> CompletableFuture<TResponseMessage> postAsync(TRequestMessage requestMessage, Class<TResponseMessage> responseType) {
+                return CompletableFuture.completedFuture(responseType.cast(queued));
+            }
+        };
+
+        FallbackHttpClient fallbackClient = new FallbackHttpClient(client, fallback);
+
+        Assert.assertSame(queued, fallbackClient.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS));
+        Assert.assertSame(queued, fallbackClient.postSync(Collections.singletonMap("to", "device"), FcmMessageResponse.class));
+        Assert.assertEquals(2, server.getRequestCount());
+    }
+
+    @Test
+    public void slowRequestIsHedgedTest() throws Exception {
+
+        // The sixth request hangs until the test is done, all others are answered at once:
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        server.setHandler(exchange -> {
+            if (calls.incrementAndGet() == 6) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.5, 1.0, 5, Duration.ZERO, message -> true);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setHedgingPolicy(hedgingPolicy)
+                .build());
+
+        try {
+            // Observe the latencies first, no request is hedged until then:
+            for (int i = 0; i < 5; i++) {
+                client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            }
+
+            Assert.assertNotNull(hedgingPolicy.getHedgeDelay());
+            Assert.assertEquals(0, hedgingPolicy.getHedgedRequests());
+
+            // The duplicate answers, while the original request still hangs:
+            FcmMessageResponse response = client
+                    .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                    .get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(1, response.getNumberOfSuccess());
+            Assert.assertEquals(1, hedgingPolicy.getHedgedRequests());
+            Assert.assertEquals(7, server.getRequestCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void duplicatePassesConcurrencyLimiterTest() throws Exception {
+
+        // The sixth request hangs for a while, all others are answered at once:
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        server.setHandler(exchange -> {
+            if (calls.incrementAndGet() == 6) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        HedgingPolicy hedgingPolicy = new HedgingPolicy(0.5, 1.0, 5, Duration.ZERO, message -> true);
+        // A single request may be in flight and none may wait, so there is no room for a duplicate:
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, null, 0);
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setHedgingPolicy(hedgingPolicy)
+                .setConcurrencyLimiter(limiter)
+                .build());
+
+        try {
+            for (int i = 0; i < 5; i++) {
+                client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            }
+
+            CompletableFuture.delayedExecutor(300, TimeUnit.MILLISECONDS).execute(release::countDown);
+
+            // The duplicate is rejected by the limiter, so the request waits for the original attempt:
+            FcmMessageResponse response = client
+                    .postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class)
+                    .get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(1, response.getNumberOfSuccess());
+            Assert.assertEquals(6, server.getRequestCount());
+            Assert.assertEquals(1, limiter.getRejectedRequests());
+            Assert.assertEquals(0, limiter.getInFlight());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void deadlineFailsHungRequestTest() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        server.setHandler(exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubFcmServer.respond(exchange, 200, SUCCESS);
+        });
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setRequestTimeout(Duration.ofMillis(200))
+                .build());
+
+        DataUnicastMessage message = new DataUnicastMessage(FcmMessageOptions.builder()
+                .setDeadline(Duration.ofMillis(300))
+                .build(), "device", "data");
+
+        try {
+            long start = System.nanoTime();
+            try {
+                client.postAsync(message, FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+                Assert.fail("Expected a DeadlineExceededException");
+            } catch (ExecutionException e) {
+                Assert.assertEquals(DeadlineExceededException.class, e.getCause().getClass());
+            }
+            Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+
+            // A synchronous request no longer blocks forever on a hung connection:
+            try {
+                client.postSync(Collections.singletonMap("to", "device"), FcmMessageResponse.class);
+                Assert.fail("Expected a HttpTimeoutException");
+            } catch (RuntimeException e) {
+                Assert.assertTrue(e.getCause() instanceof HttpTimeoutException);
+            }
+
+            // If the timeout ended with the deadline, the synchronous request fails like an asynchronous one:
+            try {
+                client.postSync(new DataUnicastMessage(FcmMessageOptions.builder()
+                        .setDeadline(Duration.ofMillis(100))
+                        .build(), "device", "data"), FcmMessageResponse.class);
+                Assert.fail("Expected a DeadlineExceededException");
+            } catch (DeadlineExceededException e) {
+                // Expected
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void postSyncDoesNotSleepBeyondDeadlineTest() {
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder().build());
+
+        client.getRetryAfterGate().pauseFor(Duration.ofSeconds(5));
+
+        DataUnicastMessage message = new DataUnicastMessage(FcmMessageOptions.builder()
+                .setDeadline(Duration.ofMillis(300))
+                .build(), "device", "data");
+
+        long start = System.nanoTime();
+        try {
+            client.postSync(message, FcmMessageResponse.class);
+            Assert.fail("Expected a DeadlineExceededException");
+        } catch (DeadlineExceededException e) {
+            // Expected
+        }
+
+        // The request fails at once instead of waiting for the gate, which opens after its deadline:
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 200);
+        Assert.assertEquals(0, server.getRequestCount());
+    }
+
+    @Test
+    public void retriesAreNotScheduledAfterDeadlineTest() throws Exception {
+
+        server.setHandler(exchange -> StubFcmServer.respond(exchange, 500, ""));
+
+        DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofSeconds(5), Duration.ofSeconds(5), 2.0, JitterEnum.None))
+                .setDeadline(Duration.ofSeconds(1))
+                .build());
+
+        long start = System.nanoTime();
+
+        // The backoff would end after the deadline, so the request fails with its first response:
+        try {
+            client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a FcmGeneralException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmGeneralException.class, e.getCause().getClass());
+        }
+
+        Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000);
+        Assert.assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    public void deadlineTimerIsCancelledWhenRequestCompletesTest() throws Exception {
+
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        scheduler.setRemoveOnCancelPolicy(true);
+
+        try {
+            DefaultHttpClient client = new DefaultHttpClient(settings, HttpClientOptions.builder()
+                    .setRetryScheduler(scheduler)
+                    .setDeadline(Duration.ofMinutes(1))
+                    .build());
+
+            for (int i = 0; i < 3; i++) {
+                client.postAsync(Collections.singletonMap("to", "device"), FcmMessageResponse.class).get(10, TimeUnit.SECONDS);
+            }
+
+            // The finished requests are not kept by their deadline timers:
+            Assert.assertEquals(0, scheduler.getQueue().size());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+}
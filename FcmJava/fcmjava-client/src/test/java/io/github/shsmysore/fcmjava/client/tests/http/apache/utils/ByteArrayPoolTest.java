@@ -0,0 +1,83 @@
+package io.github.shsmysore.fcmjava.client.tests.http.apache.utils;
+
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ByteArrayPool;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ByteArrayPoolTest {
+
+    @Test
+    public void poolIsBoundedTest() {
+
+        ByteArrayPool pool = new ByteArrayPool(16, 3);
+
+        Assert.assertNull(pool.acquire());
+
+        List<byte[]> buffers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            buffers.add(new byte[16]);
+            pool.release(buffers.get(i));
+        }
+        pool.release(new byte[8]);
+
+        // The fourth array and the array of a different size are dropped:
+        Assert.assertEquals(3, pool.getAvailable());
+
+        // The slots are reused over several rounds:
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 3; i++) {
+                Assert.assertSame(buffers.get(i), pool.acquire());
+            }
+            Assert.assertNull(pool.acquire());
+            Assert.assertEquals(0, pool.getAvailable());
+            for (int i = 0; i < 3; i++) {
+                pool.release(buffers.get(i));
+            }
+        }
+    }
+
+    @Test
+    public void arraysAreNotSharedBetweenThreadsTest() throws Exception {
+
+        ByteArrayPool pool = new ByteArrayPool(16, 8);
+        for (int i = 0; i < 8; i++) {
+            pool.release(new byte[16]);
+        }
+
+        Set<byte[]> inUse = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 4; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 100000; i++) {
+                        byte[] buffer = pool.acquire();
+                        if (buffer == null) {
+                            continue;
+                        }
+                        Assert.assertTrue(inUse.add(buffer));
+                        inUse.remove(buffer);
+                        pool.release(buffer);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(8, pool.getAvailable());
+    }
+}
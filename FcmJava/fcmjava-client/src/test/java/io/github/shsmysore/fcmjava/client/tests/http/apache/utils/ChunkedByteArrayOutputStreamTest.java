@@ -0,0 +1,189 @@
+package io.github.shsmysore.fcmjava.client.tests.http.apache.utils;
+
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ByteArrayPool;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ChunkedByteArrayOutputStream;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class ChunkedByteArrayOutputStreamTest {
+
+    @Test
+    public void publishedBodyMatchesWrittenBytesTest() throws Exception {
+
+        for (int length : new int[] { 0, 1, 255, 256, 257, 5000, 100_000 }) {
+            byte[] expected = new byte[length];
+            for (int i = 0; i < length; i++) {
+                expected[i] = (byte) i;
+            }
+
+            ChunkedByteArrayOutputStream output = new ChunkedByteArrayOutputStream(1024);
+
+            // Mix single bytes and arrays crossing the chunk boundaries:
+            int half = length / 2;
+            for (int i = 0; i < half; i++) {
+                output.write(expected[i]);
+            }
+            output.write(expected, half, length - half);
+
+            Assert.assertEquals(length, output.size());
+
+            HttpRequest.BodyPublisher publisher = output.toBodyPublisher();
+
+            Assert.assertEquals(length, publisher.contentLength());
+            Assert.assertArrayEquals(expected, read(publisher));
+            // The body is published again on retries:
+            Assert.assertArrayEquals(expected, read(publisher));
+        }
+    }
+
+    @Test
+    public void pooledChunksAreReturnedAfterTheLastSubscriberTest() throws Exception {
+
+        ByteArrayPool pool = new ByteArrayPool(64, 8);
+
+        byte[] expected = new byte[200];
+        Arrays.fill(expected, (byte) 'x');
+
+        ChunkedByteArrayOutputStream output = new ChunkedByteArrayOutputStream(pool);
+        output.write(expected, 0, expected.length);
+
+        HttpRequest.BodyPublisher publisher = output.toBodyPublisher();
+
+        Assert.assertArrayEquals(expected, read(publisher));
+
+        // A subscriber is still reading, so the chunks are not returned yet:
+        Flow.Subscription[] subscription = new Flow.Subscription[1];
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription s) {
+                subscription[0] = s;
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        output.release();
+
+        Assert.assertEquals(0, pool.getAvailable());
+
+        subscription[0].cancel();
+
+        Assert.assertEquals(4, pool.getAvailable());
+
+        // The next stream reuses the returned chunks:
+        ChunkedByteArrayOutputStream next = new ChunkedByteArrayOutputStream(pool);
+        next.write(expected, 0, 100);
+
+        Assert.assertEquals(2, pool.getAvailable());
+        Assert.assertArrayEquals(Arrays.copyOf(expected, 100), read(next.toBodyPublisher()));
+    }
+
+    @Test
+    public void publishedBuffersWrapChunksTest() throws Exception {
+
+        ByteArrayPool pool = new ByteArrayPool(64, 8);
+
+        ChunkedByteArrayOutputStream output = new ChunkedByteArrayOutputStream(pool);
+        output.write(new byte[100], 0, 100);
+
+        HttpRequest.BodyPublisher publisher = output.toBodyPublisher();
+
+        List<ByteBuffer> first = readOneByOne(publisher);
+        List<ByteBuffer> retry = readOneByOne(publisher);
+
+        // Both subscribers get the pooled chunks themselves, only the last one is limited to the written bytes:
+        Assert.assertEquals(2, first.size());
+        Assert.assertEquals(64, first.get(0).remaining());
+        Assert.assertEquals(36, first.get(1).remaining());
+        for (int i = 0; i < first.size(); i++) {
+            Assert.assertSame(first.get(i).array(), retry.get(i).array());
+        }
+
+        output.release();
+    }
+
+    private static List<ByteBuffer> readOneByOne(HttpRequest.BodyPublisher publisher) throws Exception {
+        List<ByteBuffer> items = new ArrayList<>();
+        CompletableFuture<List<ByteBuffer>> done = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                items.add(item);
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(items);
+            }
+        });
+
+        return done.get(5, TimeUnit.SECONDS);
+    }
+
+    private static byte[] read(HttpRequest.BodyPublisher publisher) throws Exception {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        CompletableFuture<byte[]> done = new CompletableFuture<>();
+
+        publisher.subscribe(new Flow.Subscriber<ByteBuffer>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                result.write(bytes, 0, bytes.length);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                done.completeExceptionally(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(result.toByteArray());
+            }
+        });
+
+        return done.get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.shsmysore.fcmjava.client.tests.http.apache.utils;
+
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ByteArrayPool;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.ChunkedByteArrayOutputStream;
+import io.github.shsmysore.fcmjava.client.http.apache.utils.PostRequestFactory;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.concurrent.Flow;
+
+public class PostRequestFactoryTest {
+
+    private static class MutableSettings implements IFcmClientSettings {
+
+        private String apiKey = "key-1";
+
+        @Override
+        public String getFcmUrl() {
+            return "https://fcm.googleapis.com/fcm/send";
+        }
+
+        @Override
+        public String getApiKey() {
+            return apiKey;
+        }
+    }
+
+    @Test
+    public void headersFollowTheSettingsTest() {
+
+        MutableSettings settings = new MutableSettings();
+
+        PostRequestFactory factory = new PostRequestFactory(settings, new JsonSerializer(), null);
+
+        HttpRequest request = factory.createRequest(HttpRequest.BodyPublishers.noBody());
+
+        Assert.assertEquals("POST", request.method());
+        Assert.assertEquals("https://fcm.googleapis.com/fcm/send", request.uri().toString());
+        Assert.assertEquals("application/json", request.headers().firstValue("Content-Type").orElse(null));
+        Assert.assertEquals("key=key-1", request.headers().firstValue("Authorization").orElse(null));
+
+        settings.apiKey = "key-2";
+
+        Assert.assertEquals("key=key-2", factory.createRequest(HttpRequest.BodyPublishers.noBody()).headers().firstValue("Authorization").orElse(null));
+    }
+
+    @Test
+    public void unicastSendStaysBelowAllocationThresholdTest() {
+
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+        Assume.assumeTrue(threadMXBean instanceof com.sun.management.ThreadMXBean);
+
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threadMXBean;
+
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        PostRequestFactory factory = new PostRequestFactory(new MutableSettings(), new JsonSerializer(), new ByteArrayPool(4096, 4));
+
+        DataUnicastMessage message = new DataUnicastMessage(FcmMessageOptions.builder().build(),
+                "dGVzdC10b2tlbi0xOmFiY2RlZmdoaWprbG1ub3BxcnN0dXZ3eHl6MDEyMzQ1Njc4OWFiY2RlZmdoaWprbG1ub3BxcnN0dXZ3eHl6MDEyMzQ1Njc4OWFiY2RlZmdoaWprbG1ub3BxcnN0dXZ3eHl6",
+                Collections.singletonMap("text", "Heavy rain is expected in your area during the next hours."));
+
+        // Warm up, so the pool is filled and the code is compiled:
+        for (int i = 0; i < 20_000; i++) {
+            send(factory, message);
+        }
+
+        int iterations = 10_000;
+        long threadId = Thread.currentThread().getId();
+        long before = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < iterations; i++) {
+            send(factory, message);
+        }
+        long bytesPerSend = (allocations.getThreadAllocatedBytes(threadId) - before) / iterations;
+
+        Assert.assertTrue("Allocated " + bytesPerSend + " bytes per send", bytesPerSend < PostRequestFactory.UNICAST_ALLOCATION_THRESHOLD);
+    }
+
+    private static HttpRequest send(PostRequestFactory factory, Object message) {
+        ChunkedByteArrayOutputStream body = factory.writeBody(message);
+        HttpRequest request = factory.createRequest(body.toBodyPublisher());
+        // Read the body like the HttpClient does, so publishing it is measured as well:
+        request.bodyPublisher().orElseThrow().subscribe(new DrainingSubscriber());
+        body.release();
+        return request;
+    }
+
+    private static class DrainingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private long bytes;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            bytes += item.remaining();
+            item.position(item.limit());
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            throw new AssertionError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            Assert.assertTrue(bytes > 0);
+        }
+    }
+}
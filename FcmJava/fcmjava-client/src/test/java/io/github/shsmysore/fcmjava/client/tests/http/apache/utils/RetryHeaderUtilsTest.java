@@ -13,9 +13,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
 
+import java.net.http.HttpHeaders;
 import java.time.Duration;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
 
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -132,4 +135,41 @@ public class RetryHeaderUtilsTest {
         Assert.assertEquals(true, success);
         Assert.assertEquals(0, result.get().getSeconds());
     }
+
+    @Test
+    public void javaNetHttpResponseTest() {
+
+        java.net.http.HttpResponse<?> response = mock(java.net.http.HttpResponse.class);
+
+        when(response.headers())
+                .thenReturn(HttpHeaders.of(Collections.singletonMap("Retry-After", Collections.singletonList("4")), (name, value) -> true));
+
+        // Holds the Result:
+        OutParameter<Duration> result = new OutParameter<>();
+
+        // Try to get the Result:
+        boolean success = RetryHeaderUtils.tryDetermineRetryDelay(response, result);
+
+        // Assertions:
+        Assert.assertEquals(true, success);
+        Assert.assertEquals(4, result.get().getSeconds());
+    }
+
+    @Test
+    public void javaNetHttpResponseWithoutHeaderTest() {
+
+        java.net.http.HttpResponse<?> response = mock(java.net.http.HttpResponse.class);
+
+        when(response.headers())
+                .thenReturn(HttpHeaders.of(Collections.emptyMap(), (name, value) -> true));
+
+        // Holds the Result:
+        OutParameter<Duration> result = new OutParameter<>();
+
+        // Try to get the Result:
+        boolean success = RetryHeaderUtils.tryDetermineRetryDelay(response, result);
+
+        // Assertions:
+        Assert.assertEquals(false, success);
+    }
 }
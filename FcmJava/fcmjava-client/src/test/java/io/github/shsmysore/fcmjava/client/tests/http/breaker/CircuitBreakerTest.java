@@ -0,0 +1,111 @@
+package io.github.shsmysore.fcmjava.client.tests.http.breaker;
+
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreaker;
+import io.github.shsmysore.fcmjava.client.http.breaker.CircuitBreakerStateEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+
+    @Test
+    public void opensOnFailureRateAndClosesAfterTrialCallsTest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(4, 4, 0.5, 1.0, null, Duration.ofMillis(50), 2);
+
+        List<String> transitions = new ArrayList<>();
+        breaker.addListener((from, to) -> transitions.add(from + "->" + to));
+
+        breaker.onResult(breaker.tryAcquire(), FAST, false);
+        breaker.onResult(breaker.tryAcquire(), FAST, true);
+        breaker.onResult(breaker.tryAcquire(), FAST, false);
+
+        // The window does not hold the minimum number of calls yet:
+        Assert.assertEquals(CircuitBreakerStateEnum.Closed, breaker.getState());
+
+        breaker.onResult(breaker.tryAcquire(), FAST, true);
+
+        Assert.assertEquals(CircuitBreakerStateEnum.Open, breaker.getState());
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        Assert.assertEquals(1, breaker.getRejectedCalls());
+
+        Thread.sleep(60);
+
+        // Only the permitted number of trial calls is let through:
+        long first = breaker.tryAcquire();
+        long second = breaker.tryAcquire();
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, first);
+        Assert.assertNotEquals(CircuitBreaker.REJECTED, second);
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+        Assert.assertEquals(CircuitBreakerStateEnum.HalfOpen, breaker.getState());
+
+        breaker.onResult(first, FAST, false);
+        breaker.onResult(second, FAST, false);
+
+        Assert.assertEquals(CircuitBreakerStateEnum.Closed, breaker.getState());
+        Assert.assertEquals(0, breaker.getFailureRate(), 0);
+        Assert.assertEquals(List.of("Closed->Open", "Open->HalfOpen", "HalfOpen->Closed"), transitions);
+    }
+
+    @Test
+    public void failedTrialCallOpensAgainTest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1, 1.0, 1.0, null, Duration.ofMillis(50), 1);
+
+        breaker.onResult(breaker.tryAcquire(), FAST, true);
+        Assert.assertEquals(CircuitBreakerStateEnum.Open, breaker.getState());
+
+        Thread.sleep(60);
+
+        breaker.onResult(breaker.tryAcquire(), FAST, true);
+
+        Assert.assertEquals(CircuitBreakerStateEnum.Open, breaker.getState());
+        Assert.assertEquals(CircuitBreaker.REJECTED, breaker.tryAcquire());
+    }
+
+    @Test
+    public void slowCallsOpenTheBreakerTest() {
+        CircuitBreaker breaker = new CircuitBreaker(10, 4, 1.0, 0.5, Duration.ofSeconds(1), Duration.ofMinutes(1), 1);
+
+        for (int i = 0; i < 5; i++) {
+            breaker.onResult(breaker.tryAcquire(), FAST, false);
+        }
+        breaker.onResult(breaker.tryAcquire(), Duration.ofSeconds(2).toNanos(), false);
+        breaker.onResult(breaker.tryAcquire(), Duration.ofSeconds(2).toNanos(), false);
+
+        Assert.assertEquals(CircuitBreakerStateEnum.Closed, breaker.getState());
+        Assert.assertEquals(2.0 / 7, breaker.getSlowCallRate(), 1e-9);
+
+        // Successful, but slow calls count as well, so FCM taking too long opens the breaker:
+        breaker.onResult(breaker.tryAcquire(), Duration.ofSeconds(2).toNanos(), false);
+        breaker.onResult(breaker.tryAcquire(), Duration.ofSeconds(2).toNanos(), false);
+        breaker.onResult(breaker.tryAcquire(), Duration.ofSeconds(2).toNanos(), false);
+
+        Assert.assertEquals(CircuitBreakerStateEnum.Open, breaker.getState());
+    }
+
+    @Test
+    public void outcomesOfEarlierStatesAreIgnoredTest() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker(2, 1, 1.0, 1.0, null, Duration.ofMillis(50), 1);
+
+        // A call permitted while the breaker is closed is still in flight, when it opens:
+        long stale = breaker.tryAcquire();
+        breaker.onResult(breaker.tryAcquire(), FAST, true);
+        Assert.assertEquals(CircuitBreakerStateEnum.Open, breaker.getState());
+
+        Thread.sleep(60);
+
+        long trial = breaker.tryAcquire();
+        Assert.assertEquals(CircuitBreakerStateEnum.HalfOpen, breaker.getState());
+
+        // Its outcome does not close the breaker, before the trial call succeeded:
+        breaker.onResult(stale, FAST, false);
+        Assert.assertEquals(CircuitBreakerStateEnum.HalfOpen, breaker.getState());
+
+        breaker.onResult(trial, FAST, false);
+        Assert.assertEquals(CircuitBreakerStateEnum.Closed, breaker.getState());
+    }
+}
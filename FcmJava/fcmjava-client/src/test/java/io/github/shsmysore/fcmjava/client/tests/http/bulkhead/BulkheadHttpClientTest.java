@@ -0,0 +1,234 @@
+package io.github.shsmysore.fcmjava.client.tests.http.bulkhead;
+
+import io.github.shsmysore.fcmjava.client.exceptions.ConcurrencyLimitExceededException;
+import io.github.shsmysore.fcmjava.client.http.apache.DefaultHttpClient;
+import io.github.shsmysore.fcmjava.client.http.bulkhead.BulkheadHttpClient;
+import io.github.shsmysore.fcmjava.client.http.bulkhead.MessageCategoryEnum;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import io.github.shsmysore.fcmjava.client.http.options.HttpClientOptions;
+import io.github.shsmysore.fcmjava.client.http.transport.IHttpTransport;
+import io.github.shsmysore.fcmjava.client.http.transport.SimpleHttpTransport;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.tests.testutils.StubFcmServer;
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.model.topics.Topic;
+import io.github.shsmysore.fcmjava.model.topics.TopicList;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BulkheadHttpClientTest {
+
+    private static final FcmMessageOptions OPTIONS = FcmMessageOptions.builder().build();
+
+    private static final String SUCCESS = "{\"multicast_id\":1,\"success\":1,\"failure\":0,\"canonical_ids\":0,\"results\":[{\"message_id\":\"m1\"}]}";
+
+    @Test
+    public void messagesAreCategorizedTest() {
+        Assert.assertEquals(MessageCategoryEnum.Unicast, BulkheadHttpClient.getCategory(new DataUnicastMessage(OPTIONS, "device", "data")));
+        Assert.assertEquals(MessageCategoryEnum.Unicast, BulkheadHttpClient.getCategory(Collections.singletonMap("to", "device")));
+        Assert.assertEquals(MessageCategoryEnum.Multicast, BulkheadHttpClient.getCategory(new DataMulticastMessage(OPTIONS, Arrays.asList("a", "b"), "data")));
+        Assert.assertEquals(MessageCategoryEnum.Topic, BulkheadHttpClient.getCategory(new TopicUnicastMessage(OPTIONS, new Topic("news"), "data")));
+        Assert.assertEquals(MessageCategoryEnum.Topic, BulkheadHttpClient.getCategory(new TopicMulticastMessage(OPTIONS, new TopicList(Arrays.asList(new Topic("a"), new Topic("b"))), "data")));
+        Assert.assertEquals(MessageCategoryEnum.DeviceGroup, BulkheadHttpClient.getCategory(new AddDeviceGroupMessage(OPTIONS, Collections.singletonList("a"), "group", "key")));
+    }
+
+    @Test
+    public void topicCampaignDoesNotStarveUnicastMessagesTest() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (StubFcmServer topicServer = new StubFcmServer(); StubFcmServer unicastServer = new StubFcmServer()) {
+
+            // FCM is slow to accept the topic messages of the campaign:
+            topicServer.setHandler(exchange -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                StubFcmServer.respond(exchange, 200, "{\"message_id\":1}");
+            });
+            unicastServer.setHandler(exchange -> StubFcmServer.respond(exchange, 200, SUCCESS));
+
+            // Both bulkheads share the connections, but the topic messages are limited to two in flight:
+            IHttpTransport transport = new SimpleHttpTransport(HttpClient.newHttpClient());
+
+            AdaptiveConcurrencyLimiter topicLimiter = new AdaptiveConcurrencyLimiter(2, 2, 2, 0.5, null, 100);
+
+            DefaultHttpClient topicClient = new DefaultHttpClient(settings(topicServer), new JsonSerializer(), transport, 3, HttpClientOptions.builder()
+                    .setConcurrencyLimiter(topicLimiter)
+                    .build());
+
+            DefaultHttpClient unicastClient = new DefaultHttpClient(settings(unicastServer), new JsonSerializer(), transport, 3, HttpClientOptions.builder()
+                    .setConcurrencyLimiter(new AdaptiveConcurrencyLimiter(2, 2, 2, 0.5, null, 100))
+                    .build());
+
+            BulkheadHttpClient client = BulkheadHttpClient.builder()
+                    .setDefaultClient(unicastClient)
+                    .setClient(MessageCategoryEnum.Topic, topicClient)
+                    .build();
+
+            List<CompletableFuture<TopicMessageResponse>> campaign = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                campaign.add(client.postAsync(new TopicUnicastMessage(OPTIONS, new Topic("news"), "data"), TopicMessageResponse.class));
+            }
+
+            for (int i = 0; i < 10; i++) {
+                FcmMessageResponse response = client
+                        .postAsync(new DataUnicastMessage(OPTIONS, "device", "data"), FcmMessageResponse.class)
+                        .get(5, TimeUnit.SECONDS);
+
+                Assert.assertEquals(1, response.getNumberOfSuccess());
+            }
+
+            Assert.assertEquals(2, topicLimiter.getInFlight());
+            Assert.assertEquals(18, topicLimiter.getQueueLength());
+
+            release.countDown();
+
+            for (CompletableFuture<TopicMessageResponse> response : campaign) {
+                response.get(10, TimeUnit.SECONDS);
+            }
+            Assert.assertEquals(20, topicServer.getRequestCount());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void bulkheadsSharingLimiterAreRejectedTest() {
+
+        IFcmClientSettings settings = settings();
+
+        // Clients created with the same options share the limiter:
+        HttpClientOptions options = HttpClientOptions.builder()
+                .setConcurrencyLimiter(new AdaptiveConcurrencyLimiter())
+                .build();
+
+        DefaultHttpClient unicastClient = new DefaultHttpClient(settings, options);
+        DefaultHttpClient topicClient = new DefaultHttpClient(settings, options);
+
+        try {
+            BulkheadHttpClient.builder()
+                    .setDefaultClient(unicastClient)
+                    .setClient(MessageCategoryEnum.Topic, topicClient)
+                    .build();
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // Expected
+        }
+
+        // A single client may serve several categories:
+        Assert.assertSame(unicastClient, BulkheadHttpClient.builder()
+                .setDefaultClient(unicastClient)
+                .setClient(MessageCategoryEnum.Topic, unicastClient)
+                .build()
+                .getClient(MessageCategoryEnum.Topic));
+    }
+
+    @Test
+    public void builderCreatesLimiterPerBulkheadTest() {
+
+        BulkheadHttpClient client = BulkheadHttpClient.builder()
+                .setSettings(settings())
+                .setDefaultBulkhead(8, 100)
+                .setBulkhead(MessageCategoryEnum.Topic, 2, 1)
+                .build();
+
+        AdaptiveConcurrencyLimiter defaultLimiter = ((DefaultHttpClient) client.getClient(MessageCategoryEnum.Unicast)).getConcurrencyLimiter();
+        AdaptiveConcurrencyLimiter topicLimiter = ((DefaultHttpClient) client.getClient(MessageCategoryEnum.Topic)).getConcurrencyLimiter();
+
+        Assert.assertNotSame(defaultLimiter, topicLimiter);
+        Assert.assertEquals(8, defaultLimiter.getLimit());
+        Assert.assertEquals(2, topicLimiter.getLimit());
+
+        // Two requests in flight and one in the queue fill the topic bulkhead:
+        Assert.assertTrue(topicLimiter.acquire(() -> {}, e -> {}));
+        Assert.assertTrue(topicLimiter.acquire(() -> {}, e -> {}));
+        Assert.assertFalse(topicLimiter.acquire(() -> {}, e -> {}));
+        try {
+            topicLimiter.acquire(() -> {}, e -> {});
+            Assert.fail("Expected a ConcurrencyLimitExceededException");
+        } catch (ConcurrencyLimitExceededException e) {
+            // Expected
+        }
+
+        // The other bulkhead is not affected:
+        Assert.assertTrue(defaultLimiter.acquire(() -> {}, e -> {}));
+    }
+
+    @Test
+    public void bulkheadsWithoutSettingsAreRejectedTest() {
+        try {
+            BulkheadHttpClient.builder()
+                    .setBulkhead(MessageCategoryEnum.Topic, 2, 1)
+                    .build();
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("settings", e.getMessage());
+        }
+    }
+
+    @Test
+    public void bulkheadsWithoutLimiterAreRejectedTest() {
+
+        // A default-configured client has no limiter, so it would not isolate anything:
+        DefaultHttpClient unlimitedClient = new DefaultHttpClient(settings());
+
+        try {
+            BulkheadHttpClient.builder()
+                    .setDefaultClient(unlimitedClient)
+                    .setBulkhead(MessageCategoryEnum.Topic, 2, 1)
+                    .setSettings(settings())
+                    .build();
+            Assert.fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertEquals("clients", e.getMessage());
+        }
+    }
+
+    private static IFcmClientSettings settings(StubFcmServer server) {
+        return new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return server.getUrl();
+            }
+
+            @Override
+            public String getApiKey() {
+                return "key";
+            }
+        };
+    }
+
+    private static IFcmClientSettings settings() {
+        return new IFcmClientSettings() {
+            @Override
+            public String getFcmUrl() {
+                return "http://localhost/fcm/send";
+            }
+
+            @Override
+            public String getApiKey() {
+                return "key";
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.shsmysore.fcmjava.client.tests.http.limiter;
+
+import io.github.shsmysore.fcmjava.client.exceptions.ConcurrencyLimitExceededException;
+import io.github.shsmysore.fcmjava.client.http.limiter.AdaptiveConcurrencyLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    public void requestsAboveLimitAreQueuedTest() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 2, 0.5, null, 1, null, Runnable::run);
+
+        List<String> started = new ArrayList<>();
+
+        Assert.assertTrue(limiter.acquire(() -> started.add("first"), e -> { }));
+        Assert.assertTrue(limiter.acquire(() -> started.add("second"), e -> { }));
+        Assert.assertFalse(limiter.acquire(() -> started.add("third"), e -> { }));
+
+        // The queue only holds a single request:
+        try {
+            limiter.acquire(() -> started.add("fourth"), e -> { });
+            Assert.fail("Expected a ConcurrencyLimitExceededException");
+        } catch (ConcurrencyLimitExceededException e) {
+            // Expected
+        }
+
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(1, limiter.getQueueLength());
+        Assert.assertTrue(started.isEmpty());
+
+        // Releasing a permit passes it to the queued request:
+        limiter.release(Duration.ofMillis(10).toNanos(), false);
+
+        Assert.assertEquals(List.of("third"), started);
+        Assert.assertEquals(2, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getQueueLength());
+        Assert.assertEquals(1, limiter.getQueuedRequests());
+        Assert.assertEquals(1, limiter.getRejectedRequests());
+    }
+
+    @Test
+    public void waitersRunOnExecutorTest() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, null, 1, null, executor);
+
+            CompletableFuture<Thread> waiterThread = new CompletableFuture<>();
+
+            Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+            Assert.assertFalse(limiter.acquire(() -> waiterThread.complete(Thread.currentThread()), waiterThread::completeExceptionally));
+
+            limiter.release(Duration.ofMillis(10).toNanos(), false);
+
+            // The releasing thread does not send the request of the waiter:
+            Assert.assertNotSame(Thread.currentThread(), waiterThread.get(5, TimeUnit.SECONDS));
+            Assert.assertEquals(1, limiter.getInFlight());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void expiredWaitersFailTest() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, null, 1, Duration.ofMillis(10), Runnable::run);
+
+        List<String> started = new ArrayList<>();
+        List<ConcurrencyLimitExceededException> timeouts = new ArrayList<>();
+
+        Assert.assertTrue(limiter.acquire(() -> started.add("first"), timeouts::add));
+        Assert.assertFalse(limiter.acquire(() -> started.add("second"), timeouts::add));
+
+        Thread.sleep(50);
+
+        // The expired waiter makes room in the queue for the next request:
+        Assert.assertFalse(limiter.acquire(() -> started.add("third"), timeouts::add));
+
+        Assert.assertEquals(1, timeouts.size());
+        Assert.assertEquals(1, limiter.getTimedOutRequests());
+        Assert.assertEquals(1, limiter.getQueueLength());
+
+        limiter.release(Duration.ofMillis(10).toNanos(), false);
+
+        Assert.assertEquals(List.of("third"), started);
+        Assert.assertEquals(1, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getRejectedRequests());
+    }
+
+    @Test
+    public void acquireSyncTimesOutTest() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1, 0.5, null, 1, null, Runnable::run);
+
+        Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+
+        try {
+            limiter.acquireSync(Duration.ofMillis(50));
+            Assert.fail("Expected a ConcurrencyLimitExceededException");
+        } catch (ConcurrencyLimitExceededException e) {
+            // Expected
+        }
+
+        // The permit passed to the caller, which stopped waiting, is given back at once:
+        limiter.release(Duration.ofMillis(10).toNanos(), false);
+
+        Assert.assertEquals(0, limiter.getInFlight());
+        Assert.assertEquals(0, limiter.getQueueLength());
+
+        limiter.acquireSync(Duration.ofMillis(50));
+
+        Assert.assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    public void limitDecreasesOnOverloadAndGrowsWhenUsedTest() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 20, 0.5, Duration.ofSeconds(1), 100);
+
+        Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+        limiter.release(Duration.ofMillis(10).toNanos(), true);
+
+        Assert.assertEquals(5, limiter.getLimit());
+
+        // A request slower than the latency threshold counts as overload as well:
+        Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+        limiter.release(Duration.ofSeconds(2).toNanos(), false);
+
+        Assert.assertEquals(2, limiter.getLimit());
+
+        // The limit never drops below the minimum:
+        Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+        limiter.release(Duration.ofMillis(10).toNanos(), true);
+
+        Assert.assertEquals(2, limiter.getLimit());
+
+        // Successful requests using the limit grow it by about one per round trip:
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+            Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+            limiter.release(Duration.ofMillis(10).toNanos(), false);
+            limiter.release(Duration.ofMillis(10).toNanos(), false);
+        }
+
+        Assert.assertTrue(limiter.getLimit() > 2);
+        Assert.assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    public void limitDoesNotGrowWhileUnusedTest() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 20, 0.5, null, 100);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(limiter.acquire(() -> { }, e -> { }));
+            limiter.release(Duration.ofMillis(10).toNanos(), false);
+        }
+
+        Assert.assertEquals(10, limiter.getLimit());
+    }
+}
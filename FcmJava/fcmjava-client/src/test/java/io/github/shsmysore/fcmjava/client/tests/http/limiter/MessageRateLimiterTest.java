@@ -0,0 +1,61 @@
+package io.github.shsmysore.fcmjava.client.tests.http.limiter;
+
+import io.github.shsmysore.fcmjava.client.http.limiter.MessageRateLimiter;
+import io.github.shsmysore.fcmjava.client.http.limiter.TokenBucketRateLimiter;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.model.topics.Topic;
+import io.github.shsmysore.fcmjava.model.topics.TopicList;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class MessageRateLimiterTest {
+
+    private static final FcmMessageOptions OPTIONS = FcmMessageOptions.builder().build();
+
+    @Test
+    public void topicsArePacedTest() {
+        MessageRateLimiter limiter = new MessageRateLimiter(null, new TokenBucketRateLimiter(1, 1), null);
+
+        TopicMulticastMessage condition = new TopicMulticastMessage(OPTIONS, new TopicList(Arrays.asList(new Topic("news"), new Topic("weather"))), "data");
+
+        Assert.assertEquals(0, limiter.reserve("key", condition));
+
+        // Both topics of the condition have been used:
+        Assert.assertTrue(limiter.reserve("key", new TopicUnicastMessage(OPTIONS, new Topic("news"), "data")) > 0);
+        Assert.assertTrue(limiter.reserve("key", new TopicUnicastMessage(OPTIONS, new Topic("weather"), "data")) > 0);
+        Assert.assertEquals(0, limiter.reserve("key", new TopicUnicastMessage(OPTIONS, new Topic("sports"), "data")));
+
+        // Device messages are not limited:
+        Assert.assertEquals(0, limiter.reserve("key", new DataUnicastMessage(OPTIONS, "device", "data")));
+        Assert.assertEquals(0, limiter.reserve("key", new DataUnicastMessage(OPTIONS, "device", "data")));
+    }
+
+    @Test
+    public void devicesArePacedTest() {
+        MessageRateLimiter limiter = new MessageRateLimiter(null, null, new TokenBucketRateLimiter(1, 1));
+
+        Assert.assertEquals(0, limiter.reserve("key", new DataMulticastMessage(OPTIONS, Arrays.asList("a", "b"), "data")));
+
+        // A multicast message waits for its slowest device:
+        Assert.assertTrue(limiter.reserve("key", new DataMulticastMessage(OPTIONS, Arrays.asList("c", "b"), "data")) > 0);
+        Assert.assertTrue(limiter.reserve("key", new DataUnicastMessage(OPTIONS, "a", "data")) > 0);
+        Assert.assertEquals(0, limiter.reserve("key", new DataUnicastMessage(OPTIONS, "d", "data")));
+    }
+
+    @Test
+    public void apiKeysArePacedTest() {
+        MessageRateLimiter limiter = new MessageRateLimiter(new TokenBucketRateLimiter(1, 2), null, null);
+
+        Assert.assertEquals(0, limiter.reserve("key", Collections.emptyMap()));
+        Assert.assertEquals(0, limiter.reserve("key", new DataUnicastMessage(OPTIONS, "a", "data")));
+        Assert.assertTrue(limiter.reserve("key", new DataUnicastMessage(OPTIONS, "b", "data")) > 0);
+        Assert.assertEquals(0, limiter.reserve("other", new DataUnicastMessage(OPTIONS, "c", "data")));
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.shsmysore.fcmjava.client.tests.http.limiter;
+
+import io.github.shsmysore.fcmjava.client.http.limiter.TokenBucketRateLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    public void burstIsAllowedAndThenPacedTest() {
+        // One token per second, so the test is not affected by tokens added while it runs:
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3);
+
+        Assert.assertEquals(0, limiter.reserve("device"));
+        Assert.assertEquals(0, limiter.reserve("device"));
+        Assert.assertEquals(0, limiter.reserve("device"));
+
+        long firstWait = limiter.reserve("device");
+        long secondWait = limiter.reserve("device");
+
+        Assert.assertTrue(firstWait > Duration.ofMillis(900).toNanos() && firstWait <= Duration.ofSeconds(1).toNanos());
+        Assert.assertTrue(secondWait > Duration.ofMillis(1900).toNanos() && secondWait <= Duration.ofSeconds(2).toNanos());
+
+        // Every key has a bucket of its own:
+        Assert.assertEquals(0, limiter.reserve("other"));
+    }
+
+    @Test
+    public void fullBucketsAreDroppedTest() {
+        // Buckets refill within a second, so all of them are kept while the test runs:
+        TokenBucketRateLimiter slowLimiter = new TokenBucketRateLimiter(1, 1);
+
+        for (int i = 0; i < 10_000; i++) {
+            slowLimiter.reserve("device-" + i);
+        }
+
+        Assert.assertEquals(10_000, slowLimiter.getBucketCount());
+
+        // Buckets refill after a microsecond, so they are dropped whenever their segment is rebuilt:
+        TokenBucketRateLimiter fastLimiter = new TokenBucketRateLimiter(1_000_000, 1);
+
+        for (int i = 0; i < 100_000; i++) {
+            fastLimiter.reserve("device-" + i);
+        }
+
+        Assert.assertTrue(fastLimiter.getBucketCount() < 100_000);
+    }
+
+    @Test
+    public void concurrentReservationsAreNotLostTest() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    limiter.reserve("topic");
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // 4000 tokens have been reserved at a rate of one per second:
+        long wait = limiter.reserve("topic");
+
+        Assert.assertTrue(wait > Duration.ofSeconds(3990).toNanos());
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.shsmysore.fcmjava.client.tests.http.metrics;
+
+import io.github.shsmysore.fcmjava.client.http.metrics.LatencyHistogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesAreWithinBucketPrecisionTest() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+
+        Assert.assertNull(histogram.getPercentile(0.5));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(Duration.ofMillis(i).toNanos());
+        }
+
+        assertWithinPrecision(Duration.ofMillis(50), histogram.getPercentile(0.5));
+        assertWithinPrecision(Duration.ofMillis(99), histogram.getPercentile(0.99));
+        assertWithinPrecision(Duration.ofMillis(100), histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void oldLatenciesAreEvictedTest() {
+        LatencyHistogram histogram = new LatencyHistogram(10);
+
+        for (int i = 0; i < 10; i++) {
+            histogram.record(Duration.ofSeconds(1).toNanos());
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(Duration.ofMillis(1).toNanos());
+        }
+
+        Assert.assertEquals(10, histogram.getCount());
+        assertWithinPrecision(Duration.ofMillis(1), histogram.getPercentile(1.0));
+    }
+
+    @Test
+    public void percentileIsRecomputedEveryFewSamplesTest() {
+        LatencyHistogram histogram = new LatencyHistogram(100);
+
+        // Nothing is computed, until the minimum number of latencies has been recorded:
+        for (int i = 0; i < 9; i++) {
+            Assert.assertNull(histogram.recordAndGetPercentile(Duration.ofMillis(10).toNanos(), 0.5, 10));
+        }
+        assertWithinPrecision(Duration.ofMillis(10), histogram.recordAndGetPercentile(Duration.ofMillis(10).toNanos(), 0.5, 10));
+
+        int recomputed = 0;
+        for (int i = 0; i < 64; i++) {
+            if (histogram.recordAndGetPercentile(Duration.ofMillis(10).toNanos(), 0.5, 10) != null) {
+                recomputed++;
+            }
+        }
+        Assert.assertEquals(4, recomputed);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minimumSamplesLargerThanWindowAreRejectedTest() {
+        new LatencyHistogram(100).recordAndGetPercentile(0, 0.5, 101);
+    }
+
+    private static void assertWithinPrecision(Duration expected, Duration actual) {
+        Assert.assertTrue(actual.compareTo(expected) >= 0);
+        Assert.assertTrue(actual.toNanos() <= expected.toNanos() * 1.125);
+    }
+}
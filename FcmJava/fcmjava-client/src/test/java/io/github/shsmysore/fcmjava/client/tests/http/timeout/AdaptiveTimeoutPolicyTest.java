@@ -0,0 +1,45 @@
+package io.github.shsmysore.fcmjava.client.tests.http.timeout;
+
+import io.github.shsmysore.fcmjava.client.http.timeout.AdaptiveTimeoutPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class AdaptiveTimeoutPolicyTest {
+
+    @Test
+    public void timeoutFollowsObservedLatenciesTest() {
+        AdaptiveTimeoutPolicy policy = new AdaptiveTimeoutPolicy(0.99, 2.0, 10, Duration.ofMillis(100), Duration.ofSeconds(10));
+
+        // The maximum is used, until enough latencies have been observed:
+        Assert.assertEquals(Duration.ofSeconds(10), policy.getTimeout());
+
+        for (int i = 0; i < 10; i++) {
+            policy.recordLatency(Duration.ofMillis(200).toNanos());
+        }
+
+        Duration timeout = policy.getTimeout();
+        Assert.assertTrue(timeout.compareTo(Duration.ofMillis(400)) >= 0 && timeout.compareTo(Duration.ofMillis(450)) <= 0);
+
+        // Fast responses never push the timeout below the minimum:
+        for (int i = 0; i < 2000; i++) {
+            policy.recordLatency(Duration.ofMillis(1).toNanos());
+        }
+
+        Assert.assertEquals(Duration.ofMillis(100), policy.getTimeout());
+
+        // Requests running into the timeout are recorded with it, so the timeout grows again:
+        for (int i = 0; i < 100; i++) {
+            policy.recordLatency(policy.getTimeout().toNanos());
+        }
+
+        Assert.assertTrue(policy.getTimeout().compareTo(Duration.ofMillis(200)) >= 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void minimumSamplesLargerThanWindowAreRejectedTest() {
+        // The window only holds 1024 latencies, so the timeout would never adapt:
+        new AdaptiveTimeoutPolicy(0.99, 2.0, 1025, Duration.ofMillis(100), Duration.ofSeconds(10));
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.shsmysore.fcmjava.client.tests.http.transport;
+
+import io.github.shsmysore.fcmjava.client.http.transport.MultiplexedHttpTransport;
+import io.github.shsmysore.fcmjava.client.tests.testutils.StubFcmServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class MultiplexedHttpTransportTest {
+
+    private StubFcmServer server;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubFcmServer();
+    }
+
+    @After
+    public void teardown() {
+        server.close();
+    }
+
+    @Test
+    public void streamsAreLimitedPerConnectionTest() throws Exception {
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        server.setHandler(exchange -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubFcmServer.respond(exchange, 200, "{}");
+        });
+
+        MultiplexedHttpTransport transport = new MultiplexedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build(), 3, 2);
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            responses.add(transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // Three connections with two streams each, the remaining requests wait for a stream:
+        Assert.assertEquals(3, transport.getConnectionCount());
+        Assert.assertEquals(6, transport.getActiveStreams());
+        Assert.assertEquals(4, transport.getQueuedRequests());
+
+        latch.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assert.assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+
+        Assert.assertEquals(10, server.getRequestCount());
+        Assert.assertEquals(0, transport.getActiveStreams());
+        Assert.assertEquals(0, transport.getQueuedRequests());
+    }
+
+    @Test
+    public void fallsBackToHttp1Test() throws Exception {
+
+        MultiplexedHttpTransport transport = new MultiplexedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build(), 2, 1);
+
+        HttpResponse<String> response = transport.send(buildRequest(), HttpResponse.BodyHandlers.ofString());
+
+        Assert.assertEquals(HttpClient.Version.HTTP_1_1, response.version());
+        Assert.assertTrue(transport.isHttp1Fallback());
+
+        // Without HTTP/2 the streams are no longer limited and no further connections are opened:
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            responses.add(transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        Assert.assertEquals(0, transport.getQueuedRequests());
+        Assert.assertEquals(1, transport.getConnectionCount());
+
+        for (CompletableFuture<HttpResponse<String>> r : responses) {
+            Assert.assertEquals(200, r.get(10, TimeUnit.SECONDS).statusCode());
+        }
+    }
+
+    @Test
+    public void queuedRequestsAreBoundedAndTimeOutTest() throws Exception {
+
+        CountDownLatch latch = blockServer();
+
+        MultiplexedHttpTransport transport = new MultiplexedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build(), 1, 1, 1, Duration.ofMillis(100));
+
+        CompletableFuture<HttpResponse<String>> sent = transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<HttpResponse<String>> queued = transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString());
+        CompletableFuture<HttpResponse<String>> rejected = transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString());
+
+        assertFailsWith(IOException.class, rejected);
+        assertFailsWith(HttpTimeoutException.class, queued);
+        Assert.assertEquals(0, transport.getQueuedRequests());
+
+        latch.countDown();
+
+        Assert.assertEquals(200, sent.get(10, TimeUnit.SECONDS).statusCode());
+        Assert.assertEquals(1, server.getRequestCount());
+        Assert.assertEquals(0, transport.getActiveStreams());
+    }
+
+    @Test
+    public void interruptedSendLeavesQueueTest() throws Exception {
+
+        CountDownLatch latch = blockServer();
+
+        MultiplexedHttpTransport transport = new MultiplexedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build(), 1, 1);
+
+        CompletableFuture<HttpResponse<String>> sent = transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString());
+
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try {
+                transport.send(buildRequest(), HttpResponse.BodyHandlers.ofString());
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        thread.start();
+
+        while (transport.getQueuedRequests() == 0) {
+            Thread.sleep(5);
+        }
+        thread.interrupt();
+        thread.join(10000);
+
+        Assert.assertTrue(error.get() instanceof InterruptedException);
+        Assert.assertEquals(0, transport.getQueuedRequests());
+
+        latch.countDown();
+
+        // The interrupted request is never sent, and the stream is free again:
+        Assert.assertEquals(200, sent.get(10, TimeUnit.SECONDS).statusCode());
+        Assert.assertEquals(1, server.getRequestCount());
+        Assert.assertEquals(0, transport.getActiveStreams());
+    }
+
+    private CountDownLatch blockServer() {
+        CountDownLatch latch = new CountDownLatch(1);
+        server.setHandler(exchange -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubFcmServer.respond(exchange, 200, "{}");
+        });
+        return latch;
+    }
+
+    private static void assertFailsWith(Class<? extends Throwable> expected, CompletableFuture<?> future) throws Exception {
+        try {
+            future.get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected a " + expected.getSimpleName());
+        } catch (ExecutionException e) {
+            Assert.assertTrue(String.valueOf(e.getCause()), expected.isInstance(e.getCause()));
+        }
+    }
+
+    private HttpRequest buildRequest() {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(server.getUrl()))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+    }
+}
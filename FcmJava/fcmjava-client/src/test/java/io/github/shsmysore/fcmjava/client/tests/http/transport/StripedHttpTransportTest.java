@@ -0,0 +1,95 @@
+package io.github.shsmysore.fcmjava.client.tests.http.transport;
+
+import io.github.shsmysore.fcmjava.client.http.transport.StripedHttpTransport;
+import io.github.shsmysore.fcmjava.client.tests.testutils.StubFcmServer;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class StripedHttpTransportTest {
+
+    private StubFcmServer server;
+
+    @Before
+    public void setup() throws Exception {
+        server = new StubFcmServer();
+    }
+
+    @After
+    public void teardown() {
+        server.close();
+    }
+
+    @Test
+    public void requestsAreSentOnLeastLoadedStripeTest() throws Exception {
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        server.setHandler(exchange -> {
+            try {
+                latch.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StubFcmServer.respond(exchange, 200, "{}");
+        });
+
+        StripedHttpTransport transport = new StripedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), 4);
+
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            responses.add(transport.sendAsync(buildRequest(), HttpResponse.BodyHandlers.ofString()));
+        }
+
+        // No request has completed yet, so the requests are spread evenly:
+        for (int stripe = 0; stripe < transport.getStripeCount(); stripe++) {
+            Assert.assertEquals(2, transport.getInFlightRequests(stripe));
+        }
+
+        latch.countDown();
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assert.assertEquals(200, response.get(10, TimeUnit.SECONDS).statusCode());
+        }
+
+        for (int stripe = 0; stripe < transport.getStripeCount(); stripe++) {
+            Assert.assertEquals(0, transport.getInFlightRequests(stripe));
+            Assert.assertEquals(2, transport.getCompletedRequests(stripe));
+            Assert.assertEquals(0, transport.getFailedRequests(stripe));
+        }
+    }
+
+    @Test
+    public void affinityPinsRequestsToStripeTest() throws Exception {
+
+        StripedHttpTransport transport = new StripedHttpTransport(
+                () -> HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build(), 3, request -> 7);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(200, transport.send(buildRequest(), HttpResponse.BodyHandlers.ofString()).statusCode());
+        }
+
+        Assert.assertEquals(0, transport.getCompletedRequests(0));
+        Assert.assertEquals(3, transport.getCompletedRequests(1));
+        Assert.assertEquals(0, transport.getCompletedRequests(2));
+    }
+
+    private HttpRequest buildRequest() {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(server.getUrl()))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package io.github.shsmysore.fcmjava.client.tests.multicast;
+
+import io.github.shsmysore.fcmjava.client.exceptions.PartialMulticastException;
+import io.github.shsmysore.fcmjava.client.multicast.ChunkedMulticastDispatcher;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ChunkedMulticastDispatcherTest {
+
+    @Test
+    public void oversizedMessageIsSplitAndMergedTest() throws Exception {
+
+        ChunkedMulticastDispatcher dispatcher = new ChunkedMulticastDispatcher(1000, 2);
+
+        List<String> registrationIds = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            registrationIds.add("token-" + i);
+        }
+
+        List<Integer> chunkSizes = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+
+        FcmMessageResponse response = dispatcher.sendAsync(createMessage(registrationIds), ids -> createMessage(ids), m -> {
+            chunkSizes.add(m.getRegistrationIds().size());
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                inFlight.decrementAndGet();
+                return respond(m.getRegistrationIds());
+            }, CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, chunkSizes.size());
+        Assert.assertTrue(chunkSizes.contains(500));
+        Assert.assertTrue(maxInFlight.get() <= 2);
+
+        Assert.assertEquals(2500, response.getResults().size());
+        Assert.assertEquals(2250, response.getNumberOfSuccess());
+        Assert.assertEquals(250, response.getNumberOfFailure());
+
+        // The results stay aligned with the original Registration IDs:
+        for (int i = 0; i < 2500; i++) {
+            FcmMessageResultItem result = response.getResults().get(i);
+            if (i % 10 == 0) {
+                Assert.assertEquals(ErrorCodeEnum.NotRegistered, result.getErrorCode());
+            } else {
+                Assert.assertEquals(registrationIds.get(i), result.getMessageId());
+            }
+        }
+    }
+
+    @Test
+    public void smallMessageIsSentAsIsTest() throws Exception {
+
+        ChunkedMulticastDispatcher dispatcher = new ChunkedMulticastDispatcher(1000, 2);
+
+        DataMulticastMessage message = createMessage(Collections.singletonList("token-0"));
+
+        List<DataMulticastMessage> sent = new ArrayList<>();
+
+        dispatcher.sendAsync(message, ids -> createMessage(ids), m -> {
+            sent.add(m);
+            return CompletableFuture.completedFuture(respond(m.getRegistrationIds()));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, sent.size());
+        Assert.assertSame(message, sent.get(0));
+    }
+
+    @Test
+    public void failedChunkKeepsDeliveredResponsesTest() throws Exception {
+
+        ChunkedMulticastDispatcher dispatcher = new ChunkedMulticastDispatcher(2, 1);
+
+        List<String> registrationIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            registrationIds.add("token-" + i);
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            dispatcher.sendAsync(createMessage(registrationIds), ids -> createMessage(ids), m -> {
+                if (attempts.incrementAndGet() == 2) {
+                    return CompletableFuture.failedFuture(new IllegalStateException("Chunk failed"));
+                }
+                return CompletableFuture.completedFuture(respond(m.getRegistrationIds()));
+            }).get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected a PartialMulticastException");
+        } catch (ExecutionException e) {
+            PartialMulticastException partial = (PartialMulticastException) e.getCause();
+
+            Assert.assertEquals(IllegalStateException.class, partial.getCause().getClass());
+            Assert.assertEquals(registrationIds.subList(0, 2), partial.getDeliveredRegistrationIds());
+            Assert.assertEquals(registrationIds.subList(2, 6), partial.getFailedRegistrationIds());
+            Assert.assertEquals(2, partial.getResponse().getResults().size());
+            Assert.assertEquals(1, partial.getChunkFailures().size());
+        }
+
+        // No further chunks are sent after the failure:
+        Assert.assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void completedChunksDoNotRecurseTest() throws Exception {
+
+        ChunkedMulticastDispatcher dispatcher = new ChunkedMulticastDispatcher(1, 1);
+
+        List<String> registrationIds = new ArrayList<>();
+        for (int i = 0; i < 50_000; i++) {
+            registrationIds.add("token-" + i);
+        }
+
+        // Every chunk completes at once, which used to send the next chunk from the stack of the previous one:
+        FcmMessageResponse response = dispatcher.sendAsync(createMessage(registrationIds), ids -> createMessage(ids),
+                m -> CompletableFuture.completedFuture(respond(m.getRegistrationIds()))).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(50_000, response.getResults().size());
+    }
+
+    @Test
+    public void misalignedResultsFailMessageTest() throws Exception {
+
+        ChunkedMulticastDispatcher dispatcher = new ChunkedMulticastDispatcher(2, 2);
+
+        List<String> registrationIds = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            registrationIds.add("token-" + i);
+        }
+
+        try {
+            dispatcher.sendAsync(createMessage(registrationIds), ids -> createMessage(ids),
+                    m -> CompletableFuture.completedFuture(respond(m.getRegistrationIds().subList(0, 1)))).get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected an IllegalStateException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(IllegalStateException.class, e.getCause().getClass());
+        }
+    }
+
+    private static DataMulticastMessage createMessage(List<String> registrationIds) {
+        return new DataMulticastMessage(FcmMessageOptions.builder().build(), registrationIds, Collections.singletonMap("key", "value"));
+    }
+
+    private static FcmMessageResponse respond(List<String> registrationIds) {
+        List<FcmMessageResultItem> results = new ArrayList<>();
+        int failure = 0;
+        for (String registrationId : registrationIds) {
+            if (Integer.parseInt(registrationId.substring("token-".length())) % 10 == 0) {
+                results.add(new FcmMessageResultItem(null, null, ErrorCodeEnum.NotRegistered));
+                failure++;
+            } else {
+                results.add(new FcmMessageResultItem(registrationId, null, null));
+            }
+        }
+        return new FcmMessageResponse(1, results.size() - failure, failure, 0, results);
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.shsmysore.fcmjava.client.tests.retry;
+
+import io.github.shsmysore.fcmjava.client.retry.RetryBudget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void retriesAreLimitedToPercentOfDepositsTest() {
+        RetryBudget budget = new RetryBudget(0.5, 0, Duration.ofMinutes(1));
+
+        Assert.assertFalse(budget.tryWithdraw());
+
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+
+        Assert.assertEquals(5, budget.getBalance());
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(budget.tryWithdraw());
+        }
+
+        Assert.assertFalse(budget.tryWithdraw());
+        Assert.assertEquals(10, budget.getDeposits());
+        Assert.assertEquals(5, budget.getWithdrawals());
+        Assert.assertEquals(2, budget.getRejectedRetries());
+    }
+
+    @Test
+    public void minimumRetriesAreAllowedWithoutDepositsTest() {
+        RetryBudget budget = new RetryBudget(0.2, 2, Duration.ofSeconds(5));
+
+        Assert.assertEquals(10, budget.getBalance());
+    }
+
+    @Test
+    public void depositsExpireAfterWindowTest() throws Exception {
+        RetryBudget budget = new RetryBudget(1.0, 0, Duration.ofMillis(100));
+
+        budget.deposit();
+        Assert.assertEquals(1, budget.getBalance());
+
+        Thread.sleep(250);
+
+        Assert.assertEquals(0, budget.getBalance());
+        Assert.assertFalse(budget.tryWithdraw());
+    }
+}
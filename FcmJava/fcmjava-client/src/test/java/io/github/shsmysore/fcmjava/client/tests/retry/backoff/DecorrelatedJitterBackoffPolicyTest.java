@@ -0,0 +1,28 @@
+package io.github.shsmysore.fcmjava.client.tests.retry.backoff;
+
+import io.github.shsmysore.fcmjava.client.retry.backoff.DecorrelatedJitterBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class DecorrelatedJitterBackoffPolicyTest {
+
+    @Test
+    public void delayStaysBetweenBaseAndThreeTimesPreviousDelayTest() {
+        IBackoffPolicy policy = new DecorrelatedJitterBackoffPolicy(Duration.ofMillis(100), Duration.ofMillis(5000));
+
+        Duration previousDelay = Duration.ZERO;
+        for (int retry = 1; retry < 1000; retry++) {
+            Duration delay = policy.getDelay(retry, previousDelay);
+
+            long upperBound = Math.min(5000, Math.max(100, previousDelay.toMillis()) * 3);
+
+            Assert.assertTrue(delay.toMillis() >= 100);
+            Assert.assertTrue(delay.toMillis() <= upperBound);
+
+            previousDelay = delay;
+        }
+    }
+}
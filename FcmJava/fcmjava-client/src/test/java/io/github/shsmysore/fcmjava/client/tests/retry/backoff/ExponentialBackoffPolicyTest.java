@@ -0,0 +1,38 @@
+package io.github.shsmysore.fcmjava.client.tests.retry.backoff;
+
+import io.github.shsmysore.fcmjava.client.retry.backoff.ExponentialBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.IBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.JitterEnum;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+
+public class ExponentialBackoffPolicyTest {
+
+    @Test
+    public void delayGrowsUpToMaximumTest() {
+        IBackoffPolicy policy = new ExponentialBackoffPolicy(Duration.ofMillis(100), Duration.ofMillis(1000), 2.0, JitterEnum.None);
+
+        Assert.assertEquals(100, policy.getDelay(1).toMillis());
+        Assert.assertEquals(200, policy.getDelay(2).toMillis());
+        Assert.assertEquals(400, policy.getDelay(3).toMillis());
+        Assert.assertEquals(800, policy.getDelay(4).toMillis());
+        Assert.assertEquals(1000, policy.getDelay(5).toMillis());
+        Assert.assertEquals(1000, policy.getDelay(100).toMillis());
+    }
+
+    @Test
+    public void jitterStaysWithinBoundsTest() {
+        IBackoffPolicy full = new ExponentialBackoffPolicy(Duration.ofMillis(100), Duration.ofMillis(1000), 2.0, JitterEnum.Full);
+        IBackoffPolicy equal = new ExponentialBackoffPolicy(Duration.ofMillis(100), Duration.ofMillis(1000), 2.0, JitterEnum.Equal);
+
+        for (int i = 0; i < 1000; i++) {
+            long fullDelay = full.getDelay(3).toMillis();
+            long equalDelay = equal.getDelay(3).toMillis();
+
+            Assert.assertTrue(fullDelay >= 0 && fullDelay <= 400);
+            Assert.assertTrue(equalDelay >= 200 && equalDelay <= 400);
+        }
+    }
+}
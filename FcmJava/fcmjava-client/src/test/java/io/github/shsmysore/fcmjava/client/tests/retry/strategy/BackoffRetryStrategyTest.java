@@ -0,0 +1,91 @@
+package io.github.shsmysore.fcmjava.client.tests.retry.strategy;
+
+import io.github.shsmysore.fcmjava.client.retry.backoff.ExponentialBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.JitterEnum;
+import io.github.shsmysore.fcmjava.client.retry.strategy.BackoffRetryStrategy;
+import io.github.shsmysore.fcmjava.client.retry.strategy.IAsyncRetryStrategy;
+import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
+import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BackoffRetryStrategyTest {
+
+    @Test
+    public void retriesUntilSuccessTest() throws Exception {
+
+        IAsyncRetryStrategy strategy = BackoffRetryStrategy.builder()
+                .setMaxRetries(5)
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(1), Duration.ofMillis(10), 2.0, JitterEnum.Full))
+                .build();
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = strategy.getWithRetryAsync(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                return CompletableFuture.<String>failedFuture(new FcmRetryAfterException(503, "Unavailable", Duration.ZERO));
+            }
+            return CompletableFuture.completedFuture("success");
+        }).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals("success", result);
+        Assert.assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void onlyRetriesAcceptedExceptionsTest() throws Exception {
+
+        IAsyncRetryStrategy strategy = BackoffRetryStrategy.builder()
+                .setMaxRetries(5)
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(1), Duration.ofMillis(1), 1.0, JitterEnum.None))
+                .retryOn(FcmGeneralException.class)
+                .build();
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            strategy.getWithRetryAsync(() -> {
+                if (attempts.incrementAndGet() == 1) {
+                    throw new FcmGeneralException(500, "Internal Server Error");
+                }
+                return CompletableFuture.failedFuture(new FcmBadRequestException("Bad Request"));
+            }).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmBadRequestException.class, e.getCause().getClass());
+        }
+
+        Assert.assertEquals(2, attempts.get());
+    }
+
+    @Test
+    public void stopsAfterMaxElapsedTimeTest() throws Exception {
+
+        IAsyncRetryStrategy strategy = BackoffRetryStrategy.builder()
+                .setMaxRetries(100)
+                .setMaxElapsedTime(Duration.ofMillis(200))
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(50), Duration.ofMillis(50), 1.0, JitterEnum.None))
+                .build();
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        try {
+            strategy.getWithRetryAsync(() -> {
+                attempts.incrementAndGet();
+                return CompletableFuture.failedFuture(new FcmRetryAfterException(503, "Unavailable", Duration.ZERO));
+            }).get(10, TimeUnit.SECONDS);
+            Assert.fail("Expected an ExecutionException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(FcmRetryAfterException.class, e.getCause().getClass());
+        }
+
+        Assert.assertTrue(attempts.get() >= 2 && attempts.get() <= 5);
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.shsmysore.fcmjava.client.tests.retry.strategy;
+
+import io.github.shsmysore.fcmjava.client.http.options.ResponseModeEnum;
+import io.github.shsmysore.fcmjava.client.retry.backoff.ExponentialBackoffPolicy;
+import io.github.shsmysore.fcmjava.client.retry.backoff.JitterEnum;
+import io.github.shsmysore.fcmjava.client.retry.strategy.MulticastRetryStrategy;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class MulticastRetryStrategyTest {
+
+    private final MulticastRetryStrategy strategy = MulticastRetryStrategy.builder()
+            .setMaxRetries(2)
+            .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(10), Duration.ofMillis(10), 2.0, JitterEnum.None))
+            .build();
+
+    @Test
+    public void onlyRetryableRegistrationIdsAreResentTest() throws Exception {
+
+        List<List<String>> sentRegistrationIds = new ArrayList<>();
+
+        DataMulticastMessage message = createMessage(Arrays.asList("a", "b", "c", "d"));
+
+        FcmMessageResponse response = strategy.sendAsync(message, ids -> createMessage(ids), m -> {
+            sentRegistrationIds.add(m.getRegistrationIds());
+            if (sentRegistrationIds.size() == 1) {
+                return respond(success("1"), error(ErrorCodeEnum.Unavailable), error(ErrorCodeEnum.NotRegistered), error(ErrorCodeEnum.InternalServerError));
+            }
+            return respond(success("2"), success("3"));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(2, sentRegistrationIds.size());
+        Assert.assertEquals(Arrays.asList("b", "d"), sentRegistrationIds.get(1));
+
+        Assert.assertEquals(3, response.getNumberOfSuccess());
+        Assert.assertEquals(1, response.getNumberOfFailure());
+        Assert.assertEquals("1", response.getResults().get(0).getMessageId());
+        Assert.assertEquals("2", response.getResults().get(1).getMessageId());
+        Assert.assertEquals(ErrorCodeEnum.NotRegistered, response.getResults().get(2).getErrorCode());
+        Assert.assertEquals("3", response.getResults().get(3).getMessageId());
+    }
+
+    @Test
+    public void retriesStopAfterMaxRetriesTest() throws Exception {
+
+        List<List<String>> sentRegistrationIds = new ArrayList<>();
+
+        DataMulticastMessage message = createMessage(Arrays.asList("a", "b"));
+
+        FcmMessageResponse response = strategy.sendAsync(message, ids -> createMessage(ids), m -> {
+            sentRegistrationIds.add(m.getRegistrationIds());
+            if (sentRegistrationIds.size() == 1) {
+                return respond(success("1"), error(ErrorCodeEnum.Unavailable));
+            }
+            return respond(error(ErrorCodeEnum.Unavailable));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(3, sentRegistrationIds.size());
+        Assert.assertEquals(1, response.getNumberOfSuccess());
+        Assert.assertEquals(1, response.getNumberOfFailure());
+        Assert.assertEquals(ErrorCodeEnum.Unavailable, response.getResults().get(1).getErrorCode());
+    }
+
+    @Test
+    public void failedRetryKeepsFirstResultsTest() throws Exception {
+
+        DataMulticastMessage message = createMessage(Arrays.asList("a", "b"));
+
+        FcmMessageResponse first = new FcmMessageResponse(42, 1, 1, 0, Arrays.asList(success("1"), error(ErrorCodeEnum.Unavailable)));
+
+        List<DataMulticastMessage> sent = new ArrayList<>();
+
+        FcmMessageResponse response = strategy.sendAsync(message, ids -> createMessage(ids), m -> {
+            sent.add(m);
+            if (sent.size() == 1) {
+                return CompletableFuture.completedFuture(first);
+            }
+            return CompletableFuture.failedFuture(new RuntimeException("Connection lost"));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(42, response.getMulticastId());
+        Assert.assertEquals(ErrorCodeEnum.Unavailable, response.getResults().get(1).getErrorCode());
+    }
+
+    @Test
+    public void mergedCompactResponseFollowsResponseModeTest() throws Exception {
+
+        MulticastRetryStrategy withoutMessageIds = MulticastRetryStrategy.builder()
+                .setMaxRetries(2)
+                .setBackoffPolicy(new ExponentialBackoffPolicy(Duration.ofMillis(10), Duration.ofMillis(10), 2.0, JitterEnum.None))
+                .setResponseMode(ResponseModeEnum.CompactWithoutMessageIds)
+                .build();
+
+        DataMulticastMessage message = createMessage(Arrays.asList("a", "b"));
+
+        FcmMessageResponse first = CompactFcmMessageResponse.of(new FcmMessageResponse(1, 1, 1, 0, Arrays.asList(success("1"), error(ErrorCodeEnum.Unavailable))), true);
+
+        List<DataMulticastMessage> sent = new ArrayList<>();
+
+        FcmMessageResponse response = withoutMessageIds.sendAsync(message, ids -> createMessage(ids), m -> {
+            sent.add(m);
+            return sent.size() == 1 ? CompletableFuture.completedFuture(first) : respond(success("2"));
+        }).get(5, TimeUnit.SECONDS);
+
+        Assert.assertTrue(response instanceof CompactFcmMessageResponse);
+        Assert.assertEquals(2, response.getNumberOfSuccess());
+        Assert.assertNull(((CompactFcmMessageResponse) response).getMessageId(0));
+        Assert.assertNull(((CompactFcmMessageResponse) response).getMessageId(1));
+    }
+
+    private static DataMulticastMessage createMessage(List<String> registrationIds) {
+        return new DataMulticastMessage(FcmMessageOptions.builder().build(), registrationIds, Collections.singletonMap("key", "value"));
+    }
+
+    private static CompletableFuture<FcmMessageResponse> respond(FcmMessageResultItem... results) {
+        int failure = (int) Arrays.stream(results).filter(r -> r.getErrorCode() != null).count();
+        return CompletableFuture.completedFuture(new FcmMessageResponse(1, results.length - failure, failure, 0, Arrays.asList(results)));
+    }
+
+    private static FcmMessageResultItem success(String messageId) {
+        return new FcmMessageResultItem(messageId, null, null);
+    }
+
+    private static FcmMessageResultItem error(ErrorCodeEnum errorCode) {
+        return new FcmMessageResultItem(null, null, errorCode);
+    }
+}
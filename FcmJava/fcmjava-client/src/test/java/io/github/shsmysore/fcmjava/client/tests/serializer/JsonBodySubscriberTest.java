@@ -0,0 +1,134 @@
+package io.github.shsmysore.fcmjava.client.tests.serializer;
+
+import io.github.shsmysore.fcmjava.client.exceptions.SerializationException;
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+public class JsonBodySubscriberTest {
+
+    private static final String RESPONSE = "{\"multicast_id\":108,\"success\":2,\"failure\":1,\"canonical_ids\":1,\"ignored\":{\"results\":[{}]}," +
+            "\"results\":[{\"message_id\":\"1:0408\"},{\"error\":\"Unavailable\",\"details\":{\"nested\":[1,2]}},{\"message_id\":\"1:1516\",\"registration_id\":\"Grüße\"}]}";
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    @Test
+    public void responseIsParsedFromAnySplitTest() throws Exception {
+
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        for (int split = 0; split <= bytes.length; split++) {
+            HttpResponse.BodySubscriber<FcmMessageResponse> subscriber = serializer.createBodySubscriber(FcmMessageResponse.class);
+
+            feed(subscriber, Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+
+            FcmMessageResponse response = subscriber.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(108, response.getMulticastId());
+            Assert.assertEquals(3, response.getResults().size());
+            Assert.assertEquals(ErrorCodeEnum.Unavailable, response.getResults().get(1).getErrorCode());
+            Assert.assertEquals("Grüße", response.getResults().get(2).getCanonicalRegistrationId());
+        }
+    }
+
+    @Test
+    public void resultItemsArePassedToCallbackTest() throws Exception {
+
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        for (int split = 0; split <= bytes.length; split++) {
+            List<String> registrationIds = new ArrayList<>();
+            List<FcmMessageResultItem> resultItems = new ArrayList<>();
+
+            HttpResponse.BodySubscriber<FcmMessageResponse> subscriber = serializer.createMulticastBodySubscriber(Arrays.asList("a", "b", "c"), (registrationId, resultItem) -> {
+                registrationIds.add(registrationId);
+                resultItems.add(resultItem);
+            });
+
+            feed(subscriber, Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+
+            FcmMessageResponse response = subscriber.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(108, response.getMulticastId());
+            Assert.assertEquals(2, response.getNumberOfSuccess());
+            Assert.assertEquals(1, response.getNumberOfFailure());
+            Assert.assertEquals(1, response.getNumberOfCanonicalIds());
+            Assert.assertTrue(response.getResults().isEmpty());
+
+            Assert.assertEquals(Arrays.asList("a", "b", "c"), registrationIds);
+            Assert.assertEquals("1:0408", resultItems.get(0).getMessageId());
+            Assert.assertEquals(ErrorCodeEnum.Unavailable, resultItems.get(1).getErrorCode());
+            Assert.assertEquals("Grüße", resultItems.get(2).getCanonicalRegistrationId());
+        }
+    }
+
+    @Test
+    public void compactResponseIsParsedFromAnySplitTest() throws Exception {
+
+        byte[] bytes = RESPONSE.getBytes(StandardCharsets.UTF_8);
+
+        FcmMessageResponse expected = serializer.deserialize(RESPONSE, FcmMessageResponse.class);
+
+        for (int split = 0; split <= bytes.length; split++) {
+            HttpResponse.BodySubscriber<FcmMessageResponse> subscriber = serializer.createCompactBodySubscriber(true);
+
+            feed(subscriber, Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+
+            CompactFcmMessageResponse response = (CompactFcmMessageResponse) subscriber.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+            Assert.assertEquals(108, response.getMulticastId());
+            Assert.assertEquals(1, response.getNumberOfCanonicalIds());
+            Assert.assertEquals(3, response.getNumberOfResults());
+
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(expected.getResults().get(i).toString(), response.getResults().get(i).toString());
+            }
+        }
+    }
+
+    @Test
+    public void invalidJsonFailsWithSerializationExceptionTest() throws Exception {
+
+        HttpResponse.BodySubscriber<FcmMessageResponse> subscriber = serializer.createBodySubscriber(FcmMessageResponse.class);
+
+        feed(subscriber, "<html>Error</html>".getBytes(StandardCharsets.UTF_8));
+
+        try {
+            subscriber.getBody().toCompletableFuture().get(5, TimeUnit.SECONDS);
+            Assert.fail("Expected a SerializationException");
+        } catch (ExecutionException e) {
+            Assert.assertEquals(SerializationException.class, e.getCause().getClass());
+        }
+    }
+
+    private static void feed(HttpResponse.BodySubscriber<?> subscriber, byte[]... chunks) {
+        subscriber.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        for (byte[] chunk : chunks) {
+            subscriber.onNext(Collections.singletonList(ByteBuffer.wrap(chunk)));
+        }
+        subscriber.onComplete();
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.shsmysore.fcmjava.client.tests.serializer.jackson;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import io.github.shsmysore.fcmjava.client.serializer.jackson.FcmJacksonModule;
+import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.model.topics.Topic;
+import io.github.shsmysore.fcmjava.model.topics.TopicList;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.data.DataUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.groups.AddDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.CreateDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.groups.RemoveDeviceGroupMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationUnicastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
+import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class FcmJacksonModuleTest {
+
+    private final ObjectMapper reflectiveMapper = new ObjectMapper();
+    private final ObjectMapper moduleMapper = new ObjectMapper().registerModule(new FcmJacksonModule());
+
+    @Test
+    public void messagesAreSerializedByteIdenticalTest() throws Exception {
+
+        List<FcmMessageOptions> options = Arrays.asList(
+                FcmMessageOptions.builder().build(),
+                new FcmMessageOptions("'a' in topics", "collapse", PriorityEnum.High, true, false, 60, "package", true, false),
+                new FcmMessageOptions(null, "collapse\"☃", PriorityEnum.Normal, null, true, 0, null, false, null));
+
+        List<NotificationPayload> notifications = Arrays.asList(
+                null,
+                NotificationPayload.builder().build(),
+                new NotificationPayload("Tïtle", "Body\n", "icon", "sound", "1", "tag", "#fff", "OPEN", "key", Arrays.asList("a", null), "title_key", Collections.emptyList(), "channel"));
+
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("text", "Grüße \"quoted\"");
+        data.put("number", 42);
+        data.put("nested", Collections.singletonMap("list", Arrays.asList(1, 2)));
+
+        List<String> registrationIds = Arrays.asList("id-1", "id\\2", "id/3");
+
+        List<Object> messages = new ArrayList<>();
+        for (FcmMessageOptions option : options) {
+            for (NotificationPayload notification : notifications) {
+                for (Object payload : Arrays.asList(null, data)) {
+                    messages.add(new DataMulticastMessage(option, registrationIds, payload, notification));
+                    messages.add(new DataUnicastMessage(option, "to", payload, notification));
+                    messages.add(new TopicUnicastMessage(option, new Topic("news"), payload, notification));
+                    messages.add(new TopicMulticastMessage(option, new TopicList(Arrays.asList(new Topic("a"), new Topic("b"))), payload, notification));
+                }
+                if (notification != null) {
+                    messages.add(new NotificationMulticastMessage(option, registrationIds, notification));
+                    messages.add(new NotificationUnicastMessage(option, "to", notification));
+                    messages.add(notification);
+                }
+            }
+            messages.add(new CreateDeviceGroupMessage(option, registrationIds, "name"));
+            messages.add(new AddDeviceGroupMessage(option, registrationIds, null, "key"));
+            messages.add(new RemoveDeviceGroupMessage(option, registrationIds, "name", "key"));
+            messages.add(new RemoveDeviceGroupMessage(option, registrationIds, null, null));
+        }
+
+        for (Object message : messages) {
+            Assert.assertArrayEquals(message.getClass().getSimpleName(), reflectiveMapper.writeValueAsBytes(message), moduleMapper.writeValueAsBytes(message));
+        }
+    }
+
+    @Test
+    public void responsesAreDeserializedLikeAnnotatedClassesTest() throws Exception {
+
+        String response = "{\"multicast_id\":108,\"success\":1,\"failure\":2,\"canonical_ids\":1,\"unknown\":{\"a\":[1]},\"results\":[" +
+                "{\"message_id\":\"1:0408\",\"registration_id\":\"canonical\"},{\"error\":\"Unavailable\",\"extra\":[]},null,{}]}";
+
+        Assert.assertEquals(
+                reflectiveMapper.readValue(response, FcmMessageResponse.class).toString(),
+                moduleMapper.readValue(response, FcmMessageResponse.class).toString());
+
+        Assert.assertEquals(
+                reflectiveMapper.readValue("{\"message_id\":\"123\"}", TopicMessageResponse.class).toString(),
+                moduleMapper.readValue("{\"message_id\":\"123\"}", TopicMessageResponse.class).toString());
+
+        Assert.assertEquals("key", moduleMapper.readValue("{\"other\":1,\"notification_key\":\"key\"}", CreateDeviceGroupMessageResponse.class).getNotificationKey());
+    }
+
+    @Test(expected = InvalidFormatException.class)
+    public void unknownErrorCodesFailTest() throws Exception {
+        moduleMapper.readValue("{\"message_id\":1,\"error\":\"SomethingNew\"}", TopicMessageResponse.class);
+    }
+}
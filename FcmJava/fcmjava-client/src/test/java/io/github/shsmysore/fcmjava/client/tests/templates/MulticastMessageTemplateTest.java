@@ -0,0 +1,102 @@
+package io.github.shsmysore.fcmjava.client.tests.templates;
+
+import io.github.shsmysore.fcmjava.client.serializer.JsonSerializer;
+import io.github.shsmysore.fcmjava.client.templates.MulticastMessageTemplate;
+import io.github.shsmysore.fcmjava.client.templates.PreSerializedMulticastMessage;
+import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
+import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
+import io.github.shsmysore.fcmjava.requests.data.DataMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationMulticastMessage;
+import io.github.shsmysore.fcmjava.requests.notification.NotificationPayload;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MulticastMessageTemplateTest {
+
+    private final JsonSerializer serializer = new JsonSerializer();
+
+    private final FcmMessageOptions options = FcmMessageOptions.builder()
+            .setPriorityEnum(PriorityEnum.High)
+            .setTimeToLive(Duration.ofMinutes(1))
+            .build();
+
+    @Test
+    public void dataTemplateMatchesSerializedMessageTest() {
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("registration_ids", "not the ones you are looking for");
+        data.put("text", "Grüße \"quoted\"");
+
+        List<String> registrationIds = Arrays.asList("token-1", "token-2", "token-3");
+
+        DataMulticastMessage message = new DataMulticastMessage(options, registrationIds, data);
+
+        MulticastMessageTemplate template = MulticastMessageTemplate.compile(message);
+        PreSerializedMulticastMessage preSerialized = template.toMessage(registrationIds);
+
+        String expected = serializer.serialize(message);
+
+        Assert.assertEquals(expected, new String(preSerialized.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertEquals(expected, serializer.serialize(preSerialized));
+    }
+
+    @Test
+    public void notificationTemplateMatchesSerializedMessageTest() {
+
+        NotificationPayload payload = NotificationPayload.builder()
+                .setTitle("Title")
+                .setBody("Body")
+                .build();
+
+        List<String> registrationIds = Collections.singletonList("token-1");
+
+        NotificationMulticastMessage message = new NotificationMulticastMessage(options, registrationIds, payload);
+
+        PreSerializedMulticastMessage preSerialized = MulticastMessageTemplate.compile(message).toMessage(registrationIds);
+
+        Assert.assertEquals(serializer.serialize(message), new String(preSerialized.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void registrationIdsAreEscapedTest() {
+
+        List<String> registrationIds = Arrays.asList("a\"b", "c\\d", "e\nf");
+
+        DataMulticastMessage message = new DataMulticastMessage(options, registrationIds, Collections.singletonMap("key", "value"));
+
+        PreSerializedMulticastMessage preSerialized = MulticastMessageTemplate.compile(message).toMessage(registrationIds);
+
+        DataMulticastMessage roundTrip = new DataMulticastMessage(options, registrationIds, Collections.singletonMap("key", "value"));
+
+        Map<?, ?> expected = serializer.deserialize(serializer.serialize(roundTrip), Map.class);
+        Map<?, ?> actual = serializer.deserialize(new String(preSerialized.toByteArray(), StandardCharsets.UTF_8), Map.class);
+
+        Assert.assertEquals(expected, actual);
+    }
+
+    @Test
+    public void escapedRegistrationIdFillingBufferTest() {
+
+        // The escaped second Registration ID fills a buffer of its own, up to the closing bracket:
+        char[] escaped = new char[2000];
+        Arrays.fill(escaped, '\u00e9');
+        List<String> registrationIds = Arrays.asList("a", new String(escaped));
+
+        DataMulticastMessage message = new DataMulticastMessage(options, registrationIds, Collections.singletonMap("key", "value"));
+
+        PreSerializedMulticastMessage preSerialized = MulticastMessageTemplate.compile(message).toMessage(registrationIds);
+
+        Map<?, ?> expected = serializer.deserialize(serializer.serialize(message), Map.class);
+        Map<?, ?> actual = serializer.deserialize(new String(preSerialized.toByteArray(), StandardCharsets.UTF_8), Map.class);
+
+        Assert.assertEquals(expected, actual);
+    }
+}
@@ -0,0 +1,19 @@
+// Copyright (c) Philipp Wagner. All rights reserved.
+// Licensed under the MIT license. See LICENSE file in the project root for full license information.
+
+package io.github.shsmysore.fcmjava.client.tests.testutils;
+
+import io.github.shsmysore.fcmjava.http.options.IFcmClientSettings;
+
+public class FakeFcmClientSettings implements IFcmClientSettings {
+
+    @Override
+    public String getFcmUrl() {
+        return "";
+    }
+
+    @Override
+    public String getApiKey() {
+        return "";
+    }
+}
@@ -0,0 +1,73 @@
+package io.github.shsmysore.fcmjava.client.tests.testutils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local HTTP/1.1 server standing in for the FCM endpoint.
+ */
+public class StubFcmServer implements AutoCloseable {
+
+    @FunctionalInterface
+    public interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile String lastRequestBody;
+    private volatile Handler handler = exchange -> respond(exchange, 200, "{}");
+
+    public StubFcmServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/send", exchange -> {
+            requestCount.incrementAndGet();
+            lastRequestBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                handler.handle(exchange);
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/send";
+    }
+
+    public int getRequestCount() {
+        return requestCount.get();
+    }
+
+    public String getLastRequestBody() {
+        return lastRequestBody;
+    }
+
+    public void setHandler(Handler handler) {
+        this.handler = handler;
+    }
+
+    public static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
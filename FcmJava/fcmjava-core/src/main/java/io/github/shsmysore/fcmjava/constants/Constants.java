@@ -12,4 +12,9 @@ public class Constants {
      */
     public static String FCM_URL = "https://fcm.googleapis.com/fcm/send";
 
+    /**
+     * The maximum number of Registration IDs FCM accepts in a single multicast message.
+     */
+    public static final int MAX_REGISTRATION_IDS = 1000;
+
 }
@@ -14,6 +14,7 @@ import io.github.shsmysore.fcmjava.requests.topic.TopicMulticastMessage;
 import io.github.shsmysore.fcmjava.requests.topic.TopicUnicastMessage;
 import io.github.shsmysore.fcmjava.responses.CreateDeviceGroupMessageResponse;
 import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
 import io.github.shsmysore.fcmjava.responses.TopicMessageResponse;
 
 import java.util.concurrent.CompletableFuture;
@@ -57,4 +58,45 @@ public interface IFcmClient {
 
     CompletableFuture<Void> sendAsync(AddDeviceGroupMessage message);
 
+    // Results
+    //
+    // The trySendAsync methods complete with a result instead of failing with an FcmException, when FCM rejects
+    // a request. Only unexpected errors fail the returned future. These default implementations turn the
+    // exceptions of sendAsync into results, implementations should override them to not create the exceptions.
+    default CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(DataMulticastMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(NotificationMulticastMessage notification) {
+        return FcmResult.of(sendAsync(notification));
+    }
+
+    default CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(DataUnicastMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<FcmMessageResponse>> trySendAsync(NotificationUnicastMessage notification) {
+        return FcmResult.of(sendAsync(notification));
+    }
+
+    default CompletableFuture<FcmResult<CreateDeviceGroupMessageResponse>> trySendAsync(CreateDeviceGroupMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<TopicMessageResponse>> trySendAsync(TopicUnicastMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<TopicMessageResponse>> trySendAsync(TopicMulticastMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<Void>> trySendAsync(RemoveDeviceGroupMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
+    default CompletableFuture<FcmResult<Void>> trySendAsync(AddDeviceGroupMessage message) {
+        return FcmResult.of(sendAsync(message));
+    }
+
 }
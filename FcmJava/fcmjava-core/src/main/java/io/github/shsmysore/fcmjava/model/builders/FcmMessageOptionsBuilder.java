@@ -19,6 +19,7 @@ public class FcmMessageOptionsBuilder {
     private String restrictedPackageName = null;
     private Boolean dryRun = null;
     private Boolean mutableContent = null;
+    private Duration deadline = null;
 
     public FcmMessageOptionsBuilder setCondition(String condition) {
         this.condition = condition;
@@ -74,7 +75,13 @@ public class FcmMessageOptionsBuilder {
         return this;
     }
 
+    public FcmMessageOptionsBuilder setDeadline(Duration deadline) {
+        this.deadline = deadline;
+
+        return this;
+    }
+
     public FcmMessageOptions build() {
-        return new FcmMessageOptions(condition, collapseKey, priorityEnum, contentAvailable, delayWhileIdle, timeToLive, restrictedPackageName, dryRun, mutableContent);
+        return new FcmMessageOptions(condition, collapseKey, priorityEnum, contentAvailable, delayWhileIdle, timeToLive, restrictedPackageName, dryRun, mutableContent, deadline);
     }
 }
@@ -7,6 +7,9 @@ package io.github.shsmysore.fcmjava.model.options;
 import io.github.shsmysore.fcmjava.model.builders.FcmMessageOptionsBuilder;
 import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
 
+import java.time.Duration;
+import java.util.Objects;
+
 public class FcmMessageOptions {
 
     private final String condition;
@@ -18,8 +21,13 @@ public class FcmMessageOptions {
     private final String restrictedPackageName;
     private final Boolean dryRun;
     private final Boolean mutableContent;
+    private final Duration deadline;
 
     public FcmMessageOptions(String condition, String collapseKey, PriorityEnum priorityEnum, Boolean contentAvailable, Boolean delayWhileIdle, int timeToLive, String restrictedPackageName, Boolean dryRun, Boolean mutableContent) {
+        this(condition, collapseKey, priorityEnum, contentAvailable, delayWhileIdle, timeToLive, restrictedPackageName, dryRun, mutableContent, null);
+    }
+
+    public FcmMessageOptions(String condition, String collapseKey, PriorityEnum priorityEnum, Boolean contentAvailable, Boolean delayWhileIdle, int timeToLive, String restrictedPackageName, Boolean dryRun, Boolean mutableContent, Duration deadline) {
         this.condition = condition;
         this.collapseKey = collapseKey;
         this.priorityEnum = priorityEnum;
@@ -29,6 +37,7 @@ public class FcmMessageOptions {
         this.restrictedPackageName = restrictedPackageName;
         this.dryRun = dryRun;
         this.mutableContent = mutableContent;
+        this.deadline = deadline;
     }
 
     public String getCondition() {
@@ -67,6 +76,41 @@ public class FcmMessageOptions {
         return mutableContent;
     }
 
+    /**
+     * Gets the time the client may spend sending the message, including all retries. It is not sent to FCM.
+     *
+     * @return Deadline or null, if the defaults of the client apply
+     */
+    public Duration getDeadline() {
+        return deadline;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FcmMessageOptions that = (FcmMessageOptions) o;
+        return timeToLive == that.timeToLive &&
+                Objects.equals(condition, that.condition) &&
+                Objects.equals(collapseKey, that.collapseKey) &&
+                priorityEnum == that.priorityEnum &&
+                Objects.equals(contentAvailable, that.contentAvailable) &&
+                Objects.equals(delayWhileIdle, that.delayWhileIdle) &&
+                Objects.equals(restrictedPackageName, that.restrictedPackageName) &&
+                Objects.equals(dryRun, that.dryRun) &&
+                Objects.equals(mutableContent, that.mutableContent) &&
+                Objects.equals(deadline, that.deadline);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(condition, collapseKey, priorityEnum, contentAvailable, delayWhileIdle, timeToLive, restrictedPackageName, dryRun, mutableContent, deadline);
+    }
+
     public static FcmMessageOptionsBuilder builder() {
         return new FcmMessageOptionsBuilder();
     }
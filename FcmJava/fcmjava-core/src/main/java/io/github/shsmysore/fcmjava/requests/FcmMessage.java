@@ -3,10 +3,17 @@
 
 package io.github.shsmysore.fcmjava.requests;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.github.shsmysore.fcmjava.model.enums.PriorityEnum;
 import io.github.shsmysore.fcmjava.model.options.FcmMessageOptions;
 
+// The order of getters returned by reflection is not stable, so pin the order of the properties:
+@JsonPropertyOrder({
+        "to", "registration_ids", "condition", "collapse_key", "priority", "content_available", "delay_while_idle", "time_to_live",
+        "restricted_package_name", "dry_run", "mutable_content", "data", "notification", "operation", "notification_key_name", "notification_key"
+})
 public abstract class FcmMessage<TPayload> {
 
     private final FcmMessageOptions options;
@@ -18,6 +25,11 @@ public abstract class FcmMessage<TPayload> {
         this.options = options;
     }
 
+    @JsonIgnore
+    public FcmMessageOptions getOptions() {
+        return options;
+    }
+
     @JsonProperty("condition")
     public String getCondition() {
         return options.getCondition();
@@ -5,11 +5,17 @@ package io.github.shsmysore.fcmjava.requests.notification;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 import io.github.shsmysore.fcmjava.requests.builders.NotificationPayloadBuilder;
 
 import java.util.List;
+import java.util.Objects;
 
 @JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonPropertyOrder({
+        "title", "body", "icon", "sound", "badge", "tag", "color", "click_action", "body_loc_key", "body_loc_args",
+        "title_loc_key", "title_loc_args", "android_channel_id"
+})
 public class NotificationPayload {
     private final String title;
     private final String body;
@@ -106,6 +112,35 @@ public class NotificationPayload {
         return androidChannelId;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        NotificationPayload that = (NotificationPayload) o;
+        return Objects.equals(title, that.title) &&
+                Objects.equals(body, that.body) &&
+                Objects.equals(icon, that.icon) &&
+                Objects.equals(sound, that.sound) &&
+                Objects.equals(badge, that.badge) &&
+                Objects.equals(tag, that.tag) &&
+                Objects.equals(color, that.color) &&
+                Objects.equals(clickAction, that.clickAction) &&
+                Objects.equals(bodyLocKey, that.bodyLocKey) &&
+                Objects.equals(bodyLocKeyArgs, that.bodyLocKeyArgs) &&
+                Objects.equals(titleLocKey, that.titleLocKey) &&
+                Objects.equals(titleLocKeyArgs, that.titleLocKeyArgs) &&
+                Objects.equals(androidChannelId, that.androidChannelId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(title, body, icon, sound, badge, tag, color, clickAction, bodyLocKey, bodyLocKeyArgs, titleLocKey, titleLocKeyArgs, androidChannelId);
+    }
+
     public static NotificationPayloadBuilder builder() {
         return new NotificationPayloadBuilder();
     }
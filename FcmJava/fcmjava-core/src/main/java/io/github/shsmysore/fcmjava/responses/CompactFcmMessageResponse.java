@@ -0,0 +1,277 @@
+package io.github.shsmysore.fcmjava.responses;
+
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.builders.CompactFcmMessageResponseBuilder;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A FcmMessageResponse, which stores its results in primitive arrays instead of a FcmMessageResultItem per token.
+ *
+ * Error Codes are stored as a byte per result. Message IDs and Canonical Registration IDs are only stored for the
+ * results that have them, sorted by the index of the result. Message IDs may also be discarded altogether, if they
+ * are never inspected. {@link #getResults()} returns a view, which creates the FcmMessageResultItem on access, so
+ * prefer the index-based getters and the {@link #failures()} and {@link #canonicalIds()} cursors.
+ */
+public class CompactFcmMessageResponse extends FcmMessageResponse {
+
+    private static final ErrorCodeEnum[] ERROR_CODES = ErrorCodeEnum.values();
+
+    private final int numberOfResults;
+    private final byte[] errorCodes;
+    private final int[] messageIdIndices;
+    private final String[] messageIds;
+    private final int[] canonicalIdIndices;
+    private final String[] canonicalIds;
+    private final List<FcmMessageResultItem> results;
+
+    /**
+     * Creates a CompactFcmMessageResponse. Use the {@link CompactFcmMessageResponseBuilder} instead of passing the
+     * arrays directly.
+     *
+     * @param multicastId Multicast ID of the response
+     * @param numberOfSuccess Number of successful results
+     * @param numberOfFailure Number of failed results
+     * @param numberOfCanonicalIds Number of Canonical Registration IDs
+     * @param numberOfResults Number of results
+     * @param errorCodes Ordinal of the ErrorCodeEnum plus one for every result, 0 if a result has no error
+     * @param messageIdIndices Sorted indices of the results with a Message ID
+     * @param messageIds Message IDs of these results
+     * @param canonicalIdIndices Sorted indices of the results with a Canonical Registration ID
+     * @param canonicalIds Canonical Registration IDs of these results
+     */
+    public CompactFcmMessageResponse(long multicastId, int numberOfSuccess, int numberOfFailure, int numberOfCanonicalIds, int numberOfResults,
+                                     byte[] errorCodes, int[] messageIdIndices, String[] messageIds, int[] canonicalIdIndices, String[] canonicalIds) {
+        super(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, null);
+
+        if (errorCodes == null || errorCodes.length < numberOfResults) {
+            throw new IllegalArgumentException("errorCodes");
+        }
+
+        if (messageIdIndices == null || messageIds == null || messageIds.length < messageIdIndices.length) {
+            throw new IllegalArgumentException("messageIds");
+        }
+
+        if (canonicalIdIndices == null || canonicalIds == null || canonicalIds.length < canonicalIdIndices.length) {
+            throw new IllegalArgumentException("canonicalIds");
+        }
+
+        this.numberOfResults = numberOfResults;
+        this.errorCodes = errorCodes;
+        this.messageIdIndices = messageIdIndices;
+        this.messageIds = messageIds;
+        this.canonicalIdIndices = canonicalIdIndices;
+        this.canonicalIds = canonicalIds;
+        this.results = new ResultList();
+    }
+
+    /**
+     * Converts a FcmMessageResponse into its compact representation.
+     *
+     * @param response Response to convert
+     * @param retainMessageIds true, if the Message IDs should be kept
+     * @return Compact response
+     */
+    public static CompactFcmMessageResponse of(FcmMessageResponse response, boolean retainMessageIds) {
+        if (response instanceof CompactFcmMessageResponse && (retainMessageIds || ((CompactFcmMessageResponse) response).messageIdIndices.length == 0)) {
+            return (CompactFcmMessageResponse) response;
+        }
+
+        CompactFcmMessageResponseBuilder builder = builder()
+                .setMulticastId(response.getMulticastId())
+                .setNumberOfSuccess(response.getNumberOfSuccess())
+                .setNumberOfFailure(response.getNumberOfFailure())
+                .setNumberOfCanonicalIds(response.getNumberOfCanonicalIds())
+                .setRetainMessageIds(retainMessageIds);
+
+        if (response.getResults() != null) {
+            for (FcmMessageResultItem resultItem : response.getResults()) {
+                builder.addResult(resultItem);
+            }
+        }
+
+        return builder.build();
+    }
+
+    public static CompactFcmMessageResponseBuilder builder() {
+        return new CompactFcmMessageResponseBuilder();
+    }
+
+    /**
+     * Gets the number of results.
+     *
+     * @return Number of results
+     */
+    public int getNumberOfResults() {
+        return numberOfResults;
+    }
+
+    /**
+     * Gets the Error Code of a result.
+     *
+     * @param index Index of the result
+     * @return Error Code or null, if the result has no error
+     */
+    public ErrorCodeEnum getErrorCode(int index) {
+        checkIndex(index);
+
+        return toErrorCode(errorCodes[index]);
+    }
+
+    /**
+     * Gets the Message ID of a result.
+     *
+     * @param index Index of the result
+     * @return Message ID or null, if the result has none or Message IDs have been discarded
+     */
+    public String getMessageId(int index) {
+        checkIndex(index);
+
+        return lookup(messageIdIndices, messageIds, index);
+    }
+
+    /**
+     * Gets the Canonical Registration ID of a result.
+     *
+     * @param index Index of the result
+     * @return Canonical Registration ID or null, if the result has none
+     */
+    public String getCanonicalRegistrationId(int index) {
+        checkIndex(index);
+
+        return lookup(canonicalIdIndices, canonicalIds, index);
+    }
+
+    /**
+     * Creates a cursor over the failed results, which skips all successful results.
+     *
+     * @return Cursor over the failed results
+     */
+    public FailureCursor failures() {
+        return new FailureCursor();
+    }
+
+    /**
+     * Creates a cursor over the results with a Canonical Registration ID.
+     *
+     * @return Cursor over the Canonical Registration IDs
+     */
+    public CanonicalIdCursor canonicalIds() {
+        return new CanonicalIdCursor();
+    }
+
+    /**
+     * Gets a read-only view of the results, which creates a FcmMessageResultItem for every access.
+     *
+     * @return View of the results
+     */
+    @Override
+    public List<FcmMessageResultItem> getResults() {
+        return results;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= numberOfResults) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + numberOfResults);
+        }
+    }
+
+    private static ErrorCodeEnum toErrorCode(byte errorCode) {
+        return errorCode == 0 ? null : ERROR_CODES[errorCode - 1];
+    }
+
+    private static String lookup(int[] indices, String[] values, int index) {
+        int position = Arrays.binarySearch(indices, index);
+
+        return position < 0 ? null : values[position];
+    }
+
+    @Override
+    public String toString() {
+        return "CompactFcmMessageResponse{" +
+                "multicastId=" + getMulticastId() +
+                ", numberOfSuccess=" + getNumberOfSuccess() +
+                ", numberOfFailure=" + getNumberOfFailure() +
+                ", numberOfCanonicalIds=" + getNumberOfCanonicalIds() +
+                ", numberOfResults=" + numberOfResults +
+                '}';
+    }
+
+    /**
+     * Cursor over the failed results. Call {@link #next()} before reading the first result.
+     */
+    public final class FailureCursor {
+
+        private int index = -1;
+
+        private FailureCursor() {
+        }
+
+        /**
+         * Moves to the next failed result.
+         *
+         * @return true, if there is another failed result
+         */
+        public boolean next() {
+            while (++index < numberOfResults) {
+                if (errorCodes[index] != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public ErrorCodeEnum getErrorCode() {
+            return toErrorCode(errorCodes[index]);
+        }
+    }
+
+    /**
+     * Cursor over the results with a Canonical Registration ID. Call {@link #next()} before reading the first result.
+     */
+    public final class CanonicalIdCursor {
+
+        private int position = -1;
+
+        private CanonicalIdCursor() {
+        }
+
+        /**
+         * Moves to the next result with a Canonical Registration ID.
+         *
+         * @return true, if there is another Canonical Registration ID
+         */
+        public boolean next() {
+            return ++position < canonicalIdIndices.length;
+        }
+
+        public int getIndex() {
+            return canonicalIdIndices[position];
+        }
+
+        public String getCanonicalRegistrationId() {
+            return canonicalIds[position];
+        }
+    }
+
+    private class ResultList extends AbstractList<FcmMessageResultItem> {
+
+        @Override
+        public FcmMessageResultItem get(int index) {
+            checkIndex(index);
+
+            return new FcmMessageResultItem(lookup(messageIdIndices, messageIds, index), lookup(canonicalIdIndices, canonicalIds, index), toErrorCode(errorCodes[index]));
+        }
+
+        @Override
+        public int size() {
+            return numberOfResults;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.shsmysore.fcmjava.responses;
+
+import io.github.shsmysore.fcmjava.exceptions.FcmAuthenticationException;
+import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
+import io.github.shsmysore.fcmjava.exceptions.FcmException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * The outcome of a request to FCM, which reports the expected failures as a value instead of an exception.
+ *
+ * A result is exactly one of Success, RetryableFailure, PermanentFailure or AuthenticationFailure. The constructor
+ * is private, so there are no other subclasses.
+ *
+ * @param <TResponse> Type of the response message
+ */
+public abstract class FcmResult<TResponse> {
+
+    private final int httpStatusCode;
+
+    private FcmResult(int httpStatusCode) {
+        this.httpStatusCode = httpStatusCode;
+    }
+
+    public int getHttpStatusCode() {
+        return httpStatusCode;
+    }
+
+    /**
+     * Returns true, if FCM accepted the request. Only a Success has a response.
+     *
+     * @return true, if this is a Success
+     */
+    public boolean isSuccess() {
+        return false;
+    }
+
+    public static <TResponse> Success<TResponse> success(int httpStatusCode, TResponse response) {
+        return new Success<>(httpStatusCode, response);
+    }
+
+    public static <TResponse> RetryableFailure<TResponse> retryableFailure(int httpStatusCode, Duration retryAfter) {
+        return new RetryableFailure<>(httpStatusCode, retryAfter);
+    }
+
+    public static <TResponse> PermanentFailure<TResponse> permanentFailure(int httpStatusCode) {
+        return new PermanentFailure<>(httpStatusCode);
+    }
+
+    public static <TResponse> AuthenticationFailure<TResponse> authenticationFailure(int httpStatusCode) {
+        return new AuthenticationFailure<>(httpStatusCode);
+    }
+
+    /**
+     * Turns the FcmExceptions of a future into results. All other errors still fail the returned future.
+     *
+     * @param future Future of a response
+     * @param <TResponse> Type of the response message
+     * @return Future completing with the result
+     */
+    public static <TResponse> CompletableFuture<FcmResult<TResponse>> of(CompletableFuture<TResponse> future) {
+        return future.handle((response, error) -> {
+            if (error == null) {
+                return success(200, response);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof FcmAuthenticationException) {
+                return authenticationFailure(((FcmException) cause).getHttpStatusCode());
+            }
+            if (cause instanceof FcmBadRequestException) {
+                return permanentFailure(((FcmException) cause).getHttpStatusCode());
+            }
+            if (cause instanceof FcmRetryAfterException) {
+                return retryableFailure(((FcmException) cause).getHttpStatusCode(), ((FcmRetryAfterException) cause).getRetryDelay());
+            }
+            if (cause instanceof FcmException) {
+                int httpStatusCode = ((FcmException) cause).getHttpStatusCode();
+                return httpStatusCode >= 500 ? retryableFailure(httpStatusCode, null) : permanentFailure(httpStatusCode);
+            }
+            throw error instanceof CompletionException ? (CompletionException) error : new CompletionException(error);
+        });
+    }
+
+    /**
+     * FCM accepted the request. The response may still contain errors for single Registration IDs.
+     */
+    public static final class Success<TResponse> extends FcmResult<TResponse> {
+
+        private final TResponse response;
+
+        private Success(int httpStatusCode, TResponse response) {
+            super(httpStatusCode);
+
+            this.response = response;
+        }
+
+        @Override
+        public boolean isSuccess() {
+            return true;
+        }
+
+        public TResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public String toString() {
+            return "Success{" +
+                    "httpStatusCode=" + getHttpStatusCode() +
+                    ", response=" + response +
+                    '}';
+        }
+    }
+
+    /**
+     * FCM failed to process the request. The request may be sent again, but not before the Retry-After delay.
+     */
+    public static final class RetryableFailure<TResponse> extends FcmResult<TResponse> {
+
+        private final Duration retryAfter;
+
+        private RetryableFailure(int httpStatusCode, Duration retryAfter) {
+            super(httpStatusCode);
+
+            this.retryAfter = retryAfter;
+        }
+
+        /**
+         * Gets the delay FCM asked for with the Retry-After Header.
+         *
+         * @return Retry-After delay, or null if FCM did not send the header
+         */
+        public Duration getRetryAfter() {
+            return retryAfter;
+        }
+
+        @Override
+        public String toString() {
+            return "RetryableFailure{" +
+                    "httpStatusCode=" + getHttpStatusCode() +
+                    ", retryAfter=" + retryAfter +
+                    '}';
+        }
+    }
+
+    /**
+     * FCM rejected the request, for example because it is malformed. Sending it again fails the same way.
+     */
+    public static final class PermanentFailure<TResponse> extends FcmResult<TResponse> {
+
+        private PermanentFailure(int httpStatusCode) {
+            super(httpStatusCode);
+        }
+
+        @Override
+        public String toString() {
+            return "PermanentFailure{" +
+                    "httpStatusCode=" + getHttpStatusCode() +
+                    '}';
+        }
+    }
+
+    /**
+     * FCM rejected the API Key of the request.
+     */
+    public static final class AuthenticationFailure<TResponse> extends FcmResult<TResponse> {
+
+        private AuthenticationFailure(int httpStatusCode) {
+            super(httpStatusCode);
+        }
+
+        @Override
+        public String toString() {
+            return "AuthenticationFailure{" +
+                    "httpStatusCode=" + getHttpStatusCode() +
+                    '}';
+        }
+    }
+}
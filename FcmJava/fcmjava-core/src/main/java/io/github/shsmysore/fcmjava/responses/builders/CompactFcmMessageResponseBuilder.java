@@ -0,0 +1,155 @@
+package io.github.shsmysore.fcmjava.responses.builders;
+
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResultItem;
+
+import java.util.Arrays;
+
+/**
+ * Collects the results of a response in growing primitive arrays. Results have to be added in order.
+ */
+public class CompactFcmMessageResponseBuilder {
+
+    private static final int[] EMPTY_INDICES = new int[0];
+    private static final String[] EMPTY_VALUES = new String[0];
+
+    private long multicastId;
+    private int numberOfSuccess;
+    private int numberOfFailure;
+    private int numberOfCanonicalIds;
+    private boolean retainMessageIds = true;
+
+    private int numberOfResults;
+    private byte[] errorCodes = new byte[16];
+    private int numberOfMessageIds;
+    private int[] messageIdIndices = EMPTY_INDICES;
+    private String[] messageIds = EMPTY_VALUES;
+    private int numberOfCanonicalIdsAdded;
+    private int[] canonicalIdIndices = EMPTY_INDICES;
+    private String[] canonicalIds = EMPTY_VALUES;
+
+    public CompactFcmMessageResponseBuilder setMulticastId(long multicastId) {
+        this.multicastId = multicastId;
+
+        return this;
+    }
+
+    public CompactFcmMessageResponseBuilder setNumberOfSuccess(int numberOfSuccess) {
+        this.numberOfSuccess = numberOfSuccess;
+
+        return this;
+    }
+
+    public CompactFcmMessageResponseBuilder setNumberOfFailure(int numberOfFailure) {
+        this.numberOfFailure = numberOfFailure;
+
+        return this;
+    }
+
+    public CompactFcmMessageResponseBuilder setNumberOfCanonicalIds(int numberOfCanonicalIds) {
+        this.numberOfCanonicalIds = numberOfCanonicalIds;
+
+        return this;
+    }
+
+    public CompactFcmMessageResponseBuilder setRetainMessageIds(boolean retainMessageIds) {
+        this.retainMessageIds = retainMessageIds;
+
+        return this;
+    }
+
+    /**
+     * Sets the expected number of results, so the arrays do not have to grow while adding them.
+     *
+     * @param expectedNumberOfResults Expected number of results
+     * @return This builder
+     */
+    public CompactFcmMessageResponseBuilder setExpectedNumberOfResults(int expectedNumberOfResults) {
+        if (expectedNumberOfResults > errorCodes.length) {
+            errorCodes = Arrays.copyOf(errorCodes, expectedNumberOfResults);
+        }
+
+        return this;
+    }
+
+    public CompactFcmMessageResponseBuilder addResult(FcmMessageResultItem resultItem) {
+        if (resultItem == null) {
+            throw new IllegalArgumentException("resultItem");
+        }
+
+        return addResult(resultItem.getMessageId(), resultItem.getCanonicalRegistrationId(), resultItem.getErrorCode());
+    }
+
+    public CompactFcmMessageResponseBuilder addResult(String messageId, String canonicalRegistrationId, ErrorCodeEnum errorCode) {
+        int index = numberOfResults++;
+
+        if (index == errorCodes.length) {
+            errorCodes = Arrays.copyOf(errorCodes, index * 2);
+        }
+
+        errorCodes[index] = errorCode == null ? 0 : (byte) (errorCode.ordinal() + 1);
+
+        if (messageId != null && retainMessageIds) {
+            if (numberOfMessageIds == messageIds.length) {
+                int capacity = Math.max(16, numberOfMessageIds * 2);
+                messageIdIndices = Arrays.copyOf(messageIdIndices, capacity);
+                messageIds = Arrays.copyOf(messageIds, capacity);
+            }
+            messageIdIndices[numberOfMessageIds] = index;
+            messageIds[numberOfMessageIds] = messageId;
+            numberOfMessageIds++;
+        }
+
+        if (canonicalRegistrationId != null) {
+            addCanonicalId(index, canonicalRegistrationId);
+        }
+
+        return this;
+    }
+
+    private void addCanonicalId(int index, String canonicalRegistrationId) {
+        if (numberOfCanonicalIdsAdded == canonicalIds.length) {
+            int capacity = Math.max(4, numberOfCanonicalIdsAdded * 2);
+            canonicalIdIndices = Arrays.copyOf(canonicalIdIndices, capacity);
+            canonicalIds = Arrays.copyOf(canonicalIds, capacity);
+        }
+        canonicalIdIndices[numberOfCanonicalIdsAdded] = index;
+        canonicalIds[numberOfCanonicalIdsAdded] = canonicalRegistrationId;
+        numberOfCanonicalIdsAdded++;
+    }
+
+    /**
+     * Appends all results of another compact response, without creating a FcmMessageResultItem for them.
+     *
+     * @param response Response with the results to append
+     * @return This builder
+     */
+    public CompactFcmMessageResponseBuilder addResults(CompactFcmMessageResponse response) {
+        if (response == null) {
+            throw new IllegalArgumentException("response");
+        }
+
+        setExpectedNumberOfResults(numberOfResults + response.getNumberOfResults());
+
+        for (int i = 0; i < response.getNumberOfResults(); i++) {
+            addResult(retainMessageIds ? response.getMessageId(i) : null, null, response.getErrorCode(i));
+        }
+
+        // Canonical Registration IDs are rare, so patch them in afterwards instead of looking them up for every result:
+        int offset = numberOfResults - response.getNumberOfResults();
+        CompactFcmMessageResponse.CanonicalIdCursor cursor = response.canonicalIds();
+        while (cursor.next()) {
+            addCanonicalId(offset + cursor.getIndex(), cursor.getCanonicalRegistrationId());
+        }
+
+        return this;
+    }
+
+    public CompactFcmMessageResponse build() {
+        return new CompactFcmMessageResponse(multicastId, numberOfSuccess, numberOfFailure, numberOfCanonicalIds, numberOfResults,
+                Arrays.copyOf(errorCodes, numberOfResults),
+                Arrays.copyOf(messageIdIndices, numberOfMessageIds), Arrays.copyOf(messageIds, numberOfMessageIds),
+                Arrays.copyOf(canonicalIdIndices, numberOfCanonicalIdsAdded), Arrays.copyOf(canonicalIds, numberOfCanonicalIdsAdded));
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.shsmysore.fcmjava.test.responses;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.shsmysore.fcmjava.model.enums.ErrorCodeEnum;
+import io.github.shsmysore.fcmjava.responses.CompactFcmMessageResponse;
+import io.github.shsmysore.fcmjava.responses.FcmMessageResponse;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompactFcmMessageResponseTest {
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String RESPONSE = "{\"multicast_id\":108,\"success\":3,\"failure\":2,\"canonical_ids\":1,\"results\":[" +
+            "{\"message_id\":\"1:0408\"}," +
+            "{\"error\":\"Unavailable\"}," +
+            "{\"message_id\":\"1:1516\",\"registration_id\":\"canonical\"}," +
+            "{\"error\":\"InvalidApnsCredential\"}," +
+            "{\"message_id\":\"1:2342\"}]}";
+
+    @Test
+    public void compactResponseMatchesResponseTest() throws Exception {
+        FcmMessageResponse response = mapper.readValue(RESPONSE, FcmMessageResponse.class);
+
+        CompactFcmMessageResponse compact = CompactFcmMessageResponse.of(response, true);
+
+        Assert.assertEquals(108, compact.getMulticastId());
+        Assert.assertEquals(3, compact.getNumberOfSuccess());
+        Assert.assertEquals(2, compact.getNumberOfFailure());
+        Assert.assertEquals(1, compact.getNumberOfCanonicalIds());
+        Assert.assertEquals(5, compact.getNumberOfResults());
+
+        for (int i = 0; i < response.getResults().size(); i++) {
+            Assert.assertEquals(response.getResults().get(i).getMessageId(), compact.getMessageId(i));
+            Assert.assertEquals(response.getResults().get(i).getCanonicalRegistrationId(), compact.getCanonicalRegistrationId(i));
+            Assert.assertEquals(response.getResults().get(i).getErrorCode(), compact.getErrorCode(i));
+            Assert.assertEquals(response.getResults().get(i).toString(), compact.getResults().get(i).toString());
+        }
+    }
+
+    @Test
+    public void cursorsOnlyVisitFailuresAndCanonicalIdsTest() throws Exception {
+        CompactFcmMessageResponse compact = CompactFcmMessageResponse.of(mapper.readValue(RESPONSE, FcmMessageResponse.class), false);
+
+        CompactFcmMessageResponse.FailureCursor failures = compact.failures();
+
+        Assert.assertTrue(failures.next());
+        Assert.assertEquals(1, failures.getIndex());
+        Assert.assertEquals(ErrorCodeEnum.Unavailable, failures.getErrorCode());
+        Assert.assertTrue(failures.next());
+        Assert.assertEquals(3, failures.getIndex());
+        Assert.assertEquals(ErrorCodeEnum.InvalidApnsCredential, failures.getErrorCode());
+        Assert.assertFalse(failures.next());
+
+        CompactFcmMessageResponse.CanonicalIdCursor canonicalIds = compact.canonicalIds();
+
+        Assert.assertTrue(canonicalIds.next());
+        Assert.assertEquals(2, canonicalIds.getIndex());
+        Assert.assertEquals("canonical", canonicalIds.getCanonicalRegistrationId());
+        Assert.assertFalse(canonicalIds.next());
+
+        // Message IDs have been discarded:
+        Assert.assertNull(compact.getMessageId(0));
+    }
+
+    @Test
+    public void appendedResultsKeepTheirIndicesTest() throws Exception {
+        CompactFcmMessageResponse compact = CompactFcmMessageResponse.of(mapper.readValue(RESPONSE, FcmMessageResponse.class), true);
+
+        CompactFcmMessageResponse merged = CompactFcmMessageResponse.builder()
+                .addResults(compact)
+                .addResults(compact)
+                .build();
+
+        Assert.assertEquals(10, merged.getNumberOfResults());
+        Assert.assertEquals("canonical", merged.getCanonicalRegistrationId(7));
+        Assert.assertEquals("1:2342", merged.getMessageId(9));
+        Assert.assertEquals(ErrorCodeEnum.Unavailable, merged.getErrorCode(6));
+        Assert.assertNull(merged.getCanonicalRegistrationId(5));
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.shsmysore.fcmjava.test.responses;
+
+import io.github.shsmysore.fcmjava.exceptions.FcmAuthenticationException;
+import io.github.shsmysore.fcmjava.exceptions.FcmBadRequestException;
+import io.github.shsmysore.fcmjava.exceptions.FcmGeneralException;
+import io.github.shsmysore.fcmjava.exceptions.FcmRetryAfterException;
+import io.github.shsmysore.fcmjava.responses.FcmResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+public class FcmResultTest {
+
+    @Test
+    public void exceptionsAreTurnedIntoResultsTest() {
+        FcmResult<String> success = FcmResult.of(CompletableFuture.completedFuture("response")).join();
+
+        Assert.assertTrue(success.isSuccess());
+        Assert.assertEquals("response", ((FcmResult.Success<String>) success).getResponse());
+
+        FcmResult<String> authenticationFailure = FcmResult.<String>of(CompletableFuture.failedFuture(new FcmAuthenticationException("Unauthorized"))).join();
+
+        Assert.assertEquals(FcmResult.AuthenticationFailure.class, authenticationFailure.getClass());
+        Assert.assertEquals(401, authenticationFailure.getHttpStatusCode());
+
+        FcmResult<String> badRequest = FcmResult.<String>of(CompletableFuture.failedFuture(new FcmBadRequestException("Bad request"))).join();
+
+        Assert.assertEquals(FcmResult.PermanentFailure.class, badRequest.getClass());
+        Assert.assertEquals(400, badRequest.getHttpStatusCode());
+
+        FcmResult<String> retryAfter = FcmResult.<String>of(CompletableFuture.failedFuture(new FcmRetryAfterException(503, "Retry later.", Duration.ofSeconds(30)))).join();
+
+        Assert.assertEquals(FcmResult.RetryableFailure.class, retryAfter.getClass());
+        Assert.assertEquals(503, retryAfter.getHttpStatusCode());
+        Assert.assertEquals(Duration.ofSeconds(30), ((FcmResult.RetryableFailure<String>) retryAfter).getRetryAfter());
+
+        FcmResult<String> serverError = FcmResult.<String>of(CompletableFuture.failedFuture(new FcmGeneralException(500, "Something went wrong."))).join();
+
+        Assert.assertEquals(FcmResult.RetryableFailure.class, serverError.getClass());
+        Assert.assertNull(((FcmResult.RetryableFailure<String>) serverError).getRetryAfter());
+        Assert.assertFalse(serverError.isSuccess());
+    }
+
+    @Test
+    public void unexpectedErrorsStillFailTest() {
+        IllegalStateException error = new IllegalStateException();
+
+        try {
+            FcmResult.<String>of(CompletableFuture.failedFuture(error)).join();
+            Assert.fail("Expected a CompletionException");
+        } catch (CompletionException e) {
+            Assert.assertSame(error, e.getCause());
+        }
+    }
+}